@@ -9,6 +9,8 @@
 
 package org.elasticsearch.benchmark.compute.operator;
 
+import org.apache.lucene.codecs.DocValuesFormat;
+import org.apache.lucene.codecs.lucene101.Lucene101Codec;
 import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
@@ -44,6 +46,7 @@ import org.elasticsearch.compute.operator.topn.TopNOperator;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.codec.tsdb.es819.ES819TSDBDocValuesFormat;
 import org.elasticsearch.index.mapper.BlockLoader;
 import org.elasticsearch.index.mapper.FieldNamesFieldMapper;
 import org.elasticsearch.index.mapper.KeywordFieldMapper;
@@ -323,6 +326,12 @@ public class ValuesSourceReaderBenchmark {
     @Param({ "long", "int", "double", "keyword", "stored_keyword", "3_stored_keywords" })
     public String name;
 
+    /**
+     * The doc values format, {@code tsdb} reads dense longs and ordinals in bulk.
+     */
+    @Param({ "lucene", "tsdb" })
+    public String docValuesFormat = "lucene";
+
     private Directory directory;
     private IndexReader reader;
     private List<Page> pages;
@@ -436,7 +445,17 @@ public class ValuesSourceReaderBenchmark {
         FieldType keywordFieldType = new FieldType(KeywordFieldMapper.Defaults.FIELD_TYPE);
         keywordFieldType.setStored(true);
         keywordFieldType.freeze();
-        try (IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+        IndexWriterConfig config = new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        if (docValuesFormat.equals("tsdb")) {
+            DocValuesFormat tsdbDocValuesFormat = new ES819TSDBDocValuesFormat();
+            config.setCodec(new Lucene101Codec() {
+                @Override
+                public DocValuesFormat getDocValuesFormatForField(String field) {
+                    return tsdbDocValuesFormat;
+                }
+            });
+        }
+        try (IndexWriter iw = new IndexWriter(directory, config)) {
             for (int i = 0; i < INDEX_SIZE; i++) {
                 String c = Character.toString('a' - ((i % 1000) % 26) + 26);
                 iw.addDocument(
@@ -0,0 +1,185 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.index.codec;
+
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares compression ratio and decompression throughput of small, repetitive log documents compressed in blocks with and without a
+ * zstd dictionary that was trained on a sample of the documents. The {@code compressedBytes} and {@code uncompressedBytes} counters give
+ * the compression ratio.
+ */
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ZstdDictionaryBenchmark {
+
+    private static final int NUM_DOCS = 100_000;
+    private static final int NUM_SAMPLES = 5_000;
+    private static final int DICTIONARY_SIZE = 16 * 1024;
+
+    @Param({ "14336", "245760" })
+    public int blockSize;
+
+    @Param({ "1", "3" })
+    public int level;
+
+    @Param({ "false", "true" })
+    public boolean useDictionary;
+
+    private NativeAccess nativeAccess;
+    private Zstd zstd;
+    private Zstd.DictionaryCompressor compressor;
+    private Zstd.DictionaryDecompressor decompressor;
+    private final List<CloseableByteBuffer> compressedBlocks = new ArrayList<>();
+    private CloseableByteBuffer decompressed;
+    private long compressedBytes;
+    private long uncompressedBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CompressionSizes {
+        public long compressedBytes;
+        public long uncompressedBytes;
+    }
+
+    @Setup
+    public void setup() {
+        nativeAccess = NativeAccess.instance();
+        zstd = nativeAccess.getZstd();
+        Random random = new Random(42);
+        List<byte[]> docs = new ArrayList<>(NUM_DOCS);
+        for (int i = 0; i < NUM_DOCS; i++) {
+            docs.add(logLine(random, i));
+        }
+
+        if (useDictionary) {
+            ByteArrayOutputStream samples = new ByteArrayOutputStream();
+            int[] sampleSizes = new int[NUM_SAMPLES];
+            for (int i = 0; i < NUM_SAMPLES; i++) {
+                byte[] sample = docs.get(random.nextInt(NUM_DOCS));
+                sampleSizes[i] = sample.length;
+                samples.writeBytes(sample);
+            }
+            try (
+                CloseableByteBuffer samplesBuffer = nativeAccess.newBuffer(samples.size());
+                CloseableByteBuffer dictionary = nativeAccess.newBuffer(DICTIONARY_SIZE)
+            ) {
+                samplesBuffer.buffer().put(0, samples.toByteArray());
+                dictionary.buffer().limit(zstd.trainDictionary(dictionary, samplesBuffer, sampleSizes));
+                // the dictionary is digested once, like a stored fields reader or writer would per segment
+                compressor = zstd.newDictionaryCompressor(dictionary, level);
+                decompressor = zstd.newDictionaryDecompressor(dictionary);
+            }
+        }
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        for (byte[] doc : docs) {
+            block.writeBytes(doc);
+            if (block.size() >= blockSize) {
+                compressBlock(block.toByteArray());
+                block.reset();
+            }
+        }
+        if (block.size() > 0) {
+            compressBlock(block.toByteArray());
+        }
+        decompressed = nativeAccess.newBuffer(blockSize + 1024);
+    }
+
+    private void compressBlock(byte[] block) {
+        try (CloseableByteBuffer src = nativeAccess.newBuffer(block.length)) {
+            src.buffer().put(0, block);
+            CloseableByteBuffer dest = nativeAccess.newBuffer(zstd.compressBound(block.length));
+            int compressedLength = useDictionary ? compressor.compress(dest, src) : zstd.compress(dest, src, level);
+            dest.buffer().limit(compressedLength);
+            compressedBlocks.add(dest);
+            compressedBytes += compressedLength;
+            uncompressedBytes += block.length;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        compressedBlocks.forEach(CloseableByteBuffer::close);
+        compressedBlocks.clear();
+        decompressed.close();
+        if (compressor != null) {
+            compressor.close();
+            decompressor.close();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSizes(CompressionSizes sizes) {
+        sizes.compressedBytes = 0;
+        sizes.uncompressedBytes = 0;
+    }
+
+    @Benchmark
+    public long decompressAllBlocks(CompressionSizes sizes) {
+        long total = 0;
+        for (CloseableByteBuffer block : compressedBlocks) {
+            total += useDictionary ? decompressor.decompress(decompressed, block) : zstd.decompress(decompressed, block);
+        }
+        sizes.compressedBytes += compressedBytes;
+        sizes.uncompressedBytes += uncompressedBytes;
+        return total;
+    }
+
+    private static byte[] logLine(Random random, int i) {
+        String[] levels = { "info", "info", "info", "warn", "error" };
+        String[] paths = { "/api/v1/cart/items", "/api/v1/checkout", "/api/v1/users/me", "/health", "/api/v1/search" };
+        return String.format(
+            Locale.ROOT,
+            "{\"@timestamp\":\"2024-06-01T%02d:%02d:%02d.%03dZ\",\"host.name\":\"host-%04d\",\"service.name\":\"checkout\","
+                + "\"log.level\":\"%s\",\"http.response.status_code\":%d,\"url.path\":\"%s\",\"event.duration\":%d,"
+                + "\"message\":\"served request for %s in %dms\"}",
+            (i / 3_600_000) % 24,
+            (i / 60_000) % 60,
+            (i / 1_000) % 60,
+            i % 1_000,
+            random.nextInt(50),
+            levels[random.nextInt(levels.length)],
+            random.nextInt(10) == 0 ? 500 : 200,
+            paths[random.nextInt(paths.length)],
+            random.nextInt(5_000_000),
+            paths[random.nextInt(paths.length)],
+            random.nextInt(5_000)
+        ).getBytes(StandardCharsets.UTF_8);
+    }
+}
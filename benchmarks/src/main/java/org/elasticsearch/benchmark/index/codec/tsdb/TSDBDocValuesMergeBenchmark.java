@@ -247,7 +247,7 @@ public class TSDBDocValuesMergeBenchmark {
         }
     }
 
-    private static IndexWriterConfig createIndexWriterConfig(boolean optimizedMergeEnabled) {
+    static IndexWriterConfig createIndexWriterConfig(boolean optimizedMergeEnabled) {
         var config = new IndexWriterConfig(new StandardAnalyzer());
         // NOTE: index sort config matching LogsDB's sort order
         config.setIndexSort(
@@ -0,0 +1,112 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.index.codec.tsdb;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.elasticsearch.common.logging.LogConfigurator;
+import org.elasticsearch.core.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads metric fields of a synthetic time series segment with several doc values instances per field in lockstep, the way several
+ * aggregations over the same fields do, to measure how much decoding of numeric blocks is shared between them.
+ */
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TSDBDocValuesReadBenchmark {
+
+    static {
+        // For Elasticsearch900Lucene101Codec:
+        LogConfigurator.loadLog4jPlugins();
+        LogConfigurator.configureESLogging();
+        LogConfigurator.setNodeName("test");
+    }
+
+    private static final String[] FIELDS = { "counter_1", "gauge_1" };
+
+    @Param("1000000")
+    private int nDocs;
+
+    @Param({ "1", "3" })
+    private int readersPerField;
+
+    @Param({ "false", "true" })
+    private boolean sparse;
+
+    private Directory directory;
+    private DirectoryReader reader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = FSDirectory.open(Files.createTempDirectory("tsdb-read-"));
+        TSDBDocValuesMergeBenchmark.createIndex(
+            directory,
+            TSDBDocValuesMergeBenchmark.createIndexWriterConfig(true),
+            sparse,
+            nDocs,
+            1000,
+            42
+        );
+        try (var indexWriter = new IndexWriter(directory, TSDBDocValuesMergeBenchmark.createIndexWriterConfig(true))) {
+            indexWriter.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        IOUtils.close(reader, directory);
+    }
+
+    @Benchmark
+    public long readFields() throws IOException {
+        long sum = 0;
+        LeafReader leaf = reader.leaves().get(0).reader();
+        SortedNumericDocValues[] docValues = new SortedNumericDocValues[FIELDS.length * readersPerField];
+        for (int f = 0; f < FIELDS.length; f++) {
+            for (int r = 0; r < readersPerField; r++) {
+                docValues[f * readersPerField + r] = leaf.getSortedNumericDocValues(FIELDS[f]);
+            }
+        }
+        for (int doc = 0; doc < leaf.maxDoc(); doc++) {
+            for (SortedNumericDocValues dv : docValues) {
+                if (dv.advanceExact(doc)) {
+                    sum += dv.nextValue();
+                }
+            }
+        }
+        return sum;
+    }
+}
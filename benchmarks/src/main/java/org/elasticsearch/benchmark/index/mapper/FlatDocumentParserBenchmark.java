@@ -0,0 +1,111 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.index.mapper;
+
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.index.mapper.LuceneDocument;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.SourceToParse;
+import org.elasticsearch.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses flat log lines against a static mapping, which is the common case that {@code DocumentParser} optimizes for.
+ */
+@Fork(value = 1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class FlatDocumentParserBenchmark {
+
+    private MapperService mapperService;
+
+    private SourceToParse sourceToParse;
+
+    @Setup
+    public void setUp() {
+        this.mapperService = MapperServiceFactory.create("""
+            {
+              "_doc": {
+                "dynamic": "strict",
+                "properties": {
+                  "@timestamp": {
+                    "type": "date"
+                  },
+                  "host.name": {
+                    "type": "keyword"
+                  },
+                  "service.name": {
+                    "type": "keyword"
+                  },
+                  "log.level": {
+                    "type": "keyword"
+                  },
+                  "http.request.method": {
+                    "type": "keyword"
+                  },
+                  "http.response.status_code": {
+                    "type": "integer"
+                  },
+                  "http.response.bytes": {
+                    "type": "long"
+                  },
+                  "url.path": {
+                    "type": "keyword"
+                  },
+                  "client.ip": {
+                    "type": "ip"
+                  },
+                  "event.duration": {
+                    "type": "long"
+                  },
+                  "message": {
+                    "type": "text"
+                  }
+                }
+              }
+            }
+            """);
+        this.sourceToParse = new SourceToParse(UUIDs.randomBase64UUID(), new BytesArray("""
+            {
+              "@timestamp": "2024-06-01T12:34:56.789Z",
+              "host.name": "host-0042",
+              "service.name": "checkout",
+              "log.level": "info",
+              "http.request.method": "GET",
+              "http.response.status_code": 200,
+              "http.response.bytes": 5124,
+              "url.path": "/api/v1/cart/items",
+              "client.ip": "10.12.42.7",
+              "event.duration": 1834000,
+              "message": "served request for /api/v1/cart/items in 1.834ms"
+            }"""), XContentType.JSON);
+    }
+
+    @Benchmark
+    public List<LuceneDocument> benchmarkParseFlatDocument() {
+        return mapperService.documentMapper().parse(sourceToParse).docs();
+    }
+}
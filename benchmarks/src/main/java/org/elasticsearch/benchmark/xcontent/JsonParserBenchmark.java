@@ -0,0 +1,134 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.xcontent;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+import org.elasticsearch.xcontent.json.JsonXContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing JSON token by token with Jackson to parsing it from a structural index of the whole content.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonParserBenchmark {
+
+    @Param({ "log", "node_stats", "cluster_stats" })
+    private String type;
+
+    @Param({ "false", "true" })
+    private boolean tapeParser;
+
+    private XContentParserConfiguration config;
+
+    private byte[][] documents;
+
+    @Setup
+    public void setup() throws IOException {
+        config = XContentParserConfiguration.EMPTY.withJsonTapeParser(tapeParser ? Integer.MAX_VALUE : 0);
+        documents = switch (type) {
+            case "log" -> logDocuments(1000);
+            case "node_stats" -> new byte[][] { readSource("monitor_node_stats.json") };
+            case "cluster_stats" -> new byte[][] { readSource("monitor_cluster_stats.json") };
+            default -> throw new IllegalArgumentException("Unknown type [" + type + "]");
+        };
+    }
+
+    @Benchmark
+    public void tokens(Blackhole bh) throws IOException {
+        for (byte[] document : documents) {
+            try (XContentParser parser = JsonXContent.jsonXContent.createParser(config, document)) {
+                XContentParser.Token token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == XContentParser.Token.FIELD_NAME) {
+                        bh.consume(parser.currentName());
+                    } else if (token == XContentParser.Token.VALUE_STRING) {
+                        bh.consume(parser.text());
+                    } else if (token == XContentParser.Token.VALUE_NUMBER) {
+                        bh.consume(parser.numberValue());
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) throws IOException {
+        for (byte[] document : documents) {
+            try (XContentParser parser = JsonXContent.jsonXContent.createParser(config, document)) {
+                Map<String, Object> map = parser.map();
+                bh.consume(map);
+            }
+        }
+    }
+
+    private static byte[] readSource(String fileName) throws IOException {
+        return BytesReference.toBytes(Streams.readFully(JsonParserBenchmark.class.getResourceAsStream(fileName)));
+    }
+
+    /**
+     * Documents that look like the documents of a bulk request of logs.
+     */
+    private static byte[][] logDocuments(int count) throws IOException {
+        final Random random = new Random(42);
+        final String[] levels = { "DEBUG", "INFO", "WARN", "ERROR" };
+        final byte[][] documents = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            try (XContentBuilder builder = JsonXContent.contentBuilder()) {
+                builder.startObject();
+                builder.field("@timestamp", "2024-05-" + (10 + random.nextInt(20)) + "T12:" + (10 + random.nextInt(50)) + ":00.000Z");
+                builder.field("message", "GET /api/v1/items/" + random.nextInt(100_000) + " HTTP/1.1 \"Mozilla/5.0\" " + random.nextInt());
+                builder.startObject("log").field("level", levels[random.nextInt(levels.length)]).field("logger", "http.access").endObject();
+                builder.startObject("host")
+                    .field("name", "host-" + random.nextInt(50))
+                    .array("ip", "10.0.0." + random.nextInt(255), "10.1.0." + random.nextInt(255))
+                    .endObject();
+                builder.startObject("http")
+                    .field("status", 200 + random.nextInt(4) * 100)
+                    .field("bytes", random.nextLong() & 0xFFFFFFL)
+                    .field("duration", random.nextDouble() * 1000)
+                    .field("cached", random.nextBoolean())
+                    .endObject();
+                builder.startArray("tags");
+                for (int t = random.nextInt(4); t >= 0; t--) {
+                    builder.value("tag-" + random.nextInt(10));
+                }
+                builder.endArray();
+                builder.endObject();
+                documents[i] = BytesReference.toBytes(BytesReference.bytes(builder));
+            }
+        }
+        return documents;
+    }
+}
@@ -15,11 +15,16 @@ import org.elasticsearch.nativeaccess.lib.LinuxCLibrary.SockFilter;
 import org.elasticsearch.nativeaccess.lib.NativeLibraryProvider;
 import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 class LinuxNativeAccess extends PosixNativeAccess {
 
     private static final int STATX_BLOCKS = 0x400; /* Want/got stx_blocks */
+    private static final int O_EXCL = 0x80; // 0200 in octal, the same on all supported architectures
+    private static final long FICLONE = 0x40049409L; // _IOW(0x94, 9, int), since Linux 4.5
 
     /** the preferred method is seccomp(2), since we can apply to all threads of the process */
     static final int SECCOMP_SET_MODE_FILTER = 1;   // since Linux 3.17
@@ -140,6 +145,46 @@ class LinuxNativeAccess extends PosixNativeAccess {
         return true;
     }
 
+    @Override
+    public boolean tryCloneFile(Path source, Path target) {
+        int sourceFd = libc.open(source.toAbsolutePath().toString(), O_RDONLY);
+        if (sourceFd == -1) {
+            logger.debug("Could not open file [{}] to clone it: {}", source, libc.strerror(libc.errno()));
+            return false;
+        }
+        boolean cloned = false;
+        try {
+            int targetFd = libc.open(target.toAbsolutePath().toString(), O_WRONLY | constants.O_CREAT() | O_EXCL, 0666);
+            if (targetFd == -1) {
+                logger.debug("Could not create file [{}] to clone [{}] into it: {}", target, source, libc.strerror(libc.errno()));
+                return false;
+            }
+            try {
+                // fails with EOPNOTSUPP or EXDEV if the filesystem does not support sharing blocks between these files
+                cloned = linuxLibc.ioctl(targetFd, FICLONE, sourceFd) == 0;
+                if (cloned == false) {
+                    logger.debug("Could not clone file [{}] into [{}]: {}", source, target, libc.strerror(libc.errno()));
+                }
+            } finally {
+                if (libc.close(targetFd) != 0) {
+                    logger.warn("Could not close file [" + target + "] after cloning: " + libc.strerror(libc.errno()));
+                }
+                if (cloned == false) {
+                    try {
+                        Files.deleteIfExists(target);
+                    } catch (IOException e) {
+                        logger.warn("Could not delete file [" + target + "] after failing to clone it", e);
+                    }
+                }
+            }
+        } finally {
+            if (libc.close(sourceFd) != 0) {
+                logger.warn("Could not close file [" + source + "] after cloning: " + libc.strerror(libc.errno()));
+            }
+        }
+        return cloned;
+    }
+
     /**
      * Installs exec system call filtering for Linux.
      * <p>
@@ -11,6 +11,7 @@ package org.elasticsearch.nativeaccess;
 
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 
 /**
@@ -75,6 +76,33 @@ public interface NativeAccess {
 
     void tryPreallocate(Path file, long size);
 
+    /**
+     * Advises the operating system that the given file will be read soon, so that it reads the file into the page cache
+     * in the background.
+     *
+     * @param path the path to the file
+     * @return true if the advice was given, false if it is not supported or failed
+     */
+    boolean tryAdviseWillNeed(Path path);
+
+    /**
+     * Retrieves the fraction of a file that is resident in the page cache.
+     *
+     * @param path the path to the file
+     * @return an {@link OptionalDouble} that contains the resident fraction of the file, between 0 and 1, or empty if it is unknown
+     */
+    OptionalDouble pageCacheResidency(Path path);
+
+    /**
+     * Creates the target file as a copy-on-write clone of the source file, sharing its data blocks, if the filesystem
+     * supports it. The target file must not exist, and is left absent if cloning fails.
+     *
+     * @param source the path to the file to clone
+     * @param target the path to the clone to create, on the same filesystem as the source file
+     * @return true if the file was cloned, false if cloning is not supported or failed
+     */
+    boolean tryCloneFile(Path source, Path target);
+
     /**
      * Returns an accessor for native functions only available on Windows, or {@code null} if not on Windows.
      */
@@ -14,6 +14,7 @@ import org.elasticsearch.logging.Logger;
 
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 
 class NoopNativeAccess implements NativeAccess {
@@ -65,6 +66,23 @@ class NoopNativeAccess implements NativeAccess {
         logger.warn("Cannot preallocate file size because native access is not available");
     }
 
+    @Override
+    public boolean tryAdviseWillNeed(Path path) {
+        // not logged, this is called for many files and is only a performance hint
+        return false;
+    }
+
+    @Override
+    public OptionalDouble pageCacheResidency(Path path) {
+        return OptionalDouble.empty();
+    }
+
+    @Override
+    public boolean tryCloneFile(Path source, Path target) {
+        // not logged, callers fall back to copying the file
+        return false;
+    }
+
     @Override
     public Systemd systemd() {
         logger.warn("Cannot get systemd access because native access is not available");
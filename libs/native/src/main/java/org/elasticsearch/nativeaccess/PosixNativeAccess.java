@@ -17,7 +17,9 @@ import org.elasticsearch.nativeaccess.lib.VectorLibrary;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
+import java.util.function.LongBinaryOperator;
 
 abstract class PosixNativeAccess extends AbstractNativeAccess {
 
@@ -25,6 +27,10 @@ abstract class PosixNativeAccess extends AbstractNativeAccess {
     public static final int ENOMEM = 12;
     public static final int O_RDONLY = 0;
     public static final int O_WRONLY = 1;
+    public static final int PROT_READ = 1;
+    public static final int MAP_SHARED = 1;
+    public static final long MAP_FAILED = -1L;
+    public static final int MADV_WILLNEED = 3;
 
     protected final PosixCLibrary libc;
     protected final VectorSimilarityFunctions vectorDistance;
@@ -186,6 +192,89 @@ abstract class PosixNativeAccess extends AbstractNativeAccess {
 
     protected abstract boolean nativePreallocate(int fd, long currentSize, long newSize);
 
+    @Override
+    public boolean tryAdviseWillNeed(Path path) {
+        // the advice triggers asynchronous read-ahead of the file into the page cache, which outlives the mapping
+        return withReadOnlyMapping(path, "advise read-ahead of", (addr, length) -> libc.madvise(addr, length, MADV_WILLNEED)) == 0;
+    }
+
+    @Override
+    public OptionalDouble pageCacheResidency(Path path) {
+        final int pageSize = libc.getpagesize();
+        final long[] residentPages = new long[1];
+        final long[] totalPages = new long[1];
+        long result = withReadOnlyMapping(path, "get page cache residency of", (addr, length) -> {
+            long pages = (length + pageSize - 1) / pageSize;
+            if (pages > Integer.MAX_VALUE) {
+                return -1;
+            }
+            try (CloseableByteBuffer vec = newBuffer((int) pages)) {
+                if (libc.mincore(addr, length, vec) != 0) {
+                    return -1;
+                }
+                var buffer = vec.buffer();
+                for (int i = 0; i < pages; i++) {
+                    residentPages[0] += buffer.get(i) & 1;
+                }
+                totalPages[0] = pages;
+                return 0;
+            }
+        });
+        if (result != 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(totalPages[0] == 0 ? 1.0 : (double) residentPages[0] / totalPages[0]);
+    }
+
+    @Override
+    public boolean tryCloneFile(Path source, Path target) {
+        // only implemented on Linux, see LinuxNativeAccess
+        return false;
+    }
+
+    /**
+     * Maps the given file read-only, applies the given function to the address and length of the mapping, then unmaps it.
+     * Returns the result of the function, or -1 if the file could not be mapped. Empty files are not mapped, and return 0.
+     */
+    private long withReadOnlyMapping(Path path, String action, LongBinaryOperator function) {
+        int fd = libc.open(path.toAbsolutePath().toString(), O_RDONLY);
+        if (fd == -1) {
+            logger.debug("Could not open file [{}] to {} it: {}", path, action, libc.strerror(libc.errno()));
+            return -1;
+        }
+        try {
+            var stats = libc.newStat64(constants.statStructSize(), constants.statStructSizeOffset(), constants.statStructBlocksOffset());
+            if (libc.fstat64(fd, stats) != 0) {
+                logger.debug("Could not get stats for file [{}] to {} it: {}", path, action, libc.strerror(libc.errno()));
+                return -1;
+            }
+            long length = stats.st_size();
+            if (length == 0) {
+                return 0;
+            }
+            long addr = libc.mmap(0L, length, PROT_READ, MAP_SHARED, fd, 0L);
+            if (addr == MAP_FAILED) {
+                logger.debug("Could not map file [{}] to {} it: {}", path, action, libc.strerror(libc.errno()));
+                return -1;
+            }
+            try {
+                long result = function.applyAsLong(addr, length);
+                if (result != 0) {
+                    logger.debug("Could not {} file [{}]: {}", action, path, libc.strerror(libc.errno()));
+                }
+                return result;
+            } finally {
+                if (libc.munmap(addr, length) != 0) {
+                    logger.warn("Could not unmap file [" + path + "]: " + libc.strerror(libc.errno()));
+                }
+            }
+        } finally {
+            if (libc.close(fd) != 0) {
+                logger.warn("Could not close file [" + path + "]: " + libc.strerror(libc.errno()));
+            }
+        }
+    }
+
     @Override
     public Optional<VectorSimilarityFunctions> getVectorSimilarityFunctions() {
         return Optional.ofNullable(vectorDistance);
@@ -16,6 +16,7 @@ import org.elasticsearch.nativeaccess.lib.NativeLibraryProvider;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -157,6 +158,23 @@ class WindowsNativeAccess extends AbstractNativeAccess {
         logger.warn("Cannot preallocate file size because operation is not available on Windows");
     }
 
+    @Override
+    public boolean tryAdviseWillNeed(Path path) {
+        // not available on Windows, and only a performance hint
+        return false;
+    }
+
+    @Override
+    public OptionalDouble pageCacheResidency(Path path) {
+        return OptionalDouble.empty();
+    }
+
+    @Override
+    public boolean tryCloneFile(Path source, Path target) {
+        // block cloning is only implemented on Linux, callers fall back to copying the file
+        return false;
+    }
+
     @Override
     public ProcessLimits getProcessLimits() {
         return new ProcessLimits(ProcessLimits.UNKNOWN, ProcessLimits.UNKNOWN, ProcessLimits.UNKNOWN);
@@ -54,6 +54,59 @@ public final class Zstd {
         return (int) ret;
     }
 
+    /**
+     * Digest the dictionary held by {@code dict} for compression at level {@code level}. The dictionary may either be trained with
+     * {@link #trainDictionary} or be raw content that is representative of the data to compress. The returned compressor compresses any
+     * number of inputs without digesting the dictionary again, but it is not thread-safe, and it must be closed to release its native
+     * memory. The dictionary is copied, so {@code dict} may be closed once this method returns.
+     */
+    public DictionaryCompressor newDictionaryCompressor(CloseableByteBuffer dict, int level) {
+        Objects.requireNonNull(dict, "Null dictionary buffer");
+        return new DictionaryCompressor(dict, level);
+    }
+
+    /**
+     * Digest the dictionary held by {@code dict} for decompression. The returned decompressor decompresses any number of inputs that were
+     * compressed with the same dictionary, but it is not thread-safe, and it must be closed to release its native memory. The dictionary
+     * is copied, so {@code dict} may be closed once this method returns.
+     */
+    public DictionaryDecompressor newDictionaryDecompressor(CloseableByteBuffer dict) {
+        Objects.requireNonNull(dict, "Null dictionary buffer");
+        return new DictionaryDecompressor(dict);
+    }
+
+    /**
+     * Train a dictionary of at most {@code dict.remaining()} bytes into {@code dict} from the samples that are concatenated in
+     * {@code samples}, and return the size of the dictionary. {@code sampleSizes} gives the length of each sample, in order. Training
+     * needs a few thousand samples to be effective and fails if there are not enough of them.
+     * {@link ByteBuffer#position()} and {@link ByteBuffer#limit()} of both {@link ByteBuffer}s are left unmodified.
+     */
+    public int trainDictionary(CloseableByteBuffer dict, CloseableByteBuffer samples, int[] sampleSizes) {
+        Objects.requireNonNull(dict, "Null dictionary buffer");
+        Objects.requireNonNull(samples, "Null samples buffer");
+        long total = 0;
+        long[] sizes = new long[sampleSizes.length];
+        for (int i = 0; i < sampleSizes.length; i++) {
+            if (sampleSizes[i] < 0) {
+                throw new IllegalArgumentException("Negative sample size [" + sampleSizes[i] + "]");
+            }
+            sizes[i] = sampleSizes[i];
+            total += sampleSizes[i];
+        }
+        if (total > samples.buffer().remaining()) {
+            throw new IllegalArgumentException(
+                "Sample sizes add up to [" + total + "] bytes but only [" + samples.buffer().remaining() + "] bytes are available"
+            );
+        }
+        long ret = zstdLib.trainFromBuffer(dict, samples, sizes);
+        if (zstdLib.isDictError(ret)) {
+            throw new IllegalArgumentException("Failed to train dictionary on [" + sampleSizes.length + "] samples");
+        } else if (ret < 0 || ret > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Integer overflow? ret=" + ret);
+        }
+        return (int) ret;
+    }
+
     /**
      * Return the maximum number of compressed bytes given an input length.
      */
@@ -71,4 +124,102 @@ public final class Zstd {
         }
         return (int) ret;
     }
+
+    /**
+     * Compresses inputs with a digested dictionary, see {@link #newDictionaryCompressor}.
+     */
+    public final class DictionaryCompressor implements AutoCloseable {
+        private final ZstdLibrary.CDict cdict;
+        private final ZstdLibrary.CCtx cctx;
+        private boolean closed;
+
+        private DictionaryCompressor(CloseableByteBuffer dict, int level) {
+            cdict = zstdLib.createCDict(dict, level);
+            if (cdict == null) {
+                throw new OutOfMemoryError("Failed to allocate a zstd compression dictionary");
+            }
+            cctx = zstdLib.createCCtx();
+            if (cctx == null) {
+                zstdLib.freeCDict(cdict);
+                throw new OutOfMemoryError("Failed to allocate a zstd compression context");
+            }
+        }
+
+        /**
+         * Compress the content of {@code src} into {@code dst}, and return the number of compressed bytes.
+         * {@link ByteBuffer#position()} and {@link ByteBuffer#limit()} of both {@link ByteBuffer}s are left unmodified.
+         */
+        public int compress(CloseableByteBuffer dst, CloseableByteBuffer src) {
+            Objects.requireNonNull(dst, "Null destination buffer");
+            Objects.requireNonNull(src, "Null source buffer");
+            if (closed) {
+                throw new IllegalStateException("Compressor is closed");
+            }
+            long ret = zstdLib.compressUsingCDict(cctx, dst, src, cdict);
+            if (zstdLib.isError(ret)) {
+                throw new IllegalArgumentException(zstdLib.getErrorName(ret));
+            } else if (ret < 0 || ret > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Integer overflow? ret=" + ret);
+            }
+            return (int) ret;
+        }
+
+        @Override
+        public void close() {
+            if (closed == false) {
+                closed = true;
+                zstdLib.freeCCtx(cctx);
+                zstdLib.freeCDict(cdict);
+            }
+        }
+    }
+
+    /**
+     * Decompresses inputs with a digested dictionary, see {@link #newDictionaryDecompressor}.
+     */
+    public final class DictionaryDecompressor implements AutoCloseable {
+        private final ZstdLibrary.DDict ddict;
+        private final ZstdLibrary.DCtx dctx;
+        private boolean closed;
+
+        private DictionaryDecompressor(CloseableByteBuffer dict) {
+            ddict = zstdLib.createDDict(dict);
+            if (ddict == null) {
+                throw new OutOfMemoryError("Failed to allocate a zstd decompression dictionary");
+            }
+            dctx = zstdLib.createDCtx();
+            if (dctx == null) {
+                zstdLib.freeDDict(ddict);
+                throw new OutOfMemoryError("Failed to allocate a zstd decompression context");
+            }
+        }
+
+        /**
+         * Decompress the content of {@code src} into {@code dst}, and return the number of decompressed bytes.
+         * {@link ByteBuffer#position()} and {@link ByteBuffer#limit()} of both {@link ByteBuffer}s are left unmodified.
+         */
+        public int decompress(CloseableByteBuffer dst, CloseableByteBuffer src) {
+            Objects.requireNonNull(dst, "Null destination buffer");
+            Objects.requireNonNull(src, "Null source buffer");
+            if (closed) {
+                throw new IllegalStateException("Decompressor is closed");
+            }
+            long ret = zstdLib.decompressUsingDDict(dctx, dst, src, ddict);
+            if (zstdLib.isError(ret)) {
+                throw new IllegalArgumentException(zstdLib.getErrorName(ret));
+            } else if (ret < 0 || ret > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Integer overflow? ret=" + ret);
+            }
+            return (int) ret;
+        }
+
+        @Override
+        public void close() {
+            if (closed == false) {
+                closed = true;
+                zstdLib.freeDCtx(dctx);
+                zstdLib.freeDDict(ddict);
+            }
+        }
+    }
 }
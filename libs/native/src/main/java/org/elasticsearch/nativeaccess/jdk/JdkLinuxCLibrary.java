@@ -54,6 +54,12 @@ class JdkLinuxCLibrary implements LinuxCLibrary {
         "fallocate",
         FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT, JAVA_LONG, JAVA_LONG)
     );
+    private static final MethodHandle ioctl$mh = downcallHandle(
+        "ioctl",
+        FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_LONG, JAVA_INT),
+        CAPTURE_ERRNO_OPTION,
+        Linker.Option.firstVariadicArg(2)
+    );
 
     private static class JdkSockFProg implements SockFProg {
         private static final MemoryLayout layout = MemoryLayout.structLayout(JAVA_SHORT, paddingLayout(6), ADDRESS);
@@ -114,4 +120,13 @@ class JdkLinuxCLibrary implements LinuxCLibrary {
             throw new AssertionError(t);
         }
     }
+
+    @Override
+    public int ioctl(int fd, long request, int arg) {
+        try {
+            return (int) ioctl$mh.invokeExact(errnoState, fd, request, arg);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
 }
@@ -93,6 +93,20 @@ class JdkPosixCLibrary implements PosixCLibrary {
         }
         fstat$mh = fstat;
     }
+    private static final MethodHandle mmap$mh = downcallHandleWithErrno(
+        "mmap",
+        FunctionDescriptor.of(ADDRESS, JAVA_LONG, JAVA_LONG, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_LONG)
+    );
+    private static final MethodHandle munmap$mh = downcallHandleWithErrno("munmap", FunctionDescriptor.of(JAVA_INT, JAVA_LONG, JAVA_LONG));
+    private static final MethodHandle madvise$mh = downcallHandleWithErrno(
+        "madvise",
+        FunctionDescriptor.of(JAVA_INT, JAVA_LONG, JAVA_LONG, JAVA_INT)
+    );
+    private static final MethodHandle mincore$mh = downcallHandleWithErrno(
+        "mincore",
+        FunctionDescriptor.of(JAVA_INT, JAVA_LONG, JAVA_LONG, ADDRESS)
+    );
+    private static final MethodHandle getpagesize$mh = downcallHandle("getpagesize", FunctionDescriptor.of(JAVA_INT));
     private static final MethodHandle socket$mh = downcallHandleWithErrno(
         "socket",
         FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT)
@@ -242,6 +256,53 @@ class JdkPosixCLibrary implements PosixCLibrary {
         }
     }
 
+    @Override
+    public long mmap(long addr, long length, int prot, int flags, int fd, long offset) {
+        try {
+            return ((MemorySegment) mmap$mh.invokeExact(errnoState, addr, length, prot, flags, fd, offset)).address();
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public int munmap(long addr, long length) {
+        try {
+            return (int) munmap$mh.invokeExact(errnoState, addr, length);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public int madvise(long addr, long length, int advice) {
+        try {
+            return (int) madvise$mh.invokeExact(errnoState, addr, length, advice);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public int mincore(long addr, long length, CloseableByteBuffer vec) {
+        assert vec instanceof JdkCloseableByteBuffer;
+        var nativeVec = (JdkCloseableByteBuffer) vec;
+        try {
+            return (int) mincore$mh.invokeExact(errnoState, addr, length, nativeVec.segment);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public int getpagesize() {
+        try {
+            return (int) getpagesize$mh.invokeExact();
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
     @Override
     public int socket(int domain, int type, int protocol) {
         try {
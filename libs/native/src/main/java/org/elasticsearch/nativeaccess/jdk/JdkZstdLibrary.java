@@ -13,6 +13,7 @@ import org.elasticsearch.nativeaccess.CloseableByteBuffer;
 import org.elasticsearch.nativeaccess.lib.LoaderHelper;
 import org.elasticsearch.nativeaccess.lib.ZstdLibrary;
 
+import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
@@ -41,6 +42,34 @@ class JdkZstdLibrary implements ZstdLibrary {
         FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT)
     );
 
+    private static final MethodHandle createCCtx$mh = downcallHandle("ZSTD_createCCtx", FunctionDescriptor.of(ADDRESS));
+    private static final MethodHandle freeCCtx$mh = downcallHandle("ZSTD_freeCCtx", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle createDCtx$mh = downcallHandle("ZSTD_createDCtx", FunctionDescriptor.of(ADDRESS));
+    private static final MethodHandle freeDCtx$mh = downcallHandle("ZSTD_freeDCtx", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle createCDict$mh = downcallHandle(
+        "ZSTD_createCDict",
+        FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG, JAVA_INT)
+    );
+    private static final MethodHandle freeCDict$mh = downcallHandle("ZSTD_freeCDict", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle createDDict$mh = downcallHandle(
+        "ZSTD_createDDict",
+        FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG)
+    );
+    private static final MethodHandle freeDDict$mh = downcallHandle("ZSTD_freeDDict", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle compressUsingCDict$mh = downcallHandle(
+        "ZSTD_compress_usingCDict",
+        FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, JAVA_LONG, ADDRESS, JAVA_LONG, ADDRESS)
+    );
+    private static final MethodHandle decompressUsingDDict$mh = downcallHandle(
+        "ZSTD_decompress_usingDDict",
+        FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, JAVA_LONG, ADDRESS, JAVA_LONG, ADDRESS)
+    );
+    private static final MethodHandle trainFromBuffer$mh = downcallHandle(
+        "ZDICT_trainFromBuffer",
+        FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_LONG, ADDRESS, ADDRESS, JAVA_INT)
+    );
+    private static final MethodHandle isDictError$mh = downcallHandle("ZDICT_isError", FunctionDescriptor.of(JAVA_INT, JAVA_LONG));
+
     @Override
     public long compressBound(int srcLen) {
         try {
@@ -102,4 +131,168 @@ class JdkZstdLibrary implements ZstdLibrary {
             throw new AssertionError(t);
         }
     }
+
+    record JdkCCtx(MemorySegment address) implements CCtx {}
+
+    record JdkDCtx(MemorySegment address) implements DCtx {}
+
+    record JdkCDict(MemorySegment address) implements CDict {}
+
+    record JdkDDict(MemorySegment address) implements DDict {}
+
+    @Override
+    public CCtx createCCtx() {
+        try {
+            MemorySegment cctx = (MemorySegment) createCCtx$mh.invokeExact();
+            return cctx.address() == 0 ? null : new JdkCCtx(cctx);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public void freeCCtx(CCtx cctx) {
+        assert cctx instanceof JdkCCtx;
+        try {
+            long ignored = (long) freeCCtx$mh.invokeExact(((JdkCCtx) cctx).address());
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public DCtx createDCtx() {
+        try {
+            MemorySegment dctx = (MemorySegment) createDCtx$mh.invokeExact();
+            return dctx.address() == 0 ? null : new JdkDCtx(dctx);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public void freeDCtx(DCtx dctx) {
+        assert dctx instanceof JdkDCtx;
+        try {
+            long ignored = (long) freeDCtx$mh.invokeExact(((JdkDCtx) dctx).address());
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public CDict createCDict(CloseableByteBuffer dict, int compressionLevel) {
+        var segmentDict = slice(dict);
+        try {
+            MemorySegment cdict = (MemorySegment) createCDict$mh.invokeExact(segmentDict, segmentDict.byteSize(), compressionLevel);
+            return cdict.address() == 0 ? null : new JdkCDict(cdict);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public void freeCDict(CDict cdict) {
+        assert cdict instanceof JdkCDict;
+        try {
+            long ignored = (long) freeCDict$mh.invokeExact(((JdkCDict) cdict).address());
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public DDict createDDict(CloseableByteBuffer dict) {
+        var segmentDict = slice(dict);
+        try {
+            MemorySegment ddict = (MemorySegment) createDDict$mh.invokeExact(segmentDict, segmentDict.byteSize());
+            return ddict.address() == 0 ? null : new JdkDDict(ddict);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public void freeDDict(DDict ddict) {
+        assert ddict instanceof JdkDDict;
+        try {
+            long ignored = (long) freeDDict$mh.invokeExact(((JdkDDict) ddict).address());
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public long compressUsingCDict(CCtx cctx, CloseableByteBuffer dst, CloseableByteBuffer src, CDict cdict) {
+        assert cctx instanceof JdkCCtx;
+        assert cdict instanceof JdkCDict;
+        var segmentDst = slice(dst);
+        var segmentSrc = slice(src);
+        try {
+            return (long) compressUsingCDict$mh.invokeExact(
+                ((JdkCCtx) cctx).address(),
+                segmentDst,
+                segmentDst.byteSize(),
+                segmentSrc,
+                segmentSrc.byteSize(),
+                ((JdkCDict) cdict).address()
+            );
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public long decompressUsingDDict(DCtx dctx, CloseableByteBuffer dst, CloseableByteBuffer src, DDict ddict) {
+        assert dctx instanceof JdkDCtx;
+        assert ddict instanceof JdkDDict;
+        var segmentDst = slice(dst);
+        var segmentSrc = slice(src);
+        try {
+            return (long) decompressUsingDDict$mh.invokeExact(
+                ((JdkDCtx) dctx).address(),
+                segmentDst,
+                segmentDst.byteSize(),
+                segmentSrc,
+                segmentSrc.byteSize(),
+                ((JdkDDict) ddict).address()
+            );
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public long trainFromBuffer(CloseableByteBuffer dict, CloseableByteBuffer samples, long[] sampleSizes) {
+        var segmentDict = slice(dict);
+        var segmentSamples = slice(samples);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segmentSizes = ArenaUtil.allocate(arena, JAVA_LONG, sampleSizes.length);
+            MemorySegment.copy(sampleSizes, 0, segmentSizes, JAVA_LONG, 0, sampleSizes.length);
+            return (long) trainFromBuffer$mh.invokeExact(
+                segmentDict,
+                segmentDict.byteSize(),
+                segmentSamples,
+                segmentSizes,
+                sampleSizes.length
+            );
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @Override
+    public boolean isDictError(long code) {
+        try {
+            return (int) isDictError$mh.invokeExact(code) != 0;
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    private static MemorySegment slice(CloseableByteBuffer buffer) {
+        assert buffer instanceof JdkCloseableByteBuffer;
+        var nativeBuffer = (JdkCloseableByteBuffer) buffer;
+        return nativeBuffer.segment.asSlice(buffer.buffer().position(), buffer.buffer().remaining());
+    }
 }
@@ -38,4 +38,9 @@ public non-sealed interface LinuxCLibrary extends NativeLibrary {
     long syscall(long number, int operation, int flags, long address);
 
     int fallocate(int fd, int mode, long offset, long length);
+
+    /**
+     * maps to ioctl(2) for requests taking a single int argument, such as FICLONE
+     */
+    int ioctl(int fd, long request, int arg);
 }
@@ -97,6 +97,51 @@ public non-sealed interface PosixCLibrary extends NativeLibrary {
 
     int fcntl(int fd, int cmd, FStore fst);
 
+    /**
+     * Map a file into memory.
+     *
+     * @param addr a hint for the address of the mapping, normally 0
+     * @param length the number of bytes to map
+     * @param prot the memory protection of the mapping, eg PROT_READ
+     * @param flags flags determining whether updates to the mapping are visible to other processes, eg MAP_SHARED
+     * @param fd an open file descriptor of the file to map
+     * @param offset the offset in the file of the mapping, a multiple of the page size
+     * @return the address of the mapping, or MAP_FAILED (-1) on failure with errno set
+     * @see <a href="https://man7.org/linux/man-pages/man2/mmap.2.html">mmap manpage</a>
+     */
+    long mmap(long addr, long length, int prot, int flags, int fd, long offset);
+
+    /**
+     * Unmap a range of memory previously mapped with {@link #mmap}.
+     *
+     * @return 0 on success, -1 on failure with errno set
+     * @see <a href="https://man7.org/linux/man-pages/man2/munmap.2.html">munmap manpage</a>
+     */
+    int munmap(long addr, long length);
+
+    /**
+     * Give advice about the use of a range of memory, eg MADV_WILLNEED to read a mapped file ahead.
+     *
+     * @return 0 on success, -1 on failure with errno set
+     * @see <a href="https://man7.org/linux/man-pages/man2/madvise.2.html">madvise manpage</a>
+     */
+    int madvise(long addr, long length, int advice);
+
+    /**
+     * Determine whether the pages of a range of memory are resident in memory. For file mappings, this tells whether
+     * the pages of the file are in the page cache.
+     *
+     * @param vec a buffer receiving one byte per page, whose least significant bit is set if the page is resident
+     * @return 0 on success, -1 on failure with errno set
+     * @see <a href="https://man7.org/linux/man-pages/man2/mincore.2.html">mincore manpage</a>
+     */
+    int mincore(long addr, long length, CloseableByteBuffer vec);
+
+    /**
+     * Return the size of a memory page, in bytes.
+     */
+    int getpagesize();
+
     /**
      * Open a file descriptor to connect to a socket.
      *
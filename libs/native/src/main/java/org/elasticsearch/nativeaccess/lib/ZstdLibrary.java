@@ -13,6 +13,18 @@ import org.elasticsearch.nativeaccess.CloseableByteBuffer;
 
 public non-sealed interface ZstdLibrary extends NativeLibrary {
 
+    /** A compression context, which is not thread-safe. */
+    interface CCtx {}
+
+    /** A decompression context, which is not thread-safe. */
+    interface DCtx {}
+
+    /** A dictionary digested for compression at a given level. */
+    interface CDict {}
+
+    /** A dictionary digested for decompression. */
+    interface DDict {}
+
     long compressBound(int scrLen);
 
     long compress(CloseableByteBuffer dst, CloseableByteBuffer src, int compressionLevel);
@@ -22,4 +34,40 @@ public non-sealed interface ZstdLibrary extends NativeLibrary {
     String getErrorName(long code);
 
     long decompress(CloseableByteBuffer dst, CloseableByteBuffer src);
+
+    /**
+     * Returns a new compression context, or {@code null} if it could not be allocated.
+     */
+    CCtx createCCtx();
+
+    void freeCCtx(CCtx cctx);
+
+    /**
+     * Returns a new decompression context, or {@code null} if it could not be allocated.
+     */
+    DCtx createDCtx();
+
+    void freeDCtx(DCtx dctx);
+
+    /**
+     * Digests a copy of the given dictionary for compression at the given level, or returns {@code null} if it could not be allocated.
+     */
+    CDict createCDict(CloseableByteBuffer dict, int compressionLevel);
+
+    void freeCDict(CDict cdict);
+
+    /**
+     * Digests a copy of the given dictionary for decompression, or returns {@code null} if it could not be allocated.
+     */
+    DDict createDDict(CloseableByteBuffer dict);
+
+    void freeDDict(DDict ddict);
+
+    long compressUsingCDict(CCtx cctx, CloseableByteBuffer dst, CloseableByteBuffer src, CDict cdict);
+
+    long decompressUsingDDict(DCtx dctx, CloseableByteBuffer dst, CloseableByteBuffer src, DDict ddict);
+
+    long trainFromBuffer(CloseableByteBuffer dict, CloseableByteBuffer samples, long[] sampleSizes);
+
+    boolean isDictError(long code);
 }
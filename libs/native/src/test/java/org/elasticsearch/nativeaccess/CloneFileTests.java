@@ -0,0 +1,50 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.nativeaccess;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class CloneFileTests extends ESTestCase {
+
+    public void testCloneFile() throws IOException {
+        Path directory = createTempDir();
+        Path source = directory.resolve("source");
+        byte[] content = randomByteArrayOfLength(randomIntBetween(0, 1024 * 1024));
+        Files.write(source, content);
+        Path target = directory.resolve("target");
+        // whether the file can be cloned depends on the filesystem of the temp directory
+        if (NativeAccess.instance().tryCloneFile(source, target)) {
+            assertArrayEquals(content, Files.readAllBytes(target));
+        } else {
+            assertFalse(Files.exists(target));
+        }
+    }
+
+    public void testCloneFileDoesNotOverwriteTarget() throws IOException {
+        Path directory = createTempDir();
+        Path source = directory.resolve("source");
+        Files.write(source, randomByteArrayOfLength(randomIntBetween(1, 1024)));
+        Path target = directory.resolve("target");
+        byte[] existing = randomByteArrayOfLength(randomIntBetween(1, 1024));
+        Files.write(target, existing);
+        assertFalse(NativeAccess.instance().tryCloneFile(source, target));
+        assertArrayEquals(existing, Files.readAllBytes(target));
+    }
+
+    public void testCloneMissingFile() {
+        Path directory = createTempDir();
+        assertFalse(NativeAccess.instance().tryCloneFile(directory.resolve("missing"), directory.resolve("target")));
+        assertFalse(Files.exists(directory.resolve("target")));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.nativeaccess;
+
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Before;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalDouble;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class PageCacheTests extends ESTestCase {
+
+    @Before
+    public void setup() {
+        assumeFalse("no page cache functions on windows", System.getProperty("os.name").startsWith("Windows"));
+    }
+
+    public void testAdviseWillNeed() throws IOException {
+        Path file = createTempFile();
+        Files.write(file, randomByteArrayOfLength(randomIntBetween(1, 1024 * 1024)));
+        assertTrue(NativeAccess.instance().tryAdviseWillNeed(file));
+    }
+
+    public void testPageCacheResidency() throws IOException {
+        Path file = createTempFile();
+        byte[] bytes = randomByteArrayOfLength(randomIntBetween(1, 1024 * 1024));
+        Files.write(file, bytes);
+        // the file was just written, and is read again, so at least some of its pages are in the page cache
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+        OptionalDouble residency = NativeAccess.instance().pageCacheResidency(file);
+        assertTrue(residency.isPresent());
+        assertThat(residency.getAsDouble(), allOf(greaterThan(0.0), lessThanOrEqualTo(1.0)));
+    }
+
+    public void testEmptyFile() throws IOException {
+        Path file = createTempFile();
+        assertTrue(NativeAccess.instance().tryAdviseWillNeed(file));
+        OptionalDouble residency = NativeAccess.instance().pageCacheResidency(file);
+        assertTrue(residency.isPresent());
+        assertEquals(1.0, residency.getAsDouble(), 0.0);
+    }
+
+    public void testMissingFile() {
+        Path file = createTempDir().resolve("missing");
+        assertFalse(NativeAccess.instance().tryAdviseWillNeed(file));
+        assertFalse(NativeAccess.instance().pageCacheResidency(file).isPresent());
+    }
+}
@@ -13,7 +13,10 @@ import org.elasticsearch.test.ESTestCase;
 import org.hamcrest.Matchers;
 import org.junit.BeforeClass;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Locale;
 
 import static org.hamcrest.Matchers.equalTo;
 
@@ -103,6 +106,119 @@ public class ZstdTests extends ESTestCase {
         doTestRoundtrip(b);
     }
 
+    public void testRoundtripWithRawContentDictionary() {
+        byte[] dict = randomLogLine(0).getBytes(StandardCharsets.UTF_8);
+        byte[] data = randomLogLine(1).getBytes(StandardCharsets.UTF_8);
+        try (var dictionary = nativeAccess.newBuffer(dict.length)) {
+            dictionary.buffer().put(0, dict);
+            doTestRoundtripWithDictionary(data, dictionary);
+        }
+    }
+
+    public void testTrainDictionary() {
+        int numSamples = randomIntBetween(1_000, 2_000);
+        int[] sampleSizes = new int[numSamples];
+        ByteArrayOutputStream samples = new ByteArrayOutputStream();
+        for (int i = 0; i < numSamples; i++) {
+            byte[] sample = randomLogLine(i).getBytes(StandardCharsets.UTF_8);
+            sampleSizes[i] = sample.length;
+            samples.writeBytes(sample);
+        }
+        byte[] data = randomLogLine(numSamples).getBytes(StandardCharsets.UTF_8);
+        try (var samplesBuffer = nativeAccess.newBuffer(samples.size()); var dictionary = nativeAccess.newBuffer(4_096)) {
+            samplesBuffer.buffer().put(0, samples.toByteArray());
+            int dictLength = zstd.trainDictionary(dictionary, samplesBuffer, sampleSizes);
+            assertThat(dictLength, Matchers.greaterThan(0));
+            assertThat(dictLength, Matchers.lessThanOrEqualTo(4_096));
+            dictionary.buffer().limit(dictLength);
+            doTestRoundtripWithDictionary(data, dictionary);
+
+            int[] tooLarge = sampleSizes.clone();
+            tooLarge[0] += samples.size();
+            expectThrows(IllegalArgumentException.class, () -> zstd.trainDictionary(dictionary, samplesBuffer, tooLarge));
+        }
+    }
+
+    public void testDictionaryValidation() {
+        try (
+            var dictionary = nativeAccess.newBuffer(100);
+            var src = nativeAccess.newBuffer(1000);
+            var dst = nativeAccess.newBuffer(zstd.compressBound(1000))
+        ) {
+            var npe1 = expectThrows(NullPointerException.class, () -> zstd.newDictionaryCompressor(null, 3));
+            assertThat(npe1.getMessage(), equalTo("Null dictionary buffer"));
+            var npe2 = expectThrows(NullPointerException.class, () -> zstd.newDictionaryDecompressor(null));
+            assertThat(npe2.getMessage(), equalTo("Null dictionary buffer"));
+            var npe3 = expectThrows(NullPointerException.class, () -> zstd.trainDictionary(dictionary, null, new int[0]));
+            assertThat(npe3.getMessage(), equalTo("Null samples buffer"));
+            // not nearly enough samples to train a dictionary
+            expectThrows(IllegalArgumentException.class, () -> zstd.trainDictionary(dictionary, src, new int[] { 10, 10 }));
+        }
+    }
+
+    private static String randomLogLine(int i) {
+        return "{\"@timestamp\":\"2024-06-01T12:"
+            + String.format(Locale.ROOT, "%02d:%02d", (i / 60) % 60, i % 60)
+            + "Z\",\"host.name\":\"host-"
+            + randomIntBetween(0, 20)
+            + "\",\"log.level\":\""
+            + randomFrom("info", "warn", "error")
+            + "\",\"message\":\"served request "
+            + randomAlphaOfLength(8)
+            + " in "
+            + randomIntBetween(1, 1000)
+            + "ms\"}";
+    }
+
+    public void testDictionaryCompressorIsReusable() {
+        byte[] dict = randomLogLine(0).getBytes(StandardCharsets.UTF_8);
+        try (var dictionary = nativeAccess.newBuffer(dict.length)) {
+            dictionary.buffer().put(0, dict);
+            try (
+                var compressor = zstd.newDictionaryCompressor(dictionary, randomIntBetween(1, 9));
+                var decompressor = zstd.newDictionaryDecompressor(dictionary)
+            ) {
+                // the dictionary is copied when it is digested
+                dictionary.buffer().put(0, new byte[dict.length]);
+                for (int i = 1; i < 10; i++) {
+                    doTestRoundtripWithDictionary(randomLogLine(i).getBytes(StandardCharsets.UTF_8), compressor, decompressor);
+                }
+                compressor.close();
+                try (var src = nativeAccess.newBuffer(10); var dst = nativeAccess.newBuffer(zstd.compressBound(10))) {
+                    expectThrows(IllegalStateException.class, () -> compressor.compress(dst, src));
+                }
+            }
+        }
+    }
+
+    private void doTestRoundtripWithDictionary(byte[] data, CloseableByteBuffer dictionary) {
+        try (
+            var compressor = zstd.newDictionaryCompressor(dictionary, randomIntBetween(1, 9));
+            var decompressor = zstd.newDictionaryDecompressor(dictionary)
+        ) {
+            doTestRoundtripWithDictionary(data, compressor, decompressor);
+        }
+    }
+
+    private void doTestRoundtripWithDictionary(
+        byte[] data,
+        Zstd.DictionaryCompressor compressor,
+        Zstd.DictionaryDecompressor decompressor
+    ) {
+        try (
+            var original = nativeAccess.newBuffer(data.length);
+            var compressed = nativeAccess.newBuffer(zstd.compressBound(data.length));
+            var restored = nativeAccess.newBuffer(data.length)
+        ) {
+            original.buffer().put(0, data);
+            int compressedLength = compressor.compress(compressed, original);
+            compressed.buffer().limit(compressedLength);
+            int decompressedLength = decompressor.decompress(restored, compressed);
+            assertThat(decompressedLength, equalTo(data.length));
+            assertThat(restored.buffer(), equalTo(original.buffer()));
+        }
+    }
+
     private void doTestRoundtrip(byte[] data) {
         try (
             var original = nativeAccess.newBuffer(data.length);
@@ -32,7 +32,8 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
         null,
         null,
         false,
-        true
+        true,
+        0
     );
 
     final NamedXContentRegistry registry;
@@ -42,6 +43,7 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
     final FilterPath[] excludes;
     final boolean filtersMatchFieldNamesWithDots;
     final boolean includeSourceOnError;
+    final int jsonTapeParserMaxContentLength;
 
     private XContentParserConfigurationImpl(
         NamedXContentRegistry registry,
@@ -50,7 +52,8 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
         FilterPath[] includes,
         FilterPath[] excludes,
         boolean filtersMatchFieldNamesWithDots,
-        boolean includeSourceOnError
+        boolean includeSourceOnError,
+        int jsonTapeParserMaxContentLength
     ) {
         this.registry = registry;
         this.deprecationHandler = deprecationHandler;
@@ -59,6 +62,7 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
         this.excludes = excludes;
         this.filtersMatchFieldNamesWithDots = filtersMatchFieldNamesWithDots;
         this.includeSourceOnError = includeSourceOnError;
+        this.jsonTapeParserMaxContentLength = jsonTapeParserMaxContentLength;
     }
 
     @Override
@@ -78,7 +82,8 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
             includes,
             excludes,
             filtersMatchFieldNamesWithDots,
-            includeSourceOnError
+            includeSourceOnError,
+            jsonTapeParserMaxContentLength
         );
     }
 
@@ -91,7 +96,8 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
             includes,
             excludes,
             filtersMatchFieldNamesWithDots,
-            includeSourceOnError
+            includeSourceOnError,
+            jsonTapeParserMaxContentLength
         );
     }
 
@@ -107,7 +113,8 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
             includes,
             excludes,
             filtersMatchFieldNamesWithDots,
-            includeSourceOnError
+            includeSourceOnError,
+            jsonTapeParserMaxContentLength
         );
     }
 
@@ -123,7 +130,8 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
             includes,
             excludes,
             filtersMatchFieldNamesWithDots,
-            includeSourceOnError
+            includeSourceOnError,
+            jsonTapeParserMaxContentLength
         );
     }
 
@@ -172,10 +180,41 @@ public class XContentParserConfigurationImpl implements XContentParserConfigurat
             includePaths,
             excludePaths,
             filtersMatchFieldNamesWithDots,
-            includeSourceOnError
+            includeSourceOnError,
+            jsonTapeParserMaxContentLength
         );
     }
 
+    @Override
+    public XContentParserConfiguration withJsonTapeParser(int maxContentLength) {
+        if (maxContentLength < 0) {
+            throw new IllegalArgumentException("max content length must be non-negative but was [" + maxContentLength + "]");
+        }
+        if (maxContentLength == this.jsonTapeParserMaxContentLength) {
+            return this;
+        }
+        return new XContentParserConfigurationImpl(
+            registry,
+            deprecationHandler,
+            restApiVersion,
+            includes,
+            excludes,
+            filtersMatchFieldNamesWithDots,
+            includeSourceOnError,
+            maxContentLength
+        );
+    }
+
+    @Override
+    public int jsonTapeParserMaxContentLength() {
+        return jsonTapeParserMaxContentLength;
+    }
+
+    @Override
+    public boolean hasFiltering() {
+        return includes != null || excludes != null;
+    }
+
     public JsonParser filter(JsonParser parser) {
         JsonParser filtered = parser;
         if (excludes != null) {
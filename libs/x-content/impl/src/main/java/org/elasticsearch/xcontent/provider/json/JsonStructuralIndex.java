@@ -0,0 +1,178 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.xcontent.provider.json;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The positions of the structural characters of JSON content: the brackets, braces, colons and commas that are not part of a string,
+ * the opening quotes of strings and the first characters of numbers and literals. This is the first stage of the simdjson approach to
+ * parsing JSON: the content is classified in blocks of 64 bytes into bitmasks of quotes, backslashes, operators and whitespace, which
+ * are combined with bitwise operations to find the escaped characters, the characters that are part of strings and finally the
+ * structural characters, without a branch per byte. The bitmasks are computed 8 bytes at a time in a {@code long}.
+ */
+final class JsonStructuralIndex {
+
+    static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int BLOCK_SIZE = 64;
+    private static final long ODD_BITS = 0xAAAAAAAAAAAAAAAAL;
+    static final long ONES = 0x0101010101010101L;
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long CASE_BIT = 0x2020202020202020L;
+
+    private int[] positions;
+    private int size;
+
+    private JsonStructuralIndex(int[] positions, int size) {
+        this.positions = positions;
+        this.size = size;
+    }
+
+    /**
+     * The positions of the structural characters, relative to the start of the array.
+     */
+    int[] positions() {
+        return positions;
+    }
+
+    /**
+     * The number of structural characters.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the structural characters of the given content, or returns {@code null} if the content has a string that is not closed or
+     * that contains unescaped control characters.
+     */
+    static JsonStructuralIndex build(byte[] bytes, int offset, int length) {
+        final JsonStructuralIndex index = new JsonStructuralIndex(new int[Math.max(16, length >>> 3)], 0);
+        long prevEscaped = 0;
+        long prevInString = 0;
+        long prevScalar = 0;
+        final byte[] tail = new byte[BLOCK_SIZE];
+        final int end = offset + length;
+        for (int blockStart = offset; blockStart < end; blockStart += BLOCK_SIZE) {
+            final byte[] block;
+            final int blockOffset;
+            if (end - blockStart >= BLOCK_SIZE) {
+                block = bytes;
+                blockOffset = blockStart;
+            } else {
+                // pad the last block with whitespace
+                Arrays.fill(tail, (byte) ' ');
+                System.arraycopy(bytes, blockStart, tail, 0, end - blockStart);
+                block = tail;
+                blockOffset = 0;
+            }
+            long quote = 0;
+            long backslash = 0;
+            long op = 0;
+            long whitespace = 0;
+            long control = 0;
+            for (int i = 0; i < BLOCK_SIZE / Long.BYTES; i++) {
+                final long word = (long) LONG_LE.get(block, blockOffset + i * Long.BYTES);
+                final int shift = i * Long.BYTES;
+                quote |= movemask(equal(word, '"')) << shift;
+                backslash |= movemask(equal(word, '\\')) << shift;
+                // '[' and ']' only differ from '{' and '}' by the case bit
+                final long folded = word | CASE_BIT;
+                op |= movemask(equal(folded, '{') | equal(folded, '}') | equal(word, ':') | equal(word, ',')) << shift;
+                whitespace |= movemask(equal(word, ' ') | equal(word, '\n') | equal(word, '\r') | equal(word, '\t')) << shift;
+                control |= movemask(lessThan(word, 0x20)) << shift;
+            }
+
+            // characters that follow an odd number of backslashes are escaped
+            final long escaped;
+            if (backslash == 0) {
+                escaped = prevEscaped;
+                prevEscaped = 0;
+            } else {
+                final long potentialEscape = backslash & ~prevEscaped;
+                final long escapeAndTerminal = (((potentialEscape << 1) | ODD_BITS) - potentialEscape) ^ ODD_BITS;
+                escaped = escapeAndTerminal ^ (backslash | prevEscaped);
+                prevEscaped = (escapeAndTerminal & backslash) >>> 63;
+            }
+
+            // the characters between an opening quote (included) and a closing quote (excluded) are part of a string
+            quote &= ~escaped;
+            final long inString = prefixXor(quote) ^ prevInString;
+            prevInString = inString >> 63;
+            if ((control & inString) != 0) {
+                return null;
+            }
+            final long stringTail = inString ^ quote;
+
+            // scalars are anything but operators and whitespace, and start structurally unless they follow another scalar
+            final long scalar = ~(op | whitespace);
+            final long nonQuoteScalar = scalar & ~quote;
+            final long followsNonQuoteScalar = (nonQuoteScalar << 1) | prevScalar;
+            prevScalar = nonQuoteScalar >>> 63;
+            long structurals = (op | (scalar & ~followsNonQuoteScalar)) & ~stringTail;
+
+            final int base = blockStart - offset;
+            index.ensureCapacity(Long.bitCount(structurals));
+            while (structurals != 0) {
+                index.positions[index.size++] = offset + base + Long.numberOfTrailingZeros(structurals);
+                structurals &= structurals - 1;
+            }
+        }
+        if (prevInString != 0) {
+            return null;
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(size + additional, positions.length << 1));
+        }
+    }
+
+    /**
+     * Sets the high bit of the bytes of {@code word} that are equal to {@code c}.
+     */
+    static long equal(long word, char c) {
+        final long x = word ^ (ONES * c);
+        return ~(((x & LOW_7_BITS) + LOW_7_BITS) | x | LOW_7_BITS);
+    }
+
+    /**
+     * Sets the high bit of the bytes of {@code word} that are lower than {@code n}, which must be at most {@code 0x80}.
+     */
+    private static long lessThan(long word, int n) {
+        return ~(((word & LOW_7_BITS) + ONES * (0x80 - n)) | word | LOW_7_BITS);
+    }
+
+    /**
+     * Gathers the high bits of the bytes of {@code word} into the 8 lowest bits.
+     */
+    private static long movemask(long word) {
+        return ((word >>> 7) * 0x0102040810204080L) >>> 56;
+    }
+
+    /**
+     * Each bit of the result is the exclusive or of the bits of {@code x} at the same or lower positions.
+     */
+    private static long prefixXor(long x) {
+        x ^= x << 1;
+        x ^= x << 2;
+        x ^= x << 4;
+        x ^= x << 8;
+        x ^= x << 16;
+        x ^= x << 32;
+        return x;
+    }
+}
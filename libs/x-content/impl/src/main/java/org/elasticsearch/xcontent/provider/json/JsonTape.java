@@ -0,0 +1,480 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.xcontent.provider.json;
+
+import org.elasticsearch.xcontent.XContentParser.Token;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.elasticsearch.xcontent.provider.json.JsonStructuralIndex.LONG_LE;
+import static org.elasticsearch.xcontent.provider.json.JsonStructuralIndex.equal;
+
+/**
+ * The tokens of JSON content, built from its {@link JsonStructuralIndex} in a single pass that validates the content. This is the
+ * second stage of the simdjson approach to parsing JSON. Field names are decoded while building the tape, string and number values
+ * are only decoded when they are read.
+ * <p>
+ * The tape only accepts strict JSON with a single root value, unique keys per object and valid UTF-8 strings, whose tokens are the
+ * same as the tokens Jackson reads from it. Anything else, including content that Jackson reads with a lenient feature like comments,
+ * is left to Jackson so that its behavior and its errors are unchanged.
+ */
+final class JsonTape {
+
+    // the default limits of Jackson's StreamReadConstraints
+    static final int MAX_DEPTH = 1000;
+    static final int MAX_NUMBER_LENGTH = 1000;
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final int MAX_LINEAR_KEYS = 16;
+
+    static final byte STRING_ESCAPED = 1;
+    static final byte STRING_NON_ASCII = 2;
+    static final byte NUMBER_FLOAT = 1;
+    static final byte BOOLEAN_TRUE = 1;
+
+    final byte[] bytes;
+    final int offset;
+    final int length;
+    final Token[] tokens;
+    /** The position of each token: the opening quote of strings, the first character of other tokens. */
+    final int[] starts;
+    /** The closing quote of strings, the end of numbers and the tape index of the matching end of objects and arrays. */
+    final int[] ends;
+    final byte[] flags;
+    /** The name of the field that holds each token, or the name itself for field names, like Jackson's current name. */
+    final String[] names;
+    int size;
+
+    private JsonTape(byte[] bytes, int offset, int length, int capacity) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.tokens = new Token[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.flags = new byte[capacity];
+        this.names = new String[capacity];
+    }
+
+    /**
+     * Builds the tape of the given content, or returns {@code null} if the content is not strict JSON that the tape can represent.
+     */
+    static JsonTape build(byte[] bytes, int offset, int length) {
+        final JsonStructuralIndex index = JsonStructuralIndex.build(bytes, offset, length);
+        if (index == null || index.size() == 0) {
+            return null;
+        }
+        final JsonTape tape = new JsonTape(bytes, offset, length, index.size());
+        return tape.parse(index.positions(), index.size()) ? tape : null;
+    }
+
+    private boolean parse(int[] positions, int count) {
+        final int end = offset + length;
+        // the tape index of the open objects and arrays, and the name of the field that holds them
+        int[] containers = new int[16];
+        String[] containerNames = new String[16];
+        // the keys of the open objects, the keys of an object start at its keysStart
+        String[] keys = new String[16];
+        int[] keysStarts = new int[16];
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Set<String>[] keySets = new Set[16];
+        int keyCount = 0;
+        int depth = 0;
+        String name = null;
+        int i = 0;
+
+        // the state machine goes to VALUE, KEY or AFTER_VALUE on each structural character
+        boolean expectValue = true;
+        boolean expectKey = false;
+        while (i < count) {
+            final int pos = positions[i];
+            final byte c = bytes[pos];
+            if (expectKey) {
+                if (c != '"') {
+                    return false;
+                }
+                final int close = scanString(pos, end);
+                if (close < 0) {
+                    return false;
+                }
+                name = decodeString(pos + 1, close, flags[size]);
+                // duplicate keys fail the same way with Jackson
+                final int objectKeys = keyCount - keysStarts[depth - 1];
+                if (objectKeys < MAX_LINEAR_KEYS) {
+                    for (int k = keysStarts[depth - 1]; k < keyCount; k++) {
+                        if (keys[k].equals(name)) {
+                            return false;
+                        }
+                    }
+                } else {
+                    Set<String> keySet = keySets[depth - 1];
+                    if (keySet == null) {
+                        keySet = new HashSet<>(Arrays.asList(keys).subList(keysStarts[depth - 1], keyCount));
+                        keySets[depth - 1] = keySet;
+                    }
+                    if (keySet.add(name) == false) {
+                        return false;
+                    }
+                }
+                if (keyCount == keys.length) {
+                    keys = Arrays.copyOf(keys, keyCount << 1);
+                }
+                keys[keyCount++] = name;
+                append(Token.FIELD_NAME, pos, close, name);
+                if (i + 1 >= count || bytes[positions[i + 1]] != ':') {
+                    return false;
+                }
+                i += 2;
+                expectKey = false;
+                expectValue = true;
+            } else if (expectValue) {
+                switch (c) {
+                    case '{', '[' -> {
+                        if (depth == MAX_DEPTH) {
+                            return false;
+                        }
+                        if (depth == containers.length) {
+                            containers = Arrays.copyOf(containers, depth << 1);
+                            containerNames = Arrays.copyOf(containerNames, depth << 1);
+                            keysStarts = Arrays.copyOf(keysStarts, depth << 1);
+                            keySets = Arrays.copyOf(keySets, depth << 1);
+                        }
+                        final boolean object = c == '{';
+                        containers[depth] = size;
+                        containerNames[depth] = name;
+                        keysStarts[depth] = keyCount;
+                        keySets[depth] = null;
+                        depth++;
+                        append(object ? Token.START_OBJECT : Token.START_ARRAY, pos, 0, name);
+                        name = null;
+                        i++;
+                        if (i < count && bytes[positions[i]] == (object ? '}' : ']')) {
+                            // empty object or array, close it in AFTER_VALUE
+                            expectValue = false;
+                        } else {
+                            expectKey = object;
+                            expectValue = object == false;
+                        }
+                        continue;
+                    }
+                    case '"' -> {
+                        final int close = scanString(pos, end);
+                        if (close < 0) {
+                            return false;
+                        }
+                        append(Token.VALUE_STRING, pos, close, name);
+                    }
+                    case 't' -> {
+                        if (matchLiteral(pos, end, "true") == false) {
+                            return false;
+                        }
+                        flags[size] = BOOLEAN_TRUE;
+                        append(Token.VALUE_BOOLEAN, pos, pos + 4, name);
+                    }
+                    case 'f' -> {
+                        if (matchLiteral(pos, end, "false") == false) {
+                            return false;
+                        }
+                        append(Token.VALUE_BOOLEAN, pos, pos + 5, name);
+                    }
+                    case 'n' -> {
+                        if (matchLiteral(pos, end, "null") == false) {
+                            return false;
+                        }
+                        append(Token.VALUE_NULL, pos, pos + 4, name);
+                    }
+                    default -> {
+                        final int numberEnd = scanNumber(pos, end);
+                        if (numberEnd < 0) {
+                            return false;
+                        }
+                        append(Token.VALUE_NUMBER, pos, numberEnd, name);
+                    }
+                }
+                i++;
+                expectValue = false;
+            } else {
+                if (depth == 0) {
+                    // trailing content after the root value
+                    return false;
+                }
+                final int container = containers[depth - 1];
+                final boolean object = tokens[container] == Token.START_OBJECT;
+                if (c == ',') {
+                    i++;
+                    expectKey = object;
+                    expectValue = object == false;
+                    continue;
+                }
+                if (c != (object ? '}' : ']')) {
+                    return false;
+                }
+                depth--;
+                keyCount = keysStarts[depth];
+                keySets[depth] = null;
+                // like the start token, the end token has the name of the field that holds the container
+                name = containerNames[depth];
+                ends[container] = size;
+                append(object ? Token.END_OBJECT : Token.END_ARRAY, pos, container, name);
+                i++;
+            }
+        }
+        return depth == 0 && expectValue == false && expectKey == false;
+    }
+
+    private void append(Token token, int start, int end, String name) {
+        tokens[size] = token;
+        starts[size] = start;
+        ends[size] = end;
+        names[size] = name;
+        size++;
+    }
+
+    /**
+     * Finds the closing quote of the string whose opening quote is at {@code quote}, validating its escape sequences and flagging the
+     * next token if the string has escape sequences or non ASCII characters. Returns {@code -1} if the string is not valid.
+     */
+    private int scanString(int quote, int end) {
+        byte stringFlags = 0;
+        int p = quote + 1;
+        while (true) {
+            // look for the next quote or backslash 8 bytes at a time
+            int found = -1;
+            while (p + Long.BYTES <= end) {
+                final long word = (long) LONG_LE.get(bytes, p);
+                final long matches = equal(word, '"') | equal(word, '\\');
+                if (matches == 0) {
+                    if ((word & HIGH_BITS) != 0) {
+                        stringFlags |= STRING_NON_ASCII;
+                    }
+                    p += Long.BYTES;
+                } else {
+                    final long lowest = matches & -matches;
+                    if ((word & ((lowest >>> 7) - 1) & HIGH_BITS) != 0) {
+                        stringFlags |= STRING_NON_ASCII;
+                    }
+                    found = p + (Long.numberOfTrailingZeros(lowest) >>> 3);
+                    break;
+                }
+            }
+            if (found < 0) {
+                while (p < end && bytes[p] != '"' && bytes[p] != '\\') {
+                    if (bytes[p] < 0) {
+                        stringFlags |= STRING_NON_ASCII;
+                    }
+                    p++;
+                }
+                if (p == end) {
+                    return -1;
+                }
+                found = p;
+            }
+            if (bytes[found] == '"') {
+                if ((stringFlags & STRING_NON_ASCII) != 0 && isValidUtf8(quote + 1, found) == false) {
+                    return -1;
+                }
+                flags[size] = stringFlags;
+                return found;
+            }
+            stringFlags |= STRING_ESCAPED;
+            if (found + 1 >= end) {
+                return -1;
+            }
+            switch (bytes[found + 1]) {
+                case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> p = found + 2;
+                case 'u' -> {
+                    if (found + 6 > end) {
+                        return -1;
+                    }
+                    for (int h = found + 2; h < found + 6; h++) {
+                        if (Character.digit(bytes[h], 16) < 0) {
+                            return -1;
+                        }
+                    }
+                    p = found + 6;
+                }
+                default -> {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes the content of a string, from {@code start} to the closing quote at {@code end}, that was validated by
+     * {@link #scanString}.
+     */
+    String decodeString(int start, int end, byte stringFlags) {
+        if (stringFlags == 0) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        if ((stringFlags & STRING_ESCAPED) == 0) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        final StringBuilder builder = new StringBuilder(end - start);
+        int run = start;
+        int p = start;
+        while (p < end) {
+            if (bytes[p] != '\\') {
+                p++;
+                continue;
+            }
+            builder.append(new String(bytes, run, p - run, StandardCharsets.UTF_8));
+            final byte escaped = bytes[p + 1];
+            switch (escaped) {
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    int value = 0;
+                    for (int h = p + 2; h < p + 6; h++) {
+                        value = (value << 4) | Character.digit(bytes[h], 16);
+                    }
+                    builder.append((char) value);
+                    p += 4;
+                }
+                default -> builder.append((char) escaped);
+            }
+            p += 2;
+            run = p;
+        }
+        builder.append(new String(bytes, run, end - run, StandardCharsets.UTF_8));
+        return builder.toString();
+    }
+
+    /**
+     * Validates a number at {@code start} against the JSON grammar and returns its end, or {@code -1} if it is not valid. Flags the next
+     * token if the number has a fraction or an exponent.
+     */
+    private int scanNumber(int start, int end) {
+        int p = start;
+        if (p < end && bytes[p] == '-') {
+            p++;
+        }
+        if (p == end) {
+            return -1;
+        }
+        if (bytes[p] == '0') {
+            p++;
+        } else if (isDigit(bytes[p])) {
+            p = skipDigits(p, end);
+        } else {
+            return -1;
+        }
+        byte numberFlags = 0;
+        if (p < end && bytes[p] == '.') {
+            final int fraction = p + 1;
+            p = skipDigits(fraction, end);
+            if (p == fraction) {
+                return -1;
+            }
+            numberFlags = NUMBER_FLOAT;
+        }
+        if (p < end && (bytes[p] == 'e' || bytes[p] == 'E')) {
+            p++;
+            if (p < end && (bytes[p] == '+' || bytes[p] == '-')) {
+                p++;
+            }
+            final int exponent = p;
+            p = skipDigits(exponent, end);
+            if (p == exponent) {
+                return -1;
+            }
+            numberFlags = NUMBER_FLOAT;
+        }
+        if (p - start > MAX_NUMBER_LENGTH || isDelimiter(p, end) == false) {
+            return -1;
+        }
+        flags[size] = numberFlags;
+        return p;
+    }
+
+    private int skipDigits(int p, int end) {
+        while (p < end && isDigit(bytes[p])) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private boolean matchLiteral(int start, int end, String literal) {
+        if (end - start < literal.length()) {
+            return false;
+        }
+        for (int i = 1; i < literal.length(); i++) {
+            if (bytes[start + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return isDelimiter(start + literal.length(), end);
+    }
+
+    private boolean isDelimiter(int p, int end) {
+        if (p == end) {
+            return true;
+        }
+        return switch (bytes[p]) {
+            case ' ', '\t', '\n', '\r', ',', '}', ']' -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Strictly validates UTF-8, rejecting overlong encodings, surrogates and code points above U+10FFFF.
+     */
+    private boolean isValidUtf8(int start, int end) {
+        int p = start;
+        while (p < end) {
+            final int b = bytes[p] & 0xFF;
+            if (b < 0x80) {
+                p++;
+                continue;
+            }
+            final int continuations;
+            int min;
+            if (b >= 0xC2 && b <= 0xDF) {
+                continuations = 1;
+                min = 0x80;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                continuations = 2;
+                min = 0x800;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                continuations = 3;
+                min = 0x10000;
+            } else {
+                return false;
+            }
+            if (p + continuations >= end) {
+                return false;
+            }
+            int codePoint = b & (0x3F >> continuations);
+            for (int c = 1; c <= continuations; c++) {
+                final int continuation = bytes[p + c] & 0xFF;
+                if ((continuation & 0xC0) != 0x80) {
+                    return false;
+                }
+                codePoint = (codePoint << 6) | (continuation & 0x3F);
+            }
+            if (codePoint < min || codePoint > Character.MAX_CODE_POINT || (codePoint >= 0xD800 && codePoint <= 0xDFFF)) {
+                return false;
+            }
+            p += continuations + 1;
+        }
+        return true;
+    }
+}
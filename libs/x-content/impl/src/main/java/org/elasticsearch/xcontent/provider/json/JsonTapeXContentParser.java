@@ -0,0 +1,374 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.xcontent.provider.json;
+
+import com.fasterxml.jackson.core.Base64Variants;
+
+import org.elasticsearch.xcontent.XContentLocation;
+import org.elasticsearch.xcontent.XContentParseException;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+import org.elasticsearch.xcontent.XContentType;
+import org.elasticsearch.xcontent.support.AbstractXContentParser;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JSON parser that reads the tokens of a {@link JsonTape} rather than tokenizing the content as it goes. The tape is only built for
+ * strict JSON, so this parser never fails on the syntax of the content, and it reads the same tokens, names, values and number types as
+ * {@link JsonXContentParser}.
+ */
+final class JsonTapeXContentParser extends AbstractXContentParser {
+
+    private final JsonTape tape;
+    private int current = -1;
+    private boolean closed;
+    // the text of the current token, decoded on first access
+    private int textToken = -1;
+    private String text;
+    private char[] textChars;
+    // the number type of the current token, computed on first access
+    private int numberTypeToken = -1;
+    private NumberType numberType;
+    // the last computed token location, locations are computed on demand by counting lines from there
+    private int locationPos;
+    private int locationLine = 1;
+    private int locationLineStart;
+
+    JsonTapeXContentParser(XContentParserConfiguration config, JsonTape tape) {
+        super(config.registry(), config.deprecationHandler(), config.restApiVersion());
+        this.tape = tape;
+        this.locationPos = tape.offset;
+        this.locationLineStart = tape.offset;
+    }
+
+    @Override
+    public XContentType contentType() {
+        return XContentType.JSON;
+    }
+
+    @Override
+    public void allowDuplicateKeys(boolean allowDuplicateKeys) {
+        // the tape is only built for content without duplicate keys
+    }
+
+    @Override
+    public Token nextToken() {
+        if (current < tape.size) {
+            current++;
+        }
+        if (current == tape.size) {
+            closed = true;
+            return null;
+        }
+        return tape.tokens[current];
+    }
+
+    @Override
+    public void skipChildren() {
+        final Token token = currentToken();
+        if (token == Token.START_OBJECT || token == Token.START_ARRAY) {
+            current = tape.ends[current];
+        }
+    }
+
+    @Override
+    public Token currentToken() {
+        return current >= 0 && current < tape.size ? tape.tokens[current] : null;
+    }
+
+    @Override
+    public NumberType numberType() throws IOException {
+        ensureNumber();
+        if (numberTypeToken != current) {
+            numberTypeToken = current;
+            numberType = computeNumberType();
+        }
+        return numberType;
+    }
+
+    private NumberType computeNumberType() {
+        if ((tape.flags[current] & JsonTape.NUMBER_FLOAT) != 0) {
+            return NumberType.DOUBLE;
+        }
+        final int digits = tape.ends[current] - tape.starts[current] - (tape.bytes[tape.starts[current]] == '-' ? 1 : 0);
+        if (digits <= 9) {
+            return NumberType.INT;
+        }
+        if (digits <= 18) {
+            final long value = Long.parseLong(currentText());
+            return value == (int) value ? NumberType.INT : NumberType.LONG;
+        }
+        return new BigInteger(currentText()).bitLength() < Long.SIZE ? NumberType.LONG : NumberType.BIG_INTEGER;
+    }
+
+    @Override
+    public String currentName() {
+        return current >= 0 && current < tape.size ? tape.names[current] : null;
+    }
+
+    @Override
+    protected boolean doBooleanValue() throws IOException {
+        if (currentToken() != Token.VALUE_BOOLEAN) {
+            throw new XContentParseException(getTokenLocation(), "Current token (" + currentToken() + ") not of boolean type");
+        }
+        return tape.flags[current] == JsonTape.BOOLEAN_TRUE;
+    }
+
+    @Override
+    public String text() throws IOException {
+        if (currentToken().isValue() == false) {
+            throwOnNoText();
+        }
+        return currentText();
+    }
+
+    private void throwOnNoText() {
+        throw new IllegalArgumentException("Expected text at " + getTokenLocation() + " but found " + currentToken());
+    }
+
+    /**
+     * Returns the text of the current token, like Jackson's {@code getText}.
+     */
+    private String currentText() {
+        if (textToken != current) {
+            textToken = current;
+            textChars = null;
+            text = decodeText();
+        }
+        return text;
+    }
+
+    private String decodeText() {
+        final Token token = currentToken();
+        if (token == null) {
+            return null;
+        }
+        final int start = tape.starts[current];
+        return switch (token) {
+            case FIELD_NAME -> tape.names[current];
+            case VALUE_STRING -> tape.decodeString(start + 1, tape.ends[current], tape.flags[current]);
+            case VALUE_NUMBER, VALUE_BOOLEAN, VALUE_NULL -> new String(
+                tape.bytes,
+                start,
+                tape.ends[current] - start,
+                StandardCharsets.ISO_8859_1
+            );
+            case START_OBJECT -> "{";
+            case END_OBJECT -> "}";
+            case START_ARRAY -> "[";
+            case END_ARRAY -> "]";
+            default -> throw new IllegalStateException("unexpected token [" + token + "] in a JSON tape");
+        };
+    }
+
+    private char[] currentTextChars() {
+        final String value = currentText();
+        if (textChars == null && value != null) {
+            textChars = value.toCharArray();
+        }
+        return textChars;
+    }
+
+    @Override
+    public CharBuffer charBuffer() {
+        return CharBuffer.wrap(currentTextChars());
+    }
+
+    @Override
+    public Object objectText() throws IOException {
+        final Token token = currentToken();
+        if (token == Token.VALUE_STRING) {
+            return text();
+        } else if (token == Token.VALUE_NUMBER) {
+            return numberValue();
+        } else if (token == Token.VALUE_BOOLEAN) {
+            return doBooleanValue();
+        } else if (token == Token.VALUE_NULL) {
+            return null;
+        } else {
+            return text();
+        }
+    }
+
+    @Override
+    public Object objectBytes() throws IOException {
+        final Token token = currentToken();
+        if (token == Token.VALUE_STRING) {
+            return charBuffer();
+        } else if (token == Token.VALUE_NUMBER) {
+            return numberValue();
+        } else if (token == Token.VALUE_BOOLEAN) {
+            return doBooleanValue();
+        } else if (token == Token.VALUE_NULL) {
+            return null;
+        } else {
+            return charBuffer();
+        }
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return currentToken() == Token.VALUE_STRING;
+    }
+
+    @Override
+    public char[] textCharacters() {
+        return currentTextChars();
+    }
+
+    @Override
+    public int textLength() {
+        final char[] chars = currentTextChars();
+        return chars == null ? 0 : chars.length;
+    }
+
+    @Override
+    public int textOffset() {
+        return 0;
+    }
+
+    @Override
+    public Number numberValue() throws IOException {
+        return switch (numberType()) {
+            case INT -> Integer.parseInt(currentText());
+            case LONG -> Long.parseLong(currentText());
+            case BIG_INTEGER -> new BigInteger(currentText());
+            default -> Double.parseDouble(currentText());
+        };
+    }
+
+    @Override
+    public short doShortValue() throws IOException {
+        final int value = doIntValue();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw outOfRange("Java short", Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        return (short) value;
+    }
+
+    @Override
+    public int doIntValue() throws IOException {
+        final NumberType numberType = numberType();
+        if (numberType == NumberType.INT) {
+            return Integer.parseInt(currentText());
+        }
+        if (numberType == NumberType.DOUBLE) {
+            final double value = Double.parseDouble(currentText());
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw outOfRange("int", Integer.MIN_VALUE, Integer.MAX_VALUE);
+            }
+            return (int) value;
+        }
+        throw outOfRange("int", Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long doLongValue() throws IOException {
+        final NumberType numberType = numberType();
+        if (numberType == NumberType.INT || numberType == NumberType.LONG) {
+            return Long.parseLong(currentText());
+        }
+        if (numberType == NumberType.DOUBLE) {
+            final double value = Double.parseDouble(currentText());
+            if (value < Long.MIN_VALUE || value > Long.MAX_VALUE) {
+                throw outOfRange("long", Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+            return (long) value;
+        }
+        throw outOfRange("long", Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public float doFloatValue() throws IOException {
+        return switch (numberType()) {
+            case INT, LONG -> (float) Long.parseLong(currentText());
+            case BIG_INTEGER -> new BigInteger(currentText()).floatValue();
+            default -> Float.parseFloat(currentText());
+        };
+    }
+
+    @Override
+    public double doDoubleValue() throws IOException {
+        return switch (numberType()) {
+            case INT, LONG -> (double) Long.parseLong(currentText());
+            case BIG_INTEGER -> new BigInteger(currentText()).doubleValue();
+            default -> Double.parseDouble(currentText());
+        };
+    }
+
+    private void ensureNumber() {
+        if (currentToken() != Token.VALUE_NUMBER) {
+            throw new XContentParseException(
+                getTokenLocation(),
+                "Current token (" + currentToken() + ") not numeric, can not use numeric value accessors"
+            );
+        }
+    }
+
+    private XContentParseException outOfRange(String type, long min, long max) {
+        return new XContentParseException(
+            getTokenLocation(),
+            "Numeric value (" + currentText() + ") out of range of " + type + " (" + min + " - " + max + ")"
+        );
+    }
+
+    @Override
+    public byte[] binaryValue() {
+        if (currentToken() != Token.VALUE_STRING) {
+            throw new XContentParseException(
+                getTokenLocation(),
+                "Current token (" + currentToken() + ") not VALUE_STRING or VALUE_EMBEDDED_OBJECT, can not access as binary"
+            );
+        }
+        try {
+            return Base64Variants.getDefaultVariant().decode(currentText());
+        } catch (IllegalArgumentException e) {
+            throw new XContentParseException(getTokenLocation(), "Failed to decode VALUE_STRING as base64: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public XContentLocation getTokenLocation() {
+        final int pos;
+        if (current < 0) {
+            pos = tape.offset;
+        } else {
+            pos = tape.starts[Math.min(current, tape.size - 1)];
+        }
+        if (pos < locationPos) {
+            locationPos = tape.offset;
+            locationLine = 1;
+            locationLineStart = tape.offset;
+        }
+        // count lines like Jackson, a carriage return followed by a line feed is a single line break
+        final byte[] bytes = tape.bytes;
+        for (int p = locationPos; p < pos; p++) {
+            if (bytes[p] == '\n' || (bytes[p] == '\r' && bytes[p + 1] != '\n')) {
+                locationLine++;
+                locationLineStart = p + 1;
+            }
+        }
+        locationPos = pos;
+        return new XContentLocation(locationLine, pos - locationLineStart + 1);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -106,6 +106,13 @@ public class JsonXContentImpl implements XContent {
 
     @Override
     public XContentParser createParser(XContentParserConfiguration config, byte[] data, int offset, int length) throws IOException {
+        // the tape is built for the whole content up front, so only content up to the configured length is parsed from a tape
+        if (length > 0 && length <= config.jsonTapeParserMaxContentLength() && config.hasFiltering() == false) {
+            final JsonTape tape = JsonTape.build(data, offset, length);
+            if (tape != null) {
+                return new JsonTapeXContentParser(config, tape);
+            }
+        }
         return createParser(config, jsonFactory.createParser(data, offset, length));
     }
 
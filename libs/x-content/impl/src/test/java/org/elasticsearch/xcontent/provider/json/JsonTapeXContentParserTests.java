@@ -0,0 +1,289 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.xcontent.provider.json;
+
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentParser.Token;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class JsonTapeXContentParserTests extends ESTestCase {
+
+    public void testSameTokensAsJackson() throws IOException {
+        assertSameTokens("{}");
+        assertSameTokens("[]");
+        assertSameTokens("  {\"a\" : [ ] , \"b\":{ }}\n");
+        assertSameTokens("\"root\"");
+        assertSameTokens("-0");
+        assertSameTokens("1.5e-3");
+        assertSameTokens("[true,false,null]");
+        assertSameTokens("{\"a\":2147483647,\"b\":2147483648,\"c\":-9223372036854775808,\"d\":9223372036854775808,\"e\":1E+2}");
+        assertSameTokens("{\"escapes\":\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\ud83d\\ude00\"}");
+        assertSameTokens("{\"utf-8\":\"h\u00e9llo w\u00f6rld \ud83d\ude00\"}");
+        assertSameTokens("{\"a long string over several words\":\"with a \\\"quote\\\" after a few words and \\\\\"}");
+        assertSameTokens("{\r\n  \"a\": {\r\n    \"b\": [1, 2.0, \"three\"]\r\n  },\r  \"c\": 4\n}");
+    }
+
+    public void testSameTokensAsJacksonOnRandomContent() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            final StringBuilder json = new StringBuilder();
+            whitespace(json);
+            randomValue(json, 0);
+            whitespace(json);
+            assertSameTokens(json.toString());
+        }
+    }
+
+    public void testFallsBackToJackson() {
+        assertFallback("");
+        assertFallback("   ");
+        assertFallback("{} {}");
+        assertFallback("{\"a\":1,\"a\":2}");
+        assertFallback("// comment\n{}");
+        assertFallback("{\"a\":1 /* comment */}");
+        assertFallback("{\"a\":01}");
+        assertFallback("{\"a\":1.}");
+        assertFallback("{\"a\":.5}");
+        assertFallback("{\"a\":+1}");
+        assertFallback("{\"a\":NaN}");
+        assertFallback("{\"a\":tru}");
+        assertFallback("{\"a\":truex}");
+        assertFallback("{\"a\":1x}");
+        assertFallback("[1,]");
+        assertFallback("[1 2]");
+        assertFallback("{\"a\":1,}");
+        assertFallback("{\"a\" 1}");
+        assertFallback("{a:1}");
+        assertFallback("{'a':1}");
+        assertFallback("{\"a\":\"unclosed}");
+        assertFallback("{\"a\":\"\\x\"}");
+        assertFallback("{\"a\":\"\\u12g4\"}");
+        assertFallback("{\"a\":\"tab\tinside\"}");
+        assertFallback("{\"a\":[}");
+        assertFallback("{\"a\":1]");
+        assertFallback("{\"a\":1");
+        assertFallback("[" + "[".repeat(JsonTape.MAX_DEPTH) + "]".repeat(JsonTape.MAX_DEPTH + 1));
+        assertFallback("[" + "1".repeat(JsonTape.MAX_NUMBER_LENGTH + 1) + "]");
+        final byte[] invalidUtf8 = { '[', '"', (byte) 0xC3, '"', ']' };
+        assertThat(JsonTape.build(invalidUtf8, 0, invalidUtf8.length), nullValue());
+        final byte[] overlong = { '[', '"', (byte) 0xC0, (byte) 0xAF, '"', ']' };
+        assertThat(JsonTape.build(overlong, 0, overlong.length), nullValue());
+    }
+
+    public void testDuplicateKeysInLargeObjects() {
+        final StringBuilder json = new StringBuilder("{");
+        final int keys = randomIntBetween(17, 100);
+        for (int i = 0; i < keys; i++) {
+            json.append("\"key").append(i).append("\":").append(i).append(',');
+        }
+        final String unique = json + "\"last\":0}";
+        final String duplicate = json + "\"key" + randomIntBetween(0, keys - 1) + "\":0}";
+        assertThat(JsonTape.build(unique.getBytes(StandardCharsets.UTF_8), 0, unique.length()), notNullValue());
+        assertThat(JsonTape.build(duplicate.getBytes(StandardCharsets.UTF_8), 0, duplicate.length()), nullValue());
+        // the same keys in sibling objects are not duplicates
+        final String siblings = "[{\"a\":{\"b\":1}},{\"a\":{\"b\":1}}]";
+        assertThat(JsonTape.build(siblings.getBytes(StandardCharsets.UTF_8), 0, siblings.length()), notNullValue());
+    }
+
+    public void testOffset() throws IOException {
+        final byte[] bytes = "xx{\"a\":[1,\"b\"]}yy".getBytes(StandardCharsets.UTF_8);
+        final JsonTape tape = JsonTape.build(bytes, 2, bytes.length - 4);
+        assertThat(tape, notNullValue());
+        try (XContentParser parser = new JsonTapeXContentParser(XContentParserConfiguration.EMPTY, tape)) {
+            assertThat(parser.map(), equalTo(Map.of("a", List.of(1, "b"))));
+        }
+    }
+
+    public void testCreateParser() throws IOException {
+        final byte[] valid = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+        final byte[] invalid = "{\"a\":1,\"a\":2}".getBytes(StandardCharsets.UTF_8);
+        try (XContentParser parser = JsonXContentImpl.jsonXContent().createParser(XContentParserConfiguration.EMPTY, valid)) {
+            assertThat(parser, instanceOf(JsonXContentParser.class));
+        }
+        final XContentParserConfiguration config = XContentParserConfiguration.EMPTY.withJsonTapeParser(valid.length);
+        try (XContentParser parser = JsonXContentImpl.jsonXContent().createParser(config, valid)) {
+            assertThat(parser, instanceOf(JsonTapeXContentParser.class));
+        }
+        try (XContentParser parser = JsonXContentImpl.jsonXContent().createParser(config, invalid)) {
+            assertThat(parser, instanceOf(JsonXContentParser.class));
+        }
+        final XContentParserConfiguration filtering = config.withFiltering(Set.of("a"), null, false);
+        try (XContentParser parser = JsonXContentImpl.jsonXContent().createParser(filtering, valid)) {
+            assertThat(parser, instanceOf(JsonXContentParser.class));
+        }
+        final XContentParserConfiguration tooShort = config.withJsonTapeParser(valid.length - 1);
+        try (XContentParser parser = JsonXContentImpl.jsonXContent().createParser(tooShort, valid)) {
+            assertThat(parser, instanceOf(JsonXContentParser.class));
+        }
+        expectThrows(IllegalArgumentException.class, () -> config.withJsonTapeParser(-1));
+    }
+
+    public void testNumberTypeOfEachToken() throws IOException {
+        final byte[] bytes = "[1,12345678901,1.5,123456789012345678901]".getBytes(StandardCharsets.UTF_8);
+        final JsonTape tape = JsonTape.build(bytes, 0, bytes.length);
+        assertThat(tape, notNullValue());
+        final List<XContentParser.NumberType> expectedTypes = List.of(
+            XContentParser.NumberType.INT,
+            XContentParser.NumberType.LONG,
+            XContentParser.NumberType.DOUBLE,
+            XContentParser.NumberType.BIG_INTEGER
+        );
+        try (XContentParser parser = new JsonTapeXContentParser(XContentParserConfiguration.EMPTY, tape)) {
+            assertThat(parser.nextToken(), equalTo(XContentParser.Token.START_ARRAY));
+            for (XContentParser.NumberType expected : expectedTypes) {
+                assertThat(parser.nextToken(), equalTo(XContentParser.Token.VALUE_NUMBER));
+                assertThat(parser.numberType(), equalTo(expected));
+                // the number type is cached per token
+                assertThat(parser.numberType(), equalTo(expected));
+            }
+        }
+    }
+
+    private static void assertFallback(String json) {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertThat(json, JsonTape.build(bytes, 0, bytes.length), nullValue());
+    }
+
+    private void assertSameTokens(String json) throws IOException {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        final JsonTape tape = JsonTape.build(bytes, 0, bytes.length);
+        assertThat(json, tape, notNullValue());
+        try (
+            XContentParser expected = JsonXContentImpl.jsonXContent()
+                .createParser(XContentParserConfiguration.EMPTY, new ByteArrayInputStream(bytes));
+            XContentParser actual = new JsonTapeXContentParser(XContentParserConfiguration.EMPTY, tape)
+        ) {
+            Token token;
+            do {
+                token = expected.nextToken();
+                assertThat(json, actual.nextToken(), equalTo(token));
+                if (token == Token.START_OBJECT || token == Token.START_ARRAY) {
+                    if (rarely()) {
+                        expected.skipChildren();
+                        actual.skipChildren();
+                        assertThat(json, actual.currentToken(), equalTo(expected.currentToken()));
+                    }
+                }
+                assertThat(json, actual.currentName(), equalTo(expected.currentName()));
+                if (token != null) {
+                    assertThat(json, actual.getTokenLocation(), equalTo(expected.getTokenLocation()));
+                }
+                if (token != null && token.isValue()) {
+                    assertThat(json, actual.text(), equalTo(expected.text()));
+                    assertThat(json, actual.objectText(), equalTo(expected.objectText()));
+                }
+                if (token == Token.VALUE_NUMBER) {
+                    assertThat(json, actual.numberType(), equalTo(expected.numberType()));
+                    assertThat(json, actual.numberValue(), equalTo(expected.numberValue()));
+                    assertThat(json, actual.doubleValue(), equalTo(expected.doubleValue()));
+                    assertThat(json, actual.floatValue(), equalTo(expected.floatValue()));
+                } else if (token == Token.VALUE_BOOLEAN) {
+                    assertThat(json, actual.booleanValue(), equalTo(expected.booleanValue()));
+                }
+            } while (token != null);
+        }
+    }
+
+    private void randomValue(StringBuilder json, int depth) {
+        switch (depth > 4 ? randomIntBetween(2, 6) : randomIntBetween(0, 6)) {
+            case 0 -> {
+                json.append('{');
+                final Set<String> keys = new HashSet<>();
+                final int size = randomIntBetween(0, 20);
+                for (int i = 0; i < size; i++) {
+                    final String key = randomRealisticUnicodeOfLengthBetween(0, 10);
+                    if (keys.add(key) == false) {
+                        continue;
+                    }
+                    if (keys.size() > 1) {
+                        json.append(',');
+                    }
+                    whitespace(json);
+                    string(json, key);
+                    whitespace(json);
+                    json.append(':');
+                    whitespace(json);
+                    randomValue(json, depth + 1);
+                    whitespace(json);
+                }
+                json.append('}');
+            }
+            case 1 -> {
+                json.append('[');
+                final int size = randomIntBetween(0, 10);
+                for (int i = 0; i < size; i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    whitespace(json);
+                    randomValue(json, depth + 1);
+                    whitespace(json);
+                }
+                json.append(']');
+            }
+            case 2 -> string(json, randomBoolean() ? randomAlphaOfLengthBetween(0, 40) : randomRealisticUnicodeOfLengthBetween(0, 40));
+            case 3 -> {
+                final String number = switch (randomIntBetween(0, 3)) {
+                    case 0 -> Integer.toString(randomInt());
+                    case 1 -> Long.toString(randomLong());
+                    case 2 -> randomFrom("0", "-0", "9223372036854775807", "-9223372036854775809", "123456789012345678901234567890");
+                    default -> Integer.toString(randomIntBetween(-100, 100));
+                };
+                json.append(number);
+            }
+            case 4 -> {
+                final String number = switch (randomIntBetween(0, 2)) {
+                    case 0 -> Double.toString(randomDoubleBetween(-1e10, 1e10, true));
+                    case 1 -> Double.toString(randomDouble());
+                    default -> randomFrom("0.5e-3", "1E10", "-1.25E+2", "3.4028235E39", "0.1000000000000000055511151231257827");
+                };
+                json.append(number);
+            }
+            case 5 -> json.append(randomBoolean());
+            default -> json.append("null");
+        }
+    }
+
+    private void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20 || (Character.isSurrogate(c) == false && rarely())) {
+                json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else if (Character.isLowSurrogate(c) == false && rarely()) {
+                json.append(randomFrom("\\n", "\\t", "\\/", "\\\"", "\\\\"));
+                json.append(c);
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private void whitespace(StringBuilder json) {
+        json.append(randomFrom("", "", " ", "\n", "\r\n", "\t  "));
+    }
+}
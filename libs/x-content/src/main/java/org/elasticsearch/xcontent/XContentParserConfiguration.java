@@ -56,6 +56,22 @@ public interface XContentParserConfiguration {
 
     RestApiVersion restApiVersion();
 
+    /**
+     * Parse JSON content held in byte arrays of at most {@code maxContentLength} bytes from a structural index of the whole content
+     * rather than token by token. Larger content, and content that can't be parsed this way, is still parsed token by token. A
+     * {@code maxContentLength} of {@code 0}, the default, always parses token by token.
+     */
+    XContentParserConfiguration withJsonTapeParser(int maxContentLength);
+
+    int jsonTapeParserMaxContentLength();
+
+    /**
+     * Whether the parsed content is filtered by includes or excludes.
+     */
+    default boolean hasFiltering() {
+        return false;
+    }
+
     // TODO: Remove when serverless uses the new API
     XContentParserConfiguration withFiltering(
         Set<String> includeStrings,
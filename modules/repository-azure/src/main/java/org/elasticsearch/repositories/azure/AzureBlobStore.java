@@ -226,6 +226,11 @@ public class AzureBlobStore implements BlobStore {
         return new AzureBlobContainer(path, this);
     }
 
+    @Override
+    public int maxBulkDeleteSize() {
+        return deletionBatchSize;
+    }
+
     @Override
     public void close() {}
 
@@ -350,6 +350,11 @@ class S3BlobStore implements BlobStore {
         return new S3BlobContainer(path, this);
     }
 
+    @Override
+    public int maxBulkDeleteSize() {
+        return bulkDeletionBatchSize;
+    }
+
     private static class DeletionExceptions {
         Exception exception = null;
         private int count = 0;
@@ -45,6 +45,7 @@ import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.recovery.PeerRecoveryTargetService;
 import org.elasticsearch.indices.recovery.RecoveryFileChunkRequest;
+import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.test.BackgroundIndexer;
@@ -162,6 +163,45 @@ public class RelocationIT extends ESIntegTestCase {
         assertHitCount(prepareSearch("test").setSize(0), 20);
     }
 
+    public void testRelocationLinksLocalFiles() {
+        final Settings nodeSettings = Settings.builder()
+            .put(RecoverySettings.INDICES_RECOVERY_LOCAL_FILE_LINKS_SETTING.getKey(), true)
+            .build();
+        final String node_1 = internalCluster().startNode(nodeSettings);
+        prepareCreate("test", indexSettings(1, 0)).get();
+        final int numDocs = scaledRandomIntBetween(10, 100);
+        for (int i = 0; i < numDocs; i++) {
+            prepareIndex("test").setId(Integer.toString(i)).setSource("field", "value" + i).get();
+        }
+        indicesAdmin().prepareFlush().get();
+
+        final String node_2 = internalCluster().startNode(nodeSettings);
+        final AtomicBoolean linkRequested = new AtomicBoolean();
+        MockTransportService.getInstance(node_1)
+            .addSendBehavior(
+                internalCluster().getInstance(TransportService.class, node_2),
+                (connection, requestId, action, request, options) -> {
+                    if (PeerRecoveryTargetService.Actions.LINK_FILES.equals(action)) {
+                        linkRequested.set(true);
+                    }
+                    connection.sendRequest(requestId, action, request, options);
+                }
+            );
+
+        logger.info("--> relocate the shard from node1 to node2");
+        ClusterRerouteUtils.reroute(client(), new MoveAllocationCommand("test", 0, node_1, node_2));
+        ClusterHealthResponse clusterHealthResponse = clusterAdmin().prepareHealth(TEST_REQUEST_TIMEOUT)
+            .setWaitForEvents(Priority.LANGUID)
+            .setWaitForNoRelocatingShards(true)
+            .setTimeout(ACCEPTABLE_RELOCATION_TIME)
+            .get();
+        assertThat(clusterHealthResponse.isTimedOut(), equalTo(false));
+        assertTrue("expected the source to ask the target to link its files", linkRequested.get());
+
+        indicesAdmin().prepareRefresh().get();
+        assertHitCount(prepareSearch("test").setSize(0), numDocs);
+    }
+
     public void testRelocationWhileIndexingRandom() throws Exception {
         int numberOfRelocations = scaledRandomIntBetween(1, rarely() ? 10 : 4);
         int numberOfReplicas = randomBoolean() ? 0 : 1;
@@ -0,0 +1,99 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+package org.elasticsearch.repositories.blobstore;
+
+import org.elasticsearch.action.admin.cluster.snapshots.restore.RestoreSnapshotResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.snapshots.AbstractSnapshotIntegTestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+public class ContentDefinedChunkingIT extends AbstractSnapshotIntegTestCase {
+
+    public void testChunksAreSharedAndDeletedOnceUnreferenced() throws Exception {
+        final String repoName = "test-repo";
+        final Path repoPath = randomRepoPath();
+        createRepository(
+            repoName,
+            "fs",
+            Settings.builder()
+                .put("location", repoPath)
+                .put("compress", randomBoolean())
+                .put(BlobStoreRepository.CONTENT_DEFINED_CHUNKING_SETTING.getKey(), true)
+                .put(BlobStoreRepository.CONTENT_DEFINED_CHUNKING_MIN_FILE_SIZE_SETTING.getKey(), "1mb")
+        );
+
+        // a single segment whose stored fields are large enough to be chunked
+        final String indexName = "test-index";
+        createIndex(indexName, SINGLE_SHARD_NO_REPLICA);
+        ensureGreen(indexName);
+        final int numDocs = between(2_000, 3_000);
+        indexDocs(indexName, numDocs);
+        assertAcked(indicesAdmin().prepareForceMerge(indexName).setMaxNumSegments(1).get());
+
+        createFullSnapshot(repoName, "snap-1");
+        final IndexId indexId = getRepositoryData(repoName).resolveIndexId(indexName);
+        final Path shardPath = repoPath.resolve("indices").resolve(indexId.getId()).resolve("0");
+        final Set<String> chunks = chunkBlobs(shardPath);
+        assertThat(chunks, not(empty()));
+
+        // the second snapshot only adds a small segment and references the chunks of the first one instead of uploading them again
+        final int moreDocs = between(1, 10);
+        indexDocs(indexName, moreDocs);
+        createFullSnapshot(repoName, "snap-2");
+        assertThat(chunkBlobs(shardPath), equalTo(chunks));
+
+        // the chunks are still referenced by the second snapshot
+        assertAcked(startDeleteSnapshot(repoName, "snap-1").get());
+        assertBusy(() -> assertThat(chunkBlobs(shardPath), equalTo(chunks)));
+
+        final RestoreSnapshotResponse restoreSnapshotResponse = clusterAdmin().prepareRestoreSnapshot(
+            TEST_REQUEST_TIMEOUT,
+            repoName,
+            "snap-2"
+        ).setIndices(indexName).setRenamePattern("(.+)").setRenameReplacement("$1-restored").setWaitForCompletion(true).get();
+        assertThat(restoreSnapshotResponse.getRestoreInfo().failedShards(), equalTo(0));
+        assertDocCount(indexName + "-restored", numDocs + moreDocs);
+
+        assertAcked(startDeleteSnapshot(repoName, "snap-2").get());
+        assertBusy(() -> assertThat(chunkBlobs(shardPath), empty()));
+    }
+
+    // not using indexRandom, which may force merge the shard and rewrite the chunked files
+    private void indexDocs(String indexName, int numDocs) {
+        final BulkRequestBuilder bulkRequest = client().prepareBulk().setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        for (int i = 0; i < numDocs; i++) {
+            bulkRequest.add(prepareIndex(indexName).setSource("field", randomAlphaOfLength(2_000)));
+        }
+        assertNoFailures(bulkRequest.get());
+    }
+
+    private static Set<String> chunkBlobs(Path shardPath) throws IOException {
+        if (Files.exists(shardPath) == false) {
+            return Set.of();
+        }
+        try (Stream<Path> files = Files.list(shardPath)) {
+            return files.map(file -> file.getFileName().toString()).filter(ContentDefinedChunker::isChunkBlob).collect(Collectors.toSet());
+        }
+    }
+}
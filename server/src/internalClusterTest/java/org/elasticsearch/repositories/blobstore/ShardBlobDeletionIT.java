@@ -0,0 +1,215 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+package org.elasticsearch.repositories.blobstore;
+
+import org.apache.logging.log4j.Level;
+import org.elasticsearch.cluster.metadata.RepositoryMetadata;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.BlobStore;
+import org.elasticsearch.common.blobstore.OperationPurpose;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.indices.recovery.RecoverySettings;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.plugins.RepositoryPlugin;
+import org.elasticsearch.repositories.RepositoriesMetrics;
+import org.elasticsearch.repositories.Repository;
+import org.elasticsearch.repositories.fs.FsRepository;
+import org.elasticsearch.snapshots.AbstractSnapshotIntegTestCase;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.snapshots.mockstore.BlobStoreWrapper;
+import org.elasticsearch.test.ESIntegTestCase;
+import org.elasticsearch.test.MockLog;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@ESIntegTestCase.ClusterScope(scope = ESIntegTestCase.Scope.TEST, numDataNodes = 0)
+public class ShardBlobDeletionIT extends AbstractSnapshotIntegTestCase {
+
+    @Override
+    protected Collection<Class<? extends Plugin>> nodePlugins() {
+        return List.of(TestRepositoryPlugin.class);
+    }
+
+    public void testConcurrentShardBlobDeletes() throws Exception {
+        // enough snapshot threads for the number of concurrent deletes to be bounded by the repository setting
+        internalCluster().startMasterOnlyNode(LARGE_SNAPSHOT_POOL_SETTINGS);
+        internalCluster().startDataOnlyNode();
+
+        final String repoName = "test-repo";
+        final int maxConcurrentBlobDeletes = between(1, 3);
+        final boolean failDeletes = randomBoolean();
+        if (failDeletes) {
+            disableRepoConsistencyCheck("the shard-level blobs of the failed batches are left behind");
+        }
+        createRepository(
+            repoName,
+            TestRepositoryPlugin.REPO_TYPE,
+            Settings.builder()
+                .put("location", randomRepoPath())
+                .put(BlobStoreRepository.MAX_CONCURRENT_BLOB_DELETES_SETTING.getKey(), maxConcurrentBlobDeletes)
+                .put(TestRepository.FAIL_DELETES_SETTING_KEY, failDeletes)
+        );
+
+        // every snapshot references different segments, so that deleting the older ones leaves many stale shard-level blobs
+        final String indexName = "test-index";
+        createIndex(indexName, indexSettingsNoReplicas(between(1, 3)).build());
+        ensureGreen(indexName);
+        final List<String> snapshotNames = new ArrayList<>();
+        for (int i = between(3, 5); i > 0; i--) {
+            indexRandomDocs(indexName, between(10, 50));
+            assertAcked(indicesAdmin().prepareForceMerge(indexName).setMaxNumSegments(1).get());
+            final String snapshotName = "snap-" + snapshotNames.size();
+            createFullSnapshot(repoName, snapshotName);
+            snapshotNames.add(snapshotName);
+        }
+
+        final TestRepository repository = getRepositoryOnMaster(repoName);
+        final List<String> deletedSnapshots = snapshotNames.subList(0, snapshotNames.size() - 1);
+        final Runnable deleteSnapshots = () -> {
+            try {
+                assertAcked(startDeleteSnapshots(repoName, deletedSnapshots, internalCluster().getMasterName()).get());
+                awaitNoMoreRunningOperations();
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        };
+        if (failDeletes) {
+            // the deletion completes despite the failed batches, whose summary is logged as a warning
+            MockLog.assertThatLogger(
+                deleteSnapshots,
+                BlobStoreRepository.class,
+                new MockLog.SeenEventExpectation(
+                    "failed batches summary",
+                    BlobStoreRepository.class.getCanonicalName(),
+                    Level.WARN,
+                    "*shard-level blobs of snapshots * batches failed"
+                )
+            );
+        } else {
+            deleteSnapshots.run();
+        }
+
+        assertThat(repository.shardBlobDeleteRequests.get(), greaterThan(1));
+        assertThat(repository.maxConcurrentShardBlobDeleteRequests.get(), lessThanOrEqualTo(maxConcurrentBlobDeletes));
+        assertThat(
+            getRepositoryData(repoName).getSnapshotIds().stream().map(SnapshotId::getName).toList(),
+            equalTo(List.of(snapshotNames.get(snapshotNames.size() - 1)))
+        );
+    }
+
+    public static class TestRepositoryPlugin extends Plugin implements RepositoryPlugin {
+
+        public static final String REPO_TYPE = "shard-blob-deletion-test";
+
+        @Override
+        public Map<String, Repository.Factory> getRepositories(
+            Environment env,
+            NamedXContentRegistry namedXContentRegistry,
+            ClusterService clusterService,
+            BigArrays bigArrays,
+            RecoverySettings recoverySettings,
+            RepositoriesMetrics repositoriesMetrics
+        ) {
+            return Map.of(
+                REPO_TYPE,
+                metadata -> new TestRepository(metadata, env, namedXContentRegistry, clusterService, bigArrays, recoverySettings)
+            );
+        }
+    }
+
+    /**
+     * Deletes blobs one at a time and tracks how many bulk deletes of shard-level blobs run concurrently, optionally failing every
+     * third of them.
+     */
+    public static class TestRepository extends FsRepository {
+
+        static final String FAIL_DELETES_SETTING_KEY = "fail_deletes";
+
+        private final boolean failDeletes;
+        private final AtomicInteger shardBlobDeleteRequests = new AtomicInteger();
+        private final AtomicInteger concurrentShardBlobDeleteRequests = new AtomicInteger();
+        private final AtomicInteger maxConcurrentShardBlobDeleteRequests = new AtomicInteger();
+
+        public TestRepository(
+            RepositoryMetadata metadata,
+            Environment environment,
+            NamedXContentRegistry namedXContentRegistry,
+            ClusterService clusterService,
+            BigArrays bigArrays,
+            RecoverySettings recoverySettings
+        ) {
+            super(metadata, environment, namedXContentRegistry, clusterService, bigArrays, recoverySettings);
+            failDeletes = metadata.settings().getAsBoolean(FAIL_DELETES_SETTING_KEY, false);
+        }
+
+        @Override
+        protected BlobStore createBlobStore() throws Exception {
+            final var blobStore = super.createBlobStore();
+            return new BlobStoreWrapper(blobStore) {
+
+                @Override
+                public int maxBulkDeleteSize() {
+                    return 1;
+                }
+
+                @Override
+                public BlobContainer blobContainer(BlobPath path) {
+                    return new FilterBlobContainer(super.blobContainer(path)) {
+
+                        @Override
+                        protected BlobContainer wrapChild(BlobContainer child) {
+                            return child;
+                        }
+
+                        @Override
+                        public void deleteBlobsIgnoringIfNotExists(OperationPurpose purpose, Iterator<String> blobNames)
+                            throws IOException {
+                            if (purpose != OperationPurpose.SNAPSHOT_DATA) {
+                                super.deleteBlobsIgnoringIfNotExists(purpose, blobNames);
+                                return;
+                            }
+                            final int request = shardBlobDeleteRequests.getAndIncrement();
+                            maxConcurrentShardBlobDeleteRequests.accumulateAndGet(
+                                concurrentShardBlobDeleteRequests.incrementAndGet(),
+                                Math::max
+                            );
+                            try {
+                                // give the other batches a chance to run concurrently
+                                safeSleep(10);
+                                if (failDeletes && request % 3 == 0) {
+                                    throw new IOException("simulated failure to delete shard-level blobs");
+                                }
+                                super.deleteBlobsIgnoringIfNotExists(purpose, blobNames);
+                            } finally {
+                                concurrentShardBlobDeleteRequests.decrementAndGet();
+                            }
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
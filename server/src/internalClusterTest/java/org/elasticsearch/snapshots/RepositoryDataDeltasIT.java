@@ -0,0 +1,71 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.snapshots;
+
+import org.elasticsearch.action.admin.cluster.snapshots.restore.RestoreSnapshotResponse;
+import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
+import org.elasticsearch.test.ESIntegTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+@ESIntegTestCase.ClusterScope(scope = ESIntegTestCase.Scope.TEST, numDataNodes = 0)
+public class RepositoryDataDeltasIT extends AbstractSnapshotIntegTestCase {
+
+    public void testSnapshotRestoreAndDeleteWithDeltas() throws Exception {
+        internalCluster().startMasterOnlyNodes(3);
+        internalCluster().startDataOnlyNode();
+        final String repoName = "test-repo";
+        createRepository(
+            repoName,
+            "fs",
+            randomRepositorySettings().put(BlobStoreRepository.REPOSITORY_DATA_MAX_DELTAS_SETTING.getKey(), between(1, 5))
+        );
+        final String indexName = "test-index";
+        createIndexWithContent(indexName);
+
+        final List<String> snapshotNames = new ArrayList<>(createNSnapshots(repoName, between(3, 10)));
+        final List<String> deletedSnapshots = randomSubsetOf(between(1, snapshotNames.size() - 1), snapshotNames);
+        assertAcked(startDeleteSnapshots(repoName, deletedSnapshots, internalCluster().getMasterName()).get());
+        snapshotNames.removeAll(deletedSnapshots);
+        assertSnapshotNames(repoName, snapshotNames);
+
+        final String restoredIndexName = indexName + "-restored";
+        final RestoreSnapshotResponse restoreSnapshotResponse = clusterAdmin().prepareRestoreSnapshot(
+            TEST_REQUEST_TIMEOUT,
+            repoName,
+            randomFrom(snapshotNames)
+        ).setIndices(indexName).setRenamePattern("(.+)").setRenameReplacement("$1-restored").setWaitForCompletion(true).get();
+        assertThat(restoreSnapshotResponse.getRestoreInfo().failedShards(), equalTo(0));
+        assertDocCount(restoredIndexName, 1L);
+
+        // the new master doesn't know how the latest root blob was written, so it reads its chain from the repository
+        internalCluster().stopCurrentMasterNode();
+        ensureStableCluster(3);
+        snapshotNames.addAll(createNSnapshots(repoName, between(1, 5)));
+        final String deletedSnapshot = randomFrom(snapshotNames);
+        assertAcked(startDeleteSnapshot(repoName, deletedSnapshot).get());
+        snapshotNames.remove(deletedSnapshot);
+        assertSnapshotNames(repoName, snapshotNames);
+    }
+
+    private void assertSnapshotNames(String repoName, List<String> expectedSnapshotNames) {
+        final RepositoryData repositoryData = getRepositoryData(repoName);
+        assertThat(
+            repositoryData.getSnapshotIds().stream().map(SnapshotId::getName).toList(),
+            containsInAnyOrder(expectedSnapshotNames.toArray())
+        );
+    }
+}
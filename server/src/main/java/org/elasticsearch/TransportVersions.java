@@ -225,6 +225,13 @@ public class TransportVersions {
     public static final TransportVersion COMPRESS_DELAYABLE_WRITEABLE = def(9_059_0_00);
     public static final TransportVersion SYNONYMS_REFRESH_PARAM = def(9_060_0_00);
     public static final TransportVersion DOC_FIELDS_AS_LIST = def(9_061_0_00);
+    public static final TransportVersion RANK_VECTORS_MAX_SIM_QUERY = def(9_062_0_00);
+    public static final TransportVersion DENSE_VECTOR_FILES_RESIDENCY_STATS = def(9_063_0_00);
+    public static final TransportVersion SNAPSHOT_CONTENT_DEFINED_CHUNKS = def(9_064_0_00);
+    public static final TransportVersion RECOVERY_STATS_ADAPTIVE_RATE = def(9_065_0_00);
+    public static final TransportVersion RECOVERY_LINK_LOCAL_FILES = def(9_066_0_00);
+    public static final TransportVersion MERGE_STATS_INTRA_MERGE_TASKS = def(9_067_0_00);
+    public static final TransportVersion DOWNSAMPLE_COMPLETED_TSID_RANGES = def(9_068_0_00);
 
     /*
      * STOP! READ THIS FIRST! No, really,
@@ -85,10 +85,29 @@ public final class BulkRequestParser {
      * @param restApiVersion
      */
     public BulkRequestParser(boolean deprecateOrErrorOnType, boolean includeSourceOnError, RestApiVersion restApiVersion) {
+        this(deprecateOrErrorOnType, includeSourceOnError, restApiVersion, 0);
+    }
+
+    /**
+     * Create a new parser.
+     *
+     * @param deprecateOrErrorOnType whether to allow _type information in the index line; used by BulkMonitoring
+     * @param includeSourceOnError if to include the source in parser error messages
+     * @param restApiVersion
+     * @param jsonTapeParserMaxContentLength the longest JSON action line that is parsed with the JSON tape parser, or {@code 0} to
+     *                                       parse all of them token by token, see {@link XContentParserConfiguration#withJsonTapeParser}
+     */
+    public BulkRequestParser(
+        boolean deprecateOrErrorOnType,
+        boolean includeSourceOnError,
+        RestApiVersion restApiVersion,
+        int jsonTapeParserMaxContentLength
+    ) {
         this.deprecateOrErrorOnType = deprecateOrErrorOnType;
         this.config = XContentParserConfiguration.EMPTY.withDeprecationHandler(LoggingDeprecationHandler.INSTANCE)
             .withRestApiVersion(restApiVersion)
-            .withIncludeSourceOnError(includeSourceOnError);
+            .withIncludeSourceOnError(includeSourceOnError)
+            .withJsonTapeParser(jsonTapeParserMaxContentLength);
     }
 
     private static int findNextMarker(byte marker, int from, BytesReference data, boolean lastData) {
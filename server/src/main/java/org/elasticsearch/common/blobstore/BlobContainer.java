@@ -10,19 +10,27 @@
 package org.elasticsearch.common.blobstore;
 
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.common.blobstore.support.BlobMetadata;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.util.concurrent.ThrottledIterator;
 import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.NoSuchFileException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
 
 /**
  * An interface for managing a repository of blob entries, where each blob entry is just a named group of bytes.
@@ -73,6 +81,53 @@ public interface BlobContainer {
      */
     InputStream readBlob(OperationPurpose purpose, String blobName, long position, long length) throws IOException;
 
+    /**
+     * Opens an {@link InputStream} for each of the given ranges of a blob, issuing up to {@code maxConcurrency} range reads at the same
+     * time on the given executor so that the latency of reading several disjoint ranges of a remote blob is paid roughly once rather than
+     * once per range. Each stream is passed to the listener at the same index in {@code listeners}, which takes ownership of it and must
+     * close it. A range holds its concurrency slot until its stream is closed, so the number of ranges that are being read at the same
+     * time stays bounded even if the listeners consume their streams asynchronously. A failure to open a range fails its listener only.
+     * <p>
+     * The default implementation opens each range with {@link #readBlob(OperationPurpose, String, long, long)}, which for the object
+     * stores that we support issues a ranged GET request.
+     *
+     * @param purpose        The purpose of the operation
+     * @param blobName       The name of the blob to read
+     * @param ranges         The ranges of the blob to read
+     * @param executor       The executor on which the range reads are issued, which bounds their concurrency across all callers
+     * @param maxConcurrency The maximum number of ranges of this call that are opened concurrently
+     * @param listeners      The listeners notified with the stream of each range, in the same order as {@code ranges}
+     */
+    default void readBlobRanges(
+        OperationPurpose purpose,
+        String blobName,
+        List<BlobRange> ranges,
+        Executor executor,
+        int maxConcurrency,
+        List<ActionListener<InputStream>> listeners
+    ) {
+        if (ranges.size() != listeners.size()) {
+            throw new IllegalArgumentException("expected one listener per range but got " + listeners.size() + " for " + ranges);
+        }
+        ThrottledIterator.run(IntStream.range(0, ranges.size()).iterator(), (releasable, index) -> {
+            final BlobRange range = ranges.get(index);
+            final Releasable releaseOnce = Releasables.releaseOnce(releasable);
+            executor.execute(ActionRunnable.supply(listeners.get(index).delegateResponse((l, e) -> {
+                releaseOnce.close();
+                l.onFailure(e);
+            }), () -> new FilterInputStream(readBlob(purpose, blobName, range.position(), range.length())) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        releaseOnce.close();
+                    }
+                }
+            }));
+        }, maxConcurrency, () -> {});
+    }
+
     /**
      * Provides a hint to clients for a suitable length to use with {@link BlobContainer#readBlob(OperationPurpose, String, long, long)}.
      *
@@ -0,0 +1,28 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.common.blobstore;
+
+/**
+ * A range of bytes of a blob, read with {@link BlobContainer#readBlobRanges}.
+ *
+ * @param position the position in the blob of the first byte of the range
+ * @param length   the number of bytes of the range
+ */
+public record BlobRange(long position, long length) {
+
+    public BlobRange {
+        if (position < 0L) {
+            throw new IllegalArgumentException("position must be non-negative but was [" + position + "]");
+        }
+        if (length < 0L) {
+            throw new IllegalArgumentException("length must be non-negative but was [" + length + "]");
+        }
+    }
+}
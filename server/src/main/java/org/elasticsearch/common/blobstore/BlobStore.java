@@ -21,11 +21,22 @@ import java.util.Map;
  */
 public interface BlobStore extends Closeable {
 
+    int DEFAULT_MAX_BULK_DELETE_SIZE = 1000;
+
     /**
      * Get a blob container instance for storing blobs at the given {@link BlobPath}.
      */
     BlobContainer blobContainer(BlobPath path);
 
+    /**
+     * Returns the maximum number of blobs that this store deletes with a single request in
+     * {@link BlobContainer#deleteBlobsIgnoringIfNotExists}. Callers deleting many blobs split them in batches of this size so that the
+     * batches can be deleted concurrently.
+     */
+    default int maxBulkDeleteSize() {
+        return DEFAULT_MAX_BULK_DELETE_SIZE;
+    }
+
     /**
      * Returns statistics on the count of operations that have been performed on this blob store
      */
@@ -278,6 +278,38 @@ public class Iterators {
         }
     }
 
+    /**
+     * Returns an iterator over consecutive lists of at most {@code batchSize} elements of the provided {@code input} iterator. Elements
+     * are only pulled from {@code input} when the next batch is requested.
+     */
+    public static <T> Iterator<List<T>> batches(Iterator<? extends T> input, int batchSize) {
+        assert batchSize > 0 : "batch size must be positive";
+        if (input.hasNext()) {
+            return new BatchesIterator<>(input, batchSize);
+        } else {
+            return Collections.emptyIterator();
+        }
+    }
+
+    private record BatchesIterator<T>(Iterator<? extends T> input, int batchSize) implements Iterator<List<T>> {
+        @Override
+        public boolean hasNext() {
+            return input.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            if (input.hasNext() == false) {
+                throw new NoSuchElementException();
+            }
+            final List<T> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && input.hasNext()) {
+                batch.add(input.next());
+            }
+            return Collections.unmodifiableList(batch);
+        }
+    }
+
     /**
      * Returns a list containing the elements of the provided {@code iterator}.
      */
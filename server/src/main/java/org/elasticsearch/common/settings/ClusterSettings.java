@@ -70,6 +70,7 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.util.PageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.discovery.DiscoveryModule;
 import org.elasticsearch.discovery.HandshakingTransportAddressConnector;
 import org.elasticsearch.discovery.PeerFinder;
@@ -93,6 +94,7 @@ import org.elasticsearch.index.shard.IndexingStatsSettings;
 import org.elasticsearch.indices.IndexingMemoryController;
 import org.elasticsearch.indices.IndicesQueryCache;
 import org.elasticsearch.indices.IndicesRequestCache;
+import org.elasticsearch.indices.IndicesSegmentAggregationsCache;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.ShardLimitValidator;
 import org.elasticsearch.indices.analysis.HunspellService;
@@ -100,6 +102,7 @@ import org.elasticsearch.indices.breaker.BreakerSettings;
 import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService;
 import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
+import org.elasticsearch.indices.recovery.AdaptiveRecoveryRateController;
 import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.store.IndicesStore;
 import org.elasticsearch.ingest.IngestSettings;
@@ -263,6 +266,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
         RecoverySettings.INDICES_RECOVERY_INTERNAL_ACTION_RETRY_TIMEOUT_SETTING,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING,
+        RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_OPERATION_REPLAYS_SETTING,
+        RecoverySettings.INDICES_RECOVERY_LOCAL_FILE_LINKS_SETTING,
         RecoverySettings.INDICES_RECOVERY_USE_SNAPSHOTS_SETTING,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE,
@@ -276,6 +281,12 @@ public final class ClusterSettings extends AbstractScopedSettings {
         RecoverySettings.NODE_BANDWIDTH_RECOVERY_DISK_WRITE_SETTING,
         RecoverySettings.NODE_BANDWIDTH_RECOVERY_DISK_READ_SETTING,
         RecoverySettings.NODE_BANDWIDTH_RECOVERY_NETWORK_SETTING,
+        AdaptiveRecoveryRateController.ENABLED_SETTING,
+        AdaptiveRecoveryRateController.MIN_BYTES_PER_SEC_SETTING,
+        AdaptiveRecoveryRateController.MAX_BYTES_PER_SEC_SETTING,
+        AdaptiveRecoveryRateController.UTILIZATION_THRESHOLD_SETTING,
+        AdaptiveRecoveryRateController.SEARCH_QUEUE_THRESHOLD_SETTING,
+        AdaptiveRecoveryRateController.INTERVAL_SETTING,
         ThrottlingAllocationDecider.CLUSTER_ROUTING_ALLOCATION_NODE_INITIAL_PRIMARIES_RECOVERIES_SETTING,
         ThrottlingAllocationDecider.CLUSTER_ROUTING_ALLOCATION_NODE_CONCURRENT_INCOMING_RECOVERIES_SETTING,
         ThrottlingAllocationDecider.CLUSTER_ROUTING_ALLOCATION_NODE_CONCURRENT_OUTGOING_RECOVERIES_SETTING,
@@ -454,6 +465,9 @@ public final class ClusterSettings extends AbstractScopedSettings {
         IndicesFieldDataCache.INDICES_FIELDDATA_CACHE_EXPIRE,
         IndicesRequestCache.INDICES_CACHE_QUERY_SIZE,
         IndicesRequestCache.INDICES_CACHE_QUERY_EXPIRE,
+        IndicesSegmentAggregationsCache.INDICES_CACHE_SEGMENT_AGGREGATIONS_SIZE,
+        XContentHelper.JSON_TAPE_PARSER_ENABLED_SETTING,
+        XContentHelper.JSON_TAPE_PARSER_MAX_CONTENT_LENGTH_SETTING,
         HunspellService.HUNSPELL_LAZY_LOAD,
         HunspellService.HUNSPELL_IGNORE_CASE,
         HunspellService.HUNSPELL_DICTIONARY_OPTIONS,
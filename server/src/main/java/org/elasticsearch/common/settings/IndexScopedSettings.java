@@ -39,7 +39,9 @@ import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.similarity.SimilarityService;
 import org.elasticsearch.index.store.FsDirectoryFactory;
 import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.warmer.DenseVectorWarmer;
 import org.elasticsearch.indices.IndicesRequestCache;
+import org.elasticsearch.indices.IndicesSegmentAggregationsCache;
 import org.elasticsearch.indices.ShardLimitValidator;
 
 import java.util.Arrays;
@@ -120,6 +122,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexSortConfig.INDEX_SORT_MODE_SETTING,
                 IndexSettings.INDEX_TRANSLOG_DURABILITY_SETTING,
                 IndexSettings.INDEX_WARMER_ENABLED_SETTING,
+                DenseVectorWarmer.INDEX_WARMER_DENSE_VECTOR_ENABLED_SETTING,
                 IndexSettings.INDEX_REFRESH_INTERVAL_SETTING,
                 IndexSettings.INDEX_FAST_REFRESH_SETTING,
                 IndexSettings.MAX_RESULT_WINDOW_SETTING,
@@ -147,6 +150,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexSettings.INDEX_SOFT_DELETES_RETENTION_OPERATIONS_SETTING,
                 IndexSettings.INDEX_SOFT_DELETES_RETENTION_LEASE_PERIOD_SETTING,
                 IndicesRequestCache.INDEX_CACHE_REQUEST_ENABLED_SETTING,
+                IndicesSegmentAggregationsCache.INDEX_CACHE_SEGMENT_AGGREGATIONS_ENABLED_SETTING,
                 UnassignedInfo.INDEX_DELAYED_NODE_LEFT_TIMEOUT_SETTING,
                 EnableAllocationDecider.INDEX_ROUTING_REBALANCE_ENABLE_SETTING,
                 EnableAllocationDecider.INDEX_ROUTING_ALLOCATION_ENABLE_SETTING,
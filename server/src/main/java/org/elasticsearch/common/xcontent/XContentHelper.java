@@ -18,6 +18,9 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.compress.Compressor;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.core.CheckedFunction;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.RestApiVersion;
@@ -49,6 +52,39 @@ import java.util.Set;
 @SuppressWarnings("unchecked")
 public class XContentHelper {
 
+    /**
+     * Whether JSON content held in byte arrays is parsed from a structural index of the whole content rather than token by token.
+     * Content that can't be parsed this way, like content with comments, is still parsed token by token.
+     */
+    public static final Setting<Boolean> JSON_TAPE_PARSER_ENABLED_SETTING = Setting.boolSetting(
+        "xcontent.json.tape_parser.enabled",
+        false,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The largest JSON content that is parsed from a structural index of the whole content when
+     * {@link #JSON_TAPE_PARSER_ENABLED_SETTING} is set. The index is held in memory for as long as the content is parsed, so larger
+     * content is always parsed token by token.
+     */
+    public static final Setting<ByteSizeValue> JSON_TAPE_PARSER_MAX_CONTENT_LENGTH_SETTING = Setting.byteSizeSetting(
+        "xcontent.json.tape_parser.max_content_length",
+        ByteSizeValue.ofKb(64),
+        ByteSizeValue.ofBytes(1),
+        ByteSizeValue.ofMb(16),
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Applies the JSON tape parser settings of the node to the given parser configuration.
+     */
+    public static XContentParserConfiguration withJsonTapeParser(XContentParserConfiguration config, Settings settings) {
+        if (JSON_TAPE_PARSER_ENABLED_SETTING.get(settings) == false) {
+            return config;
+        }
+        return config.withJsonTapeParser(Math.toIntExact(JSON_TAPE_PARSER_MAX_CONTENT_LENGTH_SETTING.get(settings).getBytes()));
+    }
+
     /**
      * Creates a parser based on the bytes provided
      * @deprecated use {@link #createParser(XContentParserConfiguration, BytesReference, XContentType)}
@@ -0,0 +1,38 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.elasticsearch.core.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Numeric doc values that can summarize the values of a range of documents from summaries that the doc values format pre-aggregated
+ * when the segment was flushed or merged, decoding at most the values at both ends of the range. Time series segments are sorted by
+ * {@code _tsid} and {@code @timestamp}, so the documents of a time series in a time interval are such a range.
+ * <p>
+ * Summaries are computed on the values as they are stored: doubles and floats are stored as sortable longs, which preserve the order of
+ * the values, so the minimum and the maximum are meaningful for all numeric fields.
+ */
+public interface NumericDocValuesSummarizer {
+
+    /**
+     * Summarizes the values of the documents from {@code fromDoc} inclusive to {@code toDoc} exclusive, including deleted documents.
+     * This doesn't change the current document of the doc values. Returns {@code null} if the segment has no summaries.
+     */
+    @Nullable
+    Summary summarize(int fromDoc, int toDoc) throws IOException;
+
+    /**
+     * The summary of {@code count} values, with {@code min} and {@code max} being {@link Long#MAX_VALUE} and {@link Long#MIN_VALUE}
+     * if there are no values.
+     */
+    record Summary(long count, long min, long max) {}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.tsdb.es819;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small cache of decoded numeric blocks of a segment, used by a single thread. Several consumers frequently read the same fields for the
+ * same documents on a search thread, e.g. several aggregations or several ES|QL operators, and each of them pulls its own doc values
+ * instance. This cache lets them share the work of decoding each block. {@link ES819TSDBDocValuesProducer} holds one cache per thread,
+ * which is released when the producer is closed.
+ * <p>
+ * Blocks are keyed by the identity of the field's {@link ES819TSDBDocValuesProducer.NumericEntry}, which is unique per field, and the
+ * index of the block. The cache is direct-mapped: a block evicts whichever block was cached in its slot. Blocks of a field are only
+ * cached while another reader of the same field is active on the thread, so that a lone reader doesn't pay for copying its blocks.
+ * <p>
+ * Slots are allocated on first use, and the memory of all caches of the node is bounded by {@link #MAX_BYTES}: once the bound is
+ * reached, blocks are decoded without being cached until producers get closed.
+ */
+final class DecodedBlockCache {
+
+    static final int NUM_SLOTS = 32;
+
+    static final long BLOCK_BYTES = RamUsageEstimator.alignObjectSize(
+        RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) Long.BYTES * ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE
+    );
+
+    // 1% of the heap is enough for a few thousand caches of threads and segments that are read concurrently
+    static final long MAX_BYTES = Math.max(NUM_SLOTS * BLOCK_BYTES, Runtime.getRuntime().maxMemory() / 100);
+
+    private static final AtomicLong USED_BYTES = new AtomicLong();
+
+    // number of block reads of a field for which its blocks keep being cached after another reader of the field was seen
+    private static final int SHARED_WINDOW = 2 * NUM_SLOTS;
+
+    private final Object[] keys = new Object[NUM_SLOTS];
+    private final long[] blockIndices = new long[NUM_SLOTS];
+    private final long[][] blocks = new long[NUM_SLOTS][];
+    private long allocatedBytes;
+    private long hits;
+
+    // last reader and remaining shared window of the fields that were read, direct-mapped like blocks
+    private final Object[] fieldKeys = new Object[NUM_SLOTS];
+    private final Object[] fieldReaders = new Object[NUM_SLOTS];
+    private final int[] sharedWindows = new int[NUM_SLOTS];
+
+    /**
+     * Records that {@code reader} is about to read a block of the field identified by {@code key}, and returns whether blocks of this
+     * field should go through the cache, i.e. whether another reader of the field was recently seen on this thread.
+     */
+    boolean shared(Object key, Object reader) {
+        final int slot = System.identityHashCode(key) & (NUM_SLOTS - 1);
+        if (fieldKeys[slot] != key) {
+            fieldKeys[slot] = key;
+            sharedWindows[slot] = 0;
+        } else if (fieldReaders[slot] != reader) {
+            sharedWindows[slot] = SHARED_WINDOW;
+        } else if (sharedWindows[slot] > 0) {
+            sharedWindows[slot]--;
+        }
+        fieldReaders[slot] = reader;
+        return sharedWindows[slot] > 0;
+    }
+
+    /**
+     * Copies the decoded block into {@code block} if it is cached, and returns whether it was.
+     */
+    boolean read(Object key, long blockIndex, long[] block) {
+        final int slot = slot(key, blockIndex);
+        if (keys[slot] == key && blockIndices[slot] == blockIndex) {
+            System.arraycopy(blocks[slot], 0, block, 0, ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE);
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Caches a copy of the decoded {@code block}, unless its slot isn't allocated yet and the memory bound of the node is reached.
+     */
+    void put(Object key, long blockIndex, long[] block) {
+        final int slot = slot(key, blockIndex);
+        if (blocks[slot] == null) {
+            if (USED_BYTES.addAndGet(BLOCK_BYTES) > MAX_BYTES) {
+                USED_BYTES.addAndGet(-BLOCK_BYTES);
+                return;
+            }
+            allocatedBytes += BLOCK_BYTES;
+            blocks[slot] = new long[ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        }
+        keys[slot] = key;
+        blockIndices[slot] = blockIndex;
+        System.arraycopy(block, 0, blocks[slot], 0, ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE);
+    }
+
+    /**
+     * Drops the cached blocks and gives their memory back to the node.
+     */
+    void release() {
+        USED_BYTES.addAndGet(-allocatedBytes);
+        allocatedBytes = 0;
+        for (int slot = 0; slot < NUM_SLOTS; slot++) {
+            keys[slot] = null;
+            blocks[slot] = null;
+            fieldKeys[slot] = null;
+            fieldReaders[slot] = null;
+        }
+    }
+
+    /**
+     * The number of blocks that were read from this cache rather than decoded.
+     */
+    long hits() {
+        return hits;
+    }
+
+    /**
+     * The memory that is used by the caches of all producers of the node.
+     */
+    static long usedBytes() {
+        return USED_BYTES.get();
+    }
+
+    private static int slot(Object key, long blockIndex) {
+        // consecutive blocks of the same field land in consecutive slots
+        return (System.identityHashCode(key) * 31 + Long.hashCode(blockIndex)) & (NUM_SLOTS - 1);
+    }
+}
@@ -63,11 +63,13 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
     private byte[] termsDictBuffer;
     private final int skipIndexIntervalSize;
     final boolean enableOptimizedMerge;
+    private final int version;
 
     ES819TSDBDocValuesConsumer(
         SegmentWriteState state,
         int skipIndexIntervalSize,
         boolean enableOptimizedMerge,
+        int version,
         String dataCodec,
         String dataExtension,
         String metaCodec,
@@ -83,7 +85,7 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
             CodecUtil.writeIndexHeader(
                 data,
                 dataCodec,
-                ES819TSDBDocValuesFormat.VERSION_CURRENT,
+                version,
                 state.segmentInfo.getId(),
                 state.segmentSuffix
             );
@@ -92,13 +94,14 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
             CodecUtil.writeIndexHeader(
                 meta,
                 metaCodec,
-                ES819TSDBDocValuesFormat.VERSION_CURRENT,
+                version,
                 state.segmentInfo.getId(),
                 state.segmentSuffix
             );
             maxDoc = state.segmentInfo.maxDoc();
             this.skipIndexIntervalSize = skipIndexIntervalSize;
             this.enableOptimizedMerge = enableOptimizedMerge;
+            this.version = version;
             success = true;
         } finally {
             if (success == false) {
@@ -121,11 +124,19 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
             writeSkipIndex(field, producer);
         }
 
-        writeField(field, producer, -1, null);
+        final NumericSummariesAccumulator summaries = newSummariesAccumulator();
+        writeField(field, producer, -1, null, summaries);
+        writeSummaries(summaries);
     }
 
-    private long[] writeField(FieldInfo field, TsdbDocValuesProducer valuesProducer, long maxOrd, OffsetsAccumulator offsetsAccumulator)
-        throws IOException {
+    private long[] writeField(
+        FieldInfo field,
+        TsdbDocValuesProducer valuesProducer,
+        long maxOrd,
+        OffsetsAccumulator offsetsAccumulator,
+        NumericSummariesAccumulator summaries
+    ) throws IOException {
+        assert maxOrd < 0 || summaries == null : "ordinals are not summarized";
         int numDocsWithValue = 0;
         long numValues = 0;
 
@@ -179,7 +190,11 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
                             offsetsAccumulator.addDoc(count);
                         }
                         for (int i = 0; i < count; ++i) {
-                            buffer[bufferSize++] = values.nextValue();
+                            final long value = values.nextValue();
+                            if (summaries != null) {
+                                summaries.add(value);
+                            }
+                            buffer[bufferSize++] = value;
                             if (bufferSize == ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE) {
                                 indexWriter.add(data.getFilePointer() - valuesDataOffset);
                                 if (maxOrd >= 0) {
@@ -390,7 +405,7 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
         }
         SortedDocValues sorted = valuesProducer.getSorted(field);
         int maxOrd = sorted.getValueCount();
-        writeField(field, producer, maxOrd, null);
+        writeField(field, producer, maxOrd, null, null);
         addTermsDict(DocValues.singleton(valuesProducer.getSorted(field)));
     }
 
@@ -549,21 +564,22 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
         if (maxOrd > -1) {
             meta.writeByte((byte) 1); // multiValued (1 = multiValued)
         }
+        final NumericSummariesAccumulator summaries = maxOrd < 0 ? newSummariesAccumulator() : null;
 
         if (valuesProducer.mergeStats.supported()) {
             int numDocsWithField = valuesProducer.mergeStats.sumNumDocsWithField();
             long numValues = valuesProducer.mergeStats.sumNumValues();
             if (numDocsWithField == numValues) {
-                writeField(field, valuesProducer, maxOrd, null);
+                writeField(field, valuesProducer, maxOrd, null, summaries);
             } else {
                 assert numValues > numDocsWithField;
                 try (var accumulator = new OffsetsAccumulator(dir, context, data, numDocsWithField)) {
-                    writeField(field, valuesProducer, maxOrd, accumulator);
+                    writeField(field, valuesProducer, maxOrd, accumulator, summaries);
                     accumulator.build(meta, data);
                 }
             }
         } else {
-            long[] stats = writeField(field, valuesProducer, maxOrd, null);
+            long[] stats = writeField(field, valuesProducer, maxOrd, null, summaries);
             int numDocsWithField = Math.toIntExact(stats[0]);
             long numValues = stats[1];
             assert numValues >= numDocsWithField;
@@ -590,6 +606,62 @@ final class ES819TSDBDocValuesConsumer extends XDocValuesConsumer {
                 meta.writeLong(data.getFilePointer() - start);
             }
         }
+        writeSummaries(summaries);
+    }
+
+    private NumericSummariesAccumulator newSummariesAccumulator() {
+        return version >= ES819TSDBDocValuesFormat.VERSION_NUMERIC_SUMMARIES ? new NumericSummariesAccumulator() : null;
+    }
+
+    private void writeSummaries(NumericSummariesAccumulator summaries) throws IOException {
+        if (summaries == null) {
+            return;
+        }
+        if (summaries.finish()) {
+            final long summariesOffset = data.getFilePointer();
+            data.copyBytes(summaries.out.toDataInput(), summaries.out.size());
+            meta.writeLong(summariesOffset);
+        } else {
+            meta.writeLong(-1L);
+        }
+    }
+
+    /**
+     * Accumulates the minimum and maximum of every {@link ES819TSDBDocValuesFormat#NUMERIC_SUMMARY_SIZE} values of a field.
+     */
+    private static final class NumericSummariesAccumulator {
+        private final ByteBuffersDataOutput out = new ByteBuffersDataOutput();
+        private int count;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private boolean hasValues;
+
+        void add(long value) throws IOException {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (++count == ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Flushes the summary of the last values, and returns whether any value was summarized.
+         */
+        boolean finish() throws IOException {
+            if (count > 0) {
+                flush();
+            }
+            return hasValues;
+        }
+
+        private void flush() throws IOException {
+            out.writeLong(min);
+            out.writeLong(max);
+            hasValues = true;
+            count = 0;
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+        }
     }
 
     @Override
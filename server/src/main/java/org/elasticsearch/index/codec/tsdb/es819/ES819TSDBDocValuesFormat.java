@@ -27,6 +27,8 @@ import java.io.IOException;
  *     view of all values. If index sorting is active merging a doc value field requires a merge sort which can be very cpu intensive.
  *     The previous format always has to merge sort a doc values field multiple times, so doing the merge sort just once saves on
  *     cpu resources.</li>
+ *     <li>Stores the minimum and maximum of every {@link #NUMERIC_SUMMARY_SIZE} values of numeric fields, from which
+ *     {@link org.elasticsearch.index.codec.tsdb.NumericDocValuesSummarizer} summarizes ranges of documents.</li>
  * </ul>
  */
 public class ES819TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValuesFormat {
@@ -34,6 +36,10 @@ public class ES819TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValues
     static final int NUMERIC_BLOCK_SHIFT = 7;
     public static final int NUMERIC_BLOCK_SIZE = 1 << NUMERIC_BLOCK_SHIFT;
     static final int NUMERIC_BLOCK_MASK = NUMERIC_BLOCK_SIZE - 1;
+    static final int NUMERIC_SUMMARY_SHIFT = 10;
+    static final int NUMERIC_SUMMARY_SIZE = 1 << NUMERIC_SUMMARY_SHIFT;
+    // bytes of a summary: min and max
+    static final int NUMERIC_SUMMARY_BYTES = 2 * Long.BYTES;
     static final int DIRECT_MONOTONIC_BLOCK_SHIFT = 16;
     static final String CODEC_NAME = "ES819TSDB";
     static final String DATA_CODEC = "ES819TSDBDocValuesData";
@@ -47,7 +53,8 @@ public class ES819TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValues
     static final byte SORTED_NUMERIC = 4;
 
     static final int VERSION_START = 0;
-    static final int VERSION_CURRENT = VERSION_START;
+    static final int VERSION_NUMERIC_SUMMARIES = 1;
+    static final int VERSION_CURRENT = VERSION_NUMERIC_SUMMARIES;
 
     static final int TERMS_DICT_BLOCK_LZ4_SHIFT = 6;
     static final int TERMS_DICT_BLOCK_LZ4_SIZE = 1 << TERMS_DICT_BLOCK_LZ4_SHIFT;
@@ -103,6 +110,7 @@ public class ES819TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValues
 
     final int skipIndexIntervalSize;
     private final boolean enableOptimizedMerge;
+    private final int version;
 
     /** Default constructor. */
     public ES819TSDBDocValuesFormat() {
@@ -111,12 +119,18 @@ public class ES819TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValues
 
     /** Doc values fields format with specified skipIndexIntervalSize. */
     public ES819TSDBDocValuesFormat(int skipIndexIntervalSize, boolean enableOptimizedMerge) {
+        this(skipIndexIntervalSize, enableOptimizedMerge, VERSION_CURRENT);
+    }
+
+    /** Doc values fields format that writes segments of the specified version of the format. Visible for testing. */
+    ES819TSDBDocValuesFormat(int skipIndexIntervalSize, boolean enableOptimizedMerge, int version) {
         super(CODEC_NAME);
         if (skipIndexIntervalSize < 2) {
             throw new IllegalArgumentException("skipIndexIntervalSize must be > 1, got [" + skipIndexIntervalSize + "]");
         }
         this.skipIndexIntervalSize = skipIndexIntervalSize;
         this.enableOptimizedMerge = enableOptimizedMerge;
+        this.version = version;
     }
 
     @Override
@@ -125,6 +139,7 @@ public class ES819TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValues
             state,
             skipIndexIntervalSize,
             enableOptimizedMerge,
+            version,
             DATA_CODEC,
             DATA_EXTENSION,
             META_CODEC,
@@ -37,14 +37,20 @@ import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.RandomAccessInput;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.CloseableThreadLocal;
 import org.apache.lucene.util.LongValues;
 import org.apache.lucene.util.compress.LZ4;
 import org.apache.lucene.util.packed.DirectMonotonicReader;
 import org.apache.lucene.util.packed.PackedInts;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.codec.tsdb.NumericDocValuesSummarizer;
 import org.elasticsearch.index.codec.tsdb.TSDBDocValuesEncoder;
+import org.elasticsearch.index.mapper.BlockLoader;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.elasticsearch.index.codec.tsdb.es819.ES819TSDBDocValuesFormat.SKIP_INDEX_JUMP_LENGTH_PER_LEVEL;
 import static org.elasticsearch.index.codec.tsdb.es819.ES819TSDBDocValuesFormat.SKIP_INDEX_MAX_LEVEL;
@@ -61,6 +67,11 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
     private final int maxDoc;
     final int version;
     private final boolean merging;
+    // decoded blocks shared by the doc values instances of each thread, null when merging since merges read each block once
+    @Nullable
+    private final CloseableThreadLocal<DecodedBlockCache> decodedBlockCaches;
+    // all caches handed out by decodedBlockCaches, so that closing the producer gives their memory back to the node
+    private final List<DecodedBlockCache> allDecodedBlockCaches = new ArrayList<>();
 
     ES819TSDBDocValuesProducer(SegmentReadState state, String dataCodec, String dataExtension, String metaCodec, String metaExtension)
         throws IOException {
@@ -72,6 +83,16 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         this.skippers = new IntObjectHashMap<>();
         this.maxDoc = state.segmentInfo.maxDoc();
         this.merging = false;
+        this.decodedBlockCaches = new CloseableThreadLocal<>() {
+            @Override
+            protected DecodedBlockCache initialValue() {
+                final DecodedBlockCache cache = new DecodedBlockCache();
+                synchronized (allDecodedBlockCaches) {
+                    allDecodedBlockCaches.add(cache);
+                }
+                return cache;
+            }
+        };
 
         // read in the entries from the metadata file.
         int version = -1;
@@ -89,7 +110,7 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
                     state.segmentSuffix
                 );
 
-                readFields(in, state.fieldInfos);
+                readFields(in, state.fieldInfos, version);
 
             } catch (Throwable exception) {
                 priorE = exception;
@@ -151,6 +172,7 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         this.maxDoc = maxDoc;
         this.version = version;
         this.merging = merging;
+        this.decodedBlockCaches = null;
     }
 
     @Override
@@ -337,6 +359,9 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
 
     private SortedDocValues getSorted(SortedEntry entry) throws IOException {
         final NumericDocValues ords = getNumeric(entry.ordsEntry, entry.termsDictEntry.termsDictSize);
+        if (ords instanceof DenseNumericDocValues denseOrds) {
+            return new DenseSortedDocValues(entry, denseOrds);
+        }
         return new BaseSortedDocValues(entry) {
 
             @Override
@@ -371,6 +396,59 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         };
     }
 
+    /**
+     * Sorted doc values of a field that has a value for every document, which allows reading the ordinals of many documents at once.
+     */
+    private final class DenseSortedDocValues extends BaseSortedDocValues implements BlockLoader.OptionalColumnAtATimeReader {
+        private final DenseNumericDocValues ords;
+
+        DenseSortedDocValues(SortedEntry entry, DenseNumericDocValues ords) throws IOException {
+            super(entry);
+            this.ords = ords;
+        }
+
+        @Override
+        public int ordValue() throws IOException {
+            return (int) ords.longValue();
+        }
+
+        @Override
+        public boolean advanceExact(int target) throws IOException {
+            return ords.advanceExact(target);
+        }
+
+        @Override
+        public int docID() {
+            return ords.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return ords.nextDoc();
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            return ords.advance(target);
+        }
+
+        @Override
+        public long cost() {
+            return ords.cost();
+        }
+
+        @Override
+        public BlockLoader.Block tryRead(BlockLoader.BlockFactory factory, BlockLoader.Docs docs) throws IOException {
+            if (ords.canReadRuns(docs) == false) {
+                return null;
+            }
+            try (BlockLoader.SingletonOrdinalsBuilder builder = factory.singletonOrdinalsBuilder(this, docs.count())) {
+                ords.readRuns(docs, builder::appendOrds);
+                return builder.build();
+            }
+        }
+    }
+
     abstract class BaseSortedDocValues extends SortedDocValues {
 
         final SortedEntry entry;
@@ -869,10 +947,22 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
 
     @Override
     public void close() throws IOException {
-        data.close();
+        try {
+            IOUtils.close(data, decodedBlockCaches);
+        } finally {
+            synchronized (allDecodedBlockCaches) {
+                allDecodedBlockCaches.forEach(DecodedBlockCache::release);
+                allDecodedBlockCaches.clear();
+            }
+        }
     }
 
-    private void readFields(IndexInput meta, FieldInfos infos) throws IOException {
+    // Visible for testing
+    DecodedBlockCache decodedBlockCache() {
+        return decodedBlockCaches.get();
+    }
+
+    private void readFields(IndexInput meta, FieldInfos infos, int version) throws IOException {
         for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
             FieldInfo info = infos.fieldInfo(fieldNumber);
             if (info == null) {
@@ -883,7 +973,9 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
                 skippers.put(info.number, readDocValueSkipperMeta(meta));
             }
             if (type == ES819TSDBDocValuesFormat.NUMERIC) {
-                numerics.put(info.number, readNumeric(meta));
+                final NumericEntry entry = readNumeric(meta);
+                readSummaries(meta, entry, version);
+                numerics.put(info.number, entry);
             } else if (type == ES819TSDBDocValuesFormat.BINARY) {
                 binaries.put(info.number, readBinary(meta));
             } else if (type == ES819TSDBDocValuesFormat.SORTED) {
@@ -891,7 +983,9 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
             } else if (type == ES819TSDBDocValuesFormat.SORTED_SET) {
                 sortedSets.put(info.number, readSortedSet(meta));
             } else if (type == ES819TSDBDocValuesFormat.SORTED_NUMERIC) {
-                sortedNumerics.put(info.number, readSortedNumeric(meta));
+                final SortedNumericEntry entry = readSortedNumeric(meta);
+                readSummaries(meta, entry, version);
+                sortedNumerics.put(info.number, entry);
             } else {
                 throw new CorruptIndexException("invalid type: " + type, meta);
             }
@@ -904,6 +998,12 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         return entry;
     }
 
+    private static void readSummaries(IndexInput meta, NumericEntry entry, int version) throws IOException {
+        if (version >= ES819TSDBDocValuesFormat.VERSION_NUMERIC_SUMMARIES) {
+            entry.summariesOffset = meta.readLong();
+        }
+    }
+
     private static DocValuesSkipperEntry readDocValueSkipperMeta(IndexInput meta) throws IOException {
         long offset = meta.readLong();
         long length = meta.readLong();
@@ -1036,6 +1136,226 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         abstract long advance(long index) throws IOException;
     }
 
+    /**
+     * Numeric doc values of a field that has a value for every document, which allows reading the values of many documents at once by
+     * copying runs of decoded values, and summarizing the values of ranges of documents since documents and values line up.
+     */
+    private final class DenseNumericDocValues extends NumericDocValues
+        implements
+            BlockLoader.OptionalColumnAtATimeReader,
+            NumericDocValuesSummarizer {
+
+        private final NumericBlockReader blockReader;
+        private final long maxOrd;
+        private final int maxDoc = ES819TSDBDocValuesProducer.this.maxDoc;
+        private int doc = -1;
+        private long currentBlockIndex = -1;
+        private final long[] currentBlock = new long[ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        // summaries and the values at the ends of summarized ranges are read lazily, without moving the current document
+        private RandomAccessInput summaries;
+        private long summaryBlockIndex = -1;
+        private long[] summaryBlock;
+
+        DenseNumericDocValues(NumericBlockReader blockReader, long maxOrd) {
+            this.blockReader = blockReader;
+            this.maxOrd = maxOrd;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            if (target >= maxDoc) {
+                return doc = NO_MORE_DOCS;
+            }
+            return doc = target;
+        }
+
+        @Override
+        public boolean advanceExact(int target) {
+            doc = target;
+            return true;
+        }
+
+        @Override
+        public long cost() {
+            return maxDoc;
+        }
+
+        @Override
+        public long longValue() throws IOException {
+            final int index = doc;
+            final int blockIndex = index >>> ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+            final int blockInIndex = index & ES819TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
+            if (blockIndex != currentBlockIndex) {
+                assert blockIndex > currentBlockIndex : blockIndex + " < " + currentBlockIndex;
+                currentBlockIndex = blockIndex;
+                blockReader.readBlock(blockIndex, currentBlock);
+            }
+            return currentBlock[blockInIndex];
+        }
+
+        @Override
+        public BlockLoader.Block tryRead(BlockLoader.BlockFactory factory, BlockLoader.Docs docs) throws IOException {
+            if (maxOrd >= 0 || canReadRuns(docs) == false) {
+                // ordinals are read through the sorted doc values
+                return null;
+            }
+            try (BlockLoader.SingletonLongBuilder builder = factory.singletonLongs(docs.count())) {
+                readRuns(docs, builder::appendLongs);
+                return builder.build();
+            }
+        }
+
+        @Override
+        public Summary summarize(int fromDoc, int toDoc) throws IOException {
+            final NumericEntry entry = blockReader.entry;
+            if (maxOrd >= 0 || entry.summariesOffset < 0) {
+                return null;
+            }
+            if (summaries == null) {
+                final long numSummaries = 1 + ((entry.numValues - 1) >>> ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_SHIFT);
+                summaries = data.randomAccessSlice(entry.summariesOffset, numSummaries * ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_BYTES);
+            }
+            final int to = Math.min(toDoc, maxDoc);
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int doc = Math.max(fromDoc, 0); doc < to;) {
+                final int summaryIndex = doc >>> ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_SHIFT;
+                final int summaryEnd = Math.min((summaryIndex + 1) << ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_SHIFT, maxDoc);
+                if (doc == summaryIndex << ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_SHIFT && summaryEnd <= to) {
+                    final long offset = (long) summaryIndex * ES819TSDBDocValuesFormat.NUMERIC_SUMMARY_BYTES;
+                    min = Math.min(min, summaries.readLong(offset));
+                    max = Math.max(max, summaries.readLong(offset + Long.BYTES));
+                    doc = summaryEnd;
+                } else {
+                    for (final int end = Math.min(summaryEnd, to); doc < end; doc++) {
+                        final long value = summaryValue(doc);
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                }
+            }
+            return new Summary(Math.max(0, to - Math.max(fromDoc, 0)), min, max);
+        }
+
+        private long summaryValue(int index) throws IOException {
+            final int blockIndex = index >>> ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+            if (blockIndex != summaryBlockIndex) {
+                if (summaryBlock == null) {
+                    summaryBlock = new long[ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+                }
+                summaryBlockIndex = blockIndex;
+                blockReader.readBlock(blockIndex, summaryBlock);
+            }
+            return summaryBlock[index & ES819TSDBDocValuesFormat.NUMERIC_BLOCK_MASK];
+        }
+
+        /**
+         * Whether the values of {@code docs} can be read with {@link #readRuns}, which requires them to be in strictly ascending order
+         * and after the current document since blocks can only be read forward.
+         */
+        boolean canReadRuns(BlockLoader.Docs docs) {
+            int previous = doc;
+            for (int i = 0; i < docs.count(); i++) {
+                int target = docs.get(i);
+                if (target <= previous) {
+                    return false;
+                }
+                previous = target;
+            }
+            return docs.count() > 0;
+        }
+
+        /**
+         * Passes the values of {@code docs}, which must be in strictly ascending order, to {@code consumer} as runs of consecutive values.
+         */
+        void readRuns(BlockLoader.Docs docs, ValuesRunConsumer consumer) throws IOException {
+            final int count = docs.count();
+            for (int i = 0; i < count;) {
+                final int target = docs.get(i);
+                assert target > doc : target + " <= " + doc;
+                final int blockIndex = target >>> ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+                final int blockInIndex = target & ES819TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
+                if (blockIndex != currentBlockIndex) {
+                    assert blockIndex > currentBlockIndex : blockIndex + " < " + currentBlockIndex;
+                    currentBlockIndex = blockIndex;
+                    blockReader.readBlock(blockIndex, currentBlock);
+                }
+                // docs are strictly ascending, so they are all consecutive if the last doc of the run is where we expect it
+                final int maxRun = Math.min(count - i, ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE - blockInIndex);
+                int run = maxRun;
+                if (docs.get(i + maxRun - 1) != target + maxRun - 1) {
+                    run = 1;
+                    while (run < maxRun && docs.get(i + run) == target + run) {
+                        run++;
+                    }
+                }
+                consumer.accept(currentBlock, blockInIndex, run);
+                doc = target + run - 1;
+                i += run;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValuesRunConsumer {
+        void accept(long[] values, int from, int length);
+    }
+
+    /**
+     * Reads decoded blocks of numeric values, sharing decoded blocks with other readers of the same thread through the
+     * {@link DecodedBlockCache} of this producer unless merging, when each block is read once. The cache is looked up on every read
+     * since doc values instances may be used by different threads over their lifetime, one at a time, and it is only used while
+     * another reader of the same field is active on the thread.
+     */
+    private final class NumericBlockReader {
+        private final NumericEntry entry;
+        private final DirectMonotonicReader indexReader;
+        private final IndexInput valuesData;
+        private final int bitsPerOrd;
+        private final TSDBDocValuesEncoder decoder = new TSDBDocValuesEncoder(ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE);
+        // the block that was decoded last from valuesData, which is positioned at the start of the next block
+        private long decodedBlockIndex = -1;
+
+        NumericBlockReader(NumericEntry entry, long maxOrd) throws IOException {
+            this.entry = entry;
+            final RandomAccessInput indexSlice = data.randomAccessSlice(entry.indexOffset, entry.indexLength);
+            this.indexReader = DirectMonotonicReader.getInstance(entry.indexMeta, indexSlice, merging);
+            this.valuesData = data.slice("values", entry.valuesOffset, entry.valuesLength);
+            this.bitsPerOrd = maxOrd >= 0 ? PackedInts.bitsRequired(maxOrd - 1) : -1;
+        }
+
+        void readBlock(long blockIndex, long[] block) throws IOException {
+            final DecodedBlockCache cache = decodedBlockCaches == null ? null : decodedBlockCaches.get();
+            final boolean shared = cache != null && cache.shared(entry, this);
+            if (shared && cache.read(entry, blockIndex, block)) {
+                return;
+            }
+            // no need to seek if the loading block is the next block
+            if (decodedBlockIndex + 1 != blockIndex) {
+                valuesData.seek(indexReader.get(blockIndex));
+            }
+            if (bitsPerOrd >= 0) {
+                decoder.decodeOrdinals(valuesData, block, bitsPerOrd);
+            } else {
+                decoder.decode(valuesData, block);
+            }
+            decodedBlockIndex = blockIndex;
+            if (shared) {
+                cache.put(entry, blockIndex, block);
+            }
+        }
+    }
+
     private NumericDocValues getNumeric(NumericEntry entry, long maxOrd) throws IOException {
         if (entry.docsWithFieldOffset == -2) {
             // empty
@@ -1133,71 +1453,10 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         // NOTE: we could make this a bit simpler by reusing #getValues but this
         // makes things slower.
 
-        final RandomAccessInput indexSlice = data.randomAccessSlice(entry.indexOffset, entry.indexLength);
-        final DirectMonotonicReader indexReader = DirectMonotonicReader.getInstance(entry.indexMeta, indexSlice, merging);
-        final IndexInput valuesData = data.slice("values", entry.valuesOffset, entry.valuesLength);
-
-        final int bitsPerOrd = maxOrd >= 0 ? PackedInts.bitsRequired(maxOrd - 1) : -1;
+        final NumericBlockReader blockReader = new NumericBlockReader(entry, maxOrd);
         if (entry.docsWithFieldOffset == -1) {
             // dense
-            return new NumericDocValues() {
-
-                private final int maxDoc = ES819TSDBDocValuesProducer.this.maxDoc;
-                private int doc = -1;
-                private final TSDBDocValuesEncoder decoder = new TSDBDocValuesEncoder(ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE);
-                private long currentBlockIndex = -1;
-                private final long[] currentBlock = new long[ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
-
-                @Override
-                public int docID() {
-                    return doc;
-                }
-
-                @Override
-                public int nextDoc() throws IOException {
-                    return advance(doc + 1);
-                }
-
-                @Override
-                public int advance(int target) throws IOException {
-                    if (target >= maxDoc) {
-                        return doc = NO_MORE_DOCS;
-                    }
-                    return doc = target;
-                }
-
-                @Override
-                public boolean advanceExact(int target) {
-                    doc = target;
-                    return true;
-                }
-
-                @Override
-                public long cost() {
-                    return maxDoc;
-                }
-
-                @Override
-                public long longValue() throws IOException {
-                    final int index = doc;
-                    final int blockIndex = index >>> ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
-                    final int blockInIndex = index & ES819TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
-                    if (blockIndex != currentBlockIndex) {
-                        assert blockIndex > currentBlockIndex : blockIndex + " < " + currentBlockIndex;
-                        // no need to seek if the loading block is the next block
-                        if (currentBlockIndex + 1 != blockIndex) {
-                            valuesData.seek(indexReader.get(blockIndex));
-                        }
-                        currentBlockIndex = blockIndex;
-                        if (maxOrd >= 0) {
-                            decoder.decodeOrdinals(valuesData, currentBlock, bitsPerOrd);
-                        } else {
-                            decoder.decode(valuesData, currentBlock);
-                        }
-                    }
-                    return currentBlock[blockInIndex];
-                }
-            };
+            return new DenseNumericDocValues(blockReader, maxOrd);
         } else {
             final IndexedDISI disi = new IndexedDISI(
                 data,
@@ -1209,7 +1468,6 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
             );
             return new NumericDocValues() {
 
-                private final TSDBDocValuesEncoder decoder = new TSDBDocValuesEncoder(ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE);
                 private long currentBlockIndex = -1;
                 private final long[] currentBlock = new long[ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
 
@@ -1245,16 +1503,8 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
                     final int blockInIndex = index & ES819TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
                     if (blockIndex != currentBlockIndex) {
                         assert blockIndex > currentBlockIndex : blockIndex + "<=" + currentBlockIndex;
-                        // no need to seek if the loading block is the next block
-                        if (currentBlockIndex + 1 != blockIndex) {
-                            valuesData.seek(indexReader.get(blockIndex));
-                        }
                         currentBlockIndex = blockIndex;
-                        if (maxOrd >= 0) {
-                            decoder.decodeOrdinals(valuesData, currentBlock, bitsPerOrd);
-                        } else {
-                            decoder.decode(valuesData, currentBlock);
-                        }
+                        blockReader.readBlock(blockIndex, currentBlock);
                     }
                     return currentBlock[blockInIndex];
                 }
@@ -1264,14 +1514,9 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
 
     private NumericValues getValues(NumericEntry entry, final long maxOrd) throws IOException {
         assert entry.numValues > 0;
-        final RandomAccessInput indexSlice = data.randomAccessSlice(entry.indexOffset, entry.indexLength);
-        final DirectMonotonicReader indexReader = DirectMonotonicReader.getInstance(entry.indexMeta, indexSlice, merging);
-
-        final IndexInput valuesData = data.slice("values", entry.valuesOffset, entry.valuesLength);
-        final int bitsPerOrd = maxOrd >= 0 ? PackedInts.bitsRequired(maxOrd - 1) : -1;
+        final NumericBlockReader blockReader = new NumericBlockReader(entry, maxOrd);
         return new NumericValues() {
 
-            private final TSDBDocValuesEncoder decoder = new TSDBDocValuesEncoder(ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE);
             private long currentBlockIndex = -1;
             private final long[] currentBlock = new long[ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
 
@@ -1280,16 +1525,8 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
                 final long blockIndex = index >>> ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
                 final int blockInIndex = (int) (index & ES819TSDBDocValuesFormat.NUMERIC_BLOCK_MASK);
                 if (blockIndex != currentBlockIndex) {
-                    // no need to seek if the loading block is the next block
-                    if (currentBlockIndex + 1 != blockIndex) {
-                        valuesData.seek(indexReader.get(blockIndex));
-                    }
                     currentBlockIndex = blockIndex;
-                    if (bitsPerOrd >= 0) {
-                        decoder.decodeOrdinals(valuesData, currentBlock, bitsPerOrd);
-                    } else {
-                        decoder.decode(valuesData, currentBlock);
-                    }
+                    blockReader.readBlock(blockIndex, currentBlock);
                 }
                 return currentBlock[blockInIndex];
             }
@@ -1443,6 +1680,8 @@ final class ES819TSDBDocValuesProducer extends DocValuesProducer {
         DirectMonotonicReader.Meta indexMeta;
         long valuesOffset;
         long valuesLength;
+        // -1 if the values are not summarized, e.g. ordinals or segments written before summaries were introduced
+        long summariesOffset = -1;
     }
 
     private static class BinaryEntry {
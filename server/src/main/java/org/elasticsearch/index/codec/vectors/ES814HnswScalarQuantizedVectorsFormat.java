@@ -22,6 +22,7 @@ import java.io.IOException;
 
 import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH;
 import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN;
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_NUM_MERGE_WORKER;
 import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAX_DIMS_COUNT;
 
 public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsFormat {
@@ -35,6 +36,12 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
 
     private final int beamWidth;
 
+    /**
+     * The number of workers the HNSW graph is built with when merging. Workers run concurrently on the merge scheduler's
+     * intra-merge executor, if it provides threads, and sequentially on the merge thread otherwise.
+     */
+    private final int numMergeWorkers;
+
     /** The format for storing, reading, merging vectors on disk */
     private final FlatVectorsFormat flatVectorsFormat;
 
@@ -43,6 +50,17 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
     }
 
     public ES814HnswScalarQuantizedVectorsFormat(int maxConn, int beamWidth, Float confidenceInterval, int bits, boolean compress) {
+        this(maxConn, beamWidth, confidenceInterval, bits, compress, DEFAULT_NUM_MERGE_WORKER);
+    }
+
+    public ES814HnswScalarQuantizedVectorsFormat(
+        int maxConn,
+        int beamWidth,
+        Float confidenceInterval,
+        int bits,
+        boolean compress,
+        int numMergeWorkers
+    ) {
         super(NAME);
         if (maxConn <= 0 || maxConn > MAXIMUM_MAX_CONN) {
             throw new IllegalArgumentException(
@@ -54,14 +72,18 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
                 "beamWidth must be positive and less than or equal to " + MAXIMUM_BEAM_WIDTH + "; beamWidth=" + beamWidth
             );
         }
+        if (numMergeWorkers <= 0) {
+            throw new IllegalArgumentException("numMergeWorkers must be positive; numMergeWorkers=" + numMergeWorkers);
+        }
         this.maxConn = maxConn;
         this.beamWidth = beamWidth;
+        this.numMergeWorkers = numMergeWorkers;
         this.flatVectorsFormat = new ES814ScalarQuantizedVectorsFormat(confidenceInterval, bits, compress);
     }
 
     @Override
     public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
-        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), 1, null);
+        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), numMergeWorkers, null);
     }
 
     @Override
@@ -9,33 +9,47 @@
 
 package org.elasticsearch.index.codec.zstd;
 
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.StoredFieldVisitor;
+import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.StoredFieldsWriter;
 import org.apache.lucene.codecs.compressing.CompressionMode;
 import org.apache.lucene.codecs.compressing.Compressor;
 import org.apache.lucene.codecs.compressing.Decompressor;
 import org.apache.lucene.codecs.lucene90.compressing.Lucene90CompressingStoredFieldsFormat;
 import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.index.SegmentInfo;
 import org.apache.lucene.store.ByteBuffersDataInput;
+import org.apache.lucene.store.ChecksumIndexInput;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.FeatureFlag;
 import org.elasticsearch.nativeaccess.CloseableByteBuffer;
 import org.elasticsearch.nativeaccess.NativeAccess;
 import org.elasticsearch.nativeaccess.Zstd;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * {@link org.apache.lucene.codecs.StoredFieldsFormat} that compresses blocks of data using ZStandard.
  *
- * Unlike Lucene's default stored fields format, this format does not make use of dictionaries (even though ZStandard has great support for
- * dictionaries!). This is mostly due to the fact that LZ4/DEFLATE have short sliding windows that they can use to find duplicate strings
- * (64kB and 32kB respectively). In contrast, ZSTD doesn't have such a limitation and can better take advantage of large compression
- * buffers.
+ * Unlike Lucene's default stored fields format, this format does not make use of preset dictionaries by default. This is mostly due to the
+ * fact that LZ4/DEFLATE have short sliding windows that they can use to find duplicate strings (64kB and 32kB respectively). In contrast,
+ * ZSTD doesn't have such a limitation and can better take advantage of large compression buffers.
+ *
+ * {@link Mode#BEST_COMPRESSION} can however train a ZSTD dictionary per segment behind a feature flag: the dictionary is trained on the
+ * first block of the segment, stored in a {@code .fdd} file and used to compress every block of the segment. Segments that have a
+ * dictionary are recorded with the {@link #DICTIONARY_KEY} attribute, and segments without this attribute are read as before.
  */
 public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFieldsFormat {
 
@@ -47,18 +61,43 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
     /** Attribute key for compression mode. */
     public static final String MODE_KEY = Zstd814StoredFieldsFormat.class.getSimpleName() + ".mode";
 
+    /**
+     * Attribute key that tells whether blocks were written with {@link #DICTIONARY_FORMAT_NAME}, and whether a dictionary was trained for
+     * the segment ({@code true}) or training was skipped ({@code false}).
+     */
+    public static final String DICTIONARY_KEY = Zstd814StoredFieldsFormat.class.getSimpleName() + ".dictionary";
+
+    static final FeatureFlag DICTIONARY_FEATURE_FLAG = new FeatureFlag("zstd_stored_fields_dictionary");
+
+    private static final String FORMAT_NAME = "ZstdStoredFields814";
+    // Segments written with dictionary support use their own format name, so that a reader that doesn't know about dictionaries fails on
+    // the header check rather than trying to decompress blocks without their dictionary.
+    static final String DICTIONARY_FORMAT_NAME = "ZstdStoredFields814Dictionary";
+    static final String DICTIONARY_CODEC = "ZstdStoredFields814DictionaryData";
+    static final String DICTIONARY_EXTENSION = "fdd";
+    static final int DICTIONARY_VERSION_START = 0;
+    static final int DICTIONARY_VERSION_CURRENT = DICTIONARY_VERSION_START;
+
+    // The first block is split into samples of this size to train the dictionary. ZSTD needs a few thousand samples to train a useful
+    // dictionary, so blocks that yield fewer samples than DICTIONARY_MIN_SAMPLES don't get a dictionary.
+    private static final int DICTIONARY_SAMPLE_SIZE = 64;
+    private static final int DICTIONARY_MIN_SAMPLES = 1_024;
+    private static final int DICTIONARY_SIZE = 8 * 1_024;
+
+    private static final int BLOCK_SHIFT = 10;
+
     public enum Mode {
-        BEST_SPEED(1, BEST_SPEED_BLOCK_SIZE, 128),
-        BEST_COMPRESSION(3, BEST_COMPRESSION_BLOCK_SIZE, 2048);
+        BEST_SPEED(1, BEST_SPEED_BLOCK_SIZE, 128, false),
+        BEST_COMPRESSION(3, BEST_COMPRESSION_BLOCK_SIZE, 2048, true);
 
         final int level, blockSizeInBytes, blockDocCount;
         final Zstd814StoredFieldsFormat format;
 
-        Mode(int level, int blockSizeInBytes, int blockDocCount) {
+        Mode(int level, int blockSizeInBytes, int blockDocCount, boolean useDictionary) {
             this.level = level;
             this.blockSizeInBytes = blockSizeInBytes;
             this.blockDocCount = blockDocCount;
-            this.format = new Zstd814StoredFieldsFormat(this);
+            this.format = new Zstd814StoredFieldsFormat(this, useDictionary && DICTIONARY_FEATURE_FLAG.isEnabled());
         }
 
         public Zstd814StoredFieldsFormat getFormat() {
@@ -67,10 +106,13 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
     }
 
     private final Mode mode;
+    private final boolean useDictionary;
 
-    private Zstd814StoredFieldsFormat(Mode mode) {
-        super("ZstdStoredFields814", new ZstdCompressionMode(mode.level), mode.blockSizeInBytes, mode.blockDocCount, 10);
+    // Visible for testing
+    Zstd814StoredFieldsFormat(Mode mode, boolean useDictionary) {
+        super(FORMAT_NAME, new ZstdCompressionMode(mode.level), mode.blockSizeInBytes, mode.blockDocCount, BLOCK_SHIFT);
         this.mode = mode;
+        this.useDictionary = useDictionary;
     }
 
     @Override
@@ -82,9 +124,80 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
                 "found existing value for " + MODE_KEY + " for segment: " + si.name + "old=" + previous + ", new=" + mode.name()
             );
         }
+        if (useDictionary) {
+            // the compressor flips this attribute to true if it manages to train a dictionary on the first block
+            si.putAttribute(DICTIONARY_KEY, Boolean.FALSE.toString());
+            final CompressionMode compressionMode = new ZstdCompressionMode(mode.level) {
+                @Override
+                public Compressor newCompressor() {
+                    return new ZstdDictionaryCompressor(mode.level, directory, si, context);
+                }
+            };
+            return dictionaryFormat(compressionMode).fieldsWriter(directory, si, context);
+        }
         return super.fieldsWriter(directory, si, context);
     }
 
+    @Override
+    public StoredFieldsReader fieldsReader(Directory directory, SegmentInfo si, FieldInfos fn, IOContext context) throws IOException {
+        // Segments are read with whatever mode the codec was created with, so whether the segment has a dictionary must only depend on
+        // the segment's attributes.
+        final String dictionary = si.getAttribute(DICTIONARY_KEY);
+        if (dictionary == null) {
+            return super.fieldsReader(directory, si, fn, context);
+        }
+        if (Boolean.parseBoolean(dictionary) == false) {
+            return dictionaryFormat(new ZstdCompressionMode(mode.level)).fieldsReader(directory, si, fn, context);
+        }
+        final DictionaryDecompressorPool pool = new DictionaryDecompressorPool(readDictionary(directory, si));
+        boolean success = false;
+        try {
+            final CompressionMode compressionMode = new ZstdCompressionMode(mode.level) {
+                @Override
+                public Decompressor newDecompressor() {
+                    return new ZstdDictionaryDecompressor(pool);
+                }
+            };
+            final StoredFieldsReader reader = dictionaryFormat(compressionMode).fieldsReader(directory, si, fn, context);
+            success = true;
+            return new DictionaryStoredFieldsReader(reader, pool, true);
+        } finally {
+            if (success == false) {
+                pool.close();
+            }
+        }
+    }
+
+    // Each segment gets its own compression mode instance so that merges never bulk-copy blocks that were compressed with another
+    // segment's dictionary.
+    private Lucene90CompressingStoredFieldsFormat dictionaryFormat(CompressionMode compressionMode) {
+        return new Lucene90CompressingStoredFieldsFormat(
+            DICTIONARY_FORMAT_NAME,
+            compressionMode,
+            mode.blockSizeInBytes,
+            mode.blockDocCount,
+            BLOCK_SHIFT
+        );
+    }
+
+    private static byte[] readDictionary(Directory directory, SegmentInfo si) throws IOException {
+        final String fileName = IndexFileNames.segmentFileName(si.name, "", DICTIONARY_EXTENSION);
+        try (ChecksumIndexInput input = directory.openChecksumInput(fileName)) {
+            Throwable priorE = null;
+            byte[] dictionary = null;
+            try {
+                CodecUtil.checkIndexHeader(input, DICTIONARY_CODEC, DICTIONARY_VERSION_START, DICTIONARY_VERSION_CURRENT, si.getId(), "");
+                dictionary = new byte[input.readVInt()];
+                input.readBytes(dictionary, 0, dictionary.length);
+            } catch (Throwable exception) {
+                priorE = exception;
+            } finally {
+                CodecUtil.checkFooter(input, priorE);
+            }
+            return dictionary;
+        }
+    }
+
     public Mode getMode() {
         return mode;
     }
@@ -112,7 +225,7 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
         }
     }
 
-    private static final class ZstdDecompressor extends Decompressor {
+    private static class ZstdDecompressor extends Decompressor {
 
         // Buffer for copying between the DataInput and native memory. No hard science behind this number, it just tries to be high enough
         // to benefit from bulk copying and low enough to keep heap usage under control.
@@ -145,7 +258,7 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
                 }
                 src.buffer().flip();
 
-                final int decompressedLen = zstd.decompress(dest, src);
+                final int decompressedLen = decompress(zstd, dest, src);
                 if (decompressedLen != originalLength) {
                     throw new CorruptIndexException("Expected " + originalLength + " decompressed bytes, got " + decompressedLen, in);
                 }
@@ -157,12 +270,136 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
             }
         }
 
+        int decompress(Zstd zstd, CloseableByteBuffer dest, CloseableByteBuffer src) {
+            return zstd.decompress(dest, src);
+        }
+
         @Override
         public Decompressor clone() {
             return new ZstdDecompressor();
         }
     }
 
+    private static final class ZstdDictionaryDecompressor extends ZstdDecompressor {
+
+        final DictionaryDecompressorPool pool;
+
+        ZstdDictionaryDecompressor(DictionaryDecompressorPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        int decompress(Zstd zstd, CloseableByteBuffer dest, CloseableByteBuffer src) {
+            return pool.decompress(zstd, dest, src);
+        }
+
+        @Override
+        public Decompressor clone() {
+            return new ZstdDictionaryDecompressor(pool);
+        }
+    }
+
+    /**
+     * Decompressors for the dictionary of a single segment, which are shared by all clones of the segment's stored fields reader. At most
+     * one digested dictionary is kept around between calls, concurrent calls digest their own and release it when they are done.
+     */
+    private static final class DictionaryDecompressorPool implements Closeable {
+
+        final byte[] dictionary;
+        final AtomicReference<Zstd.DictionaryDecompressor> idle = new AtomicReference<>();
+        volatile boolean closed;
+
+        DictionaryDecompressorPool(byte[] dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        int decompress(Zstd zstd, CloseableByteBuffer dest, CloseableByteBuffer src) {
+            Zstd.DictionaryDecompressor decompressor = idle.getAndSet(null);
+            if (decompressor == null) {
+                try (CloseableByteBuffer dict = NativeAccess.instance().newBuffer(dictionary.length)) {
+                    dict.buffer().put(0, dictionary);
+                    decompressor = zstd.newDictionaryDecompressor(dict);
+                }
+            }
+            try {
+                return decompressor.decompress(dest, src);
+            } finally {
+                if (closed || idle.compareAndSet(null, decompressor) == false) {
+                    decompressor.close();
+                } else if (closed) {
+                    // the pool got closed concurrently, release what we just put back
+                    releaseIdle();
+                }
+            }
+        }
+
+        private void releaseIdle() {
+            final Zstd.DictionaryDecompressor decompressor = idle.getAndSet(null);
+            if (decompressor != null) {
+                decompressor.close();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            releaseIdle();
+        }
+    }
+
+    /**
+     * Releases the segment's {@link DictionaryDecompressorPool} when the original reader is closed, clones and merge instances share the
+     * pool of the reader they were created from.
+     */
+    private static final class DictionaryStoredFieldsReader extends StoredFieldsReader {
+
+        private final StoredFieldsReader in;
+        private final DictionaryDecompressorPool pool;
+        private final boolean ownsPool;
+
+        DictionaryStoredFieldsReader(StoredFieldsReader in, DictionaryDecompressorPool pool, boolean ownsPool) {
+            this.in = in;
+            this.pool = pool;
+            this.ownsPool = ownsPool;
+        }
+
+        @Override
+        public void prefetch(int docID) throws IOException {
+            in.prefetch(docID);
+        }
+
+        @Override
+        public void document(int docID, StoredFieldVisitor visitor) throws IOException {
+            in.document(docID, visitor);
+        }
+
+        @Override
+        public StoredFieldsReader clone() {
+            return new DictionaryStoredFieldsReader(in.clone(), pool, false);
+        }
+
+        @Override
+        public StoredFieldsReader getMergeInstance() {
+            return new DictionaryStoredFieldsReader(in.getMergeInstance(), pool, false);
+        }
+
+        @Override
+        public void checkIntegrity() throws IOException {
+            in.checkIntegrity();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                if (ownsPool) {
+                    pool.close();
+                }
+            }
+        }
+    }
+
     private static class ZstdCompressor extends Compressor {
 
         final int level;
@@ -204,7 +441,7 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
                 }
                 src.buffer().flip();
 
-                final int compressedLen = zstd.compress(dest, src, level);
+                final int compressedLen = compress(zstd, dest, src);
                 out.writeVInt(compressedLen);
 
                 for (int written = 0; written < compressedLen;) {
@@ -217,7 +454,80 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
             }
         }
 
+        int compress(Zstd zstd, CloseableByteBuffer dest, CloseableByteBuffer src) throws IOException {
+            return zstd.compress(dest, src, level);
+        }
+
         @Override
         public void close() throws IOException {}
     }
+
+    /**
+     * Compressor that trains a dictionary on the first block of the segment, writes it next to the stored fields and compresses every
+     * block of the segment with it. If the first block is too small to train a dictionary, blocks are compressed without a dictionary.
+     */
+    private static final class ZstdDictionaryCompressor extends ZstdCompressor {
+
+        final Directory directory;
+        final SegmentInfo si;
+        final IOContext context;
+        boolean trained;
+        Zstd.DictionaryCompressor dictionaryCompressor;
+
+        ZstdDictionaryCompressor(int level, Directory directory, SegmentInfo si, IOContext context) {
+            super(level);
+            this.directory = directory;
+            this.si = si;
+            this.context = context;
+        }
+
+        @Override
+        int compress(Zstd zstd, CloseableByteBuffer dest, CloseableByteBuffer src) throws IOException {
+            if (trained == false) {
+                trained = true;
+                dictionaryCompressor = trainDictionary(zstd, src);
+            }
+            if (dictionaryCompressor == null) {
+                return super.compress(zstd, dest, src);
+            }
+            return dictionaryCompressor.compress(dest, src);
+        }
+
+        private Zstd.DictionaryCompressor trainDictionary(Zstd zstd, CloseableByteBuffer block) throws IOException {
+            final int[] sampleSizes = new int[block.buffer().remaining() / DICTIONARY_SAMPLE_SIZE];
+            if (sampleSizes.length < DICTIONARY_MIN_SAMPLES) {
+                return null;
+            }
+            Arrays.fill(sampleSizes, DICTIONARY_SAMPLE_SIZE);
+            try (CloseableByteBuffer dict = NativeAccess.instance().newBuffer(DICTIONARY_SIZE)) {
+                final int dictLength;
+                try {
+                    dictLength = zstd.trainDictionary(dict, block, sampleSizes);
+                } catch (IllegalArgumentException e) {
+                    // not enough variety in the samples, compress the segment without a dictionary
+                    return null;
+                }
+                final byte[] dictionary = new byte[dictLength];
+                dict.buffer().get(0, dictionary);
+                final String fileName = IndexFileNames.segmentFileName(si.name, "", DICTIONARY_EXTENSION);
+                try (IndexOutput output = directory.createOutput(fileName, context)) {
+                    CodecUtil.writeIndexHeader(output, DICTIONARY_CODEC, DICTIONARY_VERSION_CURRENT, si.getId(), "");
+                    output.writeVInt(dictLength);
+                    output.writeBytes(dictionary, dictLength);
+                    CodecUtil.writeFooter(output);
+                }
+                si.putAttribute(DICTIONARY_KEY, Boolean.TRUE.toString());
+                dict.buffer().limit(dictLength);
+                return zstd.newDictionaryCompressor(dict, level);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (dictionaryCompressor != null) {
+                dictionaryCompressor.close();
+                dictionaryCompressor = null;
+            }
+        }
+    }
 }
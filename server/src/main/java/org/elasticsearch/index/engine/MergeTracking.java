@@ -37,6 +37,8 @@ public class MergeTracking {
     private final CounterMetric currentMergesSizeInBytes = new CounterMetric();
     private final CounterMetric totalMergeStoppedTime = new CounterMetric();
     private final CounterMetric totalMergeThrottledTime = new CounterMetric();
+    private final CounterMetric totalIntraMergeTasks = new CounterMetric();
+    private final CounterMetric totalIntraMergeTaskTimeInNanos = new CounterMetric();
 
     private final Set<OnGoingMerge> onGoingMerges = ConcurrentCollections.newConcurrentSet();
     private final Set<OnGoingMerge> readOnlyOnGoingMerges = Collections.unmodifiableSet(onGoingMerges);
@@ -112,6 +114,23 @@ public class MergeTracking {
         }
     }
 
+    /**
+     * Records a task that a running merge forked to another thread in order to parallelize its work, e.g. inserting nodes
+     * in the HNSW graph of a merged vector field.
+     */
+    public void intraMergeTaskFinished(long tookNanos) {
+        totalIntraMergeTasks.inc();
+        totalIntraMergeTaskTimeInNanos.inc(tookNanos);
+    }
+
+    public long totalIntraMergeTasks() {
+        return totalIntraMergeTasks.count();
+    }
+
+    public long totalIntraMergeTaskTimeInMillis() {
+        return TimeValue.nsecToMSec(totalIntraMergeTaskTimeInNanos.count());
+    }
+
     public MergeStats stats() {
         final MergeStats mergeStats = new MergeStats();
         mergeStats.add(
@@ -124,7 +143,9 @@ public class MergeTracking {
             currentMergesSizeInBytes.count(),
             totalMergeStoppedTime.count(),
             totalMergeThrottledTime.count(),
-            mbPerSecAutoThrottle.getAsDouble()
+            mbPerSecAutoThrottle.getAsDouble(),
+            totalIntraMergeTasks(),
+            totalIntraMergeTaskTimeInMillis()
         );
         return mergeStats;
     }
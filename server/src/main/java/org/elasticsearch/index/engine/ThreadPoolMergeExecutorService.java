@@ -18,11 +18,14 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.Comparator;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 import java.util.function.LongUnaryOperator;
 
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.ABORT;
@@ -66,6 +69,11 @@ public class ThreadPoolMergeExecutorService {
      */
     private final AtomicIORate targetIORateBytesPerSec = new AtomicIORate(START_IO_RATE.getBytes());
     private final ExecutorService executorService;
+    /**
+     * The number of intra-merge tasks (i.e. tasks that running merges fork to parallelize their own work) currently
+     * holding a thread of the merge thread pool.
+     */
+    private final AtomicInteger runningIntraMergeTasksCount = new AtomicInteger();
     /**
      * The maximum number of concurrently running merges, given the number of threads in the pool.
      */
@@ -186,6 +194,52 @@ public class ThreadPoolMergeExecutorService {
         }
     }
 
+    /**
+     * Returns an {@link Executor} that a running merge can use to parallelize its own work. Lucene currently only uses it
+     * to insert nodes concurrently when building the HNSW graph of a merged vector field.
+     * The executor only forks a task to the merge thread pool when no merge task is waiting to be executed and the pool has
+     * threads that are not busy with merges. Otherwise, the task runs on the calling merge thread. Note that a forked task
+     * holds its merge thread until it completes, so a merge that is submitted while intra-merge tasks are running may have to
+     * wait for one of them to finish before it can start, just like it would wait for another merge.
+     *
+     * @param taskTimeNanosConsumer receives the time spent by each intra-merge task that was forked to the thread pool
+     */
+    Executor newIntraMergeExecutor(LongConsumer taskTimeNanosConsumer) {
+        return command -> {
+            if (tryReserveThreadForIntraMergeTask()) {
+                try {
+                    executorService.execute(() -> {
+                        long startTimeNS = System.nanoTime();
+                        try {
+                            command.run();
+                        } finally {
+                            runningIntraMergeTasksCount.decrementAndGet();
+                            taskTimeNanosConsumer.accept(System.nanoTime() - startTimeNS);
+                        }
+                    });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    runningIntraMergeTasksCount.decrementAndGet();
+                }
+            }
+            command.run();
+        };
+    }
+
+    private boolean tryReserveThreadForIntraMergeTask() {
+        int runningIntraMergeTasks = runningIntraMergeTasksCount.incrementAndGet();
+        // the merging thread itself is not counted as running an intra-merge task, so at most maxConcurrentMerges - 1 can be forked
+        if (runningIntraMergeTasks < maxConcurrentMerges
+            && queuedMergeTasks.isEmpty()
+            && executorService instanceof ThreadPoolExecutor threadPoolExecutor
+            && threadPoolExecutor.getQueue().isEmpty()
+            && threadPoolExecutor.getActiveCount() < maxConcurrentMerges) {
+            return true;
+        }
+        runningIntraMergeTasksCount.decrementAndGet();
+        return false;
+    }
+
     private void runMergeTask(MergeTask mergeTask) {
         assert mergeTask.isRunning() == false;
         boolean added = runningMergeTasks.add(mergeTask);
@@ -293,6 +347,11 @@ public class ThreadPoolMergeExecutorService {
         return targetIORateBytesPerSec.get();
     }
 
+    // exposed for tests
+    int getRunningIntraMergeTasksCount() {
+        return runningIntraMergeTasksCount.get();
+    }
+
     // exposed for tests
     int getMaxConcurrentMerges() {
         return maxConcurrentMerges;
@@ -38,6 +38,7 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -305,6 +306,13 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
         };
     }
 
+    @Override
+    public Executor getIntraMergeExecutor(MergePolicy.OneMerge merge) {
+        // Lucene only uses the intra-merge executor to build HNSW graphs concurrently, on heap, so the merge's rate-limited
+        // outputs are still only written to by the merge thread itself
+        return threadPoolMergeExecutorService.newIntraMergeExecutor(mergeTracking::intraMergeTaskFinished);
+    }
+
     class MergeTask implements Runnable {
         private final String name;
         private final AtomicLong mergeStartTimeNS;
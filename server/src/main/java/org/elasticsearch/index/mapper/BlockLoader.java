@@ -13,6 +13,7 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.search.fetch.StoredFieldsSpec;
 import org.elasticsearch.search.lookup.Source;
@@ -55,6 +56,21 @@ public interface BlockLoader {
 
     interface AllReader extends ColumnAtATimeReader, RowStrideReader {}
 
+    /**
+     * Implemented by doc values that can load the values of many single-valued
+     * documents at once, for instance by copying whole decoded blocks of values,
+     * rather than one document at a time.
+     */
+    interface OptionalColumnAtATimeReader {
+        /**
+         * Attempts to read the values of all documents in {@code docs}, which
+         * are in ascending order. Returns {@code null} if the values can't be
+         * read in bulk, in which case they need to be read one document at a time.
+         */
+        @Nullable
+        BlockLoader.Block tryRead(BlockFactory factory, Docs docs) throws IOException;
+    }
+
     interface StoredFields {
         /**
          * The {@code _source} of the document.
@@ -395,6 +411,12 @@ public interface BlockLoader {
          */
         LongBuilder longs(int expectedCount);
 
+        /**
+         * Build a builder to load longs of a field that has exactly one value
+         * for each document.
+         */
+        SingletonLongBuilder singletonLongs(int expectedCount);
+
         /**
          * Build a builder to load only {@code null}s.
          */
@@ -497,11 +519,32 @@ public interface BlockLoader {
         LongBuilder appendLong(long value);
     }
 
+    /**
+     * A builder for longs of a field that has exactly one value for each
+     * document, so it needs no {@code null} or multivalued bookkeeping.
+     */
+    interface SingletonLongBuilder extends Builder {
+        /**
+         * Appends a long.
+         */
+        SingletonLongBuilder appendLong(long value);
+
+        /**
+         * Appends {@code length} longs from {@code values}, starting at {@code from}.
+         */
+        SingletonLongBuilder appendLongs(long[] values, int from, int length);
+    }
+
     interface SingletonOrdinalsBuilder extends Builder {
         /**
          * Appends an ordinal to the builder.
          */
         SingletonOrdinalsBuilder appendOrd(int value);
+
+        /**
+         * Appends {@code length} ordinals from {@code values}, starting at {@code from}.
+         */
+        SingletonOrdinalsBuilder appendOrds(long[] values, int from, int length);
     }
 
     interface AggregateMetricDoubleBuilder extends Builder {
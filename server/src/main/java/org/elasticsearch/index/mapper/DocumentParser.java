@@ -227,7 +227,8 @@ public final class DocumentParser {
     }
 
     private static Mapper.SourceKeepMode getSourceKeepMode(DocumentParserContext context, Optional<Mapper.SourceKeepMode> mapperMode) {
-        return mapperMode.orElseGet(context::sourceKeepModeFromIndexSettings);
+        // avoids capturing the context in a lambda, this is called for every parsed field
+        return mapperMode.isPresent() ? mapperMode.get() : context.sourceKeepModeFromIndexSettings();
     }
 
     private static void throwNotAtEnd(XContentParser.Token token) {
@@ -456,12 +457,7 @@ public final class DocumentParser {
                 parseObjectOrNested(context.createFlattenContext(currentFieldName));
                 context.path().add(currentFieldName);
             } else {
-                var sourceKeepMode = getSourceKeepMode(context, fieldMapper.sourceKeepMode());
-                if (context.canAddIgnoredField()
-                    && (fieldMapper.syntheticSourceMode() == FieldMapper.SyntheticSourceMode.FALLBACK
-                        || sourceKeepMode == Mapper.SourceKeepMode.ALL
-                        || (sourceKeepMode == Mapper.SourceKeepMode.ARRAYS && context.inArrayScope())
-                        || (context.isWithinCopyTo() == false && context.isCopyToDestinationField(mapper.fullPath())))) {
+                if (recordsIgnoredSource(context, fieldMapper)) {
                     context = context.addIgnoredFieldFromContext(
                         IgnoredSourceFieldMapper.NameValue.fromContext(context, fieldMapper.fullPath(), null)
                     );
@@ -488,6 +484,20 @@ public final class DocumentParser {
         }
     }
 
+    /**
+     * Whether the source of the value of the given field must be recorded in ignored source so that synthetic source can rebuild it.
+     */
+    private static boolean recordsIgnoredSource(DocumentParserContext context, FieldMapper fieldMapper) {
+        if (context.canAddIgnoredField() == false) {
+            return false;
+        }
+        var sourceKeepMode = getSourceKeepMode(context, fieldMapper.sourceKeepMode());
+        return fieldMapper.syntheticSourceMode() == FieldMapper.SyntheticSourceMode.FALLBACK
+            || sourceKeepMode == Mapper.SourceKeepMode.ALL
+            || (sourceKeepMode == Mapper.SourceKeepMode.ARRAYS && context.inArrayScope())
+            || (context.isWithinCopyTo() == false && context.isCopyToDestinationField(fieldMapper.fullPath()));
+    }
+
     private static boolean shouldFlattenObject(DocumentParserContext context, FieldMapper fieldMapper) {
         return context.parser().currentToken() == XContentParser.Token.START_OBJECT
             && context.parent().subobjects() != ObjectMapper.Subobjects.ENABLED
@@ -106,6 +106,8 @@ public abstract class FieldMapper extends Mapper {
     protected final MappedFieldType mappedFieldType;
     protected final BuilderParams builderParams;
 
+    private volatile SyntheticSourceMode syntheticSourceMode;
+
     /**
      * @param simpleName        the leaf name of the mapper
      * @param params            initialization params for this field mapper
@@ -470,6 +472,15 @@ public abstract class FieldMapper extends Mapper {
      * @return {@link SyntheticSourceMode}
      */
     final SyntheticSourceMode syntheticSourceMode() {
+        // mappers are immutable, and this is checked for every parsed value when source is synthetic
+        SyntheticSourceMode mode = syntheticSourceMode;
+        if (mode == null) {
+            syntheticSourceMode = mode = computeSyntheticSourceMode();
+        }
+        return mode;
+    }
+
+    private SyntheticSourceMode computeSyntheticSourceMode() {
         if (hasScript()) {
             return SyntheticSourceMode.NATIVE;
         }
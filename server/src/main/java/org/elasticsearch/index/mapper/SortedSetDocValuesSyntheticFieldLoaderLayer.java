@@ -13,6 +13,7 @@ import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.logging.LogManager;
 import org.elasticsearch.logging.Logger;
@@ -27,6 +28,12 @@ import java.util.Arrays;
 public abstract class SortedSetDocValuesSyntheticFieldLoaderLayer implements CompositeSyntheticFieldLoader.DocValuesLayer {
     private static final Logger logger = LogManager.getLogger(SortedSetDocValuesSyntheticFieldLoaderLayer.class);
 
+    /**
+     * The maximum number of ordinals of multi-valued fields that are loaded up front. Loading source has no circuit breaker, so
+     * documents with more values than this are loaded one by one instead.
+     */
+    static final int MAX_PRELOADED_ORDS = 1 << 16;
+
     private final String name;
     private DocValuesFieldValues docValues = NO_VALUES;
 
@@ -52,7 +59,7 @@ public abstract class SortedSetDocValuesSyntheticFieldLoaderLayer implements Com
         }
         if (docIdsInLeaf != null && docIdsInLeaf.length > 1) {
             /*
-             * The singleton optimization is mostly about looking up ordinals
+             * Loading the ordinals up front is mostly about looking up ordinals
              * in sorted order and doesn't buy anything if there is only a single
              * document.
              */
@@ -62,6 +69,13 @@ public abstract class SortedSetDocValuesSyntheticFieldLoaderLayer implements Com
                 docValues = loader == null ? NO_VALUES : loader;
                 return loader;
             }
+            MultiValuedDocValuesLoader loader = buildMultiValuedDocValuesLoader(dv, docIdsInLeaf);
+            if (loader != TOO_MANY_ORDS) {
+                docValues = loader == null ? NO_VALUES : loader;
+                return loader;
+            }
+            // the ordinals of the docs would take too much memory, dv was advanced past the first docs so start from scratch
+            dv = DocValues.getSortedSet(reader, name);
         }
         ImmediateDocValuesLoader loader = new ImmediateDocValuesLoader(dv);
         docValues = loader;
@@ -179,6 +193,109 @@ public abstract class SortedSetDocValuesSyntheticFieldLoaderLayer implements Com
         return new SingletonDocValuesLoader(docIdsInLeaf, ords, uniqueOrds, converted);
     }
 
+    /**
+     * Load all ordinals for all docs up front and resolve each distinct ordinal
+     * to its string value once, in order. Like {@link #buildSingletonDocValuesLoader}
+     * but for fields that have more than one value in some documents. Returns
+     * {@link #TOO_MANY_ORDS} if the documents have more than {@link #MAX_PRELOADED_ORDS}
+     * values.
+     */
+    private MultiValuedDocValuesLoader buildMultiValuedDocValuesLoader(SortedSetDocValues dv, int[] docIdsInLeaf) throws IOException {
+        int[] offsets = new int[docIdsInLeaf.length + 1];
+        long[] ords = new long[docIdsInLeaf.length];
+        int found = 0;
+        for (int d = 0; d < docIdsInLeaf.length; d++) {
+            if (dv.advanceExact(docIdsInLeaf[d])) {
+                int count = dv.docValueCount();
+                if (found + count > MAX_PRELOADED_ORDS) {
+                    return TOO_MANY_ORDS;
+                }
+                ords = ArrayUtil.grow(ords, found + count);
+                for (int i = 0; i < count; i++) {
+                    ords[found++] = dv.nextOrd();
+                }
+            }
+            offsets[d + 1] = found;
+        }
+        if (found == 0) {
+            return null;
+        }
+        long[] sortedOrds = ArrayUtil.copyOfSubArray(ords, 0, found);
+        Arrays.sort(sortedOrds);
+        int unique = 0;
+        long prev = -1;
+        for (long ord : sortedOrds) {
+            if (ord != prev) {
+                prev = ord;
+                sortedOrds[unique++] = ord;
+            }
+        }
+        long[] uniqueOrds = ArrayUtil.copyOfSubArray(sortedOrds, 0, unique);
+        BytesRef[] converted = new BytesRef[unique];
+        for (int i = 0; i < unique; i++) {
+            converted[i] = preserve(convert(dv.lookupOrd(uniqueOrds[i])));
+        }
+        logger.debug("loading [{}] on [{}] docs covering [{}] ords", name, docIdsInLeaf.length, uniqueOrds.length);
+        return new MultiValuedDocValuesLoader(docIdsInLeaf, offsets, ords, uniqueOrds, converted);
+    }
+
+    private static final MultiValuedDocValuesLoader TOO_MANY_ORDS = new MultiValuedDocValuesLoader(
+        new int[0],
+        new int[0],
+        new long[0],
+        new long[0],
+        new BytesRef[0]
+    );
+
+    private static class MultiValuedDocValuesLoader implements DocValuesLoader, DocValuesFieldValues {
+        private final int[] docIdsInLeaf;
+        /**
+         * The ordinals of the document at {@code idx} are {@code ords[offsets[idx]]} until {@code ords[offsets[idx + 1]]}.
+         */
+        private final int[] offsets;
+        private final long[] ords;
+        private final long[] uniqueOrds;
+        private final BytesRef[] converted;
+
+        private int idx = -1;
+
+        private MultiValuedDocValuesLoader(int[] docIdsInLeaf, int[] offsets, long[] ords, long[] uniqueOrds, BytesRef[] converted) {
+            this.docIdsInLeaf = docIdsInLeaf;
+            this.offsets = offsets;
+            this.ords = ords;
+            this.uniqueOrds = uniqueOrds;
+            this.converted = converted;
+        }
+
+        @Override
+        public boolean advanceToDoc(int docId) throws IOException {
+            idx++;
+            if (docIdsInLeaf[idx] != docId) {
+                throw new IllegalArgumentException(
+                    "expected to be called with [" + docIdsInLeaf[idx] + "] but was called with " + docId + " instead"
+                );
+            }
+            return count() > 0;
+        }
+
+        @Override
+        public int count() {
+            return offsets[idx + 1] - offsets[idx];
+        }
+
+        @Override
+        public void write(XContentBuilder b) throws IOException {
+            for (int i = offsets[idx]; i < offsets[idx + 1]; i++) {
+                int convertedIdx = Arrays.binarySearch(uniqueOrds, ords[i]);
+                if (convertedIdx < 0) {
+                    throw new IllegalStateException("received unexpected ord [" + ords[i] + "]. Expected " + Arrays.toString(uniqueOrds));
+                }
+                BytesRef c = converted[convertedIdx];
+                b.utf8Value(c.bytes, c.offset, c.length);
+            }
+        }
+    }
+
     private static class SingletonDocValuesLoader implements DocValuesLoader, DocValuesFieldValues {
         private final int[] docIdsInLeaf;
         private final int[] ords;
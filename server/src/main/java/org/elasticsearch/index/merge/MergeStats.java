@@ -9,6 +9,7 @@
 
 package org.elasticsearch.index.merge;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -38,6 +39,12 @@ public class MergeStats implements Writeable, ToXContentFragment {
 
     private long totalBytesPerSecAutoThrottle;
 
+    /** Total number of tasks that merges forked to other merge threads to parallelize their own work. */
+    private long totalIntraMergeTasks;
+
+    /** Total millis spent in the tasks that merges forked to other merge threads. */
+    private long totalIntraMergeTaskTimeInMillis;
+
     public MergeStats() {
 
     }
@@ -54,6 +61,10 @@ public class MergeStats implements Writeable, ToXContentFragment {
         totalStoppedTimeInMillis = in.readVLong();
         totalThrottledTimeInMillis = in.readVLong();
         totalBytesPerSecAutoThrottle = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.MERGE_STATS_INTRA_MERGE_TASKS)) {
+            totalIntraMergeTasks = in.readVLong();
+            totalIntraMergeTaskTimeInMillis = in.readVLong();
+        }
     }
 
     @Override
@@ -70,7 +81,9 @@ public class MergeStats implements Writeable, ToXContentFragment {
             && currentSizeInBytes == that.currentSizeInBytes
             && totalStoppedTimeInMillis == that.totalStoppedTimeInMillis
             && totalThrottledTimeInMillis == that.totalThrottledTimeInMillis
-            && totalBytesPerSecAutoThrottle == that.totalBytesPerSecAutoThrottle;
+            && totalBytesPerSecAutoThrottle == that.totalBytesPerSecAutoThrottle
+            && totalIntraMergeTasks == that.totalIntraMergeTasks
+            && totalIntraMergeTaskTimeInMillis == that.totalIntraMergeTaskTimeInMillis;
     }
 
     @Override
@@ -85,7 +98,9 @@ public class MergeStats implements Writeable, ToXContentFragment {
             currentSizeInBytes,
             totalStoppedTimeInMillis,
             totalThrottledTimeInMillis,
-            totalBytesPerSecAutoThrottle
+            totalBytesPerSecAutoThrottle,
+            totalIntraMergeTasks,
+            totalIntraMergeTaskTimeInMillis
         );
     }
 
@@ -99,7 +114,9 @@ public class MergeStats implements Writeable, ToXContentFragment {
         long currentSizeInBytes,
         long stoppedTimeMillis,
         long throttledTimeMillis,
-        double mbPerSecAutoThrottle
+        double mbPerSecAutoThrottle,
+        long intraMergeTasks,
+        long intraMergeTaskTimeMillis
     ) {
         this.total += totalMerges;
         this.totalTimeInMillis += totalMergeTime;
@@ -110,6 +127,8 @@ public class MergeStats implements Writeable, ToXContentFragment {
         this.currentSizeInBytes += currentSizeInBytes;
         this.totalStoppedTimeInMillis += stoppedTimeMillis;
         this.totalThrottledTimeInMillis += throttledTimeMillis;
+        this.totalIntraMergeTasks += intraMergeTasks;
+        this.totalIntraMergeTaskTimeInMillis += intraMergeTaskTimeMillis;
         long bytesPerSecAutoThrottle = (long) (mbPerSecAutoThrottle * 1024 * 1024);
         if (this.totalBytesPerSecAutoThrottle == Long.MAX_VALUE || bytesPerSecAutoThrottle == Long.MAX_VALUE) {
             this.totalBytesPerSecAutoThrottle = Long.MAX_VALUE;
@@ -139,6 +158,8 @@ public class MergeStats implements Writeable, ToXContentFragment {
         this.totalSizeInBytes += mergeStats.totalSizeInBytes;
         this.totalStoppedTimeInMillis += mergeStats.totalStoppedTimeInMillis;
         this.totalThrottledTimeInMillis += mergeStats.totalThrottledTimeInMillis;
+        this.totalIntraMergeTasks += mergeStats.totalIntraMergeTasks;
+        this.totalIntraMergeTaskTimeInMillis += mergeStats.totalIntraMergeTaskTimeInMillis;
         if (this.totalBytesPerSecAutoThrottle == Long.MAX_VALUE || mergeStats.totalBytesPerSecAutoThrottle == Long.MAX_VALUE) {
             this.totalBytesPerSecAutoThrottle = Long.MAX_VALUE;
         } else {
@@ -188,6 +209,27 @@ public class MergeStats implements Writeable, ToXContentFragment {
         return new TimeValue(totalThrottledTimeInMillis);
     }
 
+    /**
+     * The total number of tasks that merges forked to other merge threads to parallelize their own work.
+     */
+    public long getTotalIntraMergeTasks() {
+        return this.totalIntraMergeTasks;
+    }
+
+    /**
+     * The total time spent in the tasks that merges forked to other merge threads (in milliseconds).
+     */
+    public long getTotalIntraMergeTaskTimeInMillis() {
+        return this.totalIntraMergeTaskTimeInMillis;
+    }
+
+    /**
+     * The total time spent in the tasks that merges forked to other merge threads.
+     */
+    public TimeValue getTotalIntraMergeTaskTime() {
+        return new TimeValue(totalIntraMergeTaskTimeInMillis);
+    }
+
     /**
      * The total time merges have been executed.
      */
@@ -246,6 +288,8 @@ public class MergeStats implements Writeable, ToXContentFragment {
             builder.field(Fields.TOTAL_THROTTLE_BYTES_PER_SEC).value(ByteSizeValue.ofBytes(totalBytesPerSecAutoThrottle).toString());
         }
         builder.field(Fields.TOTAL_THROTTLE_BYTES_PER_SEC_IN_BYTES, totalBytesPerSecAutoThrottle);
+        builder.field(Fields.TOTAL_INTRA_MERGE_TASKS, totalIntraMergeTasks);
+        builder.humanReadableField(Fields.TOTAL_INTRA_MERGE_TIME_IN_MILLIS, Fields.TOTAL_INTRA_MERGE_TIME, getTotalIntraMergeTaskTime());
         builder.endObject();
         return builder;
     }
@@ -268,6 +312,9 @@ public class MergeStats implements Writeable, ToXContentFragment {
         static final String TOTAL_SIZE_IN_BYTES = "total_size_in_bytes";
         static final String TOTAL_THROTTLE_BYTES_PER_SEC_IN_BYTES = "total_auto_throttle_in_bytes";
         static final String TOTAL_THROTTLE_BYTES_PER_SEC = "total_auto_throttle";
+        static final String TOTAL_INTRA_MERGE_TASKS = "total_intra_merge_tasks";
+        static final String TOTAL_INTRA_MERGE_TIME = "total_intra_merge_time";
+        static final String TOTAL_INTRA_MERGE_TIME_IN_MILLIS = "total_intra_merge_time_in_millis";
     }
 
     @Override
@@ -283,5 +330,9 @@ public class MergeStats implements Writeable, ToXContentFragment {
         out.writeVLong(totalStoppedTimeInMillis);
         out.writeVLong(totalThrottledTimeInMillis);
         out.writeVLong(totalBytesPerSecAutoThrottle);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.MERGE_STATS_INTRA_MERGE_TASKS)) {
+            out.writeVLong(totalIntraMergeTasks);
+            out.writeVLong(totalIntraMergeTaskTimeInMillis);
+        }
     }
 }
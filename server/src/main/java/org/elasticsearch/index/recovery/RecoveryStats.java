@@ -8,9 +8,11 @@
  */
 package org.elasticsearch.index.recovery;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -29,6 +31,10 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
     private final AtomicInteger currentAsSource = new AtomicInteger();
     private final AtomicInteger currentAsTarget = new AtomicInteger();
     private final AtomicLong throttleTimeInNanos = new AtomicLong();
+    // node-level, only set when the recovery rate limit is adaptive
+    private final AtomicLong adaptiveMaxBytesPerSec = new AtomicLong();
+    private final AtomicLong adaptiveRateIncreases = new AtomicLong();
+    private final AtomicLong adaptiveRateDecreases = new AtomicLong();
 
     public RecoveryStats() {}
 
@@ -36,6 +42,11 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
         currentAsSource.set(in.readVInt());
         currentAsTarget.set(in.readVInt());
         throttleTimeInNanos.set(in.readLong());
+        if (in.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_STATS_ADAPTIVE_RATE)) {
+            adaptiveMaxBytesPerSec.set(in.readVLong());
+            adaptiveRateIncreases.set(in.readVLong());
+            adaptiveRateDecreases.set(in.readVLong());
+        }
     }
 
     public void add(RecoveryStats recoveryStats) {
@@ -49,9 +60,24 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
     public void addTotals(RecoveryStats recoveryStats) {
         if (recoveryStats != null) {
             this.throttleTimeInNanos.addAndGet(recoveryStats.throttleTime().nanos());
+            addAdaptiveRate(
+                recoveryStats.adaptiveMaxBytesPerSec(),
+                recoveryStats.adaptiveRateIncreases(),
+                recoveryStats.adaptiveRateDecreases()
+            );
         }
     }
 
+    /**
+     * Adds the state of the adaptive recovery rate limit of a node. The rate limit applies to each node separately, so the highest one
+     * is kept rather than their sum.
+     */
+    public void addAdaptiveRate(long maxBytesPerSec, long increases, long decreases) {
+        this.adaptiveMaxBytesPerSec.accumulateAndGet(maxBytesPerSec, Math::max);
+        this.adaptiveRateIncreases.addAndGet(increases);
+        this.adaptiveRateDecreases.addAndGet(decreases);
+    }
+
     /**
      * Number of ongoing recoveries for which a shard serves as a source
      */
@@ -73,6 +99,27 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
         return TimeValue.timeValueNanos(throttleTimeInNanos.get());
     }
 
+    /**
+     * The highest adaptive recovery rate limit of the nodes, or {@code 0} if the recovery rate limit is not adaptive
+     */
+    public long adaptiveMaxBytesPerSec() {
+        return adaptiveMaxBytesPerSec.get();
+    }
+
+    /**
+     * Number of times the adaptive recovery rate limit was raised
+     */
+    public long adaptiveRateIncreases() {
+        return adaptiveRateIncreases.get();
+    }
+
+    /**
+     * Number of times the adaptive recovery rate limit was lowered
+     */
+    public long adaptiveRateDecreases() {
+        return adaptiveRateDecreases.get();
+    }
+
     public void incCurrentAsTarget() {
         currentAsTarget.incrementAndGet();
     }
@@ -99,6 +146,17 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
         builder.field(Fields.CURRENT_AS_SOURCE, currentAsSource());
         builder.field(Fields.CURRENT_AS_TARGET, currentAsTarget());
         builder.humanReadableField(Fields.THROTTLE_TIME_IN_MILLIS, Fields.THROTTLE_TIME, throttleTime());
+        if (adaptiveMaxBytesPerSec() > 0 || adaptiveRateIncreases() > 0 || adaptiveRateDecreases() > 0) {
+            builder.startObject(Fields.ADAPTIVE_RATE);
+            builder.humanReadableField(
+                Fields.MAX_BYTES_PER_SEC_IN_BYTES,
+                Fields.MAX_BYTES_PER_SEC,
+                ByteSizeValue.ofBytes(adaptiveMaxBytesPerSec())
+            );
+            builder.field(Fields.INCREASES, adaptiveRateIncreases());
+            builder.field(Fields.DECREASES, adaptiveRateDecreases());
+            builder.endObject();
+        }
         builder.endObject();
         return builder;
     }
@@ -109,6 +167,11 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
         static final String CURRENT_AS_TARGET = "current_as_target";
         static final String THROTTLE_TIME = "throttle_time";
         static final String THROTTLE_TIME_IN_MILLIS = "throttle_time_in_millis";
+        static final String ADAPTIVE_RATE = "adaptive_rate";
+        static final String MAX_BYTES_PER_SEC = "max_bytes_per_sec";
+        static final String MAX_BYTES_PER_SEC_IN_BYTES = "max_bytes_per_sec_in_bytes";
+        static final String INCREASES = "increases";
+        static final String DECREASES = "decreases";
     }
 
     @Override
@@ -116,6 +179,11 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
         out.writeVInt(currentAsSource.get());
         out.writeVInt(currentAsTarget.get());
         out.writeLong(throttleTimeInNanos.get());
+        if (out.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_STATS_ADAPTIVE_RATE)) {
+            out.writeVLong(adaptiveMaxBytesPerSec.get());
+            out.writeVLong(adaptiveRateIncreases.get());
+            out.writeVLong(adaptiveRateDecreases.get());
+        }
     }
 
     @Override
@@ -125,12 +193,22 @@ public class RecoveryStats implements ToXContentFragment, Writeable {
         RecoveryStats that = (RecoveryStats) o;
         return currentAsSource() == that.currentAsSource()
             && currentAsTarget() == that.currentAsTarget()
-            && Objects.equals(throttleTime(), that.throttleTime());
+            && Objects.equals(throttleTime(), that.throttleTime())
+            && adaptiveMaxBytesPerSec() == that.adaptiveMaxBytesPerSec()
+            && adaptiveRateIncreases() == that.adaptiveRateIncreases()
+            && adaptiveRateDecreases() == that.adaptiveRateDecreases();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentAsSource(), currentAsTarget(), throttleTime());
+        return Objects.hash(
+            currentAsSource(),
+            currentAsTarget(),
+            throttleTime(),
+            adaptiveMaxBytesPerSec(),
+            adaptiveRateIncreases(),
+            adaptiveRateDecreases()
+        );
     }
 
     @Override
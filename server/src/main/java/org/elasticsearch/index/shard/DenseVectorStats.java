@@ -9,9 +9,11 @@
 
 package org.elasticsearch.index.shard;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
 
@@ -23,20 +25,36 @@ import java.util.Objects;
  */
 public class DenseVectorStats implements Writeable, ToXContentFragment {
     private long valueCount = 0;
+    private long filesSizeInBytes = 0;
+    private long filesResidentSizeInBytes = 0;
 
     public DenseVectorStats() {}
 
     public DenseVectorStats(long count) {
+        this(count, 0, 0);
+    }
+
+    public DenseVectorStats(long count, long filesSizeInBytes, long filesResidentSizeInBytes) {
         this.valueCount = count;
+        this.filesSizeInBytes = filesSizeInBytes;
+        this.filesResidentSizeInBytes = filesResidentSizeInBytes;
     }
 
     public DenseVectorStats(StreamInput in) throws IOException {
         this.valueCount = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.DENSE_VECTOR_FILES_RESIDENCY_STATS)) {
+            this.filesSizeInBytes = in.readVLong();
+            this.filesResidentSizeInBytes = in.readVLong();
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeVLong(valueCount);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.DENSE_VECTOR_FILES_RESIDENCY_STATS)) {
+            out.writeVLong(filesSizeInBytes);
+            out.writeVLong(filesResidentSizeInBytes);
+        }
     }
 
     public void add(DenseVectorStats other) {
@@ -44,6 +62,8 @@ public class DenseVectorStats implements Writeable, ToXContentFragment {
             return;
         }
         this.valueCount += other.valueCount;
+        this.filesSizeInBytes += other.filesSizeInBytes;
+        this.filesResidentSizeInBytes += other.filesResidentSizeInBytes;
     }
 
     /**
@@ -53,10 +73,40 @@ public class DenseVectorStats implements Writeable, ToXContentFragment {
         return valueCount;
     }
 
+    /**
+     * Returns the size of the files holding the HNSW graphs and the vectors searched by indexed dense vector fields.
+     */
+    public long getFilesSizeInBytes() {
+        return filesSizeInBytes;
+    }
+
+    /**
+     * Returns how much of the files of {@link #getFilesSizeInBytes()} is resident in the page cache.
+     */
+    public long getFilesResidentSizeInBytes() {
+        return filesResidentSizeInBytes;
+    }
+
+    /**
+     * Returns the percentage of the files of {@link #getFilesSizeInBytes()} that is resident in the page cache.
+     */
+    public double getFilesResidentPercent() {
+        return filesSizeInBytes == 0 ? 100.0 : 100.0 * filesResidentSizeInBytes / filesSizeInBytes;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.NAME);
         builder.field(Fields.VALUE_COUNT, valueCount);
+        if (filesSizeInBytes > 0) {
+            builder.humanReadableField(Fields.FILES_SIZE_IN_BYTES, Fields.FILES_SIZE, ByteSizeValue.ofBytes(filesSizeInBytes));
+            builder.humanReadableField(
+                Fields.FILES_RESIDENT_SIZE_IN_BYTES,
+                Fields.FILES_RESIDENT_SIZE,
+                ByteSizeValue.ofBytes(filesResidentSizeInBytes)
+            );
+            builder.field(Fields.FILES_RESIDENT_PERCENT, Math.round(getFilesResidentPercent() * 10) / 10.0);
+        }
         builder.endObject();
         return builder;
     }
@@ -66,16 +116,23 @@ public class DenseVectorStats implements Writeable, ToXContentFragment {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DenseVectorStats that = (DenseVectorStats) o;
-        return valueCount == that.valueCount;
+        return valueCount == that.valueCount
+            && filesSizeInBytes == that.filesSizeInBytes
+            && filesResidentSizeInBytes == that.filesResidentSizeInBytes;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(valueCount);
+        return Objects.hash(valueCount, filesSizeInBytes, filesResidentSizeInBytes);
     }
 
     static final class Fields {
         static final String NAME = "dense_vector";
         static final String VALUE_COUNT = "value_count";
+        static final String FILES_SIZE = "files_size";
+        static final String FILES_SIZE_IN_BYTES = "files_size_in_bytes";
+        static final String FILES_RESIDENT_SIZE = "files_resident_size";
+        static final String FILES_RESIDENT_SIZE_IN_BYTES = "files_resident_size_in_bytes";
+        static final String FILES_RESIDENT_PERCENT = "files_resident_percent";
     }
 }
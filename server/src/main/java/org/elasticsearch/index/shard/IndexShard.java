@@ -135,6 +135,7 @@ import org.elasticsearch.index.store.StoreStats;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogConfig;
 import org.elasticsearch.index.translog.TranslogStats;
+import org.elasticsearch.index.warmer.DenseVectorWarmer;
 import org.elasticsearch.index.warmer.ShardIndexWarmerService;
 import org.elasticsearch.index.warmer.WarmerStats;
 import org.elasticsearch.indices.IndexingMemoryController;
@@ -1470,7 +1471,11 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     public DenseVectorStats denseVectorStats() {
         readAllowed();
         MappingLookup mappingLookup = mapperService != null ? mapperService.mappingLookup() : null;
-        return getEngine().denseVectorStats(mappingLookup);
+        DenseVectorStats stats = getEngine().denseVectorStats(mappingLookup);
+        if (indexSettings.getValue(DenseVectorWarmer.INDEX_WARMER_DENSE_VECTOR_ENABLED_SETTING)) {
+            stats = shardWarmerService.denseVectorStats(stats);
+        }
+        return stats;
     }
 
     public SparseVectorStats sparseVectorStats() {
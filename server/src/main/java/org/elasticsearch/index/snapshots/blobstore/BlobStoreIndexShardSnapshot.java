@@ -11,6 +11,7 @@ package org.elasticsearch.index.snapshots.blobstore;
 
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -26,6 +27,8 @@ import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentParser;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
@@ -49,6 +52,11 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
         private final long partBytes;
         private final int numberOfParts;
         private final StoreFileMetadata metadata;
+        // the content-defined chunks that the file is stored as, or null if it is stored as parts of a fixed size
+        @Nullable
+        private final List<Chunk> chunks;
+        @Nullable
+        private final long[] chunkStarts;
 
         /**
          * Constructs a new instance of file info
@@ -58,9 +66,50 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
          * @param partSize     size of the single chunk
          */
         public FileInfo(String name, StoreFileMetadata metadata, @Nullable ByteSizeValue partSize) {
+            this(name, metadata, partSize, null);
+        }
+
+        /**
+         * Constructs a new instance of file info for a file that is stored as content-defined chunks
+         *
+         * @param name      file name as stored in the blob store
+         * @param metadata  the files meta data
+         * @param chunks    the chunks of the file, in order
+         */
+        public static FileInfo ofChunks(String name, StoreFileMetadata metadata, List<Chunk> chunks) {
+            return new FileInfo(name, metadata, null, Objects.requireNonNull(chunks));
+        }
+
+        public FileInfo(StreamInput in) throws IOException {
+            this(in.readString(), new StoreFileMetadata(in), in.readOptionalWriteable(ByteSizeValue::readFrom), readChunks(in));
+        }
+
+        private FileInfo(String name, StoreFileMetadata metadata, @Nullable ByteSizeValue partSize, @Nullable List<Chunk> chunks) {
             this.name = Objects.requireNonNull(name);
             this.metadata = metadata;
 
+            if (chunks != null) {
+                if (chunks.isEmpty()) {
+                    throw new IllegalArgumentException("file [" + metadata + "] must be stored as at least one chunk");
+                }
+                this.chunks = List.copyOf(chunks);
+                this.chunkStarts = new long[chunks.size()];
+                long start = 0L;
+                for (int i = 0; i < chunks.size(); i++) {
+                    chunkStarts[i] = start;
+                    start += chunks.get(i).length();
+                }
+                if (start != metadata.length()) {
+                    throw new IllegalArgumentException("chunks of total length [" + start + "] do not match file [" + metadata + "]");
+                }
+                this.numberOfParts = chunks.size();
+                this.partSize = null;
+                this.partBytes = Long.MAX_VALUE;
+                return;
+            }
+            this.chunks = null;
+            this.chunkStarts = null;
+
             long partBytes = Long.MAX_VALUE;
             if (partSize != null && partSize.getBytes() > 0) {
                 partBytes = partSize.getBytes();
@@ -81,8 +130,12 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             assert IntStream.range(0, numberOfParts).mapToLong(this::partBytes).sum() == metadata.length();
         }
 
-        public FileInfo(StreamInput in) throws IOException {
-            this(in.readString(), new StoreFileMetadata(in), in.readOptionalWriteable(ByteSizeValue::readFrom));
+        @Nullable
+        private static List<Chunk> readChunks(StreamInput in) throws IOException {
+            if (in.getTransportVersion().onOrAfter(TransportVersions.SNAPSHOT_CONTENT_DEFINED_CHUNKS)) {
+                return in.readOptionalCollectionAsList(Chunk::new);
+            }
+            return null;
         }
 
         @Override
@@ -90,6 +143,13 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             out.writeString(name);
             metadata.writeTo(out);
             out.writeOptionalWriteable(partSize);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.SNAPSHOT_CONTENT_DEFINED_CHUNKS)) {
+                out.writeOptionalCollection(chunks);
+            } else if (chunks != null) {
+                throw new IllegalStateException(
+                    "file [" + name + "] is stored as chunks, which transport version [" + out.getTransportVersion() + "] cannot read"
+                );
+            }
         }
 
         /**
@@ -108,7 +168,9 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
          * @return part name
          */
         public String partName(int part) {
-            if (numberOfParts > 1) {
+            if (chunks != null) {
+                return chunks.get(part).name();
+            } else if (numberOfParts > 1) {
                 return name + ".part" + part;
             } else {
                 return name;
@@ -162,6 +224,9 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
          */
         public long partBytes(int part) {
             assert 0 <= part && part < numberOfParts : part + " vs " + numberOfParts;
+            if (chunks != null) {
+                return chunks.get(part).length();
+            }
             if (numberOfParts == 1) {
                 return length();
             }
@@ -175,6 +240,33 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             return lastPartBytes;
         }
 
+        /**
+         * Returns the position in the file of the first byte of a given part
+         *
+         * @return the position in the file of the first byte of a given part
+         */
+        public long partStart(int part) {
+            assert 0 <= part && part < numberOfParts : part + " vs " + numberOfParts;
+            if (chunks != null) {
+                return chunkStarts[part];
+            }
+            return part == 0 ? 0L : part * partBytes;
+        }
+
+        /**
+         * Returns the part that holds the byte at the given position in the file
+         *
+         * @return the part that holds the byte at the given position in the file
+         */
+        public int partForPosition(long position) {
+            assert 0L <= position && position < Math.max(1L, length()) : position + " vs " + length();
+            if (chunks != null) {
+                final int index = Arrays.binarySearch(chunkStarts, position);
+                return index >= 0 ? index : -index - 2;
+            }
+            return numberOfParts == 1 ? 0 : Math.toIntExact(position / partBytes);
+        }
+
         /**
          * Returns number of parts
          *
@@ -184,6 +276,15 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             return numberOfParts;
         }
 
+        /**
+         * Returns the content-defined chunks that the file is stored as, or {@code null} if it is stored as parts of a fixed size.
+         * Chunks are stored as their own blobs, which can be shared with other files of the shard.
+         */
+        @Nullable
+        public List<Chunk> chunks() {
+            return chunks;
+        }
+
         /**
          * Returns file md5 checksum provided by {@link org.elasticsearch.index.store.Store}
          *
@@ -226,6 +327,9 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             if (name.equals(fileInfo.name) == false) {
                 return false;
             }
+            if (Objects.equals(chunks, fileInfo.chunks) == false) {
+                return false;
+            }
             if (partSize != null) {
                 if (partSize.equals(fileInfo.partSize) == false) {
                     return false;
@@ -246,6 +350,7 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
         static final String WRITTEN_BY = "written_by";
         static final String META_HASH = "meta_hash";
         static final String WRITER_UUID = "writer_uuid";
+        static final String CHUNKS = "chunks";
 
         /**
          * Serializes file info into JSON
@@ -262,6 +367,13 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             if (file.partSize != null) {
                 builder.field(PART_SIZE, file.partSize.getBytes());
             }
+            if (file.chunks != null) {
+                builder.startArray(CHUNKS);
+                for (Chunk chunk : file.chunks) {
+                    builder.startObject().field(NAME, chunk.name()).field(LENGTH, chunk.length()).endObject();
+                }
+                builder.endArray();
+            }
 
             if (file.metadata.writtenBy() != null) {
                 builder.field(WRITTEN_BY, file.metadata.writtenBy());
@@ -299,10 +411,19 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             String writtenBy = null;
             BytesRef metaHash = new BytesRef();
             BytesRef writerUuid = UNAVAILABLE_WRITER_UUID;
+            List<Chunk> chunks = null;
             XContentParserUtils.ensureExpectedToken(token, XContentParser.Token.START_OBJECT, parser);
             String currentFieldName;
             while ((currentFieldName = parser.nextFieldName()) != null) {
                 token = parser.nextToken();
+                if (CHUNKS.equals(currentFieldName)) {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, token, parser);
+                    chunks = new ArrayList<>();
+                    while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                        chunks.add(Chunk.fromXContent(parser));
+                    }
+                    continue;
+                }
                 if (token.isValue() == false) {
                     XContentParserUtils.throwUnknownToken(token, parser);
                 }
@@ -348,7 +469,12 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             } catch (Exception e) {
                 throw new ElasticsearchParseException("invalid written_by [" + writtenBy + "]");
             }
-            return new FileInfo(name, new StoreFileMetadata(physicalName, length, checksum, writtenBy, metaHash, writerUuid), partSize);
+            final StoreFileMetadata metadata = new StoreFileMetadata(physicalName, length, checksum, writtenBy, metaHash, writerUuid);
+            try {
+                return new FileInfo(name, metadata, partSize, chunks);
+            } catch (IllegalArgumentException e) {
+                throw new ElasticsearchParseException("invalid chunks for file [" + name + "]", e);
+            }
         }
 
         @Override
@@ -361,12 +487,61 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
                 + partSize
                 + ", partBytes: "
                 + partBytes
+                + (chunks == null ? "" : ", chunks: " + chunks.size())
                 + ", metadata: "
                 + metadata
                 + "]";
         }
     }
 
+    /**
+     * A content-defined chunk of a snapshotted file. Its blob is named after the hash of its content, so that the same chunk is stored
+     * once per shard even if it is part of several files.
+     *
+     * @param name   the name of the blob holding the chunk
+     * @param length the length of the chunk
+     */
+    public record Chunk(String name, long length) implements Writeable {
+
+        public Chunk {
+            Objects.requireNonNull(name);
+            if (length <= 0L) {
+                throw new IllegalArgumentException("chunk [" + name + "] must not be empty");
+            }
+        }
+
+        public Chunk(StreamInput in) throws IOException {
+            this(in.readString(), in.readVLong());
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(name);
+            out.writeVLong(length);
+        }
+
+        static Chunk fromXContent(XContentParser parser) throws IOException {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
+            String name = null;
+            long length = -1L;
+            String currentFieldName;
+            while ((currentFieldName = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                switch (currentFieldName) {
+                    case FileInfo.NAME -> name = parser.text();
+                    case FileInfo.LENGTH -> length = parser.longValue();
+                    default -> XContentParserUtils.throwUnknownField(currentFieldName, parser);
+                }
+            }
+            if (name == null || Strings.validFileName(name) == false) {
+                throw new ElasticsearchParseException("missing or invalid chunk name [" + name + "]");
+            } else if (length <= 0L) {
+                throw new ElasticsearchParseException("missing or invalid chunk length");
+            }
+            return new Chunk(name, length);
+        }
+    }
+
     /**
      * Snapshot name
      */
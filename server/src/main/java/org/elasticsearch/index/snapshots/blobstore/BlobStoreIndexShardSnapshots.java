@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -176,6 +177,23 @@ public class BlobStoreIndexShardSnapshots implements Iterable<SnapshotFiles>, To
         return files.get(name);
     }
 
+    /**
+     * Returns the names of the blobs holding the content-defined chunks of all the snapshotted files
+     *
+     * @return the names of the chunk blobs referenced by any of the snapshots
+     */
+    public Set<String> chunkNames() {
+        final Set<String> chunkNames = new HashSet<>();
+        for (FileInfo fileInfo : files.values()) {
+            if (fileInfo.chunks() != null) {
+                for (BlobStoreIndexShardSnapshot.Chunk chunk : fileInfo.chunks()) {
+                    chunkNames.add(chunk.name());
+                }
+            }
+        }
+        return chunkNames;
+    }
+
     @Override
     public Iterator<SnapshotFiles> iterator() {
         return shardSnapshots.iterator();
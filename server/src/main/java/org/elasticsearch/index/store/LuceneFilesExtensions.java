@@ -39,6 +39,8 @@ public enum LuceneFilesExtensions {
     // cache, so we use mmap, which provides better performance.
     DVD("dvd", "DocValues", false, true),
     DVM("dvm", "DocValues Metadata", true, false),
+    // ZSTD dictionary of the stored fields of the segment, read fully when the segment is opened
+    FDD("fdd", "Field Dictionary", true, false),
     FDM("fdm", "Field Metadata", true, false),
     FDT("fdt", "Field Data", false, false),
     FDX("fdx", "Field Index", false, false),
@@ -0,0 +1,186 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.warmer;
+
+import org.apache.lucene.codecs.perfield.PerFieldKnnVectorsFormat;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.util.concurrent.CountDown;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.IndexWarmer;
+import org.elasticsearch.index.mapper.Mapper;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.nativeaccess.NativeAccess;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads the files of indexed {@code dense_vector} fields, i.e. their HNSW graphs and (quantized) vectors, into the page cache
+ * in the background once a new reader is opened, so that the first vector searches after a restart, a relocation or a merge
+ * don't have to read them from disk. The shard's {@link ShardIndexWarmerService} tracks warmed segments by name, so only the
+ * files of new segments are loaded, each segment by its own task, and it tells whether all segments of the shard are warmed.
+ */
+public class DenseVectorWarmer implements IndexWarmer.Listener {
+
+    public static final Setting<Boolean> INDEX_WARMER_DENSE_VECTOR_ENABLED_SETTING = Setting.boolSetting(
+        "index.warmer.dense_vector.enabled",
+        false,
+        Setting.Property.Dynamic,
+        Setting.Property.IndexScope
+    );
+
+    private static final String RAW_VECTOR_EXTENSION = "vec";
+    // int8/int4 quantized vectors, and bbq quantized vectors
+    private static final Set<String> QUANTIZED_VECTOR_EXTENSIONS = Set.of("veq", "veb");
+
+    private final Executor executor;
+
+    public DenseVectorWarmer(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public IndexWarmer.TerminationHandle warmReader(IndexShard indexShard, ElasticsearchDirectoryReader reader) {
+        final ShardIndexWarmerService warmerService = indexShard.warmerService();
+        if (indexShard.indexSettings().getValue(INDEX_WARMER_DENSE_VECTOR_ENABLED_SETTING) == false) {
+            warmerService.retainVectorFiles(Set.of());
+            warmerService.onVectorSegments(Set.of());
+            return IndexWarmer.TerminationHandle.NO_WAIT;
+        }
+        final List<String> fields = denseVectorFields(indexShard.mapperService().mappingLookup());
+        final Map<String, List<Path>> filesPerSegment = new HashMap<>();
+        for (LeafReaderContext leaf : reader.leaves()) {
+            final List<Path> segmentFiles = new ArrayList<>();
+            for (String field : fields) {
+                segmentFiles.addAll(vectorFiles(leaf.reader(), field));
+            }
+            if (segmentFiles.isEmpty() == false) {
+                // vector files could be resolved, so this is a segment reader
+                filesPerSegment.put(Lucene.segmentReader(leaf.reader()).getSegmentInfo().info.name, segmentFiles);
+            }
+        }
+        // forget about the files of segments that were merged away
+        final Set<Path> currentFiles = new HashSet<>();
+        filesPerSegment.values().forEach(currentFiles::addAll);
+        warmerService.retainVectorFiles(currentFiles);
+        final Set<String> segmentsToWarm = warmerService.onVectorSegments(filesPerSegment.keySet());
+        if (segmentsToWarm.isEmpty()) {
+            return IndexWarmer.TerminationHandle.NO_WAIT;
+        }
+        // vector files are warmed in the background, the new reader doesn't wait for them to be loaded
+        final long start = System.nanoTime();
+        final CountDown pendingSegments = new CountDown(segmentsToWarm.size());
+        final Runnable onSegmentWarmed = () -> {
+            if (pendingSegments.countDown() && warmerService.logger().isTraceEnabled()) {
+                warmerService.logger().trace("warmed dense_vector files, took [{}]", TimeValue.timeValueNanos(System.nanoTime() - start));
+            }
+        };
+        for (String segment : segmentsToWarm) {
+            final List<Path> segmentFiles = filesPerSegment.get(segment);
+            executor.execute(() -> {
+                try {
+                    for (Path file : segmentFiles) {
+                        if (NativeAccess.instance().tryAdviseWillNeed(file)) {
+                            warmerService.onVectorFileWarmed(file);
+                        }
+                    }
+                    warmerService.onVectorSegmentWarmed(segment);
+                    if (warmerService.logger().isTraceEnabled()) {
+                        warmerService.logger().trace("warmed [{}] dense_vector files of segment [{}]", segmentFiles.size(), segment);
+                    }
+                } catch (Exception e) {
+                    warmerService.logger().warn(() -> "failed to warm-up dense_vector files of segment [" + segment + "]", e);
+                } finally {
+                    onSegmentWarmed.run();
+                }
+            });
+        }
+        return IndexWarmer.TerminationHandle.NO_WAIT;
+    }
+
+    /**
+     * Returns the full paths of the indexed {@code dense_vector} fields of the given mapping.
+     */
+    public static List<String> denseVectorFields(MappingLookup mappingLookup) {
+        List<String> fields = new ArrayList<>();
+        for (Mapper mapper : mappingLookup.fieldMappers()) {
+            if (mapper instanceof DenseVectorFieldMapper denseVectorFieldMapper && denseVectorFieldMapper.fieldType().isIndexed()) {
+                fields.add(mapper.fullPath());
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the files holding the HNSW graph and the vectors of the given field in the given segment. Raw vectors are left
+     * out when the field also has quantized vectors, since those are the ones searches read. Returns an empty list if the
+     * field has no vectors in the segment, or if the segment's files cannot be resolved to paths, e.g. for compound segments.
+     */
+    public static List<Path> vectorFiles(LeafReader reader, String field) {
+        FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+        if (fieldInfo == null || fieldInfo.hasVectorValues() == false) {
+            return List.of();
+        }
+        String formatName = fieldInfo.getAttribute(PerFieldKnnVectorsFormat.PER_FIELD_FORMAT_KEY);
+        String suffix = fieldInfo.getAttribute(PerFieldKnnVectorsFormat.PER_FIELD_SUFFIX_KEY);
+        if (formatName == null || suffix == null) {
+            return List.of();
+        }
+        final SegmentReader segmentReader;
+        try {
+            segmentReader = Lucene.segmentReader(reader);
+        } catch (IllegalStateException e) {
+            return List.of();
+        }
+        Directory directory = FilterDirectory.unwrap(segmentReader.directory());
+        if (directory instanceof FSDirectory == false) {
+            return List.of();
+        }
+        Path directoryPath = ((FSDirectory) directory).getDirectory();
+        String segmentName = segmentReader.getSegmentInfo().info.name;
+        String prefix = IndexFileNames.segmentFileName(segmentName, formatName + "_" + suffix, "") + ".";
+        List<Path> files = new ArrayList<>();
+        boolean hasQuantizedVectors = false;
+        try {
+            for (String file : segmentReader.getSegmentInfo().files()) {
+                if (file.startsWith(prefix)) {
+                    String extension = IndexFileNames.getExtension(file);
+                    hasQuantizedVectors |= QUANTIZED_VECTOR_EXTENSIONS.contains(extension);
+                    files.add(directoryPath.resolve(file));
+                }
+            }
+        } catch (IOException e) {
+            return List.of();
+        }
+        if (hasQuantizedVectors) {
+            files.removeIf(file -> RAW_VECTOR_EXTENSION.equals(IndexFileNames.getExtension(file.getFileName().toString())));
+        }
+        return files;
+    }
+}
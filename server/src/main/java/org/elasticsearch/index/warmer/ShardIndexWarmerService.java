@@ -12,16 +12,38 @@ package org.elasticsearch.index.warmer;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.metrics.MeanMetric;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.shard.AbstractIndexShardComponent;
+import org.elasticsearch.index.shard.DenseVectorStats;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.nativeaccess.NativeAccess;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class ShardIndexWarmerService extends AbstractIndexShardComponent {
 
     private final CounterMetric current = new CounterMetric();
     private final MeanMetric warmerMetric = new MeanMetric();
+    /**
+     * The minimum interval between two measurements of the page cache residency of the vector files for stats.
+     */
+    static final TimeValue VECTOR_FILES_RESIDENCY_INTERVAL = TimeValue.timeValueSeconds(30);
+
+    // the last measured page cache residency of the vector files of the current reader, see DenseVectorWarmer
+    private final Map<Path, VectorFileResidency> vectorFiles = ConcurrentCollections.newConcurrentMap();
+    private long vectorFilesMeasuredNanos;
+    // the segments of the current reader that have vector files, and those whose vector files were loaded, see DenseVectorWarmer
+    private volatile Set<String> vectorSegments = Set.of();
+    private final Set<String> warmedVectorSegments = ConcurrentCollections.newConcurrentSet();
 
     public ShardIndexWarmerService(ShardId shardId, IndexSettings indexSettings) {
         super(shardId, indexSettings);
@@ -40,6 +62,96 @@ public class ShardIndexWarmerService extends AbstractIndexShardComponent {
         warmerMetric.inc(tookInNanos);
     }
 
+    /**
+     * Records the segments of a new reader that have vector files, forgets about the warmed segments that were merged away, and
+     * returns the segments whose vector files still need to be loaded. Segments are immutable, so the vector files of a segment are
+     * only loaded once.
+     */
+    public Set<String> onVectorSegments(Set<String> segments) {
+        warmedVectorSegments.retainAll(segments);
+        vectorSegments = Set.copyOf(segments);
+        final Set<String> segmentsToWarm = new HashSet<>(segments);
+        segmentsToWarm.removeAll(warmedVectorSegments);
+        return segmentsToWarm;
+    }
+
+    /**
+     * Records that the vector files of the given segment were loaded.
+     */
+    public void onVectorSegmentWarmed(String segment) {
+        warmedVectorSegments.add(segment);
+        if (logger.isDebugEnabled() && vectorsWarmed()) {
+            logger.debug("dense_vector files are warmed");
+        }
+    }
+
+    /**
+     * Returns whether the vector files of all the segments of the current reader of this shard were loaded into the page cache, see
+     * {@link DenseVectorWarmer}. This goes back to {@code false} when a refresh or a merge adds segments that aren't warmed yet.
+     */
+    public boolean vectorsWarmed() {
+        return warmedVectorSegments.containsAll(vectorSegments);
+    }
+
+    /**
+     * Measures how much of the given vector file is resident in the page cache for stats, once it was advised to be loaded.
+     */
+    public void onVectorFileWarmed(Path file) {
+        final VectorFileResidency residency = measureResidency(file);
+        if (residency != null) {
+            vectorFiles.put(file, residency);
+        }
+    }
+
+    /**
+     * Forgets about the vector files that aren't in the given set anymore, e.g. because their segments were merged away.
+     */
+    public void retainVectorFiles(Set<Path> files) {
+        vectorFiles.keySet().retainAll(files);
+    }
+
+    /**
+     * Returns the given stats with the size and the page cache residency of the vector files of the current reader. The residency
+     * is measured again if the last measurement is older than {@link #VECTOR_FILES_RESIDENCY_INTERVAL}, so that frequent stats calls
+     * don't scan the page tables of large files.
+     */
+    public DenseVectorStats denseVectorStats(DenseVectorStats stats) {
+        synchronized (vectorFiles) {
+            final long now = System.nanoTime();
+            if (now - vectorFilesMeasuredNanos >= VECTOR_FILES_RESIDENCY_INTERVAL.nanos()) {
+                for (Path file : vectorFiles.keySet()) {
+                    final VectorFileResidency residency = measureResidency(file);
+                    if (residency != null) {
+                        vectorFiles.replace(file, residency);
+                    }
+                }
+                vectorFilesMeasuredNanos = now;
+            }
+        }
+        long sizeInBytes = 0;
+        long residentSizeInBytes = 0;
+        for (VectorFileResidency residency : vectorFiles.values()) {
+            sizeInBytes += residency.sizeInBytes();
+            residentSizeInBytes += residency.residentSizeInBytes();
+        }
+        return new DenseVectorStats(stats.getValueCount(), sizeInBytes, residentSizeInBytes);
+    }
+
+    private VectorFileResidency measureResidency(Path file) {
+        try {
+            final long size = Files.size(file);
+            final OptionalDouble residency = NativeAccess.instance().pageCacheResidency(file);
+            if (residency.isPresent()) {
+                return new VectorFileResidency(size, (long) (residency.getAsDouble() * size));
+            }
+        } catch (IOException e) {
+            logger.trace(() -> "failed to get page cache residency of [" + file + "]", e);
+        }
+        return null;
+    }
+
+    private record VectorFileResidency(long sizeInBytes, long residentSizeInBytes) {}
+
     public WarmerStats stats() {
         return new WarmerStats(current.count(), warmerMetric.count(), TimeUnit.NANOSECONDS.toMillis(warmerMetric.sum()));
     }
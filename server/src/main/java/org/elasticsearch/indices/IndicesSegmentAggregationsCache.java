@@ -0,0 +1,209 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.SegmentAggregationsCache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The indices segment aggregations cache keeps the partial aggregation results of shard level requests per segment. The
+ * {@link IndicesRequestCache} is keyed by the top level reader of a shard, so every refresh of a shard that is being written to
+ * invalidates it. The entries of this cache are keyed by the segment readers instead, which survive refreshes until the segment is
+ * merged away or documents of the segment are deleted. When the request cache misses, only the segments that were written since
+ * the previous identical request are aggregated, and the cached partial results of the other segments are merged in.
+ * <p>
+ * The cache is opted in on an index level setting, and is only used for requests that can be served from the request cache and whose
+ * aggregations support concurrent collection, as their partial results merge the same way as the results of the slices of a
+ * concurrent search. The aggregations must also opt in with {@link AggregationBuilder#supportsSegmentCaching()}, so that partial
+ * results holding doc ids or scores, which change with the other segments of the shard, are never cached. Entries of closed segment
+ * readers are removed by the periodic cache cleaner.
+ */
+public final class IndicesSegmentAggregationsCache implements Closeable {
+
+    /**
+     * A setting to enable or disable caching the partial aggregation results of segments on an index level.
+     */
+    public static final Setting<Boolean> INDEX_CACHE_SEGMENT_AGGREGATIONS_ENABLED_SETTING = Setting.boolSetting(
+        "index.aggregations.segment_cache.enable",
+        false,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+    public static final Setting<ByteSizeValue> INDICES_CACHE_SEGMENT_AGGREGATIONS_SIZE = Setting.memorySizeSetting(
+        "indices.aggregations.segment_cache.size",
+        "1%",
+        Property.NodeScope
+    );
+
+    private final NamedWriteableRegistry namedWriteableRegistry;
+    private final Set<Object> registeredClosedListeners = ConcurrentCollections.newConcurrentSet();
+    private final Set<Object> readerKeysToClean = ConcurrentCollections.newConcurrentSet();
+    private final Set<ShardId> shardsToClean = ConcurrentCollections.newConcurrentSet();
+    private final Cache<Key, BytesReference> cache;
+    private final CounterMetric hitCount = new CounterMetric();
+    private final CounterMetric missCount = new CounterMetric();
+
+    IndicesSegmentAggregationsCache(Settings settings, NamedWriteableRegistry namedWriteableRegistry) {
+        this.namedWriteableRegistry = namedWriteableRegistry;
+        this.cache = CacheBuilder.<Key, BytesReference>builder()
+            .setMaximumWeight(INDICES_CACHE_SEGMENT_AGGREGATIONS_SIZE.get(settings).getBytes())
+            .weigher((k, v) -> k.ramBytesUsed() + v.ramBytesUsed())
+            .build();
+    }
+
+    @Override
+    public void close() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the cache of the partial aggregation results per segment of a shard level request.
+     * @param shardId the shard that the request targets
+     * @param mappingCacheKey the mapping that the request was parsed with
+     * @param requestCacheKey the cache key of the shard level request, see {@link IndicesRequestCache}
+     */
+    SegmentAggregationsCache forRequest(ShardId shardId, MappingLookup.CacheKey mappingCacheKey, BytesReference requestCacheKey) {
+        return new SegmentAggregationsCache() {
+            @Override
+            public InternalAggregations get(LeafReaderContext leaf) throws IOException {
+                final IndexReader.CacheHelper cacheHelper = leaf.reader().getReaderCacheHelper();
+                if (cacheHelper == null) {
+                    return null;
+                }
+                final BytesReference value = cache.get(new Key(shardId, mappingCacheKey, cacheHelper.getKey(), requestCacheKey));
+                if (value == null) {
+                    missCount.inc();
+                    return null;
+                }
+                hitCount.inc();
+                try (StreamInput in = new NamedWriteableAwareStreamInput(value.streamInput(), namedWriteableRegistry)) {
+                    return InternalAggregations.readFrom(in);
+                }
+            }
+
+            @Override
+            public void put(LeafReaderContext leaf, InternalAggregations aggregations) throws IOException {
+                final IndexReader.CacheHelper cacheHelper = leaf.reader().getReaderCacheHelper();
+                if (cacheHelper == null) {
+                    return;
+                }
+                final IndexReader.CacheKey readerKey = cacheHelper.getKey();
+                // see IndicesService#cacheShardLevelResult for the expected size
+                try (BytesStreamOutput out = new BytesStreamOutput(512)) {
+                    aggregations.writeTo(out);
+                    cache.put(new Key(shardId, mappingCacheKey, readerKey, requestCacheKey), out.bytes());
+                }
+                // see if its the first time we see this segment reader, and make sure to clean its entries once it is closed
+                if (registeredClosedListeners.add(readerKey)) {
+                    cacheHelper.addClosedListener(key -> {
+                        registeredClosedListeners.remove(key);
+                        readerKeysToClean.add(key);
+                    });
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes the entries of the given shard on the next cleanup.
+     */
+    void clear(ShardId shardId) {
+        shardsToClean.add(shardId);
+        cleanCache();
+    }
+
+    synchronized void cleanCache() {
+        final Set<Object> currentReaderKeysToClean = drain(readerKeysToClean);
+        final Set<ShardId> currentShardsToClean = drain(shardsToClean);
+        if (currentReaderKeysToClean.isEmpty() == false || currentShardsToClean.isEmpty() == false) {
+            for (Iterator<Key> iterator = cache.keys().iterator(); iterator.hasNext();) {
+                final Key key = iterator.next();
+                if (currentShardsToClean.contains(key.shardId) || currentReaderKeysToClean.contains(key.readerCacheKey)) {
+                    iterator.remove();
+                }
+            }
+        }
+        cache.refresh();
+    }
+
+    private static <T> Set<T> drain(Set<T> set) {
+        final Set<T> drained = new HashSet<>();
+        for (Iterator<T> iterator = set.iterator(); iterator.hasNext();) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the current size of the cache
+     */
+    int count() {
+        return cache.count();
+    }
+
+    /**
+     * Returns the number of segments whose partial aggregation results were found in the cache
+     */
+    public long hitCount() {
+        return hitCount.count();
+    }
+
+    /**
+     * Returns the number of segments whose partial aggregation results were not found in the cache
+     */
+    public long missCount() {
+        return missCount.count();
+    }
+
+    record Key(ShardId shardId, MappingLookup.CacheKey mappingCacheKey, Object readerCacheKey, BytesReference requestCacheKey)
+        implements
+            Accountable {
+
+        private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+
+        Key {
+            Objects.requireNonNull(mappingCacheKey);
+            Objects.requireNonNull(readerCacheKey);
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return BASE_RAM_BYTES_USED + requestCacheKey.length();
+        }
+    }
+}
@@ -61,6 +61,7 @@ import org.elasticsearch.common.settings.IndexScopedSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
@@ -135,6 +136,7 @@ import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService;
 import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
 import org.elasticsearch.indices.recovery.PeerRecoveryTargetService;
+import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.recovery.RecoveryState;
 import org.elasticsearch.indices.store.CompositeIndexFoldersDeletionListener;
 import org.elasticsearch.node.Node;
@@ -252,6 +254,7 @@ public class IndicesService extends AbstractLifecycleComponent
     private final IndexingMemoryController indexingMemoryController;
     private final TimeValue cleanInterval;
     final IndicesRequestCache indicesRequestCache; // pkg-private for testing
+    final IndicesSegmentAggregationsCache indicesSegmentAggregationsCache; // pkg-private for testing
     private final IndicesQueryCache indicesQueryCache;
     private final MetaStateService metaStateService;
     private final Collection<Function<IndexSettings, Optional<EngineFactory>>> engineFactoryProviders;
@@ -274,6 +277,8 @@ public class IndicesService extends AbstractLifecycleComponent
     private final TimestampFieldMapperService timestampFieldMapperService;
     private final CheckedBiConsumer<ShardSearchRequest, StreamOutput, IOException> requestCacheKeyDifferentiator;
     private final MapperMetrics mapperMetrics;
+    @Nullable
+    private final RecoverySettings recoverySettings;
     private final PostRecoveryMerger postRecoveryMerger;
     private final List<SearchOperationListener> searchOperationListeners;
     private final QueryRewriteInterceptor queryRewriteInterceptor;
@@ -299,8 +304,11 @@ public class IndicesService extends AbstractLifecycleComponent
         );
         this.pluginsService = builder.pluginsService;
         this.nodeEnv = builder.nodeEnv;
-        this.parserConfig = XContentParserConfiguration.EMPTY.withDeprecationHandler(LoggingDeprecationHandler.INSTANCE)
-            .withRegistry(builder.xContentRegistry);
+        this.parserConfig = XContentHelper.withJsonTapeParser(
+            XContentParserConfiguration.EMPTY.withDeprecationHandler(LoggingDeprecationHandler.INSTANCE)
+                .withRegistry(builder.xContentRegistry),
+            settings
+        );
         this.valuesSourceRegistry = builder.valuesSourceRegistry;
         this.analysisRegistry = builder.analysisRegistry;
         this.indexNameExpressionResolver = builder.indexNameExpressionResolver;
@@ -308,6 +316,7 @@ public class IndicesService extends AbstractLifecycleComponent
         this.indicesQueryCache = new IndicesQueryCache(settings);
         this.mapperRegistry = builder.mapperRegistry;
         this.namedWriteableRegistry = builder.namedWriteableRegistry;
+        this.indicesSegmentAggregationsCache = new IndicesSegmentAggregationsCache(settings, namedWriteableRegistry);
         indexingMemoryController = new IndexingMemoryController(
             settings,
             threadPool,
@@ -335,7 +344,13 @@ public class IndicesService extends AbstractLifecycleComponent
             }
         });
         this.cleanInterval = INDICES_CACHE_CLEAN_INTERVAL_SETTING.get(settings);
-        this.cacheCleaner = new CacheCleaner(indicesFieldDataCache, indicesRequestCache, threadPool, this.cleanInterval);
+        this.cacheCleaner = new CacheCleaner(
+            indicesFieldDataCache,
+            indicesRequestCache,
+            indicesSegmentAggregationsCache,
+            threadPool,
+            this.cleanInterval
+        );
         this.metaStateService = builder.metaStateService;
         this.engineFactoryProviders = builder.engineFactoryProviders;
 
@@ -353,6 +368,7 @@ public class IndicesService extends AbstractLifecycleComponent
         this.requestCacheKeyDifferentiator = builder.requestCacheKeyDifferentiator;
         this.queryRewriteInterceptor = builder.queryRewriteInterceptor;
         this.mapperMetrics = builder.mapperMetrics;
+        this.recoverySettings = builder.recoverySettings;
         // doClose() is called when shutting down a node, yet there might still be ongoing requests
         // that we need to wait for before closing some resources such as the caches. In order to
         // avoid closing these resources while ongoing requests are still being processed, we use a
@@ -366,6 +382,7 @@ public class IndicesService extends AbstractLifecycleComponent
                     indicesFieldDataCache,
                     cacheCleaner,
                     indicesRequestCache,
+                    indicesSegmentAggregationsCache,
                     indicesQueryCache
                 );
             } catch (IOException e) {
@@ -476,7 +493,19 @@ public class IndicesService extends AbstractLifecycleComponent
                 case Search -> commonStats.search.add(oldShardsStats.searchStats);
                 case Merge -> commonStats.merge.add(oldShardsStats.mergeStats);
                 case Refresh -> commonStats.refresh.add(oldShardsStats.refreshStats);
-                case Recovery -> commonStats.recoveryStats.add(oldShardsStats.recoveryStats);
+                case Recovery -> {
+                    commonStats.recoveryStats.add(oldShardsStats.recoveryStats);
+                    final ByteSizeValue adaptiveMaxBytesPerSec = recoverySettings == null
+                        ? null
+                        : recoverySettings.getAdaptiveMaxBytesPerSec();
+                    if (adaptiveMaxBytesPerSec != null) {
+                        commonStats.recoveryStats.addAdaptiveRate(
+                            adaptiveMaxBytesPerSec.getBytes(),
+                            recoverySettings.getAdaptiveRateIncreases(),
+                            recoverySettings.getAdaptiveRateDecreases()
+                        );
+                    }
+                }
                 case Flush -> commonStats.flush.add(oldShardsStats.flushStats);
                 case Bulk -> commonStats.bulk.add(oldShardsStats.bulkStats);
             }
@@ -1023,6 +1052,10 @@ public class IndicesService extends AbstractLifecycleComponent
         return indicesQueryCache;
     }
 
+    public IndicesSegmentAggregationsCache getIndicesSegmentAggregationsCache() {
+        return indicesSegmentAggregationsCache;
+    }
+
     static class OldShardsStats implements IndexEventListener {
 
         final SearchStats searchStats = new SearchStats();
@@ -1514,10 +1547,18 @@ public class IndicesService extends AbstractLifecycleComponent
         private final TimeValue interval;
         private final AtomicBoolean closed = new AtomicBoolean(false);
         private final IndicesRequestCache requestCache;
-
-        CacheCleaner(IndicesFieldDataCache cache, IndicesRequestCache requestCache, ThreadPool threadPool, TimeValue interval) {
+        private final IndicesSegmentAggregationsCache segmentAggregationsCache;
+
+        CacheCleaner(
+            IndicesFieldDataCache cache,
+            IndicesRequestCache requestCache,
+            IndicesSegmentAggregationsCache segmentAggregationsCache,
+            ThreadPool threadPool,
+            TimeValue interval
+        ) {
             this.cache = cache;
             this.requestCache = requestCache;
+            this.segmentAggregationsCache = segmentAggregationsCache;
             this.threadPool = threadPool;
             this.interval = interval;
         }
@@ -1545,6 +1586,11 @@ public class IndicesService extends AbstractLifecycleComponent
             } catch (Exception e) {
                 logger.warn("Exception during periodic request cache cleanup:", e);
             }
+            try {
+                this.segmentAggregationsCache.cleanCache();
+            } catch (Exception e) {
+                logger.warn("Exception during periodic segment aggregations cache cleanup:", e);
+            }
             // Reschedule itself to run again if not closed
             if (closed.get() == false) {
                 threadPool.scheduleUnlessShuttingDown(interval, EsExecutors.DIRECT_EXECUTOR_SERVICE, this);
@@ -1611,8 +1657,9 @@ public class IndicesService extends AbstractLifecycleComponent
      * value into the {@link SearchContext#queryResult() context's query result}. The combination of load + compute allows
      * to have a single load operation that will cause other requests with the same key to wait till its loaded an reuse
      * the same cache.
+     * @param cacheAggregationsPerSegment whether the query phase may use and fill the {@link IndicesSegmentAggregationsCache}
      */
-    public void loadIntoContext(ShardSearchRequest request, SearchContext context) throws Exception {
+    public void loadIntoContext(ShardSearchRequest request, SearchContext context, boolean cacheAggregationsPerSegment) throws Exception {
         assert canCache(request, context);
         final DirectoryReader directoryReader = context.searcher().getDirectoryReader();
 
@@ -1624,6 +1671,16 @@ public class IndicesService extends AbstractLifecycleComponent
             directoryReader,
             cacheKey,
             out -> {
+                if (cacheAggregationsPerSegment) {
+                    context.aggregations()
+                        .setSegmentCache(
+                            indicesSegmentAggregationsCache.forRequest(
+                                context.indexShard().shardId(),
+                                context.getSearchExecutionContext().mappingCacheKey(),
+                                cacheKey
+                            )
+                        );
+                }
                 QueryPhase.execute(context);
                 context.queryResult().writeToNoId(out);
                 loadedFromCache[0] = false;
@@ -1835,6 +1892,7 @@ public class IndicesService extends AbstractLifecycleComponent
             final boolean clearedAtLeastOne = service.clearCaches(queryCache, fieldDataCache, fields);
             if ((requestCache || (clearedAtLeastOne == false && fields.length == 0)) && shard != null) {
                 indicesRequestCache.clear(new IndexShardCacheEntity(shard));
+                indicesSegmentAggregationsCache.clear(shardId);
             }
         }
     }
@@ -0,0 +1,293 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.component.AbstractLifecycleComponent;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.monitor.fs.FsInfo;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Periodically adjusts the rate limit of peer recoveries on this node to its load, within the bounds configured by
+ * {@link #MIN_BYTES_PER_SEC_SETTING} and {@link #MAX_BYTES_PER_SEC_SETTING}. The node is considered saturated if the utilisation of
+ * any of its disks or of its network bandwidth, as configured by {@link RecoverySettings#NODE_BANDWIDTH_RECOVERY_NETWORK_SETTING}, is
+ * above {@link #UTILIZATION_THRESHOLD_SETTING}, or if the search thread pool queue is longer than {@link #SEARCH_QUEUE_THRESHOLD_SETTING}.
+ * The rate limit is lowered multiplicatively while the node is saturated, and raised additively otherwise, so that recoveries quickly
+ * back off when they compete with searches and indexing, and use the idle capacity of the node otherwise.
+ * <p>
+ * The resulting rate limit replaces the one computed from the settings, see {@link RecoverySettings#setAdaptiveMaxBytesPerSec}, and is
+ * reported in the node-level recovery stats along with the number of times it was raised and lowered.
+ * <p>
+ * This is opt-in: the controller does nothing unless {@link #ENABLED_SETTING} is set. The network signal is also opt-in, it is only
+ * used on nodes that set {@link RecoverySettings#NODE_BANDWIDTH_RECOVERY_NETWORK_SETTING}, because the bandwidth of the network cannot
+ * be detected. Other nodes adapt to the disk and search load only.
+ */
+public class AdaptiveRecoveryRateController extends AbstractLifecycleComponent {
+
+    private static final Logger logger = LogManager.getLogger(AdaptiveRecoveryRateController.class);
+
+    public static final Setting<Boolean> ENABLED_SETTING = Setting.boolSetting(
+        "indices.recovery.adaptive_rate.enabled",
+        false,
+        Property.NodeScope,
+        Property.Dynamic
+    );
+
+    public static final Setting<ByteSizeValue> MIN_BYTES_PER_SEC_SETTING = Setting.byteSizeSetting(
+        "indices.recovery.adaptive_rate.min_bytes_per_sec",
+        ByteSizeValue.of(10, ByteSizeUnit.MB),
+        ByteSizeValue.ofBytes(1),
+        ByteSizeValue.ofBytes(Long.MAX_VALUE),
+        Property.NodeScope,
+        Property.Dynamic
+    );
+
+    public static final Setting<ByteSizeValue> MAX_BYTES_PER_SEC_SETTING = Setting.byteSizeSetting(
+        "indices.recovery.adaptive_rate.max_bytes_per_sec",
+        ByteSizeValue.of(250, ByteSizeUnit.MB),
+        ByteSizeValue.ofBytes(1),
+        ByteSizeValue.ofBytes(Long.MAX_VALUE),
+        Property.NodeScope,
+        Property.Dynamic
+    );
+
+    public static final Setting<Double> UTILIZATION_THRESHOLD_SETTING = Setting.doubleSetting(
+        "indices.recovery.adaptive_rate.utilization_threshold",
+        0.8d,
+        0.0d,
+        1.0d,
+        Property.NodeScope,
+        Property.Dynamic
+    );
+
+    public static final Setting<Integer> SEARCH_QUEUE_THRESHOLD_SETTING = Setting.intSetting(
+        "indices.recovery.adaptive_rate.search_queue_threshold",
+        100,
+        0,
+        Property.NodeScope,
+        Property.Dynamic
+    );
+
+    public static final Setting<TimeValue> INTERVAL_SETTING = Setting.timeSetting(
+        "indices.recovery.adaptive_rate.interval",
+        TimeValue.timeValueSeconds(10),
+        TimeValue.timeValueSeconds(1),
+        Property.NodeScope
+    );
+
+    // the rate limit is lowered to this fraction of its value when the node is saturated
+    static final double DECREASE_FACTOR = 0.75d;
+    // the rate limit is raised by this fraction of the configured range when the node is not saturated
+    static final double INCREASE_FRACTION = 0.1d;
+
+    private final RecoverySettings recoverySettings;
+    private final ThreadPool threadPool;
+    private final Supplier<FsInfo> fsInfoSupplier;
+    private final LongSupplier bytesSentSupplier;
+    private final IntSupplier searchQueueSupplier;
+    private final long networkBandwidthBytesPerSec;
+    private final boolean canContainData;
+    private final TimeValue interval;
+
+    private volatile boolean enabled;
+    private volatile long minBytesPerSec;
+    private volatile long maxBytesPerSec;
+    private volatile double utilizationThreshold;
+    private volatile int searchQueueThreshold;
+
+    private Scheduler.Cancellable scheduled; // accesses all synchronized on AbstractLifecycleComponent#lifecycle
+
+    // only accessed by the scheduled task
+    @Nullable
+    private Sample previousSample;
+
+    public AdaptiveRecoveryRateController(
+        Settings settings,
+        ClusterSettings clusterSettings,
+        RecoverySettings recoverySettings,
+        ThreadPool threadPool,
+        Supplier<FsInfo> fsInfoSupplier,
+        TransportService transportService
+    ) {
+        this(
+            settings,
+            clusterSettings,
+            recoverySettings,
+            threadPool,
+            fsInfoSupplier,
+            () -> transportService.stats().txSize().getBytes(),
+            () -> searchQueueSize(threadPool)
+        );
+    }
+
+    AdaptiveRecoveryRateController(
+        Settings settings,
+        ClusterSettings clusterSettings,
+        RecoverySettings recoverySettings,
+        ThreadPool threadPool,
+        Supplier<FsInfo> fsInfoSupplier,
+        LongSupplier bytesSentSupplier,
+        IntSupplier searchQueueSupplier
+    ) {
+        this.recoverySettings = recoverySettings;
+        this.threadPool = threadPool;
+        this.fsInfoSupplier = fsInfoSupplier;
+        this.bytesSentSupplier = bytesSentSupplier;
+        this.searchQueueSupplier = searchQueueSupplier;
+        this.networkBandwidthBytesPerSec = Math.max(RecoverySettings.NODE_BANDWIDTH_RECOVERY_NETWORK_SETTING.get(settings).getBytes(), 0L);
+        this.canContainData = DiscoveryNode.canContainData(settings);
+        this.interval = INTERVAL_SETTING.get(settings);
+        clusterSettings.initializeAndWatch(ENABLED_SETTING, value -> this.enabled = value);
+        clusterSettings.initializeAndWatch(MIN_BYTES_PER_SEC_SETTING, value -> this.minBytesPerSec = value.getBytes());
+        clusterSettings.initializeAndWatch(MAX_BYTES_PER_SEC_SETTING, value -> this.maxBytesPerSec = value.getBytes());
+        clusterSettings.initializeAndWatch(UTILIZATION_THRESHOLD_SETTING, value -> this.utilizationThreshold = value);
+        clusterSettings.initializeAndWatch(SEARCH_QUEUE_THRESHOLD_SETTING, value -> this.searchQueueThreshold = value);
+    }
+
+    @Override
+    protected void doStart() {
+        if (canContainData) {
+            scheduled = threadPool.scheduleWithFixedDelay(this::adjust, interval, threadPool.generic());
+        }
+    }
+
+    @Override
+    protected void doStop() {
+        if (scheduled != null) {
+            scheduled.cancel();
+            scheduled = null;
+        }
+    }
+
+    @Override
+    protected void doClose() {}
+
+    void adjust() {
+        if (enabled == false) {
+            previousSample = null;
+            if (recoverySettings.getAdaptiveMaxBytesPerSec() != null) {
+                logger.debug("adaptive recovery rate disabled, using rate limit [{}]", recoverySettings.getMaxBytesPerSec());
+                recoverySettings.setAdaptiveMaxBytesPerSec(null);
+            }
+            return;
+        }
+        final long min = Math.min(minBytesPerSec, maxBytesPerSec);
+        final long max = maxBytesPerSec;
+        final Sample previous = previousSample;
+        final Sample sample = takeSample();
+        previousSample = sample;
+
+        final ByteSizeValue adaptive = recoverySettings.getAdaptiveMaxBytesPerSec();
+        final long current;
+        if (adaptive != null) {
+            current = adaptive.getBytes();
+        } else {
+            // start from the rate limit computed from the settings
+            final long configured = recoverySettings.getMaxBytesPerSec().getBytes();
+            current = configured > 0L ? Math.min(Math.max(configured, min), max) : max;
+        }
+        if (previous == null || sample.timeMillis() <= previous.timeMillis()) {
+            recoverySettings.setAdaptiveMaxBytesPerSec(ByteSizeValue.ofBytes(current));
+            return;
+        }
+
+        final long elapsedMillis = sample.timeMillis() - previous.timeMillis();
+        final double diskUtilization = diskUtilization(previous, sample, elapsedMillis);
+        final double networkUtilization = networkBandwidthBytesPerSec > 0L
+            ? Math.max(sample.bytesSent() - previous.bytesSent(), 0L) * 1000.0d / elapsedMillis / networkBandwidthBytesPerSec
+            : 0.0d;
+        final int searchQueue = searchQueueSupplier.getAsInt();
+        final boolean saturated = diskUtilization >= utilizationThreshold
+            || networkUtilization >= utilizationThreshold
+            || (searchQueueThreshold > 0 && searchQueue >= searchQueueThreshold);
+
+        final long next = nextBytesPerSec(current, min, max, saturated);
+        if (next != current) {
+            logger.debug(
+                "{} recovery rate limit from [{}] to [{}] with [disk={}, network={}, search_queue={}]",
+                next > current ? "raising" : "lowering",
+                ByteSizeValue.ofBytes(current),
+                ByteSizeValue.ofBytes(next),
+                diskUtilization,
+                networkUtilization,
+                searchQueue
+            );
+        }
+        recoverySettings.setAdaptiveMaxBytesPerSec(ByteSizeValue.ofBytes(next));
+    }
+
+    /**
+     * Computes the next rate limit: lowered multiplicatively when the node is saturated, raised additively otherwise.
+     */
+    static long nextBytesPerSec(long current, long min, long max, boolean saturated) {
+        final long next;
+        if (saturated) {
+            next = (long) (current * DECREASE_FACTOR);
+        } else {
+            next = current + Math.max((long) ((max - min) * INCREASE_FRACTION), 1L);
+        }
+        return Math.min(Math.max(next, min), max);
+    }
+
+    private Sample takeSample() {
+        final Map<String, Long> ioTimeByDevice = new HashMap<>();
+        final FsInfo fsInfo = fsInfoSupplier.get();
+        if (fsInfo != null && fsInfo.getIoStats() != null) {
+            for (FsInfo.DeviceStats deviceStats : fsInfo.getIoStats().getDevicesStats()) {
+                if (deviceStats.totalIOTimeInMillis() >= 0L) {
+                    ioTimeByDevice.put(deviceStats.getDeviceName(), deviceStats.totalIOTimeInMillis());
+                }
+            }
+        }
+        return new Sample(threadPool.relativeTimeInMillis(), ioTimeByDevice, bytesSentSupplier.getAsLong());
+    }
+
+    /**
+     * Returns the utilisation of the busiest disk between two samples, i.e. the fraction of the elapsed time it spent doing IO.
+     */
+    static double diskUtilization(Sample previous, Sample sample, long elapsedMillis) {
+        double utilization = 0.0d;
+        for (Map.Entry<String, Long> entry : sample.ioTimeByDevice().entrySet()) {
+            final Long previousIoTime = previous.ioTimeByDevice().get(entry.getKey());
+            if (previousIoTime != null && entry.getValue() >= previousIoTime) {
+                utilization = Math.max(utilization, Math.min((entry.getValue() - previousIoTime) / (double) elapsedMillis, 1.0d));
+            }
+        }
+        return utilization;
+    }
+
+    private static int searchQueueSize(ThreadPool threadPool) {
+        if (threadPool.executor(ThreadPool.Names.SEARCH) instanceof ThreadPoolExecutor executor) {
+            return executor.getQueue().size();
+        }
+        return 0;
+    }
+
+    record Sample(long timeMillis, Map<String, Long> ioTimeByDevice, long bytesSent) {}
+}
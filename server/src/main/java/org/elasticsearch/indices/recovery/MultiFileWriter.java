@@ -9,7 +9,12 @@
 package org.elasticsearch.indices.recovery;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefIterator;
@@ -22,11 +27,13 @@ import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.nativeaccess.NativeAccess;
 import org.elasticsearch.transport.Transports;
 
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -125,6 +132,62 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
         }
     }
 
+    /**
+     * Creates the temporary file for the given file as a copy-on-write clone of the given source file, which must be on the same
+     * filesystem as the store. The length and the checksum in the footer of the resulting file are verified. The file is never hard-linked,
+     * so that this store never shares an inode with a file that it does not own.
+     *
+     * @return true if the file was cloned, false if it has to be written with its contents
+     */
+    public boolean linkFile(StoreFileMetadata fileMetadata, Path sourceFile) throws IOException {
+        assert hasReferences();
+        assert Transports.assertNotTransportThread("multi_file_writer");
+        if (FilterDirectory.unwrap(store.directory()) instanceof FSDirectory fsDirectory == false) {
+            return false;
+        }
+
+        String fileName = fileMetadata.name();
+        String tempFileName = getTempNameForFile(fileName);
+        if (tempFileNames.containsKey(tempFileName)) {
+            throw new IllegalStateException("output for file [" + fileName + "] has already been created");
+        }
+        tempFileNames.put(tempFileName, fileName);
+
+        incRef();
+        try {
+            final Path targetFile = fsDirectory.getDirectory().resolve(tempFileName);
+            if (NativeAccess.instance().tryCloneFile(sourceFile, targetFile) == false) {
+                tempFileNames.remove(tempFileName);
+                return false;
+            }
+            try (IndexInput indexInput = store.directory().openInput(tempFileName, IOContext.READONCE)) {
+                if (indexInput.length() != fileMetadata.length()) {
+                    throw new CorruptIndexException(
+                        "expected length [" + fileMetadata.length() + "] but got [" + indexInput.length() + "]",
+                        indexInput
+                    );
+                }
+                final String checksum = Store.digestToString(CodecUtil.retrieveChecksum(indexInput));
+                if (checksum.equals(fileMetadata.checksum()) == false) {
+                    throw new CorruptIndexException(
+                        "expected checksum [" + fileMetadata.checksum() + "] but got [" + checksum + "]",
+                        indexInput
+                    );
+                }
+            }
+            store.directory().sync(Collections.singleton(tempFileName));
+            indexState.addRecoveredBytesToFile(fileName, fileMetadata.length());
+            return true;
+        } catch (IOException e) {
+            logger.debug(() -> "failed to link [" + sourceFile + "] to [" + tempFileName + "]", e);
+            tempFileNames.remove(tempFileName);
+            store.deleteQuiet(tempFileName);
+            return false;
+        } finally {
+            decRef();
+        }
+    }
+
     private IndexOutput createIndexOutput(String tempFileName, StoreFileMetadata fileMetadata) throws IOException {
         return verifyOutput
             ? store.createVerifyingOutput(tempFileName, fileMetadata, IOContext.DEFAULT)
@@ -36,6 +36,7 @@ import org.elasticsearch.common.util.CancellableThreads;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.core.CheckedFunction;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.PathUtils;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
@@ -86,6 +87,7 @@ public class PeerRecoveryTargetService implements IndexEventListener {
     public static class Actions {
         public static final String FILES_INFO = "internal:index/shard/recovery/filesInfo";
         public static final String RESTORE_FILE_FROM_SNAPSHOT = "internal:index/shard/recovery/restore_file_from_snapshot";
+        public static final String LINK_FILES = "internal:index/shard/recovery/link_files";
         public static final String FILE_CHUNK = "internal:index/shard/recovery/file_chunk";
         public static final String CLEAN_FILES = "internal:index/shard/recovery/clean_files";
         public static final String TRANSLOG_OPS = "internal:index/shard/recovery/translog_ops";
@@ -150,6 +152,22 @@ public class PeerRecoveryTargetService implements IndexEventListener {
                 }
             }
         );
+        transportService.registerRequestHandler(
+            Actions.LINK_FILES,
+            threadPool.executor(ThreadPool.Names.GENERIC),
+            RecoveryLinkFilesRequest::new,
+            new RecoveryRequestHandler<>() {
+                @Override
+                protected void handleRequest(RecoveryLinkFilesRequest request, RecoveryTarget target, ActionListener<Void> listener) {
+                    target.linkFiles(PathUtils.get(request.sourceIndexPath()), request.files(), request.totalTranslogOps(), listener);
+                }
+
+                @Override
+                protected CheckedFunction<Void, TransportResponse, Exception> responseMapping(RecoveryTarget recoveryTarget) {
+                    return v -> new RecoveryLinkFilesResponse(recoveryTarget.linkedFiles());
+                }
+            }
+        );
         transportService.registerRequestHandler(
             Actions.FILE_CHUNK,
             threadPool.executor(ThreadPool.Names.GENERIC),
@@ -656,6 +674,7 @@ public class PeerRecoveryTargetService implements IndexEventListener {
                 request.maxSeqNoOfUpdatesOrDeletesOnPrimary(),
                 request.retentionLeases(),
                 request.mappingVersionOnPrimary(),
+                recoverySettings.getMaxConcurrentOperationReplays(),
                 ActionListener.wrap(checkpoint -> listener.onResponse(null), e -> {
                     // do not retry if the mapping on replica is at least as recent as the mapping
                     // that the primary used to index the operations in the request.
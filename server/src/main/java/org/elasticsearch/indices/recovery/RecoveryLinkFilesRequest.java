@@ -0,0 +1,68 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreFileMetadata;
+
+import java.io.IOException;
+import java.util.List;
+
+public class RecoveryLinkFilesRequest extends RecoveryTransportRequest {
+    private final String sourceIndexPath;
+    private final List<StoreFileMetadata> files;
+    private final int totalTranslogOps;
+
+    public RecoveryLinkFilesRequest(
+        long recoveryId,
+        long requestSeqNo,
+        ShardId shardId,
+        String sourceIndexPath,
+        List<StoreFileMetadata> files,
+        int totalTranslogOps
+    ) {
+        super(requestSeqNo, recoveryId, shardId);
+        this.sourceIndexPath = sourceIndexPath;
+        this.files = files;
+        this.totalTranslogOps = totalTranslogOps;
+    }
+
+    public RecoveryLinkFilesRequest(StreamInput in) throws IOException {
+        super(in);
+        this.sourceIndexPath = in.readString();
+        this.files = in.readCollectionAsList(StoreFileMetadata::new);
+        this.totalTranslogOps = in.readVInt();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(sourceIndexPath);
+        out.writeCollection(files);
+        out.writeVInt(totalTranslogOps);
+    }
+
+    /**
+     * The absolute path of the index directory of the source shard copy, on the host of both nodes.
+     */
+    public String sourceIndexPath() {
+        return sourceIndexPath;
+    }
+
+    public List<StoreFileMetadata> files() {
+        return files;
+    }
+
+    public int totalTranslogOps() {
+        return totalTranslogOps;
+    }
+}
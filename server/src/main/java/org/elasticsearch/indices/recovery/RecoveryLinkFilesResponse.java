@@ -0,0 +1,34 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.TransportResponse;
+
+import java.io.IOException;
+import java.util.Set;
+
+final class RecoveryLinkFilesResponse extends TransportResponse {
+    final Set<String> linkedFiles;
+
+    RecoveryLinkFilesResponse(final Set<String> linkedFiles) {
+        this.linkedFiles = linkedFiles;
+    }
+
+    RecoveryLinkFilesResponse(final StreamInput in) throws IOException {
+        linkedFiles = in.readCollectionAsImmutableSet(StreamInput::readString);
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeStringCollection(linkedFiles);
+    }
+}
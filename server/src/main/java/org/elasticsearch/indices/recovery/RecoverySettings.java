@@ -38,6 +38,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import static org.elasticsearch.cluster.routing.allocation.decider.ThrottlingAllocationDecider.CLUSTER_ROUTING_ALLOCATION_NODE_CONCURRENT_INCOMING_RECOVERIES_SETTING;
@@ -79,7 +80,8 @@ public class RecoverySettings {
     );
 
     /**
-     * Network's read bandwidth allocated for this node.
+     * Network's read bandwidth allocated for this node. Unset by default, in which case the {@link AdaptiveRecoveryRateController} does
+     * not take the network utilization into account.
      */
     public static final Setting<ByteSizeValue> NODE_BANDWIDTH_RECOVERY_NETWORK_SETTING = bandwidthSetting(
         "node.bandwidth.recovery.network"
@@ -264,6 +266,31 @@ public class RecoverySettings {
         Property.NodeScope
     );
 
+    /**
+     * Controls the maximum number of threads that the target node uses to apply the operations of a single operation chunk request.
+     * Operations are partitioned by document id so that the operations on the same document are applied in order.
+     */
+    public static final Setting<Integer> INDICES_RECOVERY_MAX_CONCURRENT_OPERATION_REPLAYS_SETTING = Setting.intSetting(
+        "indices.recovery.max_concurrent_operation_replays",
+        1,
+        1,
+        16,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
+    /**
+     * Allows a recovery target on the same host as its source to clone the source's files into its own store instead of
+     * receiving their contents. This shares the underlying disk blocks between both shard copies, so it is only meant for hosts running
+     * several nodes, like test clusters.
+     */
+    public static final Setting<Boolean> INDICES_RECOVERY_LOCAL_FILE_LINKS_SETTING = Setting.boolSetting(
+        "indices.recovery.local_file_links.enabled",
+        false,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
     /**
      * how long to wait before retrying after issues cause by cluster state syncing between nodes
      * i.e., local node is not yet known on remote node, remote shard not yet started etc.
@@ -408,8 +435,15 @@ public class RecoverySettings {
     );
 
     private volatile ByteSizeValue maxBytesPerSec;
+    private volatile long maxAllowedBytesPerSec;
+    @Nullable
+    private volatile ByteSizeValue adaptiveMaxBytesPerSec;
+    private final AtomicLong adaptiveRateIncreases = new AtomicLong();
+    private final AtomicLong adaptiveRateDecreases = new AtomicLong();
     private volatile int maxConcurrentFileChunks;
     private volatile int maxConcurrentOperations;
+    private volatile int maxConcurrentOperationReplays;
+    private volatile boolean localFileLinksEnabled;
     private volatile SimpleRateLimiter rateLimiter;
     private volatile TimeValue retryDelayStateSync;
     private volatile TimeValue retryDelayNetwork;
@@ -436,6 +470,8 @@ public class RecoverySettings {
         this.retryDelayStateSync = INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING.get(settings);
         this.maxConcurrentFileChunks = INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING.get(settings);
         this.maxConcurrentOperations = INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING.get(settings);
+        this.maxConcurrentOperationReplays = INDICES_RECOVERY_MAX_CONCURRENT_OPERATION_REPLAYS_SETTING.get(settings);
+        this.localFileLinksEnabled = INDICES_RECOVERY_LOCAL_FILE_LINKS_SETTING.get(settings);
         // doesn't have to be fast as nodes are reconnected every 10s by default (see InternalClusterService.ReconnectToNodes)
         // and we want to give the master time to remove a faulty node
         this.retryDelayNetwork = INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING.get(settings);
@@ -477,6 +513,11 @@ public class RecoverySettings {
         }
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING, this::setMaxConcurrentFileChunks);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING, this::setMaxConcurrentOperations);
+        clusterSettings.addSettingsUpdateConsumer(
+            INDICES_RECOVERY_MAX_CONCURRENT_OPERATION_REPLAYS_SETTING,
+            this::setMaxConcurrentOperationReplays
+        );
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_LOCAL_FILE_LINKS_SETTING, this::setLocalFileLinksEnabled);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING, this::setRetryDelayStateSync);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING, this::setRetryDelayNetwork);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_INTERNAL_ACTION_TIMEOUT_SETTING, this::setInternalActionTimeout);
@@ -572,6 +613,7 @@ public class RecoverySettings {
                 ofBytes(maxAllowedBytesPerSec)
             )
         );
+        this.maxAllowedBytesPerSec = maxAllowedBytesPerSec;
         setMaxBytesPerSec(finalMaxBytesPerSec);
     }
 
@@ -638,21 +680,79 @@ public class RecoverySettings {
         this.internalActionRetryTimeout = internalActionRetryTimeout;
     }
 
-    private void setMaxBytesPerSec(ByteSizeValue maxBytesPerSec) {
+    private synchronized void setMaxBytesPerSec(ByteSizeValue maxBytesPerSec) {
         this.maxBytesPerSec = maxBytesPerSec;
-        if (maxBytesPerSec.getBytes() <= 0) {
+        if (adaptiveMaxBytesPerSec == null) {
+            updateRateLimiter(maxBytesPerSec);
+        }
+    }
+
+    private void updateRateLimiter(ByteSizeValue bytesPerSec) {
+        if (bytesPerSec.getBytes() <= 0) {
             rateLimiter = null;
         } else if (rateLimiter != null) {
-            rateLimiter.setMBPerSec(maxBytesPerSec.getMbFrac());
+            rateLimiter.setMBPerSec(bytesPerSec.getMbFrac());
         } else {
-            rateLimiter = new SimpleRateLimiter(maxBytesPerSec.getMbFrac());
+            rateLimiter = new SimpleRateLimiter(bytesPerSec.getMbFrac());
         }
     }
 
+    /**
+     * The rate limit computed from the settings. Note that the {@link #rateLimiter()} uses {@link #getAdaptiveMaxBytesPerSec()}
+     * instead when it is set.
+     */
     public ByteSizeValue getMaxBytesPerSec() {
         return maxBytesPerSec;
     }
 
+    /**
+     * Overrides the rate limit computed from the settings with a rate limit that is adjusted to the load of the node, see
+     * {@link AdaptiveRecoveryRateController}, or goes back to the rate limit computed from the settings if {@code null}. The rate limit
+     * never exceeds the maximum allowed by the operator when node bandwidths are configured.
+     */
+    public synchronized void setAdaptiveMaxBytesPerSec(@Nullable ByteSizeValue bytesPerSec) {
+        final ByteSizeValue previous = adaptiveMaxBytesPerSec;
+        if (bytesPerSec == null) {
+            adaptiveMaxBytesPerSec = null;
+            updateRateLimiter(maxBytesPerSec);
+            return;
+        }
+        if (maxAllowedBytesPerSec > 0L && bytesPerSec.getBytes() > maxAllowedBytesPerSec) {
+            bytesPerSec = ByteSizeValue.ofBytes(maxAllowedBytesPerSec);
+        }
+        if (previous != null) {
+            if (bytesPerSec.getBytes() > previous.getBytes()) {
+                adaptiveRateIncreases.incrementAndGet();
+            } else if (bytesPerSec.getBytes() < previous.getBytes()) {
+                adaptiveRateDecreases.incrementAndGet();
+            }
+        }
+        adaptiveMaxBytesPerSec = bytesPerSec;
+        updateRateLimiter(bytesPerSec);
+    }
+
+    /**
+     * The rate limit set by {@link #setAdaptiveMaxBytesPerSec}, or {@code null} if the rate limit computed from the settings applies.
+     */
+    @Nullable
+    public ByteSizeValue getAdaptiveMaxBytesPerSec() {
+        return adaptiveMaxBytesPerSec;
+    }
+
+    /**
+     * Number of times the adaptive rate limit was raised.
+     */
+    public long getAdaptiveRateIncreases() {
+        return adaptiveRateIncreases.get();
+    }
+
+    /**
+     * Number of times the adaptive rate limit was lowered.
+     */
+    public long getAdaptiveRateDecreases() {
+        return adaptiveRateDecreases.get();
+    }
+
     public int getMaxConcurrentFileChunks() {
         return maxConcurrentFileChunks;
     }
@@ -669,6 +769,22 @@ public class RecoverySettings {
         this.maxConcurrentOperations = maxConcurrentOperations;
     }
 
+    public int getMaxConcurrentOperationReplays() {
+        return maxConcurrentOperationReplays;
+    }
+
+    private void setMaxConcurrentOperationReplays(int maxConcurrentOperationReplays) {
+        this.maxConcurrentOperationReplays = maxConcurrentOperationReplays;
+    }
+
+    public boolean isLocalFileLinksEnabled() {
+        return localFileLinksEnabled;
+    }
+
+    private void setLocalFileLinksEnabled(boolean localFileLinksEnabled) {
+        this.localFileLinksEnabled = localFileLinksEnabled;
+    }
+
     public boolean nodeBandwidthSettingsExist() {
         return nodeBandwidthSettingsExist;
     }
@@ -14,12 +14,15 @@ import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexCommit;
 import org.apache.lucene.index.IndexFormatTooNewException;
 import org.apache.lucene.index.IndexFormatTooOldException;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.RateLimiter;
 import org.apache.lucene.util.ArrayUtil;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.RefCountingListener;
 import org.elasticsearch.action.support.SubscribableListener;
 import org.elasticsearch.action.support.ThreadedActionListener;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
@@ -64,6 +67,7 @@ import org.elasticsearch.transport.Transports;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -87,7 +91,6 @@ import java.util.function.Function;
 import java.util.function.IntSupplier;
 import java.util.stream.StreamSupport;
 
-import static org.elasticsearch.common.util.CollectionUtils.concatLists;
 import static org.elasticsearch.core.Strings.format;
 
 /**
@@ -670,43 +673,56 @@ public class RecoverySourceHandler {
             );
         }
 
+        private void linkAndSendFiles(List<StoreFileMetadata> files, ActionListener<Void> listener) {
+            SubscribableListener
+                // link the files if the target can reach them
+                .<List<StoreFileMetadata>>newForked(l -> linkFiles(store, files, shardRecoveryPlan.getTranslogOps(), l))
+                // and send the others
+                .<Void>andThen(
+                    (l, filesToSend) -> sendFiles(
+                        store,
+                        filesToSend.toArray(new StoreFileMetadata[0]),
+                        shardRecoveryPlan::getTranslogOps,
+                        l
+                    )
+                )
+                .addListener(listener);
+        }
+
         void run(ActionListener<SendFileResult> listener) {
             cancellableThreads.checkForCancel();
 
             SubscribableListener
                 // send the original plan
                 .newForked(this::sendShardRecoveryPlanFileInfo)
-                // instruct the target to recover files from snapshot, possibly updating the plan on failure
-                .<List<StoreFileMetadata>>andThen(
-                    l -> recoverSnapshotFiles(shardRecoveryPlan, l.delegateResponse((recoverSnapshotFilesListener, e) -> {
-                        if (shardRecoveryPlan.canRecoverSnapshotFilesFromSourceNode() == false
-                            && e instanceof CancellableThreads.ExecutionCancelledException == false) {
-                            shardRecoveryPlan = shardRecoveryPlan.getFallbackPlan();
-                            sendShardRecoveryPlanFileInfo(recoverSnapshotFilesListener.map(r -> Collections.emptyList()));
-                        } else {
-                            recoverSnapshotFilesListener.onFailure(e);
-                        }
-                    }))
-                )
-                // send local files which either aren't in the snapshot, or which failed to be recovered from the snapshot for some reason
-                .<Void>andThen((sendFilesListener, filesFailedToRecoverFromSnapshot) -> {
-                    final List<StoreFileMetadata> filesToRecoverFromSource;
-                    if (filesFailedToRecoverFromSnapshot.isEmpty()) {
-                        filesToRecoverFromSource = shardRecoveryPlan.getSourceFilesToRecover();
-                    } else {
-                        filesToRecoverFromSource = concatLists(
-                            shardRecoveryPlan.getSourceFilesToRecover(),
-                            filesFailedToRecoverFromSnapshot
+                // instruct the target to recover files from snapshot, possibly updating the plan on failure, and meanwhile send the local
+                // files which aren't in the snapshot since both sets of files are disjoint
+                .<List<StoreFileMetadata>>andThen(l -> {
+                    final List<StoreFileMetadata> sourceFilesToRecover = shardRecoveryPlan.getSourceFilesToRecover();
+                    assert sourceFilesToRecover.isEmpty() || shardRecoveryPlan.canRecoverSnapshotFilesFromSourceNode()
+                        : "a plan with a fallback plan must recover all its files from the snapshot";
+                    final AtomicReference<List<StoreFileMetadata>> remainingFiles = new AtomicReference<>();
+                    try (var listeners = new RefCountingListener(l.map(ignored -> remainingFiles.get()))) {
+                        recoverSnapshotFiles(
+                            shardRecoveryPlan,
+                            listeners.acquire(remainingFiles::set).delegateResponse((recoverSnapshotFilesListener, e) -> {
+                                if (shardRecoveryPlan.canRecoverSnapshotFilesFromSourceNode() == false
+                                    && e instanceof CancellableThreads.ExecutionCancelledException == false) {
+                                    shardRecoveryPlan = shardRecoveryPlan.getFallbackPlan();
+                                    sendShardRecoveryPlanFileInfo(
+                                        recoverSnapshotFilesListener.map(r -> shardRecoveryPlan.getSourceFilesToRecover())
+                                    );
+                                } else {
+                                    recoverSnapshotFilesListener.onFailure(e);
+                                }
+                            })
                         );
+                        linkAndSendFiles(sourceFilesToRecover, listeners.acquire());
                     }
-
-                    sendFiles(
-                        store,
-                        filesToRecoverFromSource.toArray(new StoreFileMetadata[0]),
-                        shardRecoveryPlan::getTranslogOps,
-                        sendFilesListener
-                    );
                 })
+                // send local files which failed to be recovered from the snapshot for some reason, or all of them if the plan fell back
+                // to recovering from the source only
+                .<Void>andThen((l, remainingFiles) -> linkAndSendFiles(remainingFiles, l))
                 // create a retention lease
                 .<RetentionLease>andThen(
                     createRetentionLeaseListener -> createRetentionLease(shardRecoveryPlan.getStartingSeqNo(), createRetentionLeaseListener)
@@ -742,6 +758,26 @@ public class RecoverySourceHandler {
         }
     }
 
+    /**
+     * Asks the target to link the given files from the index directory of the source store into its own store. The listener is notified
+     * with the files that the target could not link, and that must be sent.
+     */
+    void linkFiles(Store store, List<StoreFileMetadata> files, int translogOps, ActionListener<List<StoreFileMetadata>> listener) {
+        cancellableThreads.checkForCancel();
+        if (files.isEmpty() || FilterDirectory.unwrap(store.directory()) instanceof FSDirectory == false) {
+            listener.onResponse(files);
+            return;
+        }
+        final Path indexPath = ((FSDirectory) FilterDirectory.unwrap(store.directory())).getDirectory().toAbsolutePath();
+        recoveryTarget.linkFiles(indexPath.toString(), files, translogOps, listener.map(linkedFiles -> {
+            if (linkedFiles.isEmpty()) {
+                return files;
+            }
+            logger.debug("recovery [phase1]: target linked [{}] out of [{}] files", linkedFiles.size(), files.size());
+            return files.stream().filter(md -> linkedFiles.contains(md.name()) == false).toList();
+        }));
+    }
+
     /**
      * Send requests to the target node to recover files from a given snapshot. In case of failure, the listener
      * value contains the list of files that failed to be recovered from a snapshot.
@@ -774,7 +810,14 @@ public class RecoverySourceHandler {
             this.snapshotFilesToRecover = shardRecoveryPlan.getSnapshotFilesToRecover();
             this.listener = listener;
             this.countDown = new CountDown(shardRecoveryPlan.getSnapshotFilesToRecover().size());
-            this.pendingSnapshotFilesToRecover = new LinkedBlockingQueue<>(shardRecoveryPlan.getSnapshotFilesToRecover().snapshotFiles());
+            // start with the largest files, so that their downloads overlap with the files sent from the source node
+            this.pendingSnapshotFilesToRecover = new LinkedBlockingQueue<>(
+                shardRecoveryPlan.getSnapshotFilesToRecover()
+                    .snapshotFiles()
+                    .stream()
+                    .sorted(Comparator.comparingLong(BlobStoreIndexShardSnapshot.FileInfo::length).reversed())
+                    .toList()
+            );
         }
 
         void start() {
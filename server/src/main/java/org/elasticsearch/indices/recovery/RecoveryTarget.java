@@ -15,13 +15,16 @@ import org.apache.lucene.index.IndexFormatTooNewException;
 import org.apache.lucene.index.IndexFormatTooOldException;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.admin.indices.flush.FlushRequest;
+import org.elasticsearch.action.support.RefCountingListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.util.CancellableThreads;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.Assertions;
 import org.elasticsearch.core.Nullable;
@@ -45,8 +48,12 @@ import org.elasticsearch.repositories.IndexId;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -66,6 +73,9 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
 
     private static final String RECOVERY_PREFIX = "recovery.";
 
+    // replaying fewer operations than this on a separate thread costs more than it saves
+    static final int MIN_OPERATIONS_PER_REPLAY_PARTITION = 100;
+
     private final ShardId shardId;
     private final long recoveryId;
     private final IndexShard indexShard;
@@ -74,6 +84,8 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
     private final SnapshotFilesProvider snapshotFilesProvider;
     private volatile MultiFileWriter multiFileWriter;
     private final RecoveryRequestTracker requestTracker = new RecoveryRequestTracker();
+    // files of the source store that were linked into this store rather than sent
+    private final Set<String> linkedFiles = ConcurrentCollections.newConcurrentSet();
     private final Store store;
     private final PeerRecoveryTargetService.RecoveryListener listener;
 
@@ -426,8 +438,35 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
         final long mappingVersionOnPrimary,
         final ActionListener<Long> listener
     ) {
-        ActionListener.completeWith(listener, () -> {
-            final RecoveryState.Translog translog = state().getTranslog();
+        indexTranslogOperations(
+            operations,
+            totalTranslogOps,
+            maxSeenAutoIdTimestampOnPrimary,
+            maxSeqNoOfDeletesOrUpdatesOnPrimary,
+            retentionLeases,
+            mappingVersionOnPrimary,
+            1,
+            listener
+        );
+    }
+
+    /**
+     * Same as {@link #indexTranslogOperations(List, int, long, long, RetentionLeases, long, ActionListener)} but applies the operations
+     * with up to {@code maxConcurrentReplays} threads. The operations are partitioned by document id so that all the operations on the
+     * same document are still applied in the order in which they were sent.
+     */
+    public void indexTranslogOperations(
+        final List<Translog.Operation> operations,
+        final int totalTranslogOps,
+        final long maxSeenAutoIdTimestampOnPrimary,
+        final long maxSeqNoOfDeletesOrUpdatesOnPrimary,
+        final RetentionLeases retentionLeases,
+        final long mappingVersionOnPrimary,
+        final int maxConcurrentReplays,
+        final ActionListener<Long> listener
+    ) {
+        final RecoveryState.Translog translog = state().getTranslog();
+        try {
             translog.totalOperations(totalTranslogOps);
             assert indexShard().recoveryState() == state();
             if (indexShard().state() != IndexShardState.RECOVERING) {
@@ -450,25 +489,90 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
              * the policy.
              */
             indexShard().updateRetentionLeasesOnReplica(retentionLeases);
-            for (Translog.Operation operation : operations) {
-                Engine.Result result = indexShard().applyTranslogOperation(operation, Engine.Operation.Origin.PEER_RECOVERY);
-                if (result.getResultType() == Engine.Result.Type.MAPPING_UPDATE_REQUIRED) {
-                    throw new MapperException("mapping updates are not allowed [" + operation + "]");
-                }
-                if (result.getFailure() != null) {
-                    if (Assertions.ENABLED && result.getFailure() instanceof MapperException == false) {
-                        throw new AssertionError("unexpected failure while replicating translog entry", result.getFailure());
-                    }
-                    ExceptionsHelper.reThrowIfNotNull(result.getFailure());
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        }
+
+        final List<List<Translog.Operation>> partitions = partitionOperations(operations, maxConcurrentReplays);
+        if (partitions.size() <= 1) {
+            ActionListener.completeWith(listener, () -> {
+                applyTranslogOperations(operations);
+                return afterTranslogOperations(translog, operations.size());
+            });
+            return;
+        }
+
+        if (tryIncRef() == false) {
+            listener.onFailure(new IllegalStateException("recovery [" + recoveryId + "] is already closed"));
+            return;
+        }
+        // the engine applies operations on different documents concurrently and tracks the local checkpoint out of order, so the only
+        // ordering we need to preserve is the one of the operations on the same document, which end up in the same partition
+        try (
+            var refs = new RefCountingListener(
+                ActionListener.runAfter(listener.map(ignored -> afterTranslogOperations(translog, operations.size())), this::decRef)
+            )
+        ) {
+            final Executor executor = indexShard().getThreadPool().generic();
+            for (int i = 1; i < partitions.size(); i++) {
+                final List<Translog.Operation> partition = partitions.get(i);
+                executor.execute(ActionRunnable.run(refs.acquire(), () -> applyTranslogOperations(partition)));
+            }
+            ActionListener.run(refs.acquire(), l -> {
+                applyTranslogOperations(partitions.get(0));
+                l.onResponse(null);
+            });
+        }
+    }
+
+    private void applyTranslogOperations(List<Translog.Operation> operations) throws IOException {
+        for (Translog.Operation operation : operations) {
+            Engine.Result result = indexShard().applyTranslogOperation(operation, Engine.Operation.Origin.PEER_RECOVERY);
+            if (result.getResultType() == Engine.Result.Type.MAPPING_UPDATE_REQUIRED) {
+                throw new MapperException("mapping updates are not allowed [" + operation + "]");
+            }
+            if (result.getFailure() != null) {
+                if (Assertions.ENABLED && result.getFailure() instanceof MapperException == false) {
+                    throw new AssertionError("unexpected failure while replicating translog entry", result.getFailure());
                 }
+                ExceptionsHelper.reThrowIfNotNull(result.getFailure());
             }
-            // update stats only after all operations completed (to ensure that mapping updates don't mess with stats)
-            translog.incrementRecoveredOperations(operations.size());
-            indexShard().sync();
-            // roll over / flush / trim if needed
-            indexShard().afterWriteOperation();
-            return indexShard().getLocalCheckpoint();
-        });
+        }
+    }
+
+    private long afterTranslogOperations(RecoveryState.Translog translog, int operationCount) throws IOException {
+        // update stats only after all operations completed (to ensure that mapping updates don't mess with stats)
+        translog.incrementRecoveredOperations(operationCount);
+        indexShard().sync();
+        // roll over / flush / trim if needed
+        indexShard().afterWriteOperation();
+        return indexShard().getLocalCheckpoint();
+    }
+
+    /**
+     * Splits the given operations into at most {@code maxPartitions} partitions of at least {@link #MIN_OPERATIONS_PER_REPLAY_PARTITION}
+     * operations each (on average). Operations on the same document always end up in the same partition, in their original order.
+     */
+    static List<List<Translog.Operation>> partitionOperations(List<Translog.Operation> operations, int maxPartitions) {
+        final int numPartitions = Math.min(maxPartitions, Math.max(1, operations.size() / MIN_OPERATIONS_PER_REPLAY_PARTITION));
+        if (numPartitions <= 1) {
+            return List.of(operations);
+        }
+        final List<List<Translog.Operation>> partitions = new ArrayList<>(numPartitions);
+        for (int i = 0; i < numPartitions; i++) {
+            partitions.add(new ArrayList<>(operations.size() / numPartitions + 1));
+        }
+        for (Translog.Operation operation : operations) {
+            final int hash = switch (operation.opType()) {
+                case INDEX, CREATE -> ((Translog.Index) operation).id().hashCode();
+                case DELETE -> ((Translog.Delete) operation).id().hashCode();
+                // no-ops do not touch any document and only need their sequence number to be marked as processed
+                case NO_OP -> Long.hashCode(operation.seqNo());
+            };
+            partitions.get(Math.floorMod(hash, numPartitions)).add(operation);
+        }
+        return partitions;
     }
 
     @Override
@@ -577,6 +681,67 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
         }
     }
 
+    /**
+     * Clones the given files from the index directory of the source store, when it is reachable from this node, into this store. The files
+     * that could not be cloned are left to be sent by the source, see {@link #linkedFiles()}.
+     */
+    public void linkFiles(Path sourceIndexPath, List<StoreFileMetadata> files, int totalTranslogOps, ActionListener<Void> listener) {
+        ActionListener.completeWith(listener, () -> {
+            state().getTranslog().totalOperations(totalTranslogOps);
+            final Path sourceIndexDirectory = validateSourceIndexPath(sourceIndexPath);
+            if (sourceIndexDirectory == null) {
+                return null;
+            }
+            for (StoreFileMetadata file : files) {
+                cancellableThreads.checkForCancel();
+                final Path sourceFile = sourceIndexDirectory.resolve(file.name());
+                if (sourceIndexDirectory.equals(sourceFile.getParent()) == false) {
+                    logger.debug("not linking [{}] which is not a file of [{}]", file.name(), sourceIndexDirectory);
+                    continue;
+                }
+                if (linkedFiles.contains(file.name()) == false && multiFileWriter.linkFile(file, sourceFile)) {
+                    linkedFiles.add(file.name());
+                }
+            }
+            logger.debug("linked [{}] out of [{}] files from [{}]", linkedFiles.size(), files.size(), sourceIndexPath);
+            return null;
+        });
+    }
+
+    /**
+     * The source sends the absolute path of its index directory, which is only accepted if it is the index directory of a copy of the
+     * shard that is recovered, i.e. if it ends with the same {@code indices/<index uuid>/<shard id>/index} path as this store's own
+     * index directory once symbolic links are resolved.
+     *
+     * @return the real path of the source index directory, or {@code null} if files must not be linked from it
+     */
+    @Nullable
+    private Path validateSourceIndexPath(Path sourceIndexPath) {
+        final Path ownIndexPath = indexShard.shardPath().resolveIndex();
+        final int nameCount = ownIndexPath.getNameCount();
+        final Path shardRelativePath = ownIndexPath.subpath(nameCount - 4, nameCount);
+        try {
+            final Path sourceIndexDirectory = sourceIndexPath.isAbsolute() ? sourceIndexPath.toRealPath() : null;
+            if (sourceIndexDirectory != null
+                && sourceIndexDirectory.endsWith(shardRelativePath)
+                && sourceIndexDirectory.equals(ownIndexPath.toRealPath()) == false) {
+                return sourceIndexDirectory;
+            }
+        } catch (IOException e) {
+            logger.debug(() -> "cannot link files from [" + sourceIndexPath + "]", e);
+            return null;
+        }
+        logger.debug("not linking files from [{}] which is not the index directory of a copy of [{}]", sourceIndexPath, shardId());
+        return null;
+    }
+
+    /**
+     * The names of the files that were linked from the source store by {@link #linkFiles}.
+     */
+    public Set<String> linkedFiles() {
+        return Set.copyOf(linkedFiles);
+    }
+
     @Override
     public void restoreFileFromSnapshot(
         String repository,
@@ -19,6 +19,7 @@ import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.repositories.IndexId;
 
 import java.util.List;
+import java.util.Set;
 
 public interface RecoveryTargetHandler {
 
@@ -111,6 +112,25 @@ public interface RecoveryTargetHandler {
         ActionListener<Void> listener
     );
 
+    /**
+     * Asks the target to clone the given files of the source store into its own store instead of receiving their contents, which
+     * is only possible if the target runs on the same host as the source, on a filesystem that supports copy-on-write clones.
+     *
+     * @param sourceIndexPath  the path of the index directory of the source store
+     * @param files            the files to link
+     * @param totalTranslogOps current number of total operations expected to be indexed
+     * @param listener         a listener which will be notified with the names of the files that were linked, the other files must be
+     *                         sent with {@link #writeFileChunk}
+     */
+    default void linkFiles(
+        String sourceIndexPath,
+        List<StoreFileMetadata> files,
+        int totalTranslogOps,
+        ActionListener<Set<String>> listener
+    ) {
+        listener.onResponse(Set.of());
+    }
+
     /** writes a partial file chunk to the target store */
     void writeFileChunk(
         StoreFileMetadata fileMetadata,
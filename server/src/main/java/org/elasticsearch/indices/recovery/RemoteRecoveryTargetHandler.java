@@ -15,6 +15,7 @@ import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.RateLimiter;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionListenerResponseHandler;
 import org.elasticsearch.action.ActionResponse;
@@ -49,6 +50,7 @@ import org.elasticsearch.transport.TransportService;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -249,6 +251,48 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
         executeRetryableAction(action, request, TransportRequestOptions.EMPTY, responseListener, reader);
     }
 
+    @Override
+    public void linkFiles(
+        String sourceIndexPath,
+        List<StoreFileMetadata> files,
+        int totalTranslogOps,
+        ActionListener<Set<String>> listener
+    ) {
+        if (canLinkFiles() == false) {
+            listener.onResponse(Set.of());
+            return;
+        }
+        final String action = PeerRecoveryTargetService.Actions.LINK_FILES;
+        final long requestSeqNo = requestSeqNoGenerator.getAndIncrement();
+        final RecoveryLinkFilesRequest request = new RecoveryLinkFilesRequest(
+            recoveryId,
+            requestSeqNo,
+            shardId,
+            sourceIndexPath,
+            files,
+            totalTranslogOps
+        );
+        final Writeable.Reader<RecoveryLinkFilesResponse> reader = RecoveryLinkFilesResponse::new;
+        executeRetryableAction(action, request, standardTimeoutRequestOptions, listener.map(r -> r.linkedFiles), reader);
+    }
+
+    private boolean canLinkFiles() {
+        if (recoverySettings.isLocalFileLinksEnabled() == false) {
+            return false;
+        }
+        // the target can only reach the files of the source if both nodes run on the same host
+        final DiscoveryNode localNode = transportService.getLocalNode();
+        if (localNode == null || localNode.getHostAddress().equals(targetNode.getHostAddress()) == false) {
+            return false;
+        }
+        try {
+            return transportService.getConnection(targetNode).getTransportVersion().onOrAfter(TransportVersions.RECOVERY_LINK_LOCAL_FILES);
+        } catch (Exception e) {
+            logger.debug(() -> "failed to get the transport version of " + targetNode, e);
+            return false;
+        }
+    }
+
     @Override
     public void writeFileChunk(
         StoreFileMetadata fileMetadata,
@@ -373,6 +373,13 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             return (currentIOTime - previousIOTime);
         }
 
+        /**
+         * The cumulative time that the device spent doing IO, in milliseconds.
+         */
+        public long totalIOTimeInMillis() {
+            return currentIOTime;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.field("device_name", deviceName);
@@ -21,6 +21,7 @@ import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.shard.DocsStats;
 import org.elasticsearch.index.shard.IllegalIndexShardStateException;
 import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.indices.IndicesSegmentAggregationsCache;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.telemetry.metric.LongWithAttributes;
 import org.elasticsearch.telemetry.metric.MeterRegistry;
@@ -36,13 +37,14 @@ import java.util.function.Supplier;
 /**
  * {@link IndicesMetrics} monitors index statistics on an Elasticsearch node and exposes them as metrics
  * through the provided {@link MeterRegistry}. It tracks the current total number of indices, document count, and
- * store size (in bytes) for each index mode.
+ * store size (in bytes) for each index mode, as well as the hits and misses of the {@link IndicesSegmentAggregationsCache}.
  */
 public class IndicesMetrics extends AbstractLifecycleComponent {
     private final Logger logger = LogManager.getLogger(IndicesMetrics.class);
     private final MeterRegistry registry;
     private final List<AutoCloseable> metrics = new ArrayList<>();
     private final IndicesStatsCache stateCache;
+    private final IndicesSegmentAggregationsCache segmentAggregationsCache;
 
     public IndicesMetrics(MeterRegistry meterRegistry, IndicesService indicesService, TimeValue metricsInterval) {
         this.registry = meterRegistry;
@@ -50,6 +52,7 @@ public class IndicesMetrics extends AbstractLifecycleComponent {
         // while preventing the cache from expiring when reading different gauges within the same update.
         var cacheExpiry = new TimeValue(metricsInterval.getMillis() / 2);
         this.stateCache = new IndicesStatsCache(indicesService, cacheExpiry);
+        this.segmentAggregationsCache = indicesService.getIndicesSegmentAggregationsCache();
     }
 
     private static List<AutoCloseable> registerAsyncMetrics(MeterRegistry registry, IndicesStatsCache cache) {
@@ -169,6 +172,26 @@ public class IndicesMetrics extends AbstractLifecycleComponent {
         return metrics;
     }
 
+    private static List<AutoCloseable> registerSegmentAggregationsCacheMetrics(
+        MeterRegistry registry,
+        IndicesSegmentAggregationsCache segmentAggregationsCache
+    ) {
+        return List.of(
+            registry.registerLongAsyncCounter(
+                "es.indices.aggregations.segment_cache.hit.total",
+                "number of segments whose partial aggregation results were found in the segment aggregations cache",
+                "unit",
+                () -> new LongWithAttributes(segmentAggregationsCache.hitCount())
+            ),
+            registry.registerLongAsyncCounter(
+                "es.indices.aggregations.segment_cache.miss.total",
+                "number of segments whose partial aggregation results were not found in the segment aggregations cache",
+                "unit",
+                () -> new LongWithAttributes(segmentAggregationsCache.missCount())
+            )
+        );
+    }
+
     static Supplier<LongWithAttributes> diffGauge(Supplier<Long> currentValue) {
         final AtomicLong counter = new AtomicLong();
         return () -> {
@@ -181,6 +204,7 @@ public class IndicesMetrics extends AbstractLifecycleComponent {
     @Override
     protected void doStart() {
         metrics.addAll(registerAsyncMetrics(registry, stateCache));
+        metrics.addAll(registerSegmentAggregationsCacheMetrics(registry, segmentAggregationsCache));
     }
 
     @Override
@@ -57,6 +57,7 @@ import org.elasticsearch.health.HealthPeriodicLogger;
 import org.elasticsearch.http.HttpServerTransport;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService;
+import org.elasticsearch.indices.recovery.AdaptiveRecoveryRateController;
 import org.elasticsearch.indices.recovery.PeerRecoverySourceService;
 import org.elasticsearch.indices.store.IndicesStore;
 import org.elasticsearch.injection.guice.Injector;
@@ -309,6 +310,7 @@ public class Node implements Closeable {
         assert transportService.getLocalNode().equals(localNodeFactory.getNode())
             : "transportService has a different local node than the factory provided";
         injector.getInstance(PeerRecoverySourceService.class).start();
+        injector.getInstance(AdaptiveRecoveryRateController.class).start();
 
         // Load (and maybe upgrade) the metadata stored on disk
         final GatewayMetaState gatewayMetaState = injector.getInstance(GatewayMetaState.class);
@@ -470,6 +472,7 @@ public class Node implements Closeable {
         stopIfStarted(ClusterService.class);
         stopIfStarted(NodeConnectionsService.class);
         stopIfStarted(FsHealthService.class);
+        stopIfStarted(AdaptiveRecoveryRateController.class);
         stopIfStarted(nodeService.getMonitorService());
         stopIfStarted(GatewayService.class);
         stopIfStarted(SearchService.class);
@@ -528,6 +531,7 @@ public class Node implements Closeable {
         // close filter/fielddata caches after indices
         toClose.add(injector.getInstance(IndicesStore.class));
         toClose.add(injector.getInstance(PeerRecoverySourceService.class));
+        toClose.add(injector.getInstance(AdaptiveRecoveryRateController.class));
         toClose.add(() -> stopWatch.stop().start("cluster"));
         toClose.add(injector.getInstance(ClusterService.class));
         toClose.add(() -> stopWatch.stop().start("node_connections_service"));
@@ -131,6 +131,7 @@ import org.elasticsearch.indices.breaker.CircuitBreakerMetrics;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.indices.recovery.AdaptiveRecoveryRateController;
 import org.elasticsearch.indices.recovery.PeerRecoverySourceService;
 import org.elasticsearch.indices.recovery.PeerRecoveryTargetService;
 import org.elasticsearch.indices.recovery.RecoverySettings;
@@ -884,6 +885,7 @@ class NodeConstruction {
             .valuesSourceRegistry(searchModule.getValuesSourceRegistry())
             .requestCacheKeyDifferentiator(searchModule.getRequestCacheKeyDifferentiator())
             .mapperMetrics(mapperMetrics)
+            .recoverySettings(recoverySettings)
             .searchOperationListeners(searchOperationListeners)
             .slowLogFieldProvider(slowLogFieldProvider)
             .build();
@@ -1140,10 +1142,11 @@ class NodeConstruction {
             compatibilityVersions,
             featureService
         );
+        final MonitorService monitorService = new MonitorService(settings, nodeEnvironment, threadPool);
         nodeService = new NodeService(
             settings,
             threadPool,
-            new MonitorService(settings, nodeEnvironment, threadPool),
+            monitorService,
             discoveryModule.getCoordinator(),
             transportService,
             indicesService,
@@ -1210,6 +1213,17 @@ class NodeConstruction {
             );
             resourcesToClose.add(peerRecovery);
             b.bind(PeerRecoverySourceService.class).toInstance(peerRecovery);
+            b.bind(AdaptiveRecoveryRateController.class)
+                .toInstance(
+                    new AdaptiveRecoveryRateController(
+                        settings,
+                        settingsModule.getClusterSettings(),
+                        recoverySettings,
+                        threadPool,
+                        monitorService.fsService()::stats,
+                        transportService
+                    )
+                );
             b.bind(PeerRecoveryTargetService.class)
                 .toInstance(
                     new PeerRecoveryTargetService(
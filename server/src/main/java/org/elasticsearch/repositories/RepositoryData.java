@@ -20,6 +20,7 @@ import org.elasticsearch.common.collect.Iterators;
 import org.elasticsearch.common.util.CollectionUtils;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.xcontent.XContentParserUtils;
+import org.elasticsearch.core.CheckedConsumer;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.IndexVersions;
@@ -661,19 +662,19 @@ public final class RepositoryData {
         return Map.copyOf(snapshotIndices);
     }
 
-    private static final String SHARD_GENERATIONS = "shard_generations";
-    private static final String INDEX_METADATA_IDENTIFIERS = "index_metadata_identifiers";
+    static final String SHARD_GENERATIONS = "shard_generations";
+    static final String INDEX_METADATA_IDENTIFIERS = "index_metadata_identifiers";
     private static final String INDEX_METADATA_LOOKUP = "index_metadata_lookup";
-    private static final String SNAPSHOTS = "snapshots";
-    private static final String INDICES = "indices";
-    private static final String INDEX_ID = "id";
+    static final String SNAPSHOTS = "snapshots";
+    static final String INDICES = "indices";
+    static final String INDEX_ID = "id";
     private static final String NAME = "name";
-    private static final String UUID = "uuid";
-    private static final String CLUSTER_UUID = "cluster_id";
+    static final String UUID = "uuid";
+    static final String CLUSTER_UUID = "cluster_id";
     private static final String STATE = "state";
     private static final String VERSION = "version";
     private static final String INDEX_VERSION = "index_version";
-    private static final String MIN_VERSION = "min_version";
+    static final String MIN_VERSION = "min_version";
     private static final String START_TIME_MILLIS = "start_time_millis";
     private static final String END_TIME_MILLIS = "end_time_millis";
     private static final String SLM_POLICY = "slm_policy";
@@ -775,49 +776,21 @@ public final class RepositoryData {
 
         builder.startArray(SNAPSHOTS);
         for (final SnapshotId snapshot : getSnapshotIds()) {
-            builder.startObject();
-            builder.field(NAME, snapshot.getName());
-            final String snapshotUUID = snapshot.getUUID();
-            builder.field(UUID, snapshotUUID);
-            final SnapshotDetails snapshotDetails = snapshotsDetails.getOrDefault(snapshotUUID, SnapshotDetails.EMPTY);
-            final SnapshotState state = snapshotDetails.getSnapshotState();
-            if (state != null) {
-                builder.field(STATE, state.value());
-            }
-            if (shouldWriteIndexGens) {
-                builder.startObject(INDEX_METADATA_LOOKUP);
-                for (Map.Entry<IndexId, String> entry : indexMetaDataGenerations.lookup.getOrDefault(snapshot, Collections.emptyMap())
-                    .entrySet()) {
-                    builder.field(entry.getKey().getId(), entry.getValue());
-                }
-                builder.endObject();
-            }
-            final IndexVersion version = snapshotDetails.getVersion();
-            if (version != null) {
-                if (version.equals(NUMERIC_INDEX_VERSION_MARKER)) {
-                    numericIndexVersionMarkerPlaceholdersUsed += 1;
-                    lastSnapshotWithNumericIndexVersionPlaceholder = snapshot;
-                    builder.field(VERSION, NUMERIC_INDEX_VERSION_MARKER_STRING);
-                } else if (version.onOrAfter(IndexVersions.FIRST_DETACHED_INDEX_VERSION)) {
-                    builder.field(VERSION, NUMERIC_INDEX_VERSION_MARKER_STRING);
-                    builder.field(INDEX_VERSION, version.id());
-                } else {
-                    assert version.id() < NUMERIC_INDEX_VERSION_MARKER.id() : version; // versions between 8.10.last and 8_500_000 invalid
-                    builder.field(VERSION, Version.fromId(version.id()).toString());
-                }
-            }
-
-            if (snapshotDetails.getStartTimeMillis() != -1) {
-                builder.field(START_TIME_MILLIS, snapshotDetails.getStartTimeMillis());
-            }
-            if (snapshotDetails.getEndTimeMillis() != -1) {
-                builder.field(END_TIME_MILLIS, snapshotDetails.getEndTimeMillis());
-            }
-            if (snapshotDetails.getSlmPolicy() != null) {
-                builder.field(SLM_POLICY, snapshotDetails.getSlmPolicy());
+            final Map<IndexId, String> indexMetaLookup = indexMetaDataGenerations.lookup.getOrDefault(snapshot, Collections.emptyMap());
+            final boolean usedPlaceholder = snapshotToXContent(
+                builder,
+                snapshot,
+                snapshotsDetails.getOrDefault(snapshot.getUUID(), SnapshotDetails.EMPTY),
+                shouldWriteIndexGens ? b -> {
+                    for (Map.Entry<IndexId, String> entry : indexMetaLookup.entrySet()) {
+                        b.field(entry.getKey().getId(), entry.getValue());
+                    }
+                } : null
+            );
+            if (usedPlaceholder) {
+                numericIndexVersionMarkerPlaceholdersUsed += 1;
+                lastSnapshotWithNumericIndexVersionPlaceholder = snapshot;
             }
-
-            builder.endObject();
         }
         builder.endArray();
 
@@ -861,6 +834,59 @@ public final class RepositoryData {
         return builder;
     }
 
+    /**
+     * Writes the entry of a single snapshot of the {@code snapshots} array.
+     *
+     * @param indexMetaLookup writes the fields of the index metadata lookup of the snapshot, or {@code null} to leave it out
+     * @return whether the placeholder version {@link #NUMERIC_INDEX_VERSION_MARKER_STRING} was written without the actual version
+     */
+    static boolean snapshotToXContent(
+        XContentBuilder builder,
+        SnapshotId snapshot,
+        SnapshotDetails snapshotDetails,
+        @Nullable CheckedConsumer<XContentBuilder, IOException> indexMetaLookup
+    ) throws IOException {
+        boolean usedPlaceholder = false;
+        builder.startObject();
+        builder.field(NAME, snapshot.getName());
+        builder.field(UUID, snapshot.getUUID());
+        final SnapshotState state = snapshotDetails.getSnapshotState();
+        if (state != null) {
+            builder.field(STATE, state.value());
+        }
+        if (indexMetaLookup != null) {
+            builder.startObject(INDEX_METADATA_LOOKUP);
+            indexMetaLookup.accept(builder);
+            builder.endObject();
+        }
+        final IndexVersion version = snapshotDetails.getVersion();
+        if (version != null) {
+            if (version.equals(NUMERIC_INDEX_VERSION_MARKER)) {
+                usedPlaceholder = true;
+                builder.field(VERSION, NUMERIC_INDEX_VERSION_MARKER_STRING);
+            } else if (version.onOrAfter(IndexVersions.FIRST_DETACHED_INDEX_VERSION)) {
+                builder.field(VERSION, NUMERIC_INDEX_VERSION_MARKER_STRING);
+                builder.field(INDEX_VERSION, version.id());
+            } else {
+                assert version.id() < NUMERIC_INDEX_VERSION_MARKER.id() : version; // versions between 8.10.last and 8_500_000 invalid
+                builder.field(VERSION, Version.fromId(version.id()).toString());
+            }
+        }
+
+        if (snapshotDetails.getStartTimeMillis() != -1) {
+            builder.field(START_TIME_MILLIS, snapshotDetails.getStartTimeMillis());
+        }
+        if (snapshotDetails.getEndTimeMillis() != -1) {
+            builder.field(END_TIME_MILLIS, snapshotDetails.getEndTimeMillis());
+        }
+        if (snapshotDetails.getSlmPolicy() != null) {
+            builder.field(SLM_POLICY, snapshotDetails.getSlmPolicy());
+        }
+
+        builder.endObject();
+        return usedPlaceholder;
+    }
+
     public IndexMetaDataGenerations indexMetaDataGenerations() {
         return indexMetaDataGenerations;
     }
@@ -874,7 +900,15 @@ public final class RepositoryData {
      */
     public static RepositoryData snapshotsFromXContent(XContentParser parser, long genId, boolean fixBrokenShardGens) throws IOException {
         XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+        return snapshotsFromXContent(parser, parser.nextFieldName(), genId, fixBrokenShardGens);
+    }
 
+    /**
+     * Same as {@link #snapshotsFromXContent(XContentParser, long, boolean)} but for a parser that already went through the start of the
+     * object and that is positioned on the given first field name, which is {@code null} if the object is empty.
+     */
+    static RepositoryData snapshotsFromXContent(XContentParser parser, @Nullable String firstField, long genId, boolean fixBrokenShardGens)
+        throws IOException {
         final Map<String, SnapshotId> snapshots = new HashMap<>();
         final Map<String, SnapshotDetails> snapshotsDetails = new HashMap<>();
         final Map<IndexId, List<SnapshotId>> indexSnapshots = new HashMap<>();
@@ -884,8 +918,7 @@ public final class RepositoryData {
         Map<String, String> indexMetaIdentifiers = null;
         String uuid = MISSING_UUID;
         String clusterUUID = MISSING_UUID;
-        String field;
-        while ((field = parser.nextFieldName()) != null) {
+        for (String field = firstField; field != null; field = parser.nextFieldName()) {
             switch (field) {
                 case SNAPSHOTS -> parseSnapshots(parser, snapshots, snapshotsDetails, indexMetaLookup);
                 case INDICES -> parseIndices(parser, fixBrokenShardGens, snapshots, indexSnapshots, indexLookup, shardGenerations);
@@ -896,20 +929,7 @@ public final class RepositoryData {
                 case MIN_VERSION -> {
                     final var token = parser.nextToken();
                     XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, token, parser);
-                    final var versionString = parser.text();
-                    final var version = switch (versionString) {
-                        case "7.12.0" -> IndexVersions.V_7_12_0;
-                        case "7.9.0" -> IndexVersions.V_7_9_0;
-                        case "7.6.0" -> IndexVersions.V_7_6_0;
-                        default ->
-                            // All (known) versions only ever emit one of the above strings for the format version, so if we see something
-                            // else it must be a newer version or else something wholly invalid. Report the raw string rather than trying
-                            // to parse it.
-                            throw new IllegalStateException(Strings.format("""
-                                this snapshot repository format requires Elasticsearch version [%s] or later""", versionString));
-                    };
-
-                    assert SnapshotsService.useShardGenerations(version);
+                    checkMinVersion(parser.text());
                 }
                 case UUID -> {
                     XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, parser.nextToken(), parser);
@@ -940,6 +960,25 @@ public final class RepositoryData {
         );
     }
 
+    /**
+     * Checks that the {@code min_version} of a full root blob is one that this version can read.
+     */
+    static void checkMinVersion(String versionString) {
+        final var version = switch (versionString) {
+            case "7.12.0" -> IndexVersions.V_7_12_0;
+            case "7.9.0" -> IndexVersions.V_7_9_0;
+            case "7.6.0" -> IndexVersions.V_7_6_0;
+            default ->
+                // All (known) versions only ever emit one of the above strings for the format version, so if we see something
+                // else it must be a newer version or else something wholly invalid. Report the raw string rather than trying
+                // to parse it.
+                throw new IllegalStateException(Strings.format("""
+                    this snapshot repository format requires Elasticsearch version [%s] or later""", versionString));
+        };
+
+        assert SnapshotsService.useShardGenerations(version);
+    }
+
     /**
      * Builds {@link IndexMetaDataGenerations} instance from the information parsed previously.
      *
@@ -981,7 +1020,7 @@ public final class RepositoryData {
      * @param indexMetaLookup  map of {@link SnapshotId} to map of index id (as returned by {@link IndexId#getId}) that defines the index
      *                         metadata generations for the snapshot
      */
-    private static void parseSnapshots(
+    static void parseSnapshots(
         XContentParser parser,
         Map<String, SnapshotId> snapshots,
         Map<String, SnapshotDetails> snapshotsDetails,
@@ -0,0 +1,612 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories;
+
+import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
+import org.elasticsearch.common.xcontent.XContentParserUtils;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Tuple;
+import org.elasticsearch.repositories.RepositoryData.SnapshotDetails;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The changes between the {@link RepositoryData} of two generations of a repository. A repository with many snapshots has a large root
+ * {@code index-N} blob, and rewriting it in full for every snapshot creation and deletion is slow. When configured to, a repository
+ * writes such a delta as the root blob of a new generation instead, on top of the root blob of the generation it replaces, and once in a
+ * while writes the full repository data again so that loading the repository data doesn't need to read too many root blobs.
+ * <p>
+ * A delta holds the snapshots that were added or whose details changed, the changed indices, and the identifiers of the snapshots,
+ * indices and index metadata that were removed. It starts with a {@code min_version} that versions which don't know about deltas
+ * refuse to read.
+ */
+public final class RepositoryDataDelta {
+
+    /**
+     * The {@code min_version} of root blobs holding a delta.
+     */
+    static final String DELTA_FORMAT_VERSION = Version.V_9_1_0.toString();
+
+    private static final String DELTA_OF = "delta_of";
+    private static final String REMOVED_SNAPSHOTS = "removed_snapshots";
+    private static final String ADDED_SNAPSHOTS = "added_snapshots";
+    private static final String REMOVED_INDICES = "removed_indices";
+    private static final String REMOVED_INDEX_METADATA_IDENTIFIERS = "removed_index_metadata_identifiers";
+
+    /**
+     * The generation of the root blob that this delta applies to.
+     */
+    private final long baseGeneration;
+    private final String uuid;
+    private final String clusterUUID;
+
+    /**
+     * Snapshots that were added or whose details changed, keyed by uuid, along with their details and index metadata lookups keyed
+     * by index id (as returned by {@link IndexId#getId}).
+     */
+    private final Map<String, SnapshotId> snapshots;
+    private final Map<String, SnapshotDetails> snapshotsDetails;
+    private final Map<SnapshotId, Map<String, String>> indexMetaLookup;
+    private final Set<String> removedSnapshots;
+
+    /**
+     * Indices that were added or whose snapshots or shard generations changed, keyed by name.
+     */
+    private final Map<String, IndexChanges> indices;
+    private final Set<String> removedIndices;
+
+    private final Map<String, String> addedIdentifiers;
+    private final Set<String> removedIdentifiers;
+
+    /**
+     * The changes to a single index.
+     *
+     * @param id               the id of the index, as returned by {@link IndexId#getId}
+     * @param snapshots        the uuids of all the snapshots of the index, or {@code null} if the snapshots of the index are the ones of
+     *                         the base generation without {@code removedSnapshots} and followed by {@code addedSnapshots}
+     * @param shardGenerations all the shard generations of the index
+     */
+    record IndexChanges(
+        String id,
+        @Nullable List<String> snapshots,
+        List<String> addedSnapshots,
+        List<String> removedSnapshots,
+        List<ShardGeneration> shardGenerations
+    ) {}
+
+    /**
+     * Describes how the root blob of a generation is stored.
+     *
+     * @param generation     the generation of the root blob
+     * @param baseGeneration the generation of the most recent root blob holding the full repository data that the root blob depends on,
+     *                       equal to {@code generation} if the root blob holds the full repository data
+     * @param length         the number of root blobs holding deltas between the two generations, including the root blob itself
+     */
+    public record Chain(long generation, long baseGeneration, int length) {
+
+        public static Chain full(long generation) {
+            return new Chain(generation, generation, 0);
+        }
+
+        public Chain withDelta(long newGeneration) {
+            assert newGeneration > generation : newGeneration + " vs " + generation;
+            return new Chain(newGeneration, baseGeneration, length + 1);
+        }
+    }
+
+    private RepositoryDataDelta(
+        long baseGeneration,
+        String uuid,
+        String clusterUUID,
+        Map<String, SnapshotId> snapshots,
+        Map<String, SnapshotDetails> snapshotsDetails,
+        Map<SnapshotId, Map<String, String>> indexMetaLookup,
+        Set<String> removedSnapshots,
+        Map<String, IndexChanges> indices,
+        Set<String> removedIndices,
+        Map<String, String> addedIdentifiers,
+        Set<String> removedIdentifiers
+    ) {
+        this.baseGeneration = baseGeneration;
+        this.uuid = uuid;
+        this.clusterUUID = clusterUUID;
+        this.snapshots = snapshots;
+        this.snapshotsDetails = snapshotsDetails;
+        this.indexMetaLookup = indexMetaLookup;
+        this.removedSnapshots = removedSnapshots;
+        this.indices = indices;
+        this.removedIndices = removedIndices;
+        this.addedIdentifiers = addedIdentifiers;
+        this.removedIdentifiers = removedIdentifiers;
+    }
+
+    public long baseGeneration() {
+        return baseGeneration;
+    }
+
+    /**
+     * @return the number of snapshots that were added or updated plus the number of snapshots that were removed
+     */
+    public int changedSnapshotCount() {
+        return snapshots.size() + removedSnapshots.size();
+    }
+
+    /**
+     * Computes the changes from {@code previous} to {@code next}.
+     */
+    public static RepositoryDataDelta diff(RepositoryData previous, RepositoryData next) {
+        assert RepositoryData.MISSING_UUID.equals(next.getUuid()) == false : "deltas require a repository uuid";
+        final IndexMetaDataGenerations previousIndexMeta = previous.indexMetaDataGenerations();
+        final IndexMetaDataGenerations nextIndexMeta = next.indexMetaDataGenerations();
+
+        final Set<String> previousSnapshotUuids = new HashSet<>();
+        for (SnapshotId snapshotId : previous.getSnapshotIds()) {
+            previousSnapshotUuids.add(snapshotId.getUUID());
+        }
+        final Map<String, SnapshotId> snapshots = new HashMap<>();
+        final Map<String, SnapshotDetails> snapshotsDetails = new HashMap<>();
+        final Map<SnapshotId, Map<String, String>> indexMetaLookup = new HashMap<>();
+        final Set<String> nextSnapshotUuids = new HashSet<>();
+        for (SnapshotId snapshotId : next.getSnapshotIds()) {
+            final String snapshotUuid = snapshotId.getUUID();
+            nextSnapshotUuids.add(snapshotUuid);
+            final SnapshotDetails details = next.getSnapshotDetails(snapshotId);
+            final Map<IndexId, String> lookup = nextIndexMeta.lookup.get(snapshotId);
+            if (previousSnapshotUuids.contains(snapshotUuid)
+                && Objects.equals(details, previous.getSnapshotDetails(snapshotId))
+                && Objects.equals(lookup, previousIndexMeta.lookup.get(snapshotId))) {
+                continue;
+            }
+            snapshots.put(snapshotUuid, snapshotId);
+            if (details != null) {
+                snapshotsDetails.put(snapshotUuid, details);
+            }
+            if (lookup != null) {
+                final Map<String, String> byIndexId = new HashMap<>();
+                lookup.forEach((indexId, identifier) -> byIndexId.put(indexId.getId(), identifier));
+                indexMetaLookup.put(snapshotId, byIndexId);
+            }
+        }
+        final Set<String> removedSnapshots = new HashSet<>(previousSnapshotUuids);
+        removedSnapshots.removeAll(nextSnapshotUuids);
+
+        final Map<String, IndexChanges> indices = new HashMap<>();
+        for (IndexId indexId : next.getIndices().values()) {
+            final IndexId previousIndexId = previous.getIndices().get(indexId.getName());
+            final List<SnapshotId> nextSnapshots = next.getSnapshots(indexId);
+            final List<ShardGeneration> nextShardGenerations = next.shardGenerations().getGens(indexId);
+            if (indexId.equals(previousIndexId)) {
+                final List<SnapshotId> previousSnapshots = previous.getSnapshots(previousIndexId);
+                if (previousSnapshots.equals(nextSnapshots)
+                    && previous.shardGenerations().getGens(previousIndexId).equals(nextShardGenerations)) {
+                    continue;
+                }
+                final IndexChanges changes = snapshotChanges(indexId, previousSnapshots, nextSnapshots, nextShardGenerations);
+                if (changes != null) {
+                    indices.put(indexId.getName(), changes);
+                    continue;
+                }
+            }
+            final List<String> snapshotUuids = new ArrayList<>(nextSnapshots.size());
+            for (SnapshotId snapshotId : nextSnapshots) {
+                snapshotUuids.add(snapshotId.getUUID());
+            }
+            indices.put(indexId.getName(), new IndexChanges(indexId.getId(), snapshotUuids, List.of(), List.of(), nextShardGenerations));
+        }
+        final Set<String> removedIndices = new HashSet<>(previous.getIndices().keySet());
+        removedIndices.removeAll(next.getIndices().keySet());
+
+        final Map<String, String> addedIdentifiers = new HashMap<>();
+        nextIndexMeta.identifiers.forEach((identifier, blobId) -> {
+            if (blobId.equals(previousIndexMeta.identifiers.get(identifier)) == false) {
+                addedIdentifiers.put(identifier, blobId);
+            }
+        });
+        final Set<String> removedIdentifiers = new HashSet<>(previousIndexMeta.identifiers.keySet());
+        removedIdentifiers.removeAll(nextIndexMeta.identifiers.keySet());
+
+        return new RepositoryDataDelta(
+            previous.getGenId(),
+            next.getUuid(),
+            next.getClusterUUID(),
+            snapshots,
+            snapshotsDetails,
+            indexMetaLookup,
+            removedSnapshots,
+            indices,
+            removedIndices,
+            addedIdentifiers,
+            removedIdentifiers
+        );
+    }
+
+    /**
+     * Expresses the change from {@code previousSnapshots} to {@code nextSnapshots} as snapshots removed from the list followed by
+     * snapshots appended to it, which is how snapshot creations and deletions change it. Returns {@code null} if that's not possible.
+     */
+    @Nullable
+    private static IndexChanges snapshotChanges(
+        IndexId indexId,
+        List<SnapshotId> previousSnapshots,
+        List<SnapshotId> nextSnapshots,
+        List<ShardGeneration> nextShardGenerations
+    ) {
+        final Set<SnapshotId> next = new HashSet<>(nextSnapshots);
+        final List<String> removed = new ArrayList<>();
+        int retained = 0;
+        for (SnapshotId snapshotId : previousSnapshots) {
+            if (next.contains(snapshotId)) {
+                if (retained >= nextSnapshots.size() || nextSnapshots.get(retained).equals(snapshotId) == false) {
+                    return null;
+                }
+                retained++;
+            } else {
+                removed.add(snapshotId.getUUID());
+            }
+        }
+        final List<String> added = new ArrayList<>(nextSnapshots.size() - retained);
+        for (SnapshotId snapshotId : nextSnapshots.subList(retained, nextSnapshots.size())) {
+            added.add(snapshotId.getUUID());
+        }
+        return new IndexChanges(indexId.getId(), null, added, removed, nextShardGenerations);
+    }
+
+    /**
+     * Applies this delta to the {@link RepositoryData} of its base generation.
+     *
+     * @param base  repository data of generation {@link #baseGeneration()}
+     * @param genId generation of the resulting repository data
+     */
+    public RepositoryData apply(RepositoryData base, long genId) {
+        assert base.getGenId() == baseGeneration : "applying delta of [" + baseGeneration + "] to [" + base.getGenId() + "]";
+        final Map<String, SnapshotId> snapshotIds = new HashMap<>();
+        final Map<String, SnapshotDetails> details = new HashMap<>();
+        for (SnapshotId snapshotId : base.getSnapshotIds()) {
+            final String snapshotUuid = snapshotId.getUUID();
+            if (removedSnapshots.contains(snapshotUuid) || snapshots.containsKey(snapshotUuid)) {
+                continue;
+            }
+            snapshotIds.put(snapshotUuid, snapshotId);
+            final SnapshotDetails snapshotDetails = base.getSnapshotDetails(snapshotId);
+            if (snapshotDetails != null) {
+                details.put(snapshotUuid, snapshotDetails);
+            }
+        }
+        snapshotIds.putAll(snapshots);
+        details.putAll(snapshotsDetails);
+
+        final Map<IndexId, List<SnapshotId>> indexSnapshots = new HashMap<>();
+        final ShardGenerations.Builder shardGenerations = ShardGenerations.builder();
+        final Map<String, IndexId> indexLookup = new HashMap<>();
+        for (IndexId indexId : base.getIndices().values()) {
+            if (removedIndices.contains(indexId.getName()) || indices.containsKey(indexId.getName())) {
+                continue;
+            }
+            indexSnapshots.put(indexId, base.getSnapshots(indexId));
+            putShardGenerations(shardGenerations, indexId, base.shardGenerations().getGens(indexId));
+            indexLookup.put(indexId.getId(), indexId);
+        }
+        for (Map.Entry<String, IndexChanges> entry : indices.entrySet()) {
+            final IndexChanges changes = entry.getValue();
+            final IndexId baseIndexId = base.getIndices().get(entry.getKey());
+            final boolean sameIndex = baseIndexId != null && baseIndexId.getId().equals(changes.id());
+            final IndexId indexId = sameIndex ? baseIndexId : new IndexId(entry.getKey(), changes.id());
+            final List<SnapshotId> snapshotsOfIndex = new ArrayList<>();
+            if (changes.snapshots() != null) {
+                for (String snapshotUuid : changes.snapshots()) {
+                    snapshotsOfIndex.add(resolveSnapshot(snapshotIds, snapshotUuid, indexId));
+                }
+            } else {
+                if (sameIndex == false) {
+                    throw new ElasticsearchParseException("Detected a corrupted repository, delta changes unknown index " + indexId);
+                }
+                final Set<String> removed = Set.copyOf(changes.removedSnapshots());
+                for (SnapshotId snapshotId : base.getSnapshots(baseIndexId)) {
+                    if (removed.contains(snapshotId.getUUID()) == false) {
+                        snapshotsOfIndex.add(snapshotId);
+                    }
+                }
+                for (String snapshotUuid : changes.addedSnapshots()) {
+                    snapshotsOfIndex.add(resolveSnapshot(snapshotIds, snapshotUuid, indexId));
+                }
+            }
+            indexSnapshots.put(indexId, Collections.unmodifiableList(snapshotsOfIndex));
+            putShardGenerations(shardGenerations, indexId, changes.shardGenerations());
+            indexLookup.put(indexId.getId(), indexId);
+        }
+
+        final IndexMetaDataGenerations baseIndexMeta = base.indexMetaDataGenerations();
+        final Map<SnapshotId, Map<IndexId, String>> lookup = new HashMap<>();
+        baseIndexMeta.lookup.forEach((snapshotId, forSnapshot) -> {
+            if (removedSnapshots.contains(snapshotId.getUUID()) == false && snapshots.containsKey(snapshotId.getUUID()) == false) {
+                lookup.put(snapshotId, forSnapshot);
+            }
+        });
+        for (Map.Entry<SnapshotId, Map<String, String>> entry : indexMetaLookup.entrySet()) {
+            final Map<IndexId, String> forSnapshot = new HashMap<>();
+            for (Map.Entry<String, String> generationEntry : entry.getValue().entrySet()) {
+                final IndexId indexId = indexLookup.get(generationEntry.getKey());
+                if (indexId == null) {
+                    throw new ElasticsearchParseException(
+                        "Detected a corrupted repository, snapshot "
+                            + entry.getKey()
+                            + " references an unknown index id ["
+                            + generationEntry.getKey()
+                            + "]"
+                    );
+                }
+                forSnapshot.put(indexId, generationEntry.getValue());
+            }
+            if (forSnapshot.isEmpty() == false) {
+                lookup.put(entry.getKey(), Map.copyOf(forSnapshot));
+            }
+        }
+        final Map<String, String> identifiers = new HashMap<>(baseIndexMeta.identifiers);
+        identifiers.keySet().removeAll(removedIdentifiers);
+        identifiers.putAll(addedIdentifiers);
+
+        return new RepositoryData(
+            uuid,
+            genId,
+            snapshotIds,
+            details,
+            indexSnapshots,
+            shardGenerations.build(),
+            lookup.isEmpty() ? IndexMetaDataGenerations.EMPTY : new IndexMetaDataGenerations(lookup, identifiers),
+            clusterUUID
+        );
+    }
+
+    private static SnapshotId resolveSnapshot(Map<String, SnapshotId> snapshotIds, String snapshotUuid, IndexId indexId) {
+        final SnapshotId snapshotId = snapshotIds.get(snapshotUuid);
+        if (snapshotId == null) {
+            throw new ElasticsearchParseException(
+                "Detected a corrupted repository, index " + indexId + " references an unknown snapshot uuid [" + snapshotUuid + "]"
+            );
+        }
+        return snapshotId;
+    }
+
+    private static void putShardGenerations(ShardGenerations.Builder builder, IndexId indexId, List<ShardGeneration> generations) {
+        for (int i = 0; i < generations.size(); i++) {
+            final ShardGeneration generation = generations.get(i);
+            if (generation != null) {
+                builder.put(indexId, i, generation);
+            }
+        }
+    }
+
+    public XContentBuilder toXContent(XContentBuilder builder) throws IOException {
+        builder.startObject();
+        // must come first, see #load
+        builder.field(RepositoryData.MIN_VERSION, DELTA_FORMAT_VERSION);
+        builder.field(DELTA_OF, baseGeneration);
+        builder.field(RepositoryData.UUID, uuid);
+        builder.field(RepositoryData.CLUSTER_UUID, clusterUUID);
+
+        builder.startArray(RepositoryData.SNAPSHOTS);
+        for (SnapshotId snapshotId : snapshots.values()) {
+            final Map<String, String> lookup = indexMetaLookup.getOrDefault(snapshotId, Map.of());
+            RepositoryData.snapshotToXContent(
+                builder,
+                snapshotId,
+                snapshotsDetails.getOrDefault(snapshotId.getUUID(), SnapshotDetails.EMPTY),
+                b -> {
+                    for (Map.Entry<String, String> entry : lookup.entrySet()) {
+                        b.field(entry.getKey(), entry.getValue());
+                    }
+                }
+            );
+        }
+        builder.endArray();
+        builder.stringListField(REMOVED_SNAPSHOTS, removedSnapshots);
+
+        builder.startObject(RepositoryData.INDICES);
+        for (Map.Entry<String, IndexChanges> entry : indices.entrySet()) {
+            final IndexChanges changes = entry.getValue();
+            builder.startObject(entry.getKey());
+            builder.field(RepositoryData.INDEX_ID, changes.id());
+            if (changes.snapshots() != null) {
+                builder.stringListField(RepositoryData.SNAPSHOTS, changes.snapshots());
+            } else {
+                builder.stringListField(ADDED_SNAPSHOTS, changes.addedSnapshots());
+                builder.stringListField(REMOVED_SNAPSHOTS, changes.removedSnapshots());
+            }
+            builder.xContentList(RepositoryData.SHARD_GENERATIONS, changes.shardGenerations());
+            builder.endObject();
+        }
+        builder.endObject();
+        builder.stringListField(REMOVED_INDICES, removedIndices);
+
+        builder.field(RepositoryData.INDEX_METADATA_IDENTIFIERS, addedIdentifiers);
+        builder.stringListField(REMOVED_INDEX_METADATA_IDENTIFIERS, removedIdentifiers);
+        builder.endObject();
+        return builder;
+    }
+
+    /**
+     * Reads a delta from a parser that went through the {@code min_version} field.
+     */
+    static RepositoryDataDelta fromXContent(XContentParser parser, boolean fixBrokenShardGens) throws IOException {
+        long baseGeneration = RepositoryData.UNKNOWN_REPO_GEN;
+        String uuid = RepositoryData.MISSING_UUID;
+        String clusterUUID = RepositoryData.MISSING_UUID;
+        final Map<String, SnapshotId> snapshots = new HashMap<>();
+        final Map<String, SnapshotDetails> snapshotsDetails = new HashMap<>();
+        final Map<SnapshotId, Map<String, String>> indexMetaLookup = new HashMap<>();
+        final Set<String> removedSnapshots = new HashSet<>();
+        final Map<String, IndexChanges> indices = new HashMap<>();
+        final Set<String> removedIndices = new HashSet<>();
+        Map<String, String> addedIdentifiers = Map.of();
+        final Set<String> removedIdentifiers = new HashSet<>();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            switch (field) {
+                case DELTA_OF -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_NUMBER, parser.nextToken(), parser);
+                    baseGeneration = parser.longValue();
+                }
+                case RepositoryData.UUID -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, parser.nextToken(), parser);
+                    uuid = parser.text();
+                }
+                case RepositoryData.CLUSTER_UUID -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, parser.nextToken(), parser);
+                    clusterUUID = parser.text();
+                }
+                case RepositoryData.SNAPSHOTS -> RepositoryData.parseSnapshots(parser, snapshots, snapshotsDetails, indexMetaLookup);
+                case REMOVED_SNAPSHOTS -> removedSnapshots.addAll(parseStrings(parser));
+                case RepositoryData.INDICES -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                    while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                        final String indexName = parser.currentName();
+                        indices.put(indexName, parseIndexChanges(parser, fixBrokenShardGens));
+                    }
+                }
+                case REMOVED_INDICES -> removedIndices.addAll(parseStrings(parser));
+                case RepositoryData.INDEX_METADATA_IDENTIFIERS -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                    addedIdentifiers = parser.mapStrings();
+                }
+                case REMOVED_INDEX_METADATA_IDENTIFIERS -> removedIdentifiers.addAll(parseStrings(parser));
+                default -> XContentParserUtils.throwUnknownField(field, parser);
+            }
+        }
+        // ensure we drained the stream completely
+        XContentParserUtils.ensureExpectedToken(null, parser.nextToken(), parser);
+        if (baseGeneration < 0 || RepositoryData.MISSING_UUID.equals(uuid) || RepositoryData.MISSING_UUID.equals(clusterUUID)) {
+            throw new ElasticsearchParseException("Detected a corrupted repository, incomplete repository data delta");
+        }
+        return new RepositoryDataDelta(
+            baseGeneration,
+            uuid,
+            clusterUUID,
+            snapshots,
+            snapshotsDetails,
+            indexMetaLookup,
+            removedSnapshots,
+            indices,
+            removedIndices,
+            addedIdentifiers,
+            removedIdentifiers
+        );
+    }
+
+    private static IndexChanges parseIndexChanges(XContentParser parser, boolean fixBrokenShardGens) throws IOException {
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+        String id = null;
+        List<String> snapshots = null;
+        List<String> addedSnapshots = List.of();
+        List<String> removedSnapshots = List.of();
+        final List<ShardGeneration> shardGenerations = new ArrayList<>();
+        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            final String field = parser.currentName();
+            switch (field) {
+                case RepositoryData.INDEX_ID -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, parser.nextToken(), parser);
+                    id = parser.text();
+                }
+                case RepositoryData.SNAPSHOTS -> snapshots = parseStrings(parser);
+                case ADDED_SNAPSHOTS -> addedSnapshots = parseStrings(parser);
+                case REMOVED_SNAPSHOTS -> removedSnapshots = parseStrings(parser);
+                case RepositoryData.SHARD_GENERATIONS -> {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, parser.nextToken(), parser);
+                    while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                        final ShardGeneration generation = ShardGeneration.fromXContent(parser);
+                        shardGenerations.add(fixBrokenShardGens ? ShardGenerations.fixShardGeneration(generation) : generation);
+                    }
+                }
+                default -> XContentParserUtils.throwUnknownField(field, parser);
+            }
+        }
+        if (id == null) {
+            throw new ElasticsearchParseException("Detected a corrupted repository, index changes without an index id");
+        }
+        return new IndexChanges(id, snapshots, addedSnapshots, removedSnapshots, shardGenerations);
+    }
+
+    private static List<String> parseStrings(XContentParser parser) throws IOException {
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, parser.nextToken(), parser);
+        final List<String> values = new ArrayList<>();
+        while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+            values.add(parser.text());
+        }
+        return values;
+    }
+
+    /**
+     * Loads the {@link RepositoryData} of the given generation, going through the root blobs of earlier generations for as long as the
+     * root blobs hold deltas, and applying the deltas to the first root blob that holds the full repository data.
+     *
+     * @param generation         the generation to load
+     * @param fixBrokenShardGens see {@link RepositoryData#snapshotsFromXContent(XContentParser, long, boolean)}
+     * @param rootBlobReader     opens the root blob of the given generation
+     * @return the repository data of the given generation, and how the root blobs it was read from are chained
+     */
+    public static Tuple<RepositoryData, Chain> load(
+        long generation,
+        boolean fixBrokenShardGens,
+        CheckedFunction<Long, InputStream, IOException> rootBlobReader
+    ) throws IOException {
+        final List<RepositoryDataDelta> deltas = new ArrayList<>();
+        long current = generation;
+        RepositoryData repositoryData = null;
+        while (repositoryData == null) {
+            // EMPTY is safe here because RepositoryData#fromXContent calls namedObject
+            try (
+                InputStream blob = rootBlobReader.apply(current);
+                XContentParser parser = XContentType.JSON.xContent()
+                    .createParser(NamedXContentRegistry.EMPTY, LoggingDeprecationHandler.INSTANCE, blob)
+            ) {
+                XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                String firstField = parser.nextFieldName();
+                if (RepositoryData.MIN_VERSION.equals(firstField)) {
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, parser.nextToken(), parser);
+                    final String minVersion = parser.text();
+                    if (DELTA_FORMAT_VERSION.equals(minVersion)) {
+                        final RepositoryDataDelta delta = fromXContent(parser, fixBrokenShardGens);
+                        if (delta.baseGeneration >= current) {
+                            throw new ElasticsearchParseException(
+                                "Detected a corrupted repository, generation [" + current + "] is a delta of [" + delta.baseGeneration + "]"
+                            );
+                        }
+                        deltas.add(delta);
+                        current = delta.baseGeneration;
+                        continue;
+                    }
+                    RepositoryData.checkMinVersion(minVersion);
+                    firstField = parser.nextFieldName();
+                }
+                repositoryData = RepositoryData.snapshotsFromXContent(parser, firstField, current, fixBrokenShardGens);
+            }
+        }
+        for (int i = deltas.size() - 1; i >= 0; i--) {
+            repositoryData = deltas.get(i).apply(repositoryData, i == 0 ? generation : deltas.get(i - 1).baseGeneration);
+        }
+        return Tuple.tuple(repositoryData, new Chain(generation, current, deltas.size()));
+    }
+}
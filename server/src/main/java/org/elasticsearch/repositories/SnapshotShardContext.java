@@ -12,6 +12,7 @@ package org.elasticsearch.repositories;
 import org.apache.lucene.index.IndexCommit;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DelegatingActionListener;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
@@ -22,6 +23,8 @@ import org.elasticsearch.index.snapshots.IndexShardSnapshotStatus;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.snapshots.SnapshotId;
 
+import java.util.Set;
+
 /**
  * Context holding the state for creating a shard snapshot via {@link Repository#snapshotShard(SnapshotShardContext)}.
  * Wraps a {@link org.elasticsearch.index.engine.Engine.IndexCommitRef} that is released once this instances is completed by invoking
@@ -39,6 +42,8 @@ public final class SnapshotShardContext extends DelegatingActionListener<ShardSn
     private final IndexShardSnapshotStatus snapshotStatus;
     private final IndexVersion repositoryMetaVersion;
     private final long snapshotStartTime;
+    // names of the content-defined chunks that are in the repository already or that are uploaded by this shard snapshot
+    private final Set<String> knownChunks = ConcurrentCollections.newConcurrentSet();
 
     /**
      * @param store                 store to be snapshotted
@@ -116,6 +121,15 @@ public final class SnapshotShardContext extends DelegatingActionListener<ShardSn
         return snapshotStartTime;
     }
 
+    /**
+     * Records that the content-defined chunk with the given name is in the repository or is going to be uploaded by this shard snapshot.
+     *
+     * @return {@code true} if the chunk was not known yet, in which case the caller must upload it
+     */
+    public boolean registerChunk(String chunkName) {
+        return knownChunks.add(chunkName);
+    }
+
     @Override
     public void onResponse(ShardSnapshotResult result) {
         delegate.onResponse(result);
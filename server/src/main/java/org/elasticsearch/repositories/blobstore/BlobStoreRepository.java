@@ -9,6 +9,7 @@
 
 package org.elasticsearch.repositories.blobstore;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.CorruptIndexException;
@@ -74,15 +75,16 @@ import org.elasticsearch.common.lucene.store.InputStreamIndexInput;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.util.concurrent.ListenableFuture;
 import org.elasticsearch.common.util.concurrent.ThrottledIterator;
 import org.elasticsearch.common.util.concurrent.ThrottledTaskRunner;
 import org.elasticsearch.common.xcontent.ChunkedToXContent;
-import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.CheckedConsumer;
 import org.elasticsearch.core.IOUtils;
@@ -111,6 +113,7 @@ import org.elasticsearch.repositories.IndexMetaDataGenerations;
 import org.elasticsearch.repositories.RepositoriesService;
 import org.elasticsearch.repositories.Repository;
 import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.repositories.RepositoryDataDelta;
 import org.elasticsearch.repositories.RepositoryData.SnapshotDetails;
 import org.elasticsearch.repositories.RepositoryException;
 import org.elasticsearch.repositories.RepositoryOperation;
@@ -134,8 +137,6 @@ import org.elasticsearch.transport.LeakTracker;
 import org.elasticsearch.xcontent.NamedXContentRegistry;
 import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentFactory;
-import org.elasticsearch.xcontent.XContentParser;
-import org.elasticsearch.xcontent.XContentType;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -158,11 +159,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -346,12 +350,56 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     public static final Setting<Boolean> USE_FOR_PEER_RECOVERY_SETTING = Setting.boolSetting("use_for_peer_recovery", false);
 
+    /**
+     * Setting to store the large files of new shard snapshots as content-defined chunks, which are shared by all the files of a shard
+     * in the repository. Files that are mostly identical to files that were snapshotted before, like merged segments, then only upload
+     * the chunks that the repository doesn't have yet. Files stored as chunks cannot be read by versions that don't know about chunks,
+     * so this should only be enabled once all the clusters accessing the repository are upgraded.
+     */
+    public static final Setting<Boolean> CONTENT_DEFINED_CHUNKING_SETTING = Setting.boolSetting("content_defined_chunking", false);
+
+    /**
+     * The minimum size of the files that are stored as content-defined chunks when {@link #CONTENT_DEFINED_CHUNKING_SETTING} is enabled.
+     */
+    public static final Setting<ByteSizeValue> CONTENT_DEFINED_CHUNKING_MIN_FILE_SIZE_SETTING = Setting.byteSizeSetting(
+        "content_defined_chunking_min_file_size",
+        ByteSizeValue.ofMb(64),
+        ByteSizeValue.ofMb(1),
+        ByteSizeValue.ofBytes(Long.MAX_VALUE)
+    );
+
+    /**
+     * Setting for the maximum number of consecutive root {@code index-N} blobs that only hold the changes to the repository data of the
+     * previous generation, see {@link RepositoryDataDelta}, instead of the full repository data. Once that many deltas were written the
+     * next root blob holds the full repository data again. Writing deltas requires {@link #CACHE_REPOSITORY_DATA}, and deltas cannot
+     * be read by versions that don't know about them, so this should only be set once all the clusters accessing the repository are
+     * upgraded. Defaults to {@code 0}, i.e. root blobs always hold the full repository data.
+     */
+    public static final Setting<Integer> REPOSITORY_DATA_MAX_DELTAS_SETTING = Setting.intSetting("repository_data_max_deltas", 0, 0, 1000);
+
+    /**
+     * Setting for the maximum number of concurrent bulk delete requests that this repository sends when removing the shard-level blobs
+     * that are no longer referenced after a snapshot deletion. The blobs are deleted in batches of {@link BlobStore#maxBulkDeleteSize()},
+     * and the concurrency is also bounded by the size of the {@link ThreadPool.Names#SNAPSHOT} pool.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_BLOB_DELETES_SETTING = Setting.intSetting("max_concurrent_blob_deletes", 5, 1, 100);
+
+    private static final int MIN_CONTENT_DEFINED_CHUNK_SIZE = ByteSizeUnit.KB.toIntBytes(512);
+    private static final int AVERAGE_CONTENT_DEFINED_CHUNK_SIZE = ByteSizeUnit.MB.toIntBytes(2);
+    private static final int MAX_CONTENT_DEFINED_CHUNK_SIZE = ByteSizeUnit.MB.toIntBytes(8);
+
     protected final boolean supportURLRepo;
 
     private final boolean compress;
 
+    private final boolean contentDefinedChunking;
+
+    private final long contentDefinedChunkingMinFileSize;
+
     private final boolean cacheRepositoryData;
 
+    private final int repositoryDataMaxDeltas;
+
     private volatile RateLimiter snapshotRateLimiter;
 
     private volatile RateLimiter restoreRateLimiter;
@@ -477,6 +525,10 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
     private final ThrottledTaskRunner staleBlobDeleteRunner;
 
+    private final int maxConcurrentBlobDeletes;
+
+    private final ThrottledTaskRunner shardBlobDeleteRunner;
+
     /**
      * Constructs new BlobStoreRepository
      * @param metadata   The metadata for this repository including name and settings
@@ -497,11 +549,14 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         this.bigArrays = bigArrays;
         this.recoverySettings = recoverySettings;
         this.compress = COMPRESS_SETTING.get(metadata.settings());
+        this.contentDefinedChunking = CONTENT_DEFINED_CHUNKING_SETTING.get(metadata.settings());
+        this.contentDefinedChunkingMinFileSize = CONTENT_DEFINED_CHUNKING_MIN_FILE_SIZE_SETTING.get(metadata.settings()).getBytes();
         this.supportURLRepo = SUPPORT_URL_REPO.get(metadata.settings());
         snapshotRateLimiter = getSnapshotRateLimiter();
         restoreRateLimiter = getRestoreRateLimiter();
         readOnly = metadata.settings().getAsBoolean(READONLY_SETTING_KEY, false);
         cacheRepositoryData = CACHE_REPOSITORY_DATA.get(metadata.settings());
+        repositoryDataMaxDeltas = REPOSITORY_DATA_MAX_DELTAS_SETTING.get(metadata.settings());
         bufferSize = Math.toIntExact(BUFFER_SIZE_SETTING.get(metadata.settings()).getBytes());
         this.namedXContentRegistry = namedXContentRegistry;
         this.basePath = basePath;
@@ -522,6 +577,15 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             threadPool.info(ThreadPool.Names.SNAPSHOT).getMax(),
             threadPool.executor(ThreadPool.Names.SNAPSHOT)
         );
+        maxConcurrentBlobDeletes = Math.min(
+            MAX_CONCURRENT_BLOB_DELETES_SETTING.get(metadata.settings()),
+            threadPool.info(ThreadPool.Names.SNAPSHOT).getMax()
+        );
+        shardBlobDeleteRunner = new ThrottledTaskRunner(
+            "deleteShardBlobs",
+            maxConcurrentBlobDeletes,
+            threadPool.executor(ThreadPool.Names.SNAPSHOT)
+        );
     }
 
     @Override
@@ -1055,7 +1119,6 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         /**
          * Accumulates the number of blobs deleted by this operation.
          */
-        // NB only counts stale root blobs today, not shard-level blobs
         private final AtomicLong blobsDeleted = new AtomicLong();
 
         /**
@@ -1401,6 +1464,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     Set<String> survivingSnapshotUUIDs,
                     BlobStoreIndexShardSnapshots updatedSnapshots
                 ) {
+                    final Set<String> survivingChunks = updatedSnapshots.chunkNames();
                     return originalShardBlobs.stream()
                         .filter(
                             blob -> blob.startsWith(SNAPSHOT_INDEX_PREFIX)
@@ -1409,7 +1473,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                                     && survivingSnapshotUUIDs.contains(
                                         blob.substring(SNAPSHOT_PREFIX.length(), blob.length() - METADATA_BLOB_NAME_SUFFIX.length())
                                     ) == false)
+                                || (ContentDefinedChunker.isChunkBlob(blob) && survivingChunks.contains(blob) == false)
                                 || (blob.startsWith(UPLOADED_DATA_BLOB_PREFIX)
+                                    && ContentDefinedChunker.isChunkBlob(blob) == false
                                     && updatedSnapshots.findNameFile(canonicalName(blob)) == null)
                                 || FsBlobContainer.isTempBlobName(blob)
                         )
@@ -1448,15 +1514,42 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 listener.onResponse(null);
                 return;
             }
-            snapshotExecutor.execute(ActionRunnable.wrap(listener, l -> {
-                try {
-                    deleteFromContainer(OperationPurpose.SNAPSHOT_DATA, blobContainer(), filesToDelete);
-                    l.onResponse(null);
-                } catch (Exception e) {
+            // The blobs to delete are resolved lazily and split into batches of the size of a single bulk delete request, which are sent
+            // concurrently. The iterator only pulls the next batch once a permit is free, so that we never hold more than a few batches
+            // in memory, and the per-repository runner bounds the number of concurrent requests across all the ongoing deletions.
+            final BlobContainer container = blobContainer();
+            final AtomicLong shardBlobsDeleted = new AtomicLong();
+            final AtomicLong failedBatches = new AtomicLong();
+            final long startTimeMillis = threadPool.relativeTimeInMillis();
+            ThrottledIterator.run(
+                Iterators.batches(filesToDelete, blobStore().maxBulkDeleteSize()),
+                (ref, batch) -> shardBlobDeleteRunner.enqueueTask(ActionListener.releaseAfter(ActionListener.wrap(taskRef -> {
+                    try (taskRef) {
+                        deleteFromContainer(OperationPurpose.SNAPSHOT_DATA, container, batch.iterator());
+                    }
+                    blobsDeleted.addAndGet(batch.size());
+                    final long deleted = shardBlobsDeleted.addAndGet(batch.size());
+                    logger.debug("[{}] deleted [{}] shard-level blobs of snapshots {} so far", metadata.name(), deleted, snapshotIds);
+                }, e -> {
+                    failedBatches.incrementAndGet();
                     logger.warn(() -> format("%s Failed to delete some blobs during snapshot delete", snapshotIds), e);
-                    throw e;
+                }), ref)),
+                maxConcurrentBlobDeletes,
+                () -> {
+                    // the blobs of failed batches are left behind until a later delete or repository cleanup removes them, which
+                    // doesn't fail the snapshot deletion
+                    logger.log(
+                        failedBatches.get() > 0 ? Level.WARN : Level.DEBUG,
+                        "[{}] deleted [{}] shard-level blobs of snapshots {} in [{}ms], [{}] batches failed",
+                        metadata.name(),
+                        shardBlobsDeleted.get(),
+                        snapshotIds,
+                        threadPool.relativeTimeInMillis() - startTimeMillis,
+                        failedBatches.get()
+                    );
+                    listener.onResponse(null);
                 }
-            }));
+            );
         }
 
         private Iterator<String> resolveFilesToDelete() {
@@ -1551,7 +1644,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
 
         // Finds all blobs directly under the repository root path that are not referenced by the current RepositoryData
-        private static List<String> staleRootBlobs(RepositoryData newRepositoryData, Set<String> originalRootBlobNames) {
+        private List<String> staleRootBlobs(RepositoryData newRepositoryData, Set<String> originalRootBlobNames) {
+            final long oldestRequiredGeneration = oldestRequiredRootBlobGeneration(newRepositoryData.getGenId());
             final Set<String> allSnapshotIds = newRepositoryData.getSnapshotIds()
                 .stream()
                 .map(SnapshotId::getUUID)
@@ -1575,7 +1669,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 } else if (blob.startsWith(INDEX_FILE_PREFIX)) {
                     // TODO: Include the current generation here once we remove keeping index-(N-1) around from #writeIndexGen
                     try {
-                        return newRepositoryData.getGenId() > Long.parseLong(blob.substring(INDEX_FILE_PREFIX.length()));
+                        return oldestRequiredGeneration > Long.parseLong(blob.substring(INDEX_FILE_PREFIX.length()));
                     } catch (NumberFormatException nfe) {
                         // odd case of an extra file with the index- prefix that we can't identify
                         return false;
@@ -1762,7 +1856,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             Map<String, String> indexMetaIdentifiers
         ) {}
 
-        record RootBlobUpdateResult(RepositoryData oldRepositoryData, RepositoryData newRepositoryData) {}
+        record RootBlobUpdateResult(
+            RepositoryData oldRepositoryData,
+            RepositoryDataDelta.Chain oldRootBlobChain,
+            RepositoryData newRepositoryData
+        ) {}
 
         SubscribableListener
 
@@ -1853,6 +1951,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 assert ThreadPool.assertCurrentThreadPool(ThreadPool.Names.SNAPSHOT);
                 final var snapshotDetails = SnapshotDetails.fromSnapshotInfo(snapshotInfo);
                 final var existingRepositoryData = metadataWriteResult.existingRepositoryData();
+                final var existingRootBlobChain = latestKnownRootBlobChain.get();
                 writeIndexGen(
                     existingRepositoryData.addSnapshot(
                         snapshotId,
@@ -1874,7 +1973,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                             return "finalizing snapshot [" + metadata.name() + "][" + snapshotId + "]";
                         }
                     },
-                    l.map(newRepositoryData -> new RootBlobUpdateResult(existingRepositoryData, newRepositoryData))
+                    l.map(newRepositoryData -> new RootBlobUpdateResult(existingRepositoryData, existingRootBlobChain, newRepositoryData))
                 );
                 // NB failure of writeIndexGen doesn't guarantee the update failed, so we cannot safely clean anything up on failure
             })
@@ -1884,6 +1983,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 l.onResponse(rootBlobUpdateResult.newRepositoryData());
                 cleanupOldMetadata(
                     rootBlobUpdateResult.oldRepositoryData(),
+                    rootBlobUpdateResult.oldRootBlobChain(),
                     rootBlobUpdateResult.newRepositoryData(),
                     finalizeSnapshotContext,
                     writeShardGens
@@ -1902,6 +2002,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
     // repository data
     private void cleanupOldMetadata(
         RepositoryData existingRepositoryData,
+        RepositoryDataDelta.Chain existingRootBlobChain,
         RepositoryData updatedRepositoryData,
         FinalizeSnapshotContext finalizeSnapshotContext,
         boolean writeShardGenerations
@@ -1910,10 +2011,14 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         // Delete all now outdated index files up to 1000 blobs back from the new generation.
         // If there are more than 1000 dangling index-N cleanup functionality on repo delete will take care of them.
         long newRepoGeneration = updatedRepositoryData.getGenId();
-        for (long gen = Math.max(
-            Math.max(existingRepositoryData.getGenId() - 1, 0),
-            newRepoGeneration - 1000
-        ); gen < newRepoGeneration; gen++) {
+        final long oldestRequiredGeneration = oldestRequiredRootBlobGeneration(newRepoGeneration);
+        // The existing generation may have been a delta, in which case the root blobs from the base generation of its chain onwards may
+        // all be outdated now that a new full root blob was written.
+        long oldestExistingGeneration = existingRepositoryData.getGenId() - 1;
+        if (existingRootBlobChain.generation() == existingRepositoryData.getGenId()) {
+            oldestExistingGeneration = Math.min(oldestExistingGeneration, existingRootBlobChain.baseGeneration());
+        }
+        for (long gen = Math.max(Math.max(oldestExistingGeneration, 0), newRepoGeneration - 1000); gen < oldestRequiredGeneration; gen++) {
             toDelete.add(getRepositoryDataBlobName(gen));
         }
         if (writeShardGenerations) {
@@ -2230,6 +2335,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
     // Best effort cache of the latest known repository data
     private final AtomicReference<RepositoryData> latestKnownRepositoryData = new AtomicReference<>(RepositoryData.EMPTY);
 
+    // Tracks which root blobs the latest known generation was read from, the root blobs from its base generation onwards must be kept
+    private final AtomicReference<RepositoryDataDelta.Chain> latestKnownRootBlobChain = new AtomicReference<>(
+        RepositoryDataDelta.Chain.full(RepositoryData.EMPTY_REPO_GEN)
+    );
+
     @Override
     public void getRepositoryData(Executor responseExecutor, ActionListener<RepositoryData> listener) {
         // RepositoryData is the responsibility of the elected master: we shouldn't be loading it on other nodes as we don't have good
@@ -2632,16 +2742,13 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             return RepositoryData.EMPTY;
         }
         try {
-            final var repositoryDataBlobName = getRepositoryDataBlobName(indexGen);
-
-            // EMPTY is safe here because RepositoryData#fromXContent calls namedObject
-            try (
-                InputStream blob = blobContainer().readBlob(OperationPurpose.SNAPSHOT_METADATA, repositoryDataBlobName);
-                XContentParser parser = XContentType.JSON.xContent()
-                    .createParser(NamedXContentRegistry.EMPTY, LoggingDeprecationHandler.INSTANCE, blob)
-            ) {
-                return RepositoryData.snapshotsFromXContent(parser, indexGen, true);
-            }
+            final Tuple<RepositoryData, RepositoryDataDelta.Chain> loaded = RepositoryDataDelta.load(
+                indexGen,
+                true,
+                generation -> blobContainer().readBlob(OperationPurpose.SNAPSHOT_METADATA, getRepositoryDataBlobName(generation))
+            );
+            updateLatestKnownRootBlobChain(loaded.v2());
+            return loaded.v1();
         } catch (IOException ioe) {
             if (bestEffortConsistency) {
                 // If we fail to load the generation we tracked in latestKnownRepoGen we reset it.
@@ -2655,6 +2762,23 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    private void updateLatestKnownRootBlobChain(RepositoryDataDelta.Chain chain) {
+        latestKnownRootBlobChain.updateAndGet(known -> known.generation() >= chain.generation() ? known : chain);
+    }
+
+    /**
+     * Returns the oldest root blob generation that must be kept so that the given generation, that was just written, can be loaded.
+     * That's the generation of the root blob holding the full repository data that the given generation is a delta of, if any.
+     */
+    private long oldestRequiredRootBlobGeneration(long generation) {
+        final RepositoryDataDelta.Chain chain = latestKnownRootBlobChain.get();
+        if (chain.generation() < generation) {
+            // we don't know how the given generation was written, keep all root blobs
+            return RepositoryData.EMPTY_REPO_GEN;
+        }
+        return Math.min(chain.baseGeneration(), generation);
+    }
+
     private static String testBlobPrefix(String seed) {
         return TESTS_FILE + seed;
     }
@@ -2863,10 +2987,29 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 return;
             }
             final String indexBlob = getRepositoryDataBlobName(newGen);
-            logger.debug("Repository [{}] writing new index generational blob [{}]", metadata.name(), indexBlob);
+            final RepositoryDataDelta.Chain previousChain = latestKnownRootBlobChain.get();
+            final RepositoryDataDelta delta = repositoryDataDelta(previousChain, expectedGen, newRepositoryData, version);
+            final RepositoryDataDelta.Chain newChain;
+            if (delta == null) {
+                logger.debug("Repository [{}] writing new index generational blob [{}]", metadata.name(), indexBlob);
+                newChain = RepositoryDataDelta.Chain.full(newGen);
+            } else {
+                logger.debug(
+                    "Repository [{}] writing new index generational blob [{}] as a delta of generation [{}] with [{}] changed snapshots",
+                    metadata.name(),
+                    indexBlob,
+                    expectedGen,
+                    delta.changedSnapshotCount()
+                );
+                newChain = previousChain.withDelta(newGen);
+            }
             writeAtomic(OperationPurpose.SNAPSHOT_METADATA, blobContainer(), indexBlob, out -> {
                 try (XContentBuilder xContentBuilder = XContentFactory.jsonBuilder(org.elasticsearch.core.Streams.noCloseStream(out))) {
-                    newRepositoryData.snapshotsToXContent(xContentBuilder, version);
+                    if (delta == null) {
+                        newRepositoryData.snapshotsToXContent(xContentBuilder, version);
+                    } else {
+                        delta.toXContent(xContentBuilder);
+                    }
                 }
             }, true);
             maybeWriteIndexLatest(newGen);
@@ -2937,6 +3080,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 public void clusterStateProcessed(ClusterState oldState, ClusterState newState) {
                     logger.trace("[{}] successfully set safe repository generation to [{}]", metadata.name(), newGen);
                     cacheRepositoryData(newRepositoryData, version);
+                    updateLatestKnownRootBlobChain(newChain);
                     delegate.onResponse(newRepositoryData);
                 }
 
@@ -2953,6 +3097,31 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }));
     }
 
+    /**
+     * Returns the changes from the repository data of generation {@code expectedGen} to {@code newRepositoryData} if the new root blob
+     * should only hold these changes, or {@code null} if it should hold the full repository data. Deltas can only be computed against
+     * the cached repository data of the previous generation, and are only written until {@link #REPOSITORY_DATA_MAX_DELTAS_SETTING}
+     * root blobs in a row hold deltas.
+     */
+    @Nullable
+    private RepositoryDataDelta repositoryDataDelta(
+        RepositoryDataDelta.Chain chain,
+        long expectedGen,
+        RepositoryData newRepositoryData,
+        IndexVersion version
+    ) {
+        if (repositoryDataMaxDeltas == 0
+            || expectedGen == RepositoryData.EMPTY_REPO_GEN
+            || SnapshotsService.supportsRepositoryDataDeltas(version) == false) {
+            return null;
+        }
+        final RepositoryData previous = latestKnownRepositoryData.get();
+        if (chain.generation() != expectedGen || chain.length() >= repositoryDataMaxDeltas || previous.getGenId() != expectedGen) {
+            return null;
+        }
+        return RepositoryDataDelta.diff(previous, newRepositoryData);
+    }
+
     private RepositoryData updateRepositoryData(RepositoryData repositoryData, IndexVersion repositoryMetaversion, long newGen) {
         if (SnapshotsService.includesUUIDs(repositoryMetaversion)) {
             final String clusterUUID = clusterService.state().metadata().clusterUUID();
@@ -3254,6 +3423,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             final BlockingQueue<BlobStoreIndexShardSnapshot.FileInfo> filesToSnapshot = new LinkedBlockingQueue<>();
             int filesInShardMetadataCount = 0;
             long filesInShardMetadataSize = 0;
+            final ContentDefinedChunker chunker = contentDefinedChunker();
+            final Set<String> existingChunks = chunker == null ? Set.of() : snapshots.chunkNames();
+            final Set<String> plannedChunks = new HashSet<>();
+            final List<FileToChunk> filesToChunk = new ArrayList<>();
+            existingChunks.forEach(context::registerChunk);
 
             if (store.indexSettings().getIndexMetadata().isSearchableSnapshot()) {
                 indexCommitPointFiles = Collections.emptyList();
@@ -3289,13 +3463,21 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
                     if (existingFileInfo == null) {
                         indexIncrementalFileCount++;
-                        indexIncrementalSize += md.length();
+                        final String blobName = (needsWrite ? UPLOADED_DATA_BLOB_PREFIX : VIRTUAL_DATA_BLOB_PREFIX)
+                            + UUIDs.randomBase64UUID();
+                        if (chunker != null && needsWrite && md.length() >= contentDefinedChunkingMinFileSize) {
+                            // the file info is only known once the file is chunked, which happens below for all such files at once
+                            filesToChunk.add(new FileToChunk(indexCommitPointFiles.size(), blobName, md));
+                            indexCommitPointFiles.add(null);
+                            continue;
+                        }
                         // create a new FileInfo
-                        BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo = new BlobStoreIndexShardSnapshot.FileInfo(
-                            (needsWrite ? UPLOADED_DATA_BLOB_PREFIX : VIRTUAL_DATA_BLOB_PREFIX) + UUIDs.randomBase64UUID(),
+                        final BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo = new BlobStoreIndexShardSnapshot.FileInfo(
+                            blobName,
                             md,
                             chunkSize()
                         );
+                        indexIncrementalSize += md.length();
                         indexCommitPointFiles.add(snapshotFileInfo);
                         if (needsWrite) {
                             filesToSnapshot.add(snapshotFileInfo);
@@ -3310,6 +3492,20 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                         indexCommitPointFiles.add(existingFileInfo);
                     }
                 }
+                if (filesToChunk.isEmpty() == false) {
+                    snapshotStatus.updateStatusDescription("snapshot task runner: chunking [" + filesToChunk.size() + "] files");
+                    final List<BlobStoreIndexShardSnapshot.FileInfo> chunkedFiles = chunkFiles(context, chunker, filesToChunk);
+                    for (int i = 0; i < chunkedFiles.size(); i++) {
+                        final BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo = chunkedFiles.get(i);
+                        for (BlobStoreIndexShardSnapshot.Chunk chunk : snapshotFileInfo.chunks()) {
+                            if (existingChunks.contains(chunk.name()) == false && plannedChunks.add(chunk.name())) {
+                                indexIncrementalSize += chunk.length();
+                            }
+                        }
+                        indexCommitPointFiles.set(filesToChunk.get(i).position(), snapshotFileInfo);
+                        filesToSnapshot.add(snapshotFileInfo);
+                    }
+                }
             } else {
                 for (BlobStoreIndexShardSnapshot.FileInfo fileInfo : filesFromSegmentInfos) {
                     indexTotalNumberOfFiles++;
@@ -3467,7 +3663,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     snapshotStatus.updateStatusDescription("all files uploaded: cleaning up data files, exception while finalizing: " + e);
                     shardContainer.deleteBlobsIgnoringIfNotExists(
                         OperationPurpose.SNAPSHOT_DATA,
-                        Iterators.flatMap(fileToCleanUp.get().iterator(), f -> Iterators.forRange(0, f.numberOfParts(), f::partName))
+                        Iterators.flatMap(
+                            // chunks may be shared with other snapshots, unreferenced ones are deleted by the shard's next delete
+                            Iterators.filter(fileToCleanUp.get().iterator(), f -> f.chunks() == null),
+                            f -> Iterators.forRange(0, f.numberOfParts(), f::partName)
+                        )
                     );
                 } catch (Exception innerException) {
                     e.addSuppressed(innerException);
@@ -3520,6 +3720,107 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    /**
+     * Returns the chunker to split large files with, or {@code null} if files must not be stored as content-defined chunks.
+     */
+    @Nullable
+    private ContentDefinedChunker contentDefinedChunker() {
+        if (contentDefinedChunking == false) {
+            return null;
+        }
+        final ByteSizeValue chunkSize = chunkSize();
+        final int maxChunkSize = chunkSize == null
+            ? MAX_CONTENT_DEFINED_CHUNK_SIZE
+            : Math.toIntExact(Math.min(MAX_CONTENT_DEFINED_CHUNK_SIZE, chunkSize.getBytes()));
+        if (maxChunkSize < MIN_CONTENT_DEFINED_CHUNK_SIZE) {
+            // the repository's blobs are too small for chunks to be worth it
+            return null;
+        }
+        return new ContentDefinedChunker(MIN_CONTENT_DEFINED_CHUNK_SIZE, AVERAGE_CONTENT_DEFINED_CHUNK_SIZE, maxChunkSize);
+    }
+
+    /**
+     * A file of a shard snapshot that is stored as content-defined chunks, at the given position in the snapshot's list of files.
+     */
+    private record FileToChunk(int position, String blobName, StoreFileMetadata metadata) {}
+
+    /**
+     * Splits the given files into content-defined chunks. Chunking reads and hashes each file in full, so the files are chunked in
+     * parallel on the snapshot pool. The calling thread chunks files too, so it only waits for files that are already being chunked
+     * and never for a task that is still queued behind other snapshot tasks.
+     */
+    private List<BlobStoreIndexShardSnapshot.FileInfo> chunkFiles(
+        SnapshotShardContext context,
+        ContentDefinedChunker chunker,
+        List<FileToChunk> filesToChunk
+    ) {
+        final int fileCount = filesToChunk.size();
+        final AtomicReferenceArray<BlobStoreIndexShardSnapshot.FileInfo> chunkedFiles = new AtomicReferenceArray<>(fileCount);
+        final AtomicInteger nextFile = new AtomicInteger();
+        final CountDownLatch remainingFiles = new CountDownLatch(fileCount);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final Runnable chunkRemainingFiles = () -> {
+            int i;
+            while ((i = nextFile.getAndIncrement()) < fileCount) {
+                try {
+                    if (failure.get() == null) {
+                        final FileToChunk fileToChunk = filesToChunk.get(i);
+                        chunkedFiles.set(i, chunkFile(context, chunker, fileToChunk.blobName(), fileToChunk.metadata()));
+                    }
+                } catch (Exception e) {
+                    failure.accumulateAndGet(e, ExceptionsHelper::useOrSuppress);
+                } finally {
+                    remainingFiles.countDown();
+                }
+            }
+        };
+        final Executor executor = threadPool.executor(ThreadPool.Names.SNAPSHOT);
+        final int helpers = Math.min(fileCount, threadPool.info(ThreadPool.Names.SNAPSHOT).getMax()) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(chunkRemainingFiles);
+            } catch (EsRejectedExecutionException e) {
+                // the calling thread chunks the files this task would have chunked
+                break;
+            }
+        }
+        chunkRemainingFiles.run();
+        try {
+            remainingFiles.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IndexShardSnapshotFailedException(context.store().shardId(), "Interrupted while chunking files", e);
+        }
+        if (failure.get() != null) {
+            throw ExceptionsHelper.convertToRuntime(failure.get());
+        }
+        final List<BlobStoreIndexShardSnapshot.FileInfo> result = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            result.add(chunkedFiles.get(i));
+        }
+        return result;
+    }
+
+    private static BlobStoreIndexShardSnapshot.FileInfo chunkFile(
+        SnapshotShardContext context,
+        ContentDefinedChunker chunker,
+        String blobName,
+        StoreFileMetadata md
+    ) {
+        final Store store = context.store();
+        try (
+            Releasable ignored = context.withCommitRef();
+            IndexInput indexInput = store.openVerifyingInput(md.name(), IOContext.READONCE, md)
+        ) {
+            final List<BlobStoreIndexShardSnapshot.Chunk> chunks = chunker.chunk(indexInput, md.length());
+            Store.verify(indexInput);
+            return BlobStoreIndexShardSnapshot.FileInfo.ofChunks(blobName, md, chunks);
+        } catch (IOException e) {
+            failStoreIfCorrupted(store, e);
+            throw new IndexShardSnapshotFailedException(store.shardId(), "Failed to chunk file [" + md.name() + "]", e);
+        }
+    }
+
     protected void snapshotFiles(
         SnapshotShardContext context,
         BlockingQueue<FileInfo> filesToSnapshot,
@@ -4078,6 +4379,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         ) {
             for (int i = 0; i < fileInfo.numberOfParts(); i++) {
                 final long partBytes = fileInfo.partBytes(i);
+                if (fileInfo.chunks() != null && context.registerChunk(fileInfo.partName(i)) == false) {
+                    // the chunk is in the repository already or uploaded by another file, it is still read to verify the file's checksum
+                    indexInput.seek(fileInfo.partStart(i) + partBytes);
+                    continue;
+                }
 
                 // Make reads abortable by mutating the snapshotStatus object
                 final InputStream inputStream = new FilterInputStream(
@@ -0,0 +1,120 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories.blobstore;
+
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.Chunk;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Splits files into chunks whose boundaries depend on their content rather than on their position, using a gear rolling hash as in
+ * FastCDC. Inserting or removing bytes in a file only moves the boundaries around the edit, so most chunks of a file that shares content
+ * with files that were already snapshotted, e.g. a merged segment, are found in the repository and don't need to be uploaded again.
+ * Chunks are named after the SHA-256 of their content.
+ */
+final class ContentDefinedChunker {
+
+    static final String CHUNK_BLOB_PREFIX = BlobStoreRepository.UPLOADED_DATA_BLOB_PREFIX + "chunk-";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // the gear hash of a position only depends on the 64 bytes before it, so hashing can start that far before the minimum chunk size
+    private static final int HASH_WINDOW = Long.SIZE;
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // all nodes must find the same boundaries in the same content, so the table is generated from a fixed seed
+        final Random random = new Random(0x5EEDC0DEL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long mask;
+
+    /**
+     * @param minChunkSize     the minimum size of a chunk, except for the last chunk of a file
+     * @param averageChunkSize the expected size of chunks beyond the minimum size, must be a power of two
+     * @param maxChunkSize     the maximum size of a chunk
+     */
+    ContentDefinedChunker(int minChunkSize, int averageChunkSize, int maxChunkSize) {
+        if (Integer.bitCount(averageChunkSize) != 1) {
+            throw new IllegalArgumentException("average chunk size [" + averageChunkSize + "] must be a power of two");
+        }
+        if (minChunkSize < HASH_WINDOW || minChunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("invalid chunk sizes [" + minChunkSize + ", " + maxChunkSize + "]");
+        }
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        // the most significant bits of the hash depend on the most bytes, so they are the ones that decide the boundaries
+        final int bits = Integer.numberOfTrailingZeros(averageChunkSize);
+        this.mask = bits == 0 ? 0L : -1L << (Long.SIZE - bits);
+    }
+
+    int maxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * Reads {@code length} bytes from the current position of the given input and returns the chunks they are split into.
+     */
+    List<Chunk> chunk(IndexInput input, long length) throws IOException {
+        final List<Chunk> chunks = new ArrayList<>();
+        final MessageDigest digest = MessageDigests.sha256();
+        final byte[] buffer = new byte[Math.toIntExact(Math.min(BUFFER_SIZE, Math.max(1L, length)))];
+        final int hashStart = minChunkSize - HASH_WINDOW;
+        long remaining = length;
+        int chunkLength = 0;
+        long hash = 0L;
+        while (remaining > 0L) {
+            final int read = Math.toIntExact(Math.min(buffer.length, remaining));
+            input.readBytes(buffer, 0, read);
+            remaining -= read;
+            int chunkStart = 0;
+            for (int i = 0; i < read; i++) {
+                chunkLength++;
+                if (chunkLength <= hashStart) {
+                    continue;
+                }
+                hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+                if ((chunkLength >= minChunkSize && (hash & mask) == 0L) || chunkLength >= maxChunkSize) {
+                    digest.update(buffer, chunkStart, i + 1 - chunkStart);
+                    chunks.add(new Chunk(chunkName(digest), chunkLength));
+                    chunkStart = i + 1;
+                    chunkLength = 0;
+                    hash = 0L;
+                }
+            }
+            digest.update(buffer, chunkStart, read - chunkStart);
+        }
+        if (chunkLength > 0) {
+            chunks.add(new Chunk(chunkName(digest), chunkLength));
+        }
+        return chunks;
+    }
+
+    private static String chunkName(MessageDigest digest) {
+        // digest() also resets the digest for the next chunk
+        return CHUNK_BLOB_PREFIX + MessageDigests.toHexString(digest.digest());
+    }
+
+    static boolean isChunkBlob(String blobName) {
+        return blobName.startsWith(CHUNK_BLOB_PREFIX);
+    }
+}
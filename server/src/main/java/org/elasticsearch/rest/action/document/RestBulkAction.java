@@ -22,6 +22,7 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
@@ -35,6 +36,7 @@ import org.elasticsearch.rest.action.RestRefCountedChunkedToXContentListener;
 import org.elasticsearch.rest.action.RestToXContentListener;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 import org.elasticsearch.transport.Transports;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
@@ -63,11 +65,14 @@ public class RestBulkAction extends BaseRestHandler {
 
     private final boolean allowExplicitIndex;
     private final IncrementalBulkService bulkHandler;
+    private final int jsonTapeParserMaxContentLength;
     private final Set<String> capabilities;
 
     public RestBulkAction(Settings settings, IncrementalBulkService bulkHandler) {
         this.allowExplicitIndex = MULTI_ALLOW_EXPLICIT_INDEX.get(settings);
         this.bulkHandler = bulkHandler;
+        this.jsonTapeParserMaxContentLength = XContentHelper.withJsonTapeParser(XContentParserConfiguration.EMPTY, settings)
+            .jsonTapeParserMaxContentLength();
         this.capabilities = Set.of(FAILURE_STORE_STATUS_CAPABILITY);
     }
 
@@ -131,7 +136,12 @@ public class RestBulkAction extends BaseRestHandler {
             String waitForActiveShards = request.param("wait_for_active_shards");
             TimeValue timeout = request.paramAsTime("timeout", BulkShardRequest.DEFAULT_TIMEOUT);
             String refresh = request.param("refresh");
-            return new ChunkHandler(allowExplicitIndex, request, () -> bulkHandler.newBulkRequest(waitForActiveShards, timeout, refresh));
+            return new ChunkHandler(
+                allowExplicitIndex,
+                jsonTapeParserMaxContentLength,
+                request,
+                () -> bulkHandler.newBulkRequest(waitForActiveShards, timeout, refresh)
+            );
         }
     }
 
@@ -157,11 +167,20 @@ public class RestBulkAction extends BaseRestHandler {
         private final ArrayDeque<ReleasableBytesReference> unParsedChunks = new ArrayDeque<>(4);
         private final ArrayList<DocWriteRequest<?>> items = new ArrayList<>(4);
 
-        ChunkHandler(boolean allowExplicitIndex, RestRequest request, Supplier<IncrementalBulkService.Handler> handlerSupplier) {
+        ChunkHandler(
+            boolean allowExplicitIndex,
+            int jsonTapeParserMaxContentLength,
+            RestRequest request,
+            Supplier<IncrementalBulkService.Handler> handlerSupplier
+        ) {
             this.request = request;
             this.handlerSupplier = handlerSupplier;
-            this.parser = new BulkRequestParser(true, RestUtils.getIncludeSourceOnError(request), request.getRestApiVersion())
-                .incrementalParser(
+            this.parser = new BulkRequestParser(
+                true,
+                RestUtils.getIncludeSourceOnError(request),
+                request.getRestApiVersion(),
+                jsonTapeParserMaxContentLength
+            ).incrementalParser(
                     request.param("index"),
                     request.param("routing"),
                     FetchSourceContext.parseFromRestRequest(request),
@@ -12,6 +12,7 @@ package org.elasticsearch.search;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
@@ -76,6 +77,7 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.ExecutorSelector;
+import org.elasticsearch.indices.IndicesSegmentAggregationsCache;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
@@ -663,12 +665,40 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         final boolean canCache = IndicesService.canCache(request, context);
         context.getSearchExecutionContext().freezeContext();
         if (canCache) {
-            indicesService.loadIntoContext(request, context);
+            indicesService.loadIntoContext(request, context, canCacheAggregationsPerSegment(context));
         } else {
             QueryPhase.execute(context);
         }
     }
 
+    /**
+     * Whether the partial results of the aggregations of a request that can be cached can also be cached per segment.
+     */
+    static boolean canCacheAggregationsPerSegment(SearchContext context) {
+        if (context.aggregations() == null || context.aggregations().isInSortOrderExecutionRequired()) {
+            return false;
+        }
+        final IndexSettings indexSettings = context.indexShard().indexSettings();
+        if (indexSettings.getValue(IndicesSegmentAggregationsCache.INDEX_CACHE_SEGMENT_AGGREGATIONS_ENABLED_SETTING) == false) {
+            return false;
+        }
+        // the aggregations of early terminated segments only saw some of their matching documents
+        if (context.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER) {
+            return false;
+        }
+        // aggregations opt in explicitly, as partial results that hold doc ids or scores are wrong once other segments change
+        final AggregatorFactories.Builder aggregations = context.request().source().aggregations();
+        if (aggregations.supportsSegmentCaching() == false) {
+            return false;
+        }
+        // the partial results of segments are merged like the partial results of the slices of a concurrent search
+        final IndexService indexService = context.readerContext().indexService();
+        final DirectoryReader directoryReader = context.searcher().getDirectoryReader();
+        return aggregations.supportsParallelCollection(
+            field -> DefaultSearchContext.getFieldCardinality(field, indexService, directoryReader)
+        );
+    }
+
     public void executeQueryPhase(ShardSearchRequest request, CancellableTask task, ActionListener<SearchPhaseResult> listener) {
         assert request.canReturnNullResponseIfMatchNoDocs() == false || request.numberOfShards() > 1
             : "empty responses require more than one shard";
@@ -227,6 +227,34 @@ public abstract class AggregationBuilder
         return false;
     }
 
+    /**
+     * Return true if the partial results of this aggregation and of all its child aggregations can be cached per segment, see
+     * {@link SegmentAggregationsCache}.
+     */
+    public final boolean supportsSegmentCaching() {
+        if (hasSegmentCacheablePartials() == false) {
+            return false;
+        }
+        for (AggregationBuilder builder : factoriesBuilder.getAggregatorFactories()) {
+            if (builder.supportsSegmentCaching() == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Does the partial result of this aggregation on a segment only depend on the values of the documents of that segment.
+     *
+     * By default, it's false for all aggregations.
+     *
+     * Partial results that hold doc ids, scores or statistics of the whole shard, like the hits of a {@code top_hits} aggregation,
+     * are wrong once they are cached for a segment and merged with the partial results of other segments after a refresh or a merge.
+     */
+    protected boolean hasSegmentCacheablePartials() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return Strings.toString(this);
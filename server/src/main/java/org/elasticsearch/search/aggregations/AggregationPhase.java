@@ -26,11 +26,17 @@ public class AggregationPhase {
         if (context.aggregations() == null) {
             return;
         }
+        final Supplier<AggregationReduceContext> reduceContextSupplier = () -> context.aggregations()
+            .getAggregationReduceContextBuilder()
+            .forPartialReduction();
         final Supplier<AggregatorCollector> collectorSupplier;
+        final SegmentAggregationsCache segmentCache = context.aggregations().getSegmentCache();
         if (context.aggregations().isInSortOrderExecutionRequired()) {
             AggregatorCollector collector = newAggregatorCollector(context);
             executeInSortOrder(context, collector.bucketCollector);
             collectorSupplier = () -> new AggregatorCollector(collector.aggregators, BucketCollector.NO_OP_BUCKET_COLLECTOR);
+        } else if (segmentCache != null) {
+            collectorSupplier = () -> SegmentCachingAggregatorCollector.create(context, segmentCache, reduceContextSupplier);
         } else {
             collectorSupplier = () -> newAggregatorCollector(context);
         }
@@ -39,12 +45,12 @@ public class AggregationPhase {
                 new AggregatorCollectorManager(
                     collectorSupplier,
                     internalAggregations -> context.queryResult().aggregations(internalAggregations),
-                    () -> context.aggregations().getAggregationReduceContextBuilder().forPartialReduction()
+                    reduceContextSupplier
                 )
             );
     }
 
-    private static AggregatorCollector newAggregatorCollector(SearchContext context) {
+    static AggregatorCollector newAggregatorCollector(SearchContext context) {
         try {
             Aggregator[] aggregators = context.aggregations().factories().createTopLevelAggregators();
             BucketCollector bucketCollector = MultiBucketCollector.wrap(true, List.of(aggregators));
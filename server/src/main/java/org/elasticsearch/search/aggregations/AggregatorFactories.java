@@ -390,6 +390,18 @@ public class AggregatorFactories {
             return true;
         }
 
+        /**
+         * Return false if any of the aggregations does not support caching its partial results per segment.
+         */
+        public boolean supportsSegmentCaching() {
+            for (AggregationBuilder builder : aggregationBuilders) {
+                if (builder.supportsSegmentCaching() == false) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         public Builder addAggregator(AggregationBuilder factory) {
             if (names.add(factory.name) == false) {
                 throw new IllegalArgumentException("Two sibling aggregations cannot have the same name: [" + factory.name + "]");
@@ -9,6 +9,7 @@
 package org.elasticsearch.search.aggregations;
 
 import org.apache.lucene.search.CollectorManager;
+import org.elasticsearch.core.Nullable;
 
 import java.util.function.Supplier;
 
@@ -20,6 +21,7 @@ public class SearchContextAggregations {
     private final AggregatorFactories factories;
     private final Supplier<AggregationReduceContext.Builder> toAggregationReduceContextBuilder;
     private CollectorManager<AggregatorCollector, Void> aggCollectorManager;
+    private SegmentAggregationsCache segmentCache;
 
     /**
      * Creates a new aggregation context with the parsed aggregator factories
@@ -50,6 +52,22 @@ public class SearchContextAggregations {
         return aggCollectorManager;
     }
 
+    /**
+     * Registers the cache of the partial results of the aggregations per segment. Must be called before the aggregations phase
+     * registers its collector.
+     */
+    public void setSegmentCache(SegmentAggregationsCache segmentCache) {
+        this.segmentCache = segmentCache;
+    }
+
+    /**
+     * Returns the cache of the partial results of the aggregations per segment, or {@code null} if they are not cached.
+     */
+    @Nullable
+    public SegmentAggregationsCache getSegmentCache() {
+        return segmentCache;
+    }
+
     /**
      * Returns if the aggregations needs to execute in sort order.
      */
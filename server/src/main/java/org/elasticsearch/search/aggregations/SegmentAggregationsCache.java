@@ -0,0 +1,34 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.elasticsearch.core.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Caches the partial results of the aggregations of a search request per segment, so that repeating the request after a refresh
+ * only collects the segments that were written since. The partial results of the segments are merged like the partial results of
+ * the slices of a concurrent search.
+ */
+public interface SegmentAggregationsCache {
+
+    /**
+     * Returns the cached partial results of the aggregations for the given segment, or {@code null} if they are not cached.
+     */
+    @Nullable
+    InternalAggregations get(LeafReaderContext leaf) throws IOException;
+
+    /**
+     * Caches the partial results of the aggregations for the given segment, whose matching documents were all collected.
+     */
+    void put(LeafReaderContext leaf, InternalAggregations aggregations) throws IOException;
+}
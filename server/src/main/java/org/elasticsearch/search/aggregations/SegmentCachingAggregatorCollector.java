@@ -0,0 +1,107 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.LeafCollector;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Collects the aggregations of each segment with its own aggregators so that their partial results can be cached in a
+ * {@link SegmentAggregationsCache}. Segments whose partial results are cached are not collected at all. The partial results of all
+ * segments are merged with a partial reduction once collection is done, like the partial results of the slices of a concurrent search.
+ * <p>
+ * Segments are collected one after the other by a collector, so the aggregators of a segment are built as soon as the next segment
+ * is started.
+ */
+final class SegmentCachingAggregatorCollector extends AggregatorCollector {
+
+    private final SearchContext context;
+    private final SegmentAggregationsCache cache;
+    private final Supplier<AggregationReduceContext> reduceContextSupplier;
+    private final List<InternalAggregations> partials = new ArrayList<>();
+    // aggregators for the next segment to collect, or for the segment being collected
+    private AggregatorCollector current;
+    private LeafReaderContext currentLeaf;
+
+    private SegmentCachingAggregatorCollector(
+        AggregatorCollector first,
+        SearchContext context,
+        SegmentAggregationsCache cache,
+        Supplier<AggregationReduceContext> reduceContextSupplier
+    ) {
+        super(first.aggregators, first.bucketCollector);
+        this.current = first;
+        this.context = context;
+        this.cache = cache;
+        this.reduceContextSupplier = reduceContextSupplier;
+    }
+
+    static SegmentCachingAggregatorCollector create(
+        SearchContext context,
+        SegmentAggregationsCache cache,
+        Supplier<AggregationReduceContext> reduceContextSupplier
+    ) {
+        final AggregatorCollector first = AggregationPhase.newAggregatorCollector(context);
+        return new SegmentCachingAggregatorCollector(first, context, cache, reduceContextSupplier);
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext leaf) throws IOException {
+        finishSegment(true);
+        final InternalAggregations cached = cache.get(leaf);
+        if (cached != null) {
+            partials.add(cached);
+            throw new CollectionTerminatedException();
+        }
+        if (current == null) {
+            current = AggregationPhase.newAggregatorCollector(context);
+        }
+        currentLeaf = leaf;
+        return current.getLeafCollector(leaf);
+    }
+
+    private void finishSegment(boolean cacheable) throws IOException {
+        if (currentLeaf == null) {
+            return;
+        }
+        current.doPostCollection();
+        final InternalAggregations partial = InternalAggregations.from(current.internalAggregations);
+        if (cacheable) {
+            cache.put(currentLeaf, partial);
+        }
+        partials.add(partial);
+        current = null;
+        currentLeaf = null;
+    }
+
+    @Override
+    public void doPostCollection() throws IOException {
+        // the last segment was only partially collected if the search timed out
+        finishSegment(context.searcher().timeExceeded() == false);
+        final InternalAggregations result;
+        if (partials.isEmpty()) {
+            // no segment matched, build empty aggregations
+            current.doPostCollection();
+            result = InternalAggregations.from(current.internalAggregations);
+        } else if (partials.size() == 1) {
+            result = partials.get(0);
+        } else {
+            result = InternalAggregations.topLevelReduce(partials, reduceContextSupplier.get());
+        }
+        internalAggregations.addAll(result.asList());
+    }
+}
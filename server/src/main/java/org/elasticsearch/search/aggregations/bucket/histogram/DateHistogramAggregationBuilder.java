@@ -168,6 +168,11 @@ public class DateHistogramAggregationBuilder extends ValuesSourceAggregationBuil
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     protected ValuesSourceType defaultValueSourceType() {
         return CoreValuesSourceType.DATE;
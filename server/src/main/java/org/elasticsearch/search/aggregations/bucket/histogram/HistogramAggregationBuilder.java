@@ -124,6 +124,11 @@ public class HistogramAggregationBuilder extends ValuesSourceAggregationBuilder<
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     protected AggregationBuilder shallowCopy(AggregatorFactories.Builder factoriesBuilder, Map<String, Object> metadata) {
         return new HistogramAggregationBuilder(this, factoriesBuilder, metadata);
@@ -139,6 +139,11 @@ public class TermsAggregationBuilder extends ValuesSourceAggregationBuilder<Term
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     public boolean supportsParallelCollection(ToLongFunction<String> fieldCardinalityResolver) {
         if (minDocCount() == 0) {
@@ -69,6 +69,11 @@ public class AvgAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     protected AggregationBuilder shallowCopy(AggregatorFactories.Builder factoriesBuilder, Map<String, Object> metadata) {
         return new AvgAggregationBuilder(this, factoriesBuilder, metadata);
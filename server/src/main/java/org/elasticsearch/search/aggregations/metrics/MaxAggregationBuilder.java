@@ -78,6 +78,11 @@ public class MaxAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     protected void innerWriteTo(StreamOutput out) {
         // Do nothing, no extra state to write to stream
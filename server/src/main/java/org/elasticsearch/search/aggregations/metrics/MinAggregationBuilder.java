@@ -83,6 +83,11 @@ public class MinAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     protected MinAggregatorFactory innerBuild(
         AggregationContext context,
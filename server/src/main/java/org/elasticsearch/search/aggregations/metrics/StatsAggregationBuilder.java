@@ -75,6 +75,11 @@ public class StatsAggregationBuilder extends ValuesSourceAggregationBuilder.Metr
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     @Override
     public Set<String> metricNames() {
         return InternalStats.METRIC_NAMES;
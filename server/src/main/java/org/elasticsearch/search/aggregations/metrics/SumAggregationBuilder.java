@@ -66,6 +66,11 @@ public class SumAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     /**
      * Read from a stream.
      */
@@ -75,6 +75,11 @@ public class ValueCountAggregationBuilder extends ValuesSourceAggregationBuilder
         return true;
     }
 
+    @Override
+    protected boolean hasSegmentCacheablePartials() {
+        return valuesSupportSegmentCaching();
+    }
+
     /**
      * Read from a stream.
      */
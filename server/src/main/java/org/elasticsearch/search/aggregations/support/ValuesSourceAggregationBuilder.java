@@ -313,6 +313,14 @@ public abstract class ValuesSourceAggregationBuilder<AB extends ValuesSourceAggr
         return script;
     }
 
+    /**
+     * Values computed by a script may depend on the scores of the documents, so aggregations on them can't cache their partial
+     * results per segment.
+     */
+    protected final boolean valuesSupportSegmentCaching() {
+        return script == null;
+    }
+
     /**
      * This setter should only be used during parsing, to set the userValueTypeHint.  This is information the user provides in the json
      * query to indicate the output type of a script or the type of the 'missing' replacement value.
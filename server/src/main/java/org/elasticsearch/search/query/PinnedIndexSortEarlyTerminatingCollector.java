@@ -0,0 +1,161 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.query;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedSetSortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.common.lucene.Lucene;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Wraps a top docs collector to stop collecting a segment once it collected {@code numHits} documents from it, when the query requires
+ * a single value for the leading fields of the index sort and the search sort is a prefix of the remaining index sort fields. The
+ * matching documents of such a segment are visited in the order of the search sort, but Lucene can only tell when the search sort
+ * itself is a prefix of the index sort. This is the case of logsdb indices, which are sorted by {@code host.name} and
+ * {@code @timestamp}, when searching the latest logs of a host.
+ * <p>
+ * Segments are only early terminated once the total hit count reached {@code totalHitsThreshold}, after which the total hit count
+ * is a lower bound.
+ */
+final class PinnedIndexSortEarlyTerminatingCollector implements Collector {
+    private final Collector in;
+    private final Sort sort;
+    private final Set<String> pinnedFields;
+    private final int numHits;
+    private final int totalHitsThreshold;
+    private int totalHits;
+    private boolean earlyTerminated;
+
+    PinnedIndexSortEarlyTerminatingCollector(Collector in, Sort sort, Set<String> pinnedFields, int numHits, int totalHitsThreshold) {
+        this.in = in;
+        this.sort = sort;
+        this.pinnedFields = pinnedFields;
+        this.numHits = numHits;
+        this.totalHitsThreshold = totalHitsThreshold;
+    }
+
+    /**
+     * Returns the fields that {@code query} requires to match a single term.
+     */
+    static Set<String> pinnedFields(Query query) {
+        final Set<String> fields = new HashSet<>();
+        query.visit(new QueryVisitor() {
+            @Override
+            public void consumeTerms(Query query, Term... terms) {
+                if (query instanceof TermQuery) {
+                    fields.add(terms[0].field());
+                }
+            }
+
+            @Override
+            public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+                if ((occur == BooleanClause.Occur.MUST || occur == BooleanClause.Occur.FILTER)
+                    && (parent instanceof BooleanQuery || parent instanceof ConstantScoreQuery || parent instanceof BoostQuery)) {
+                    return this;
+                }
+                return QueryVisitor.EMPTY_VISITOR;
+            }
+        });
+        return fields;
+    }
+
+    Collector getWrappedCollector() {
+        return in;
+    }
+
+    /**
+     * Whether collection of a segment was terminated before all of its matching documents were counted.
+     */
+    boolean isEarlyTerminated() {
+        return earlyTerminated;
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+        final LeafCollector leafCollector = in.getLeafCollector(context);
+        final boolean canEarlyTerminate = canEarlyTerminate(context.reader());
+        return new FilterLeafCollector(leafCollector) {
+            private int leafHits;
+
+            @Override
+            public void collect(int doc) throws IOException {
+                super.collect(doc);
+                totalHits++;
+                if (canEarlyTerminate && ++leafHits >= numHits && totalHits >= totalHitsThreshold) {
+                    earlyTerminated = true;
+                    throw new CollectionTerminatedException();
+                }
+            }
+        };
+    }
+
+    private boolean canEarlyTerminate(LeafReader reader) throws IOException {
+        final Sort indexSort = reader.getMetaData().sort();
+        if (indexSort == null) {
+            return false;
+        }
+        final SortField[] indexSortFields = indexSort.getSort();
+        int numPinned = 0;
+        while (numPinned < indexSortFields.length && isPinned(reader, indexSortFields[numPinned])) {
+            numPinned++;
+        }
+        if (numPinned == 0) {
+            // Lucene already early terminates when the search sort is a prefix of the index sort
+            return false;
+        }
+        if (numPinned == indexSortFields.length) {
+            return false;
+        }
+        return Lucene.canEarlyTerminate(sort, new Sort(Arrays.copyOfRange(indexSortFields, numPinned, indexSortFields.length)));
+    }
+
+    private boolean isPinned(LeafReader reader, SortField indexSortField) throws IOException {
+        if (pinnedFields.contains(indexSortField.getField()) == false) {
+            return false;
+        }
+        if (indexSortField instanceof SortedSetSortField) {
+            // a multi-valued document sorts by one of its values, which may not be the one that the query requires
+            return DocValues.unwrapSingleton(DocValues.getSortedSet(reader, indexSortField.getField())) != null;
+        }
+        return indexSortField.getType() == SortField.Type.STRING;
+    }
+
+    @Override
+    public void setWeight(Weight weight) {
+        in.setWeight(weight);
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return in.scoreMode();
+    }
+}
@@ -66,6 +66,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.elasticsearch.search.profile.query.CollectorResult.REASON_AGGREGATION;
 import static org.elasticsearch.search.profile.query.CollectorResult.REASON_SEARCH_QUERY_PHASE;
@@ -373,6 +374,9 @@ abstract class QueryPhaseCollectorManager implements CollectorManager<Collector,
         private final boolean trackMaxScore;
         private final TotalHits shortcutTotalHits;
         private final CollectorManager<? extends TopDocsCollector<?>, ? extends TopDocs> topDocsManager;
+        private final int numHits;
+        private final int hitCountThreshold;
+        private final Set<String> pinnedFields;
 
         WithHits(
             Weight postFilterWeight,
@@ -420,30 +424,62 @@ abstract class QueryPhaseCollectorManager implements CollectorManager<Collector,
             } else {
                 this.topDocsManager = new TopFieldCollectorManager(sortAndFormats.sort, numHits, (FieldDoc) searchAfter, hitCountThreshold);
             }
+            this.numHits = numHits;
+            this.hitCountThreshold = hitCountThreshold;
+            if (sortAndFormats != null && searchAfter == null && hitCountThreshold != Integer.MAX_VALUE) {
+                // segments can be early terminated if the query pins the leading fields of the index sort, e.g. the host.name of logsdb
+                this.pinnedFields = PinnedIndexSortEarlyTerminatingCollector.pinnedFields(query);
+            } else {
+                this.pinnedFields = Set.of();
+            }
         }
 
         @Override
         protected Collector newTopDocsCollector() throws IOException {
+            final Collector topDocsCollector;
             if (trackMaxScore) {
-                return MultiCollector.wrap(topDocsManager.newCollector(), new MaxScoreCollector());
+                topDocsCollector = MultiCollector.wrap(topDocsManager.newCollector(), new MaxScoreCollector());
+            } else {
+                topDocsCollector = topDocsManager.newCollector();
             }
-            return topDocsManager.newCollector();
+            if (pinnedFields.isEmpty()) {
+                return topDocsCollector;
+            }
+            return new PinnedIndexSortEarlyTerminatingCollector(
+                topDocsCollector,
+                sortAndFormats.sort,
+                pinnedFields,
+                numHits,
+                hitCountThreshold
+            );
         }
 
         @Override
         protected TopDocsAndMaxScore reduceTopDocsCollectors(Collection<Collector> collectors) throws IOException {
+            boolean earlyTerminated = false;
+            final Collection<Collector> unwrappedCollectors;
+            if (pinnedFields.isEmpty()) {
+                unwrappedCollectors = collectors;
+            } else {
+                unwrappedCollectors = new ArrayList<>();
+                for (Collector collector : collectors) {
+                    var earlyTerminatingCollector = (PinnedIndexSortEarlyTerminatingCollector) collector;
+                    earlyTerminated |= earlyTerminatingCollector.isEarlyTerminated();
+                    unwrappedCollectors.add(earlyTerminatingCollector.getWrappedCollector());
+                }
+            }
             final Collection<TopDocsCollector<?>> topDocsCollectors = new ArrayList<>();
             final Collection<MaxScoreCollector> maxScoreCollectors;
             if (trackMaxScore) {
                 maxScoreCollectors = new ArrayList<>();
-                for (Collector collector : collectors) {
+                for (Collector collector : unwrappedCollectors) {
                     MultiCollector mc = (MultiCollector) collector;
                     topDocsCollectors.add((TopDocsCollector<?>) mc.getCollectors()[0]);
                     maxScoreCollectors.add((MaxScoreCollector) mc.getCollectors()[1]);
                 }
             } else {
                 maxScoreCollectors = null;
-                for (Collector collector : collectors) {
+                for (Collector collector : unwrappedCollectors) {
                     topDocsCollectors.add((TopDocsCollector<?>) collector);
                 }
             }
@@ -459,6 +495,8 @@ abstract class QueryPhaseCollectorManager implements CollectorManager<Collector,
                 } else {
                     topDocs = new TopDocs(shortcutTotalHits, topDocs.scoreDocs);
                 }
+            } else if (earlyTerminated) {
+                topDocs.totalHits = new TotalHits(topDocs.totalHits.value(), TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
             }
             final float maxScore = getMaxScore(topDocs, sortAndFormats, trackMaxScore, maxScoreCollectors);
             return new TopDocsAndMaxScore(topDocs, maxScore);
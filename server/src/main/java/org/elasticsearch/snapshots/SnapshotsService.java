@@ -150,6 +150,8 @@ public final class SnapshotsService extends AbstractLifecycleComponent implement
 
     public static final IndexVersion FILE_INFO_WRITER_UUIDS_IN_SHARD_DATA_VERSION = IndexVersions.V_7_16_0;
 
+    public static final IndexVersion REPOSITORY_DATA_DELTAS_VERSION = IndexVersions.REPOSITORY_DATA_DELTAS;
+
     public static final IndexVersion OLD_SNAPSHOT_FORMAT = IndexVersions.V_7_5_0;
 
     public static final String POLICY_ID_METADATA_FIELD = "policy";
@@ -2388,6 +2390,17 @@ public final class SnapshotsService extends AbstractLifecycleComponent implement
         return repositoryMetaVersion.onOrAfter(UUIDS_IN_REPO_DATA_VERSION);
     }
 
+    /**
+     * Checks whether the root blob of the repository may hold the changes to the repository data of the previous generation instead of the
+     * full repository data, see {@link org.elasticsearch.repositories.RepositoryDataDelta}.
+     *
+     * @param repositoryMetaVersion version to check
+     * @return true if version supports reading root blobs that hold a delta
+     */
+    public static boolean supportsRepositoryDataDeltas(IndexVersion repositoryMetaVersion) {
+        return repositoryMetaVersion.onOrAfter(REPOSITORY_DATA_DELTAS_VERSION);
+    }
+
     public static boolean includeFileInfoWriterUUID(IndexVersion repositoryMetaVersion) {
         return repositoryMetaVersion.onOrAfter(FILE_INFO_WRITER_UUIDS_IN_SHARD_DATA_VERSION);
     }
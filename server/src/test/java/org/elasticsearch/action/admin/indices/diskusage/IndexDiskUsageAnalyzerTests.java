@@ -727,7 +727,7 @@ public class IndexDiskUsageAnalyzerTests extends ESTestCase {
                     case DVD, DVM -> stats.addDocValues(fieldLookup.getDocValuesField(file), bytes);
                     case TIM, TIP, TMD, DOC, POS, PAY -> stats.addInvertedIndex(fieldLookup.getPostingsField(file), bytes);
                     case KDI, KDD, KDM, DIM -> stats.addPoints("_all_points_fields", bytes);
-                    case FDT, FDX, FDM ->
+                    case FDT, FDX, FDM, FDD ->
                         // We don't have per field Codec for stored, vector, and norms field
                         stats.addStoredField("_all_stored_fields", bytes);
                     case TVX, TVD -> stats.addTermVectors("_all_vectors_fields", bytes);
@@ -70,7 +70,9 @@ public class BulkRequestParserTests extends ESTestCase {
         ArrayList<DocWriteRequest<?>> updateRequests = new ArrayList<>();
         ArrayList<DocWriteRequest<?>> deleteRequests = new ArrayList<>();
 
-        BulkRequestParser parser = new BulkRequestParser(randomBoolean(), true, RestApiVersion.current());
+        // the action lines and update bodies are parsed the same way with the JSON tape parser
+        final int jsonTapeParserMaxContentLength = randomBoolean() ? 0 : between(1, 1024);
+        BulkRequestParser parser = new BulkRequestParser(randomBoolean(), true, RestApiVersion.current(), jsonTapeParserMaxContentLength);
         BulkRequestParser.IncrementalParser incrementalParser = parser.incrementalParser(
             null,
             null,
@@ -109,6 +111,11 @@ public class BulkRequestParserTests extends ESTestCase {
         assertThat(indexRequests.size(), equalTo(3));
         assertThat(updateRequests.size(), equalTo(1));
         assertThat(deleteRequests.size(), equalTo(2));
+        assertThat(indexRequests.get(0).id(), equalTo("bar"));
+        assertThat(((IndexRequest) indexRequests.get(0)).getPipeline(), equalTo("foo"));
+        assertThat(updateRequests.get(0).id(), equalTo("bus"));
+        assertThat(updateRequests.get(0).isRequireAlias(), equalTo(true));
+        assertThat(deleteRequests.stream().map(DocWriteRequest::id).toList(), equalTo(List.of("baz", "bop")));
     }
 
     public void testIndexRequest() throws IOException {
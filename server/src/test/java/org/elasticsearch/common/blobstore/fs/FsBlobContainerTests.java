@@ -12,9 +12,15 @@ import org.apache.lucene.tests.mockfile.FilterFileSystemProvider;
 import org.apache.lucene.tests.mockfile.FilterSeekableByteChannel;
 import org.apache.lucene.tests.util.LuceneTestCase;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.SubscribableListener;
+import org.elasticsearch.common.blobstore.BlobContainer;
 import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.BlobRange;
+import org.elasticsearch.common.blobstore.OperationPurpose;
 import org.elasticsearch.common.blobstore.OptionalBytesReference;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.Streams;
@@ -40,11 +46,15 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -53,8 +63,10 @@ import static org.elasticsearch.repositories.blobstore.BlobStoreTestUtil.randomN
 import static org.elasticsearch.repositories.blobstore.BlobStoreTestUtil.randomPurpose;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.oneOf;
 import static org.hamcrest.Matchers.startsWith;
 
@@ -402,6 +414,136 @@ public class FsBlobContainerTests extends ESTestCase {
         assertEquals(contents, targetContents);
     }
 
+    public void testReadBlobRangesConcurrently() throws Exception {
+        final String blobName = randomAlphaOfLengthBetween(1, 20).toLowerCase(Locale.ROOT);
+        final byte[] blobData = randomByteArrayOfLength(randomIntBetween(1024, 1 << 16));
+        final Path path = PathUtils.get(createTempDir().toString());
+        Files.write(path.resolve(blobName), blobData);
+
+        final int maxConcurrency = randomIntBetween(2, 4);
+        final AtomicInteger runningReads = new AtomicInteger();
+        final AtomicInteger maxRunningReads = new AtomicInteger();
+        // simulates the latency of a remote object store, so that range reads overlap if they are issued concurrently
+        final BlobContainer container = new FilterBlobContainer(
+            new FsBlobContainer(new FsBlobStore(randomIntBetween(1, 8) * 1024, path, false), BlobPath.EMPTY, path)
+        ) {
+            @Override
+            public InputStream readBlob(OperationPurpose purpose, String name, long position, long length) throws IOException {
+                final int running = runningReads.incrementAndGet();
+                maxRunningReads.accumulateAndGet(running, Math::max);
+                try {
+                    safeSleep(randomLongBetween(10L, 50L));
+                    return super.readBlob(purpose, name, position, length);
+                } finally {
+                    runningReads.decrementAndGet();
+                }
+            }
+
+            @Override
+            protected BlobContainer wrapChild(BlobContainer child) {
+                return child;
+            }
+        };
+
+        final int numRanges = randomIntBetween(maxConcurrency * 2, maxConcurrency * 4);
+        final List<BlobRange> ranges = new ArrayList<>(numRanges);
+        final List<PlainActionFuture<BytesReference>> futures = new ArrayList<>(numRanges);
+        final List<ActionListener<InputStream>> listeners = new ArrayList<>(numRanges);
+        for (int i = 0; i < numRanges; i++) {
+            final long start = randomLongBetween(0L, blobData.length - 1);
+            ranges.add(new BlobRange(start, randomLongBetween(1L, blobData.length - start)));
+            final PlainActionFuture<BytesReference> future = new PlainActionFuture<>();
+            futures.add(future);
+            listeners.add(future.map(stream -> {
+                try (stream) {
+                    return Streams.readFully(stream);
+                }
+            }));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency * 2);
+        try {
+            container.readBlobRanges(randomPurpose(), blobName, ranges, executor, maxConcurrency, listeners);
+            for (int i = 0; i < numRanges; i++) {
+                final BlobRange range = ranges.get(i);
+                assertThat(
+                    safeGet(futures.get(i)),
+                    equalTo(new BytesArray(blobData, Math.toIntExact(range.position()), Math.toIntExact(range.length())))
+                );
+            }
+        } finally {
+            terminate(executor);
+        }
+        assertThat(maxRunningReads.get(), greaterThan(1));
+        assertThat(maxRunningReads.get(), lessThanOrEqualTo(maxConcurrency));
+    }
+
+    public void testReadBlobRangesHoldsConcurrencyUntilStreamsAreClosed() throws Exception {
+        final String blobName = randomAlphaOfLengthBetween(1, 20).toLowerCase(Locale.ROOT);
+        final byte[] blobData = randomByteArrayOfLength(randomIntBetween(1024, 1 << 16));
+        final Path path = PathUtils.get(createTempDir().toString());
+        Files.write(path.resolve(blobName), blobData);
+
+        final int maxConcurrency = randomIntBetween(1, 4);
+        final AtomicInteger openStreams = new AtomicInteger();
+        final AtomicInteger maxOpenStreams = new AtomicInteger();
+        final BlobContainer container = new FilterBlobContainer(
+            new FsBlobContainer(new FsBlobStore(randomIntBetween(1, 8) * 1024, path, false), BlobPath.EMPTY, path)
+        ) {
+            @Override
+            public InputStream readBlob(OperationPurpose purpose, String name, long position, long length) throws IOException {
+                maxOpenStreams.accumulateAndGet(openStreams.incrementAndGet(), Math::max);
+                return new FilterInputStream(super.readBlob(purpose, name, position, length)) {
+                    @Override
+                    public void close() throws IOException {
+                        openStreams.decrementAndGet();
+                        super.close();
+                    }
+                };
+            }
+
+            @Override
+            protected BlobContainer wrapChild(BlobContainer child) {
+                return child;
+            }
+        };
+
+        final int numRanges = randomIntBetween(maxConcurrency * 2, maxConcurrency * 4);
+        final List<BlobRange> ranges = new ArrayList<>(numRanges);
+        final List<PlainActionFuture<BytesReference>> futures = new ArrayList<>(numRanges);
+        final List<ActionListener<InputStream>> listeners = new ArrayList<>(numRanges);
+        final ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency * 2);
+        final ExecutorService consumer = Executors.newFixedThreadPool(numRanges);
+        try {
+            for (int i = 0; i < numRanges; i++) {
+                final long start = randomLongBetween(0L, blobData.length - 1);
+                ranges.add(new BlobRange(start, randomLongBetween(1L, blobData.length - start)));
+                final PlainActionFuture<BytesReference> future = new PlainActionFuture<>();
+                futures.add(future);
+                // consumes the stream on another thread, after the listener returned
+                listeners.add(ActionListener.wrap(stream -> consumer.execute(ActionRunnable.supply(future, () -> {
+                    try (stream) {
+                        safeSleep(randomLongBetween(1L, 10L));
+                        return Streams.readFully(stream);
+                    }
+                })), future::onFailure));
+            }
+
+            container.readBlobRanges(randomPurpose(), blobName, ranges, executor, maxConcurrency, listeners);
+            for (int i = 0; i < numRanges; i++) {
+                final BlobRange range = ranges.get(i);
+                assertThat(
+                    safeGet(futures.get(i)),
+                    equalTo(new BytesArray(blobData, Math.toIntExact(range.position()), Math.toIntExact(range.length())))
+                );
+            }
+        } finally {
+            terminate(executor, consumer);
+        }
+        assertThat(openStreams.get(), equalTo(0));
+        assertThat(maxOpenStreams.get(), lessThanOrEqualTo(maxConcurrency));
+    }
+
     static class MockFileSystemProvider extends FilterFileSystemProvider {
 
         final Consumer<Long> onRead;
@@ -33,6 +33,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 public class IteratorsTests extends ESTestCase {
     public void testConcatentation() {
@@ -267,6 +268,25 @@ public class IteratorsTests extends ESTestCase {
         assertThat(Iterators.toList(result), is(empty()));
     }
 
+    public void testBatches() {
+        var result = Iterators.batches(Collections.emptyIterator(), 10);
+        assertThat(result.hasNext(), is(false));
+
+        var values = List.of(1, 2, 3, 4, 5);
+        assertThat(Iterators.toList(Iterators.batches(values.iterator(), 2)), contains(List.of(1, 2), List.of(3, 4), List.of(5)));
+        assertThat(Iterators.toList(Iterators.batches(values.iterator(), 5)), contains(List.of(1, 2, 3, 4, 5)));
+        assertThat(Iterators.toList(Iterators.batches(values.iterator(), 10)), contains(List.of(1, 2, 3, 4, 5)));
+
+        final var array = randomIntegerArray();
+        final int batchSize = between(1, 10);
+        final var index = new AtomicInteger();
+        Iterators.batches(Iterators.forArray(array), batchSize).forEachRemaining(batch -> {
+            assertThat(batch.size(), lessThanOrEqualTo(batchSize));
+            batch.forEach(i -> assertEquals(array[index.getAndIncrement()], i));
+        });
+        assertEquals(array.length, index.get());
+    }
+
     public void testFailFast() {
         final var array = randomIntegerArray();
         assertEmptyIterator(Iterators.failFast(Iterators.forArray(array), () -> true));
@@ -20,17 +20,31 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LogByteSizeMergePolicy;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentReader;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.store.IOContext;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.cluster.metadata.DataStream;
 import org.elasticsearch.index.codec.Elasticsearch900Lucene101Codec;
 import org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormatTests;
+import org.elasticsearch.index.codec.tsdb.NumericDocValuesSummarizer;
+import org.elasticsearch.index.mapper.BlockLoader;
+import org.elasticsearch.index.mapper.TestBlock;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 public class ES819TSDBDocValuesFormatTests extends ES87TSDBDocValuesFormatTests {
 
@@ -478,6 +492,286 @@ public class ES819TSDBDocValuesFormatTests extends ES87TSDBDocValuesFormatTests
         }
     }
 
+    public void testInterleavedReadersShareDecodedBlocks() throws Exception {
+        String timestampField = "@timestamp";
+        String hostnameField = "host.name";
+        long baseTimestamp = 1704067200000L;
+        int numDocs = randomIntBetween(1_000, 5_000);
+
+        var config = getTimeSeriesIndexWriterConfig(hostnameField, timestampField);
+        try (var dir = newDirectory(); var iw = new IndexWriter(dir, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                var d = new Document();
+                d.add(new SortedDocValuesField(hostnameField, new BytesRef("host-001")));
+                d.add(new SortedNumericDocValuesField(timestampField, baseTimestamp + i));
+                d.add(new NumericDocValuesField("counter", i));
+                if (i % 3 != 0) {
+                    d.add(new NumericDocValuesField("sparse_counter", i));
+                }
+                iw.addDocument(d);
+            }
+            iw.forceMerge(1);
+
+            try (var reader = DirectoryReader.open(iw)) {
+                assertEquals(1, reader.leaves().size());
+                var leaf = reader.leaves().get(0).reader();
+                // timestamps are sorted in descending order
+                NumericDocValues[] timestamps = {
+                    DocValues.unwrapSingleton(leaf.getSortedNumericDocValues(timestampField)),
+                    DocValues.unwrapSingleton(leaf.getSortedNumericDocValues(timestampField)) };
+                NumericDocValues[] counters = { leaf.getNumericDocValues("counter"), leaf.getNumericDocValues("counter") };
+                NumericDocValues[] sparseCounters = {
+                    leaf.getNumericDocValues("sparse_counter"),
+                    leaf.getNumericDocValues("sparse_counter") };
+                int docId = 0;
+                while (docId < numDocs) {
+                    for (int r = 0; r < 2; r++) {
+                        assertTrue(timestamps[r].advanceExact(docId));
+                        long timestamp = timestamps[r].longValue();
+                        long expected = timestamp - baseTimestamp;
+                        assertEquals(numDocs - 1 - docId, expected);
+                        assertTrue(counters[r].advanceExact(docId));
+                        assertEquals(expected, counters[r].longValue());
+                        assertEquals(expected % 3 != 0, sparseCounters[r].advanceExact(docId));
+                        if (expected % 3 != 0) {
+                            assertEquals(expected, sparseCounters[r].longValue());
+                        }
+                    }
+                    docId += randomIntBetween(1, 300);
+                }
+            }
+        }
+    }
+
+    public void testBulkReadDenseValues() throws Exception {
+        String timestampField = "@timestamp";
+        String hostnameField = "host.name";
+        long baseTimestamp = 1704067200000L;
+        int numDocs = randomIntBetween(1_000, 5_000);
+
+        var config = getTimeSeriesIndexWriterConfig(hostnameField, timestampField);
+        try (var dir = newDirectory(); var iw = new IndexWriter(dir, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                var d = new Document();
+                d.add(new SortedDocValuesField(hostnameField, new BytesRef(String.format(Locale.ROOT, "host-%03d", i % 7))));
+                d.add(new SortedNumericDocValuesField(timestampField, baseTimestamp + i));
+                d.add(new NumericDocValuesField("counter", i));
+                iw.addDocument(d);
+            }
+            iw.forceMerge(1);
+
+            try (var reader = DirectoryReader.open(iw)) {
+                assertEquals(1, reader.leaves().size());
+                var leaf = reader.leaves().get(0).reader();
+                int[] docs = IntStream.range(0, numDocs).filter(doc -> randomBoolean() || doc % 100 < 50).toArray();
+
+                var counters = leaf.getNumericDocValues("counter");
+                var bulkCounters = (BlockLoader.OptionalColumnAtATimeReader) leaf.getNumericDocValues("counter");
+                try (var block = (TestBlock) bulkCounters.tryRead(TestBlock.factory(docs.length), TestBlock.docs(docs))) {
+                    assertNotNull(block);
+                    assertEquals(docs.length, block.size());
+                    for (int i = 0; i < docs.length; i++) {
+                        assertTrue(counters.advanceExact(docs[i]));
+                        assertEquals(counters.longValue(), block.get(i));
+                    }
+                }
+                // docs have to be read in ascending order
+                assertNull(bulkCounters.tryRead(TestBlock.factory(1), TestBlock.docs(0)));
+
+                var hostnames = leaf.getSortedDocValues(hostnameField);
+                var bulkHostnames = (BlockLoader.OptionalColumnAtATimeReader) leaf.getSortedDocValues(hostnameField);
+                try (var block = (TestBlock) bulkHostnames.tryRead(TestBlock.factory(docs.length), TestBlock.docs(docs))) {
+                    assertNotNull(block);
+                    assertEquals(docs.length, block.size());
+                    for (int i = 0; i < docs.length; i++) {
+                        assertTrue(hostnames.advanceExact(docs[i]));
+                        assertEquals(hostnames.lookupOrd(hostnames.ordValue()), block.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testReadersOfTheSameThreadShareDecodedBlocks() throws Exception {
+        String timestampField = "@timestamp";
+        String hostnameField = "host.name";
+        int numDocs = randomIntBetween(1_000, 5_000);
+
+        var config = getTimeSeriesIndexWriterConfig(hostnameField, timestampField);
+        config.setUseCompoundFile(false);
+        config.getMergePolicy().setNoCFSRatio(0.0);
+        try (var dir = newDirectory(); var iw = new IndexWriter(dir, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                var d = new Document();
+                d.add(new SortedDocValuesField(hostnameField, new BytesRef("host-001")));
+                d.add(new SortedNumericDocValuesField(timestampField, 1704067200000L + i));
+                d.add(new NumericDocValuesField("counter", randomLong()));
+                iw.addDocument(d);
+            }
+            iw.forceMerge(1);
+
+            try (var reader = DirectoryReader.open(iw)) {
+                var leaf = (SegmentReader) getOnlyLeafReader(reader);
+                var fieldInfo = leaf.getFieldInfos().fieldInfo("counter");
+                var segmentSuffix = fieldInfo.getAttribute("PerFieldDocValuesFormat.format")
+                    + "_"
+                    + fieldInfo.getAttribute("PerFieldDocValuesFormat.suffix");
+                var state = new SegmentReadState(dir, leaf.getSegmentInfo().info, leaf.getFieldInfos(), IOContext.DEFAULT, segmentSuffix);
+                long usedBytesBefore = DecodedBlockCache.usedBytes();
+                var producer = (ES819TSDBDocValuesProducer) new ES819TSDBDocValuesFormat().fieldsProducer(state);
+                try {
+                    // a lone reader doesn't go through the cache
+                    NumericDocValues alone = producer.getNumeric(fieldInfo);
+                    long[] values = new long[numDocs];
+                    for (int doc = 0; doc < numDocs; doc++) {
+                        assertTrue(alone.advanceExact(doc));
+                        values[doc] = alone.longValue();
+                    }
+                    assertEquals(0, producer.decodedBlockCache().hits());
+                    assertEquals(usedBytesBefore, DecodedBlockCache.usedBytes());
+
+                    NumericDocValues first = producer.getNumeric(fieldInfo);
+                    NumericDocValues second = producer.getNumeric(fieldInfo);
+                    for (int doc = 0; doc < numDocs; doc++) {
+                        assertTrue(first.advanceExact(doc));
+                        assertTrue(second.advanceExact(doc));
+                        assertEquals(values[doc], first.longValue());
+                        assertEquals(values[doc], second.longValue());
+                    }
+                    // every block is decoded by the first reader and copied from the cache by the second one
+                    int blockSize = ES819TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE;
+                    long numBlocks = (numDocs + blockSize - 1) / blockSize;
+                    assertEquals(numBlocks, producer.decodedBlockCache().hits());
+                    long usedBytes = DecodedBlockCache.usedBytes() - usedBytesBefore;
+                    assertThat(usedBytes, greaterThan(0L));
+                    assertThat(usedBytes, lessThanOrEqualTo(DecodedBlockCache.NUM_SLOTS * DecodedBlockCache.BLOCK_BYTES));
+
+                    // merge instances decode their own blocks
+                    NumericDocValues merging = producer.getMergeInstance().getNumeric(fieldInfo);
+                    for (int doc = 0; doc < numDocs; doc++) {
+                        assertTrue(merging.advanceExact(doc));
+                        assertEquals(values[doc], merging.longValue());
+                    }
+                    assertEquals(numBlocks, producer.decodedBlockCache().hits());
+                } finally {
+                    producer.close();
+                }
+                // closing the producer gives the memory of its caches back
+                assertEquals(usedBytesBefore, DecodedBlockCache.usedBytes());
+            }
+        }
+    }
+
+    public void testSummarizeNumericValues() throws Exception {
+        String timestampField = "@timestamp";
+        String hostnameField = "host.name";
+        long baseTimestamp = 1704067200000L;
+        int numDocs = randomIntBetween(1_000, 10_000);
+
+        var config = getTimeSeriesIndexWriterConfig(hostnameField, timestampField);
+        try (var dir = newDirectory(); var iw = new IndexWriter(dir, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                var d = new Document();
+                d.add(new SortedDocValuesField(hostnameField, new BytesRef(String.format(Locale.ROOT, "host-%03d", i % 7))));
+                d.add(new SortedNumericDocValuesField(timestampField, baseTimestamp + i));
+                d.add(new SortedNumericDocValuesField("gauge", randomLongBetween(-1_000_000, 1_000_000)));
+                iw.addDocument(d);
+            }
+            iw.forceMerge(1);
+
+            try (var reader = DirectoryReader.open(iw)) {
+                assertEquals(1, reader.leaves().size());
+                assertSummaries(reader.leaves().get(0).reader(), "gauge");
+            }
+        }
+    }
+
+    public void testSegmentsWithoutSummaries() throws Exception {
+        String timestampField = "@timestamp";
+        String hostnameField = "host.name";
+        long baseTimestamp = 1704067200000L;
+        int numRounds = randomIntBetween(2, 4);
+        int numDocsPerRound = randomIntBetween(500, 2_000);
+
+        var previousVersionCodec = new Elasticsearch900Lucene101Codec() {
+
+            final ES819TSDBDocValuesFormat docValuesFormat = new ES819TSDBDocValuesFormat(
+                4096,
+                randomBoolean(),
+                ES819TSDBDocValuesFormat.VERSION_START
+            );
+
+            @Override
+            public DocValuesFormat getDocValuesFormatForField(String field) {
+                return docValuesFormat;
+            }
+        };
+        try (var dir = newDirectory()) {
+            var config = getTimeSeriesIndexWriterConfig(hostnameField, timestampField);
+            config.setCodec(previousVersionCodec);
+            config.setMergePolicy(NoMergePolicy.INSTANCE);
+            try (var iw = new IndexWriter(dir, config)) {
+                for (int i = 0; i < numRounds; i++) {
+                    for (int j = 0; j < numDocsPerRound; j++) {
+                        var d = new Document();
+                        d.add(new SortedDocValuesField(hostnameField, new BytesRef(String.format(Locale.ROOT, "host-%03d", j % 7))));
+                        d.add(new SortedNumericDocValuesField(timestampField, baseTimestamp + (long) i * numDocsPerRound + j));
+                        d.add(new SortedNumericDocValuesField("gauge", randomLongBetween(-1_000_000, 1_000_000)));
+                        iw.addDocument(d);
+                    }
+                    iw.commit();
+                }
+            }
+
+            // segments of the previous version are read as before, but have no summaries
+            try (var reader = DirectoryReader.open(dir)) {
+                assertEquals(numRounds, reader.leaves().size());
+                for (var leafContext : reader.leaves()) {
+                    var leaf = leafContext.reader();
+                    var values = leaf.getSortedNumericDocValues("gauge");
+                    for (int doc = 0; doc < leaf.maxDoc(); doc++) {
+                        assertTrue(values.advanceExact(doc));
+                        long value = values.nextValue();
+                        assertTrue("unexpected gauge [" + value + "]", value >= -1_000_000 && value <= 1_000_000);
+                    }
+                    var summarizer = (NumericDocValuesSummarizer) DocValues.unwrapSingleton(leaf.getSortedNumericDocValues("gauge"));
+                    assertNull(summarizer.summarize(0, leaf.maxDoc()));
+                }
+            }
+
+            // merging them with the current version writes summaries
+            try (var iw = new IndexWriter(dir, getTimeSeriesIndexWriterConfig(hostnameField, timestampField))) {
+                iw.forceMerge(1);
+                try (var reader = DirectoryReader.open(iw)) {
+                    assertEquals(1, reader.leaves().size());
+                    assertSummaries(reader.leaves().get(0).reader(), "gauge");
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that the summaries of random ranges of documents match the values of the documents in these ranges.
+     */
+    private static void assertSummaries(LeafReader leaf, String field) throws IOException {
+        int numDocs = leaf.maxDoc();
+        var summarizer = (NumericDocValuesSummarizer) DocValues.unwrapSingleton(leaf.getSortedNumericDocValues(field));
+        for (int iter = 0; iter < 100; iter++) {
+            int fromDoc = randomIntBetween(0, numDocs);
+            int toDoc = randomIntBetween(fromDoc, numDocs);
+            var values = leaf.getSortedNumericDocValues(field);
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int doc = fromDoc; doc < toDoc; doc++) {
+                assertTrue(values.advanceExact(doc));
+                long value = values.nextValue();
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            assertEquals(new NumericDocValuesSummarizer.Summary(toDoc - fromDoc, min, max), summarizer.summarize(fromDoc, toDoc));
+        }
+    }
+
     private IndexWriterConfig getTimeSeriesIndexWriterConfig(String hostnameField, String timestampField) {
         var config = new IndexWriterConfig();
         config.setIndexSort(
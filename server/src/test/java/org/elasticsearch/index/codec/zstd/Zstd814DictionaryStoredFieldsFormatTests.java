@@ -0,0 +1,177 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.zstd;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.StoredFieldsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.BaseStoredFieldsFormatTestCase;
+import org.apache.lucene.tests.util.TestUtil;
+import org.elasticsearch.index.codec.Elasticsearch900Lucene101Codec;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class Zstd814DictionaryStoredFieldsFormatTests extends BaseStoredFieldsFormatTestCase {
+
+    private final Codec codec = new Elasticsearch900Lucene101Codec(Zstd814StoredFieldsFormat.Mode.BEST_COMPRESSION) {
+        private final StoredFieldsFormat format = new Zstd814StoredFieldsFormat(Zstd814StoredFieldsFormat.Mode.BEST_COMPRESSION, true);
+
+        @Override
+        public StoredFieldsFormat storedFieldsFormat() {
+            return format;
+        }
+    };
+
+    @Override
+    protected Codec getCodec() {
+        return codec;
+    }
+
+    public void testReadBackWithDictionary() throws IOException {
+        final int numDocs = 20_000;
+        try (Directory dir = newDirectory()) {
+            final IndexWriterConfig config = new IndexWriterConfig().setCodec(codec).setMaxBufferedDocs(numDocs);
+            try (IndexWriter writer = new IndexWriter(dir, config)) {
+                for (int i = 0; i < numDocs; i++) {
+                    writer.addDocument(logLine(i));
+                    if (i == numDocs / 2) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                    assertEquals(2, reader.leaves().size());
+                    assertDictionaries(reader);
+                    assertDocuments(reader);
+                }
+
+                // merging decompresses with the dictionaries of the source segments and trains a new one for the merged segment
+                writer.forceMerge(1);
+                try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                    assertEquals(1, reader.leaves().size());
+                    assertDictionaries(reader);
+                    assertDocuments(reader);
+                }
+            }
+        }
+    }
+
+    public void testSmallSegmentWithoutDictionary() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig().setCodec(codec))) {
+                for (int i = 0; i < 10; i++) {
+                    writer.addDocument(logLine(i));
+                }
+                writer.commit();
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                final SegmentInfo info = ((SegmentReader) reader.leaves().get(0).reader()).getSegmentInfo().info;
+                assertEquals("false", info.getAttribute(Zstd814StoredFieldsFormat.DICTIONARY_KEY));
+                assertFalse(Arrays.stream(dir.listAll()).anyMatch(Zstd814DictionaryStoredFieldsFormatTests::isDictionaryFile));
+                assertDocuments(reader);
+            }
+        }
+    }
+
+    public void testSegmentsWithoutDictionaryAttribute() throws IOException {
+        // segments written before dictionaries were supported must still be readable by a format that writes dictionaries
+        final Codec previousCodec = new Elasticsearch900Lucene101Codec(Zstd814StoredFieldsFormat.Mode.BEST_COMPRESSION) {
+            private final StoredFieldsFormat format = new Zstd814StoredFieldsFormat(Zstd814StoredFieldsFormat.Mode.BEST_COMPRESSION, false);
+
+            @Override
+            public StoredFieldsFormat storedFieldsFormat() {
+                return format;
+            }
+        };
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig().setCodec(previousCodec))) {
+                for (int i = 0; i < 10_000; i++) {
+                    writer.addDocument(logLine(i));
+                    if (i == 5_000) {
+                        writer.commit();
+                    }
+                }
+            }
+            try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig().setCodec(codec))) {
+                try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                    assertEquals(2, reader.leaves().size());
+                    for (LeafReaderContext leaf : reader.leaves()) {
+                        final SegmentInfo info = ((SegmentReader) leaf.reader()).getSegmentInfo().info;
+                        assertNull(info.getAttribute(Zstd814StoredFieldsFormat.DICTIONARY_KEY));
+                    }
+                    assertDocuments(reader);
+                }
+                writer.forceMerge(1);
+                try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                    assertDictionaries(reader);
+                    assertDocuments(reader);
+                }
+            }
+        }
+    }
+
+    private static void assertDictionaries(DirectoryReader reader) throws IOException {
+        for (LeafReaderContext leaf : reader.leaves()) {
+            final SegmentInfo info = ((SegmentReader) leaf.reader()).getSegmentInfo().info;
+            assertEquals("true", info.getAttribute(Zstd814StoredFieldsFormat.DICTIONARY_KEY));
+            assertTrue(info.files().stream().anyMatch(Zstd814DictionaryStoredFieldsFormatTests::isDictionaryFile));
+        }
+    }
+
+    private static boolean isDictionaryFile(String file) {
+        return file.endsWith("." + Zstd814StoredFieldsFormat.DICTIONARY_EXTENSION);
+    }
+
+    private static void assertDocuments(DirectoryReader reader) throws IOException {
+        for (LeafReaderContext leaf : reader.leaves()) {
+            final StoredFields storedFields = leaf.reader().storedFields();
+            // random access decompresses the same blocks several times, which reuses the digested dictionary of the segment
+            for (int i = 0; i < 1_000; i++) {
+                final int docId = randomIntBetween(0, leaf.reader().maxDoc() - 1);
+                final Document document = storedFields.document(docId);
+                final int id = document.getField("id").numericValue().intValue();
+                assertEquals(logLine(id).get("message"), document.get("message"));
+            }
+        }
+        TestUtil.checkReader(reader);
+    }
+
+    private static Document logLine(int id) {
+        final Document document = new Document();
+        document.add(new StoredField("id", id));
+        document.add(
+            new StoredField(
+                "message",
+                "2024-05-"
+                    + (10 + id % 20)
+                    + "T10:"
+                    + (10 + id % 50)
+                    + ":00.000Z INFO [node-"
+                    + (id % 7)
+                    + "] org.elasticsearch.cluster.service.MasterService: took ["
+                    + (id % 100)
+                    + "ms] to compute cluster state update for [put-mapping [logs-"
+                    + (id % 13)
+                    + "]]"
+            )
+        );
+        return document;
+    }
+}
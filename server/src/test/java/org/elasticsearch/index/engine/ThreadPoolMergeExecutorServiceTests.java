@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -482,6 +483,93 @@ public class ThreadPoolMergeExecutorServiceTests extends ESTestCase {
         }
     }
 
+    public void testIntraMergeTasksRunOnIdleMergeThreads() throws Exception {
+        int mergeExecutorThreadCount = randomIntBetween(2, 5);
+        Settings settings = Settings.builder()
+            .put(ThreadPoolMergeScheduler.USE_THREAD_POOL_MERGE_SCHEDULER_SETTING.getKey(), true)
+            .put(EsExecutors.NODE_PROCESSORS_SETTING.getKey(), mergeExecutorThreadCount)
+            .build();
+        try (TestThreadPool testThreadPool = new TestThreadPool("test", settings)) {
+            ThreadPoolMergeExecutorService threadPoolMergeExecutorService = getThreadPoolMergeExecutorService(testThreadPool);
+            AtomicLong intraMergeTasksTimeNanos = new AtomicLong();
+            AtomicInteger forkedIntraMergeTasks = new AtomicInteger();
+            Executor intraMergeExecutor = threadPoolMergeExecutorService.newIntraMergeExecutor(tookNanos -> {
+                forkedIntraMergeTasks.incrementAndGet();
+                intraMergeTasksTimeNanos.addAndGet(tookNanos);
+            });
+            int intraMergeTasksCount = mergeExecutorThreadCount + randomIntBetween(1, 5);
+            Semaphore runIntraMergeTaskSemaphore = new Semaphore(0);
+            CountDownLatch intraMergeTasksDone = new CountDownLatch(intraMergeTasksCount);
+            Set<Thread> callerThreadRuns = ConcurrentCollections.newConcurrentSet();
+            Thread callerThread = Thread.currentThread();
+            // tasks that can't be forked run on the caller thread, so only block the forked ones
+            for (int i = 0; i < intraMergeTasksCount; i++) {
+                intraMergeExecutor.execute(() -> {
+                    try {
+                        if (Thread.currentThread() == callerThread) {
+                            callerThreadRuns.add(callerThread);
+                        } else {
+                            runIntraMergeTaskSemaphore.acquire();
+                        }
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    } finally {
+                        intraMergeTasksDone.countDown();
+                    }
+                });
+            }
+            // one merge thread is always left to the merging thread itself
+            assertThat(threadPoolMergeExecutorService.getRunningIntraMergeTasksCount(), lessThan(mergeExecutorThreadCount));
+            assertThat(threadPoolMergeExecutorService.getRunningIntraMergeTasksCount(), greaterThan(0));
+            assertThat(callerThreadRuns, equalTo(Set.of(callerThread)));
+            runIntraMergeTaskSemaphore.release(intraMergeTasksCount);
+            assertTrue(intraMergeTasksDone.await(10, TimeUnit.SECONDS));
+            assertBusy(() -> assertThat(threadPoolMergeExecutorService.getRunningIntraMergeTasksCount(), is(0)));
+            assertThat(forkedIntraMergeTasks.get(), lessThan(intraMergeTasksCount));
+            assertThat(intraMergeTasksTimeNanos.get(), greaterThan(0L));
+        }
+    }
+
+    public void testIntraMergeTasksRunOnCallerThreadWhenMergeThreadsAreBusy() throws Exception {
+        int mergeExecutorThreadCount = randomIntBetween(1, 5);
+        Settings settings = Settings.builder()
+            .put(ThreadPoolMergeScheduler.USE_THREAD_POOL_MERGE_SCHEDULER_SETTING.getKey(), true)
+            .put(EsExecutors.NODE_PROCESSORS_SETTING.getKey(), mergeExecutorThreadCount)
+            .build();
+        try (TestThreadPool testThreadPool = new TestThreadPool("test", settings)) {
+            ThreadPoolMergeExecutorService threadPoolMergeExecutorService = getThreadPoolMergeExecutorService(testThreadPool);
+            Semaphore runMergeSemaphore = new Semaphore(0);
+            // occupy all merge threads with merge tasks
+            for (int i = 0; i < mergeExecutorThreadCount; i++) {
+                MergeTask mergeTask = mock(MergeTask.class);
+                when(mergeTask.supportsIOThrottling()).thenReturn(randomBoolean());
+                when(mergeTask.schedule()).thenReturn(RUN);
+                doAnswer(mock -> {
+                    runMergeSemaphore.acquire();
+                    return null;
+                }).when(mergeTask).run();
+                threadPoolMergeExecutorService.submitMergeTask(mergeTask);
+            }
+            assertBusy(() -> assertThat(threadPoolMergeExecutorService.getRunningMergeTasks().size(), is(mergeExecutorThreadCount)));
+            Executor intraMergeExecutor = threadPoolMergeExecutorService.newIntraMergeExecutor(
+                tookNanos -> fail("intra-merge tasks must not be forked while all merge threads are busy")
+            );
+            Thread callerThread = Thread.currentThread();
+            AtomicInteger intraMergeTasksRun = new AtomicInteger();
+            int intraMergeTasksCount = randomIntBetween(1, 10);
+            for (int i = 0; i < intraMergeTasksCount; i++) {
+                intraMergeExecutor.execute(() -> {
+                    assertThat(Thread.currentThread(), is(callerThread));
+                    intraMergeTasksRun.incrementAndGet();
+                });
+            }
+            assertThat(intraMergeTasksRun.get(), is(intraMergeTasksCount));
+            assertThat(threadPoolMergeExecutorService.getRunningIntraMergeTasksCount(), is(0));
+            runMergeSemaphore.release(mergeExecutorThreadCount);
+            assertBusy(() -> assertTrue(threadPoolMergeExecutorService.allDone()));
+        }
+    }
+
     public void testThreadPoolStatsWithBackloggedMergeTasks() throws Exception {
         int mergeExecutorThreadCount = randomIntBetween(1, 3);
         Settings settings = Settings.builder()
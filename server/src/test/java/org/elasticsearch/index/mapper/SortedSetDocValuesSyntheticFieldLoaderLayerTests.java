@@ -0,0 +1,119 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.mapper;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.json.JsonXContent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class SortedSetDocValuesSyntheticFieldLoaderLayerTests extends ESTestCase {
+
+    public void testMultiValuedAndSparse() throws IOException {
+        final int numDocs = between(2, 200);
+        final List<SortedSet<String>> values = new ArrayList<>(numDocs);
+        for (int d = 0; d < numDocs; d++) {
+            final SortedSet<String> docValues = new TreeSet<>();
+            // the first doc has more than one value so the field is never a singleton
+            final int count = d == 0 ? 2 : between(0, 5);
+            while (docValues.size() < count) {
+                docValues.add("v" + between(0, 50));
+            }
+            values.add(docValues);
+        }
+        assertLoadsValues(values, randomBoolean());
+    }
+
+    public void testTooManyOrdsToPreload() throws IOException {
+        final int perDoc = SortedSetDocValuesSyntheticFieldLoaderLayer.MAX_PRELOADED_ORDS / 2 + 1;
+        final List<SortedSet<String>> values = new ArrayList<>();
+        for (int d = 0; d < 3; d++) {
+            final SortedSet<String> docValues = new TreeSet<>();
+            for (int i = 0; i < perDoc; i++) {
+                docValues.add(d + "-" + i);
+            }
+            values.add(docValues);
+            values.add(new TreeSet<>());
+        }
+        assertLoadsValues(values, true);
+    }
+
+    private void assertLoadsValues(List<SortedSet<String>> values, boolean allDocs) throws IOException {
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter iw = new IndexWriter(directory, newIndexWriterConfig())) {
+                for (SortedSet<String> docValues : values) {
+                    final Document doc = new Document();
+                    for (String value : docValues) {
+                        doc.add(new SortedSetDocValuesField("field", new BytesRef(value)));
+                    }
+                    iw.addDocument(doc);
+                }
+                iw.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                final LeafReader leafReader = getOnlyLeafReader(reader);
+                final List<Integer> docs = new ArrayList<>();
+                for (int d = 0; d < values.size(); d++) {
+                    if (allDocs || d == 0 || randomBoolean()) {
+                        docs.add(d);
+                    }
+                }
+                if (docs.size() == 1) {
+                    docs.add(values.size() - 1);
+                }
+                final int[] docIdsInLeaf = docs.stream().mapToInt(Integer::intValue).toArray();
+
+                final SortedSetDocValuesSyntheticFieldLoaderLayer layer = new SortedSetDocValuesSyntheticFieldLoaderLayer("field") {
+                    @Override
+                    protected BytesRef convert(BytesRef value) {
+                        return value;
+                    }
+
+                    @Override
+                    protected BytesRef preserve(BytesRef value) {
+                        return BytesRef.deepCopyOf(value);
+                    }
+                };
+                final SourceLoader.SyntheticFieldLoader.DocValuesLoader loader = layer.docValuesLoader(leafReader, docIdsInLeaf);
+                assertNotNull(loader);
+                for (int docId : docIdsInLeaf) {
+                    final SortedSet<String> expected = values.get(docId);
+                    assertThat(loader.advanceToDoc(docId), equalTo(expected.isEmpty() == false));
+                    assertThat(layer.hasValue(), equalTo(expected.isEmpty() == false));
+                    assertThat(layer.valueCount(), equalTo((long) expected.size()));
+                    final XContentBuilder builder = JsonXContent.contentBuilder().startArray();
+                    layer.write(builder);
+                    builder.endArray();
+                    final XContentBuilder expectedBuilder = JsonXContent.contentBuilder().startArray();
+                    for (String value : expected) {
+                        expectedBuilder.value(value);
+                    }
+                    expectedBuilder.endArray();
+                    assertThat(Strings.toString(builder), equalTo(Strings.toString(expectedBuilder)));
+                }
+            }
+        }
+    }
+}
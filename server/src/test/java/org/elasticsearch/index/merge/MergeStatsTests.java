@@ -0,0 +1,85 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.merge;
+
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
+
+import java.io.IOException;
+
+public class MergeStatsTests extends ESTestCase {
+
+    public void testSerialize() throws IOException {
+        MergeStats stats = randomMergeStats();
+        MergeStats read = copy(stats, TransportVersion.current());
+        assertEquals(stats, read);
+        assertEquals(stats.getTotalIntraMergeTasks(), read.getTotalIntraMergeTasks());
+        assertEquals(stats.getTotalIntraMergeTaskTimeInMillis(), read.getTotalIntraMergeTaskTimeInMillis());
+    }
+
+    public void testSerializeBeforeIntraMergeTasks() throws IOException {
+        MergeStats stats = randomMergeStats();
+        TransportVersion version = TransportVersionUtils.getPreviousVersion(TransportVersions.MERGE_STATS_INTRA_MERGE_TASKS);
+        MergeStats read = copy(stats, version);
+        assertEquals(stats.getTotal(), read.getTotal());
+        assertEquals(stats.getTotalTimeInMillis(), read.getTotalTimeInMillis());
+        assertEquals(stats.getTotalThrottledTimeInMillis(), read.getTotalThrottledTimeInMillis());
+        assertEquals(0L, read.getTotalIntraMergeTasks());
+        assertEquals(0L, read.getTotalIntraMergeTaskTimeInMillis());
+    }
+
+    public void testAddIntraMergeTasks() {
+        MergeStats stats = randomMergeStats();
+        MergeStats other = randomMergeStats();
+        MergeStats sum = new MergeStats();
+        sum.add(stats);
+        sum.add(other);
+        assertEquals(stats.getTotalIntraMergeTasks() + other.getTotalIntraMergeTasks(), sum.getTotalIntraMergeTasks());
+        assertEquals(
+            stats.getTotalIntraMergeTaskTimeInMillis() + other.getTotalIntraMergeTaskTimeInMillis(),
+            sum.getTotalIntraMergeTaskTimeInMillis()
+        );
+    }
+
+    private static MergeStats copy(MergeStats stats, TransportVersion version) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setTransportVersion(version);
+            stats.writeTo(out);
+            StreamInput input = out.bytes().streamInput();
+            input.setTransportVersion(version);
+            MergeStats read = new MergeStats(input);
+            assertEquals(-1, input.read());
+            return read;
+        }
+    }
+
+    private static MergeStats randomMergeStats() {
+        MergeStats stats = new MergeStats();
+        stats.add(
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 10),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20),
+            randomIntBetween(1, 1000),
+            randomLongBetween(0, 1 << 20),
+            randomLongBetween(0, 1 << 20)
+        );
+        return stats;
+    }
+}
@@ -21,12 +21,22 @@ public class DenseVectorStatsTests extends AbstractWireSerializingTestCase<Dense
 
     @Override
     protected DenseVectorStats createTestInstance() {
-        DenseVectorStats stats = new DenseVectorStats(randomNonNegativeLong());
+        long filesSizeInBytes = randomNonNegativeLong();
+        DenseVectorStats stats = new DenseVectorStats(randomNonNegativeLong(), filesSizeInBytes, randomLongBetween(0, filesSizeInBytes));
         return stats;
     }
 
     @Override
     protected DenseVectorStats mutateInstance(DenseVectorStats instance) {
-        return new DenseVectorStats(randomValueOtherThan(instance.getValueCount(), ESTestCase::randomNonNegativeLong));
+        long valueCount = instance.getValueCount();
+        long filesSizeInBytes = instance.getFilesSizeInBytes();
+        long filesResidentSizeInBytes = instance.getFilesResidentSizeInBytes();
+        switch (between(0, 2)) {
+            case 0 -> valueCount = randomValueOtherThan(valueCount, ESTestCase::randomNonNegativeLong);
+            case 1 -> filesSizeInBytes = randomValueOtherThan(filesSizeInBytes, ESTestCase::randomNonNegativeLong);
+            case 2 -> filesResidentSizeInBytes = randomValueOtherThan(filesResidentSizeInBytes, ESTestCase::randomNonNegativeLong);
+            default -> throw new AssertionError("Illegal randomisation branch");
+        }
+        return new DenseVectorStats(valueCount, filesSizeInBytes, filesResidentSizeInBytes);
     }
 }
@@ -25,7 +25,9 @@ import org.elasticsearch.xcontent.XContentType;
 import org.elasticsearch.xcontent.json.JsonXContent;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.elasticsearch.index.store.StoreFileMetadata.UNAVAILABLE_WRITER_UUID;
 import static org.hamcrest.Matchers.containsString;
@@ -199,4 +201,37 @@ public class FileInfoTests extends ESTestCase {
             assertEquals(numBytes, metadata.length());
         }
     }
+
+    public void testChunkedFileInfo() throws IOException {
+        final List<BlobStoreIndexShardSnapshot.Chunk> chunks = new ArrayList<>();
+        long length = 0;
+        for (int i = between(1, 10); i > 0; i--) {
+            final long chunkLength = between(1, 1000);
+            chunks.add(new BlobStoreIndexShardSnapshot.Chunk("__chunk-" + randomAlphaOfLength(10), chunkLength));
+            length += chunkLength;
+        }
+        final StoreFileMetadata metadata = new StoreFileMetadata("foo", length, "666", MIN_SUPPORTED_LUCENE_VERSION.toString());
+        final FileInfo info = FileInfo.ofChunks("__foo", metadata, chunks);
+        assertThat(info.numberOfParts(), equalTo(chunks.size()));
+        long position = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            assertThat(info.partName(i), equalTo(chunks.get(i).name()));
+            assertThat(info.partBytes(i), equalTo(chunks.get(i).length()));
+            assertThat(info.partStart(i), equalTo(position));
+            assertThat(info.partForPosition(position), equalTo(i));
+            assertThat(info.partForPosition(position + chunks.get(i).length() - 1), equalTo(i));
+            position += chunks.get(i).length();
+        }
+
+        XContentBuilder builder = XContentFactory.contentBuilder(XContentType.JSON);
+        FileInfo.toXContent(info, builder, ToXContent.EMPTY_PARAMS);
+        final FileInfo parsedInfo;
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, BytesReference.bytes(builder))) {
+            parser.nextToken();
+            parsedInfo = FileInfo.fromXContent(parser);
+        }
+        assertTrue(parsedInfo.isSame(info));
+        assertThat(parsedInfo.chunks(), equalTo(chunks));
+        assertTrue(copyWriteable(info, writableRegistry(), FileInfo::new).isSame(info));
+    }
 }
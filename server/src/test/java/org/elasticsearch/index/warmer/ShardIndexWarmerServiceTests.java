@@ -0,0 +1,57 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.warmer;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+
+import java.util.Set;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class ShardIndexWarmerServiceTests extends ESTestCase {
+
+    public void testTracksWarmedVectorSegments() {
+        ShardIndexWarmerService warmerService = new ShardIndexWarmerService(
+            new ShardId("index", "_na_", 0),
+            IndexSettingsModule.newIndexSettings("index", Settings.EMPTY)
+        );
+        // nothing to warm
+        assertTrue(warmerService.vectorsWarmed());
+
+        assertThat(warmerService.onVectorSegments(Set.of("_0", "_1")), equalTo(Set.of("_0", "_1")));
+        assertFalse(warmerService.vectorsWarmed());
+        warmerService.onVectorSegmentWarmed("_0");
+        assertFalse(warmerService.vectorsWarmed());
+        warmerService.onVectorSegmentWarmed("_1");
+        assertTrue(warmerService.vectorsWarmed());
+
+        // a refresh adds a segment, only the new one needs to be warmed
+        assertThat(warmerService.onVectorSegments(Set.of("_0", "_1", "_2")), equalTo(Set.of("_2")));
+        assertFalse(warmerService.vectorsWarmed());
+        warmerService.onVectorSegmentWarmed("_2");
+        assertTrue(warmerService.vectorsWarmed());
+
+        // a merge replaces all segments
+        assertThat(warmerService.onVectorSegments(Set.of("_3")), equalTo(Set.of("_3")));
+        assertFalse(warmerService.vectorsWarmed());
+        warmerService.onVectorSegmentWarmed("_3");
+        assertTrue(warmerService.vectorsWarmed());
+
+        // segments that were merged away are forgotten, so they would be warmed again if they came back
+        assertThat(warmerService.onVectorSegments(Set.of("_0", "_3")), equalTo(Set.of("_0")));
+
+        // no segments with vector files anymore, e.g. because warming was disabled
+        assertThat(warmerService.onVectorSegments(Set.of()), equalTo(Set.of()));
+        assertTrue(warmerService.vectorsWarmed());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices;
+
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.MergePolicyConfig;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.aggregations.metrics.TopHits;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.ESSingleNodeTestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailuresAndResponse;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class IndicesSegmentAggregationsCacheTests extends ESSingleNodeTestCase {
+
+    public void testAggregatesOnlyNewSegments() {
+        createIndex(false);
+        final IndicesSegmentAggregationsCache cache = getInstanceFromNode(IndicesService.class).indicesSegmentAggregationsCache;
+
+        int id = 0;
+        final int numSegments = randomIntBetween(2, 5);
+        for (int i = 0; i < numSegments; i++) {
+            id = indexDocuments(id);
+        }
+        assertSameAggregations();
+        assertThat(cache.count(), equalTo(numSegments));
+        assertThat(cache.hitCount(), equalTo(0L));
+
+        // only the new segment is aggregated
+        id = indexDocuments(id);
+        assertSameAggregations();
+        assertThat(cache.count(), equalTo(numSegments + 1));
+        assertThat(cache.hitCount(), equalTo((long) numSegments));
+        assertThat(cache.missCount(), equalTo(numSegments + 1L));
+
+        // deleting a document of the first segment changes its reader, the other segments are still cached
+        client().prepareDelete("index", "0").get();
+        indicesAdmin().prepareRefresh("index").get();
+        assertSameAggregations();
+        assertThat(cache.hitCount(), equalTo(2L * numSegments));
+        assertThat(cache.missCount(), greaterThanOrEqualTo(numSegments + 2L));
+    }
+
+    public void testMergedSegments() {
+        createIndex(true);
+        final IndicesSegmentAggregationsCache cache = getInstanceFromNode(IndicesService.class).indicesSegmentAggregationsCache;
+
+        int id = 0;
+        final int numSegments = randomIntBetween(2, 5);
+        for (int i = 0; i < numSegments; i++) {
+            id = indexDocuments(id);
+        }
+        assertSameAggregations();
+        assertThat(cache.hitCount(), equalTo(0L));
+
+        // the merged segment is aggregated again, then cached
+        assertNoFailures(indicesAdmin().prepareForceMerge("index").setMaxNumSegments(1).get());
+        indicesAdmin().prepareRefresh("index").get();
+        assertSameAggregations();
+        assertThat(cache.hitCount(), equalTo(0L));
+        assertThat(cache.missCount(), equalTo(numSegments + 1L));
+
+        // the merged segment is cached while a new segment is written
+        id = indexDocuments(id);
+        assertSameAggregations();
+        assertThat(cache.hitCount(), equalTo(1L));
+        assertThat(cache.missCount(), equalTo(numSegments + 2L));
+    }
+
+    public void testTopHitsAreNotCached() {
+        createIndex(false);
+        final IndicesSegmentAggregationsCache cache = getInstanceFromNode(IndicesService.class).indicesSegmentAggregationsCache;
+
+        int id = 0;
+        for (int i = 0; i < 3; i++) {
+            id = indexDocuments(id);
+            final Map<String, String> cached = new HashMap<>();
+            assertNoFailuresAndResponse(searchTopHits().setRequestCache(true), response -> cached.putAll(topHits(response)));
+            assertNoFailuresAndResponse(
+                searchTopHits().setRequestCache(false),
+                response -> assertThat(topHits(response), equalTo(cached))
+            );
+        }
+        assertThat(cache.count(), equalTo(0));
+        assertThat(cache.missCount(), equalTo(0L));
+    }
+
+    private void createIndex(boolean mergesEnabled) {
+        assertAcked(
+            indicesAdmin().prepareCreate("index")
+                .setMapping("host", "type=keyword", "@timestamp", "type=date", "value", "type=long")
+                .setSettings(
+                    indexSettings(1, 0).put(MergePolicyConfig.INDEX_MERGE_ENABLED, mergesEnabled)
+                        .put(IndicesSegmentAggregationsCache.INDEX_CACHE_SEGMENT_AGGREGATIONS_ENABLED_SETTING.getKey(), true)
+                )
+        );
+    }
+
+    private static SearchRequestBuilder searchTopHits() {
+        return client().prepareSearch("index")
+            .setSize(0)
+            .addAggregation(
+                AggregationBuilders.terms("hosts")
+                    .field("host")
+                    .subAggregation(AggregationBuilders.topHits("top").sort("value", SortOrder.DESC).sort("_id", SortOrder.ASC).size(3))
+            );
+    }
+
+    private static Map<String, String> topHits(SearchResponse response) {
+        final Map<String, String> topHits = new HashMap<>();
+        for (Terms.Bucket host : ((Terms) response.getAggregations().get("hosts")).getBuckets()) {
+            final StringBuilder ids = new StringBuilder();
+            for (SearchHit hit : ((TopHits) host.getAggregations().get("top")).getHits()) {
+                ids.append(hit.getId()).append('=').append(hit.getSourceAsMap().get("value")).append(' ');
+            }
+            topHits.put(host.getKeyAsString(), ids.toString());
+        }
+        return topHits;
+    }
+
+    private int indexDocuments(int id) {
+        final int numDocs = randomIntBetween(1, 50);
+        for (int i = 0; i < numDocs; i++) {
+            prepareIndex("index").setId(Integer.toString(id++))
+                .setSource(
+                    "host",
+                    "host-" + randomIntBetween(0, 4),
+                    "@timestamp",
+                    randomLongBetween(0, 10 * 86_400_000L),
+                    "value",
+                    randomIntBetween(0, 1000)
+                )
+                .get();
+        }
+        indicesAdmin().prepareRefresh("index").get();
+        return id;
+    }
+
+    private void assertSameAggregations() {
+        final Map<String, Map<String, Double>> cached = new HashMap<>();
+        assertNoFailuresAndResponse(
+            search().setRequestCache(true),
+            response -> cached.putAll(buckets(response.getAggregations().get("hosts")))
+        );
+        assertNoFailuresAndResponse(
+            search().setRequestCache(false),
+            response -> assertThat(buckets(response.getAggregations().get("hosts")), equalTo(cached))
+        );
+    }
+
+    private static SearchRequestBuilder search() {
+        return client().prepareSearch("index")
+            .setSize(0)
+            .addAggregation(
+                AggregationBuilders.terms("hosts")
+                    .field("host")
+                    .subAggregation(
+                        AggregationBuilders.dateHistogram("days")
+                            .field("@timestamp")
+                            .calendarInterval(DateHistogramInterval.DAY)
+                            .subAggregation(AggregationBuilders.sum("sum").field("value"))
+                    )
+            );
+    }
+
+    private static Map<String, Map<String, Double>> buckets(Terms hosts) {
+        final Map<String, Map<String, Double>> buckets = new HashMap<>();
+        for (Terms.Bucket host : hosts.getBuckets()) {
+            final Map<String, Double> days = new HashMap<>();
+            for (Histogram.Bucket day : ((Histogram) host.getAggregations().get("days")).getBuckets()) {
+                days.put(day.getKeyAsString() + "/" + day.getDocCount(), ((Sum) day.getAggregations().get("sum")).value());
+            }
+            buckets.put(host.getKeyAsString() + "/" + host.getDocCount(), days);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
+import org.elasticsearch.index.recovery.RecoveryStats;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class AdaptiveRecoveryRateControllerTests extends ESTestCase {
+
+    public void testNextBytesPerSec() {
+        final long min = ByteSizeValue.of(10, ByteSizeUnit.MB).getBytes();
+        final long max = ByteSizeValue.of(110, ByteSizeUnit.MB).getBytes();
+        final long current = ByteSizeValue.of(40, ByteSizeUnit.MB).getBytes();
+        assertThat(AdaptiveRecoveryRateController.nextBytesPerSec(current, min, max, false), equalTo(current + (max - min) / 10));
+        assertThat(AdaptiveRecoveryRateController.nextBytesPerSec(current, min, max, true), equalTo(current * 3 / 4));
+        assertThat(AdaptiveRecoveryRateController.nextBytesPerSec(max, min, max, false), equalTo(max));
+        assertThat(AdaptiveRecoveryRateController.nextBytesPerSec(min, min, max, true), equalTo(min));
+    }
+
+    public void testDiskUtilizationOfBusiestDevice() {
+        final var previous = new AdaptiveRecoveryRateController.Sample(0L, Map.of("sda", 100L, "sdb", 1_000L), 0L);
+        final var sample = new AdaptiveRecoveryRateController.Sample(1_000L, Map.of("sda", 400L, "sdb", 1_900L, "sdc", 50L), 0L);
+        assertEquals(0.9d, AdaptiveRecoveryRateController.diskUtilization(previous, sample, 1_000L), 1e-9);
+    }
+
+    public void testAdjustsRateToLoad() {
+        final Settings settings = Settings.builder().put(AdaptiveRecoveryRateController.ENABLED_SETTING.getKey(), true).build();
+        final ClusterSettings clusterSettings = new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        final RecoverySettings recoverySettings = new RecoverySettings(settings, clusterSettings);
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final AtomicInteger searchQueue = new AtomicInteger();
+        final AdaptiveRecoveryRateController controller = new AdaptiveRecoveryRateController(
+            settings,
+            clusterSettings,
+            recoverySettings,
+            taskQueue.getThreadPool(),
+            () -> null,
+            () -> 0L,
+            searchQueue::get
+        );
+        controller.start();
+
+        final long configured = recoverySettings.getMaxBytesPerSec().getBytes();
+        final long step = (ByteSizeValue.of(250, ByteSizeUnit.MB).getBytes() - ByteSizeValue.of(10, ByteSizeUnit.MB).getBytes()) / 10;
+
+        // the first sample starts from the configured rate limit
+        runNextAdjustment(taskQueue);
+        assertThat(recoverySettings.getAdaptiveMaxBytesPerSec(), equalTo(ByteSizeValue.ofBytes(configured)));
+
+        runNextAdjustment(taskQueue);
+        assertThat(recoverySettings.getAdaptiveMaxBytesPerSec(), equalTo(ByteSizeValue.ofBytes(configured + step)));
+        assertThat(recoverySettings.rateLimiter().getMBPerSec(), equalTo(ByteSizeValue.ofBytes(configured + step).getMbFrac()));
+
+        searchQueue.set(AdaptiveRecoveryRateController.SEARCH_QUEUE_THRESHOLD_SETTING.get(settings));
+        runNextAdjustment(taskQueue);
+        assertThat(recoverySettings.getAdaptiveMaxBytesPerSec(), equalTo(ByteSizeValue.ofBytes((long) ((configured + step) * 0.75d))));
+        assertThat(recoverySettings.getAdaptiveRateIncreases(), equalTo(1L));
+        assertThat(recoverySettings.getAdaptiveRateDecreases(), equalTo(1L));
+
+        clusterSettings.applySettings(Settings.builder().put(AdaptiveRecoveryRateController.ENABLED_SETTING.getKey(), false).build());
+        runNextAdjustment(taskQueue);
+        assertThat(recoverySettings.getAdaptiveMaxBytesPerSec(), nullValue());
+        assertThat(recoverySettings.rateLimiter().getMBPerSec(), equalTo(ByteSizeValue.ofBytes(configured).getMbFrac()));
+
+        controller.stop();
+        controller.close();
+    }
+
+    public void testRecoveryStatsKeepHighestAdaptiveRate() {
+        final RecoveryStats stats = new RecoveryStats();
+        stats.addAdaptiveRate(ByteSizeValue.of(40, ByteSizeUnit.MB).getBytes(), 2L, 1L);
+        final RecoveryStats other = new RecoveryStats();
+        other.addAdaptiveRate(ByteSizeValue.of(60, ByteSizeUnit.MB).getBytes(), 1L, 3L);
+        stats.add(other);
+        stats.add(new RecoveryStats());
+        assertThat(stats.adaptiveMaxBytesPerSec(), equalTo(ByteSizeValue.of(60, ByteSizeUnit.MB).getBytes()));
+        assertThat(stats.adaptiveRateIncreases(), equalTo(3L));
+        assertThat(stats.adaptiveRateDecreases(), equalTo(4L));
+    }
+
+    private static void runNextAdjustment(DeterministicTaskQueue taskQueue) {
+        assertTrue(taskQueue.hasDeferredTasks());
+        taskQueue.advanceTime();
+        taskQueue.runAllRunnableTasks();
+    }
+}
@@ -1240,6 +1240,82 @@ public class RecoverySourceHandlerTests extends MapperServiceTestCase {
         }
     }
 
+    public void testSourceFilesAreSentWhileSnapshotFilesAreRecovered() throws Exception {
+        try (Store store = newStore(createTempDir("source"), false)) {
+            IndexShard shard = mock(IndexShard.class);
+            when(shard.store()).thenReturn(store);
+            when(shard.state()).thenReturn(IndexShardState.STARTED);
+
+            final ShardRecoveryPlan shardRecoveryPlan = createShardRecoveryPlan(store, randomIntBetween(1, 10), randomIntBetween(1, 10));
+            final Set<String> sourceFilesToRecover = shardRecoveryPlan.getSourceFilesToRecover()
+                .stream()
+                .map(StoreFileMetadata::name)
+                .collect(Collectors.toSet());
+
+            List<ActionListener<Void>> pendingSnapshotFileListeners = new CopyOnWriteArrayList<>();
+            Set<String> filesRecoveredFromSource = Collections.synchronizedSet(new HashSet<>());
+            TestRecoveryTargetHandler recoveryTarget = new Phase1RecoveryTargetHandler() {
+                @Override
+                public void restoreFileFromSnapshot(
+                    String repository,
+                    IndexId indexId,
+                    BlobStoreIndexShardSnapshot.FileInfo snapshotFile,
+                    ActionListener<Void> listener
+                ) {
+                    pendingSnapshotFileListeners.add(listener);
+                }
+
+                @Override
+                public void writeFileChunk(
+                    StoreFileMetadata fileMetadata,
+                    long position,
+                    ReleasableBytesReference content,
+                    boolean lastChunk,
+                    int totalTranslogOps,
+                    ActionListener<Void> listener
+                ) {
+                    filesRecoveredFromSource.add(fileMetadata.name());
+                    listener.onResponse(null);
+                }
+            };
+
+            RecoverySourceHandler handler = new RecoverySourceHandler(
+                shard,
+                recoveryTarget,
+                threadPool,
+                getStartRecoveryRequest(),
+                between(1, 16),
+                between(1, 4),
+                between(1, 4),
+                between(1, 4),
+                true,
+                null
+            ) {
+                @Override
+                void createRetentionLease(long startingSeqNo, ActionListener<RetentionLease> listener) {
+                    listener.onResponse(new RetentionLease("id", startingSeqNo, 0, "test"));
+                }
+            };
+
+            PlainActionFuture<RecoverySourceHandler.SendFileResult> future = new PlainActionFuture<>();
+            handler.recoverFilesFromSourceAndSnapshot(shardRecoveryPlan, store, mock(StopWatch.class), future);
+
+            // all the source files are sent although none of the snapshot files is recovered yet
+            assertBusy(() -> assertThat(filesRecoveredFromSource, equalTo(sourceFilesToRecover)));
+            assertBusy(() -> assertFalse(pendingSnapshotFileListeners.isEmpty()));
+            assertFalse(future.isDone());
+
+            while (future.isDone() == false) {
+                assertBusy(() -> assertTrue(future.isDone() || pendingSnapshotFileListeners.isEmpty() == false));
+                for (ActionListener<Void> listener : pendingSnapshotFileListeners) {
+                    pendingSnapshotFileListeners.remove(listener);
+                    listener.onResponse(null);
+                }
+            }
+            future.actionGet();
+        }
+    }
+
     public void testSnapshotFilesRequestAreSentConcurrently() throws Exception {
         try (Store store = newStore(createTempDir("source"), false)) {
             IndexShard shard = mock(IndexShard.class);
@@ -15,6 +15,7 @@ import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.TestShardRouting;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -31,7 +32,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -624,4 +627,50 @@ public class RecoveryTargetTests extends ESTestCase {
             executor.shutdownNow();
         }
     }
+
+    public void testPartitionOperationsKeepsPerDocumentOrder() {
+        final List<org.elasticsearch.index.translog.Translog.Operation> operations = new ArrayList<>();
+        final int numOperations = randomIntBetween(0, 2_000);
+        for (int seqNo = 0; seqNo < numOperations; seqNo++) {
+            final String id = Integer.toString(randomIntBetween(0, 50));
+            operations.add(switch (randomIntBetween(0, 2)) {
+                case 0 -> new org.elasticsearch.index.translog.Translog.Index(
+                    id,
+                    seqNo,
+                    1L,
+                    1L,
+                    new BytesArray("{}"),
+                    null,
+                    -1L
+                );
+                case 1 -> new org.elasticsearch.index.translog.Translog.Delete(id, seqNo, 1L, 1L);
+                default -> new org.elasticsearch.index.translog.Translog.NoOp(seqNo, 1L, "test");
+            });
+        }
+        final int maxPartitions = randomIntBetween(1, 16);
+        final var partitions = RecoveryTarget.partitionOperations(operations, maxPartitions);
+        assertThat(partitions.size(), lessThanOrEqualTo(Math.max(1, numOperations / RecoveryTarget.MIN_OPERATIONS_PER_REPLAY_PARTITION)));
+        assertThat(partitions.size(), lessThanOrEqualTo(maxPartitions));
+        assertThat(partitions.stream().mapToInt(List::size).sum(), equalTo(numOperations));
+
+        final Map<String, Integer> partitionOfDocument = new HashMap<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            long lastSeqNo = -1L;
+            for (org.elasticsearch.index.translog.Translog.Operation operation : partitions.get(i)) {
+                assertThat(operation.seqNo(), greaterThan(lastSeqNo));
+                lastSeqNo = operation.seqNo();
+                final String id = switch (operation.opType()) {
+                    case INDEX, CREATE -> ((org.elasticsearch.index.translog.Translog.Index) operation).id();
+                    case DELETE -> ((org.elasticsearch.index.translog.Translog.Delete) operation).id();
+                    case NO_OP -> null;
+                };
+                if (id != null) {
+                    final Integer previousPartition = partitionOfDocument.putIfAbsent(id, i);
+                    if (previousPartition != null) {
+                        assertThat("operations on [" + id + "] are split across partitions", previousPartition, equalTo(i));
+                    }
+                }
+            }
+        }
+    }
 }
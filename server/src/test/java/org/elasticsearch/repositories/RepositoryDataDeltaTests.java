@@ -0,0 +1,121 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories;
+
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.core.Tuple;
+import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.snapshots.SnapshotState;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.json.JsonXContent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.elasticsearch.repositories.RepositoryDataTests.generateRandomRepoData;
+import static org.hamcrest.Matchers.equalTo;
+
+public class RepositoryDataDeltaTests extends ESTestCase {
+
+    public void testLoadChainOfDeltas() throws IOException {
+        final Map<Long, BytesReference> rootBlobs = new HashMap<>();
+        RepositoryData repositoryData = generateRandomRepoData().withClusterUuid(UUIDs.randomBase64UUID(random())).withGenId(0L);
+        rootBlobs.put(0L, fullBlob(repositoryData));
+        final List<RepositoryData> generations = new ArrayList<>(List.of(repositoryData));
+
+        final int numDeltas = randomIntBetween(1, 10);
+        for (long generation = 1L; generation <= numDeltas; generation++) {
+            final RepositoryData next = randomChange(repositoryData).withGenId(generation);
+            final RepositoryDataDelta delta = RepositoryDataDelta.diff(repositoryData, next);
+            assertThat(delta.baseGeneration(), equalTo(generation - 1L));
+            final XContentBuilder builder = JsonXContent.contentBuilder();
+            delta.toXContent(builder);
+            rootBlobs.put(generation, BytesReference.bytes(builder));
+            generations.add(next);
+            repositoryData = next;
+        }
+
+        final long generation = randomLongBetween(0L, numDeltas);
+        final Tuple<RepositoryData, RepositoryDataDelta.Chain> loaded = RepositoryDataDelta.load(
+            generation,
+            false,
+            gen -> rootBlobs.get(gen).streamInput()
+        );
+        assertThat(loaded.v2(), equalTo(new RepositoryDataDelta.Chain(generation, 0L, (int) generation)));
+        assertThat(loaded.v1().getGenId(), equalTo(generation));
+        assertEquals(generations.get((int) generation), loaded.v1());
+    }
+
+    public void testLoadFullBlob() throws IOException {
+        final long generation = randomNonNegativeLong();
+        final RepositoryData repositoryData = generateRandomRepoData().withGenId(generation);
+        final BytesReference blob = fullBlob(repositoryData);
+        final Tuple<RepositoryData, RepositoryDataDelta.Chain> loaded = RepositoryDataDelta.load(generation, false, gen -> {
+            assertThat(gen, equalTo(generation));
+            return blob.streamInput();
+        });
+        assertEquals(repositoryData, loaded.v1());
+        assertThat(loaded.v2(), equalTo(RepositoryDataDelta.Chain.full(generation)));
+    }
+
+    public void testDiffOfUnchangedRepositoryData() {
+        final RepositoryData repositoryData = generateRandomRepoData().withGenId(randomLongBetween(0L, 1000L));
+        final RepositoryDataDelta delta = RepositoryDataDelta.diff(repositoryData, repositoryData.withGenId(repositoryData.getGenId() + 1));
+        assertThat(delta.changedSnapshotCount(), equalTo(0));
+        assertEquals(repositoryData.withGenId(repositoryData.getGenId() + 1), delta.apply(repositoryData, repositoryData.getGenId() + 1));
+    }
+
+    private static BytesReference fullBlob(RepositoryData repositoryData) throws IOException {
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        repositoryData.snapshotsToXContent(builder, IndexVersion.current());
+        return BytesReference.bytes(builder);
+    }
+
+    private static RepositoryData randomChange(RepositoryData repositoryData) {
+        final List<SnapshotId> snapshotIds = new ArrayList<>(repositoryData.getSnapshotIds());
+        if (snapshotIds.size() > 1 && randomBoolean()) {
+            final List<SnapshotId> toRemove = randomSubsetOf(randomIntBetween(1, snapshotIds.size() - 1), snapshotIds);
+            return repositoryData.removeSnapshots(toRemove, ShardGenerations.EMPTY);
+        }
+        final List<IndexId> indices = new ArrayList<>(repositoryData.getIndices().values());
+        if (indices.isEmpty() || randomBoolean()) {
+            indices.add(new IndexId(randomAlphaOfLength(8), UUIDs.randomBase64UUID()));
+        }
+        final ShardGenerations.Builder builder = ShardGenerations.builder();
+        for (IndexId indexId : randomNonEmptySubsetOf(indices)) {
+            builder.put(indexId, 0, ShardGeneration.newGeneration(random()));
+        }
+        final ShardGenerations shardGenerations = builder.build();
+        final Map<IndexId, String> indexLookup = shardGenerations.indices()
+            .stream()
+            .collect(Collectors.toMap(Function.identity(), ignored -> randomAlphaOfLength(256)));
+        return repositoryData.addSnapshot(
+            new SnapshotId(randomAlphaOfLength(8), UUIDs.randomBase64UUID()),
+            new RepositoryData.SnapshotDetails(
+                randomFrom(SnapshotState.SUCCESS, SnapshotState.PARTIAL),
+                IndexVersion.current(),
+                randomNonNegativeLong(),
+                randomNonNegativeLong(),
+                randomAlphaOfLength(10)
+            ),
+            shardGenerations,
+            indexLookup,
+            indexLookup.values().stream().collect(Collectors.toMap(Function.identity(), ignored -> UUIDs.randomBase64UUID(random())))
+        );
+    }
+}
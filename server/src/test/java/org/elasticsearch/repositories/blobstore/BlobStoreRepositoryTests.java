@@ -40,6 +40,7 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.util.MockBigArrays;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.core.Tuple;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.TestEnvironment;
 import org.elasticsearch.index.IndexVersion;
@@ -48,6 +49,7 @@ import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.repositories.IndexId;
 import org.elasticsearch.repositories.RepositoriesService;
 import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.repositories.RepositoryDataDelta;
 import org.elasticsearch.repositories.RepositoryException;
 import org.elasticsearch.repositories.RepositoryMissingException;
 import org.elasticsearch.repositories.ShardGeneration;
@@ -72,6 +74,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
@@ -80,6 +83,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.elasticsearch.repositories.RepositoryDataTests.generateRandomRepoData;
 import static org.elasticsearch.repositories.blobstore.BlobStoreRepository.INDEX_FILE_PREFIX;
@@ -349,6 +353,81 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         snapshotDetailsAsserter.accept(AbstractSnapshotIntegTestCase.getRepositoryData(repository).getSnapshotDetails(snapshotId));
     }
 
+    public void testRepositoryDataDeltas() throws Exception {
+        final int maxDeltas = between(1, 3);
+        BlobStoreRepository repository = setupRepo(
+            Settings.builder().put(BlobStoreRepository.REPOSITORY_DATA_MAX_DELTAS_SETTING.getKey(), maxDeltas).build()
+        );
+        final String repositoryName = repository.getMetadata().name();
+        createIndex("test-index");
+        ensureGreen("test-index");
+
+        final List<String> snapshotNames = new ArrayList<>();
+        final int numOperations = between(maxDeltas + 2, 3 * maxDeltas + 3);
+        for (int i = 0; i < numOperations; i++) {
+            if (i == numOperations / 2) {
+                // a new instance of the repository learns about the chain of the latest generation when loading it, and keeps writing
+                // deltas on top of it
+                final RepositoryMetadata repositoryMetadata = repository.getMetadata();
+                safeGet(
+                    client().execute(
+                        TransportDeleteRepositoryAction.TYPE,
+                        new DeleteRepositoryRequest(TEST_REQUEST_TIMEOUT, TEST_REQUEST_TIMEOUT, repositoryName)
+                    )
+                );
+                safeGet(
+                    client().execute(
+                        TransportPutRepositoryAction.TYPE,
+                        new PutRepositoryRequest(TEST_REQUEST_TIMEOUT, TEST_REQUEST_TIMEOUT, repositoryName).type(REPO_TYPE)
+                            .verify(false)
+                            .settings(repositoryMetadata.settings())
+                    )
+                );
+                repository = (BlobStoreRepository) getInstanceFromNode(RepositoriesService.class).repository(repositoryName);
+            }
+            if (snapshotNames.isEmpty() == false && randomBoolean()) {
+                final String snapshotName = snapshotNames.remove(between(0, snapshotNames.size() - 1));
+                assertAcked(clusterAdmin().prepareDeleteSnapshot(TEST_REQUEST_TIMEOUT, repositoryName, snapshotName).get());
+            } else {
+                final String snapshotName = "test-snap-" + i;
+                final CreateSnapshotResponse createSnapshotResponse = clusterAdmin().prepareCreateSnapshot(
+                    TEST_REQUEST_TIMEOUT,
+                    repositoryName,
+                    snapshotName
+                ).setWaitForCompletion(true).get();
+                assertThat(createSnapshotResponse.getSnapshotInfo().state(), equalTo(SnapshotState.SUCCESS));
+                snapshotNames.add(snapshotName);
+            }
+            // every root blob after the first one is a delta, until maxDeltas deltas were written in a row
+            assertRootBlobChain(repository, i % (maxDeltas + 1));
+        }
+    }
+
+    private static void assertRootBlobChain(BlobStoreRepository repository, int expectedLength) throws Exception {
+        final long generation = repository.latestIndexBlobId();
+        final Tuple<RepositoryData, RepositoryDataDelta.Chain> loaded = RepositoryDataDelta.load(
+            generation,
+            false,
+            gen -> repository.blobContainer()
+                .readBlob(OperationPurpose.SNAPSHOT_METADATA, BlobStoreRepository.getRepositoryDataBlobName(gen))
+        );
+        final RepositoryDataDelta.Chain chain = loaded.v2();
+        assertThat(chain.generation(), equalTo(generation));
+        assertThat(chain.length(), equalTo(expectedLength));
+        assertEquals(AbstractSnapshotIntegTestCase.getRepositoryData(repository), loaded.v1());
+
+        // only the root blobs that the latest generation is read from are kept
+        final Set<String> expectedRootBlobs = LongStream.rangeClosed(chain.baseGeneration(), chain.generation())
+            .mapToObj(BlobStoreRepository::getRepositoryDataBlobName)
+            .collect(Collectors.toSet());
+        assertBusy(
+            () -> assertThat(
+                repository.blobContainer().listBlobsByPrefix(OperationPurpose.SNAPSHOT_METADATA, INDEX_FILE_PREFIX).keySet(),
+                equalTo(expectedRootBlobs)
+            )
+        );
+    }
+
     private static void writeIndexGen(BlobStoreRepository repository, RepositoryData repositoryData, long generation) {
         safeAwait(
             (ActionListener<RepositoryData> listener) -> repository.writeIndexGen(
@@ -362,10 +441,14 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
     }
 
     private BlobStoreRepository setupRepo() {
+        return setupRepo(Settings.EMPTY);
+    }
+
+    private BlobStoreRepository setupRepo(Settings extraSettings) {
         final Client client = client();
         final Path location = ESIntegTestCase.randomRepoPath(node().settings());
 
-        Settings.Builder repoSettings = Settings.builder().put(node().settings()).put("location", location);
+        Settings.Builder repoSettings = Settings.builder().put(node().settings()).put("location", location).put(extraSettings);
         boolean compress = randomBoolean();
         if (compress == false) {
             repoSettings.put(BlobStoreRepository.COMPRESS_SETTING.getKey(), false);
@@ -0,0 +1,76 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories.blobstore;
+
+import org.elasticsearch.common.lucene.store.ByteArrayIndexInput;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.Chunk;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ContentDefinedChunkerTests extends ESTestCase {
+
+    private static final ContentDefinedChunker CHUNKER = new ContentDefinedChunker(1024, 4096, 16384);
+
+    public void testChunksCoverTheFile() throws IOException {
+        final byte[] content = randomByteArrayOfLength(between(0, 200_000));
+        final List<Chunk> chunks = chunk(content);
+        long total = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final Chunk chunk = chunks.get(i);
+            assertTrue(ContentDefinedChunker.isChunkBlob(chunk.name()));
+            assertThat(chunk.length(), lessThanOrEqualTo(16384L));
+            if (i < chunks.size() - 1) {
+                assertThat(chunk.length(), greaterThanOrEqualTo(1024L));
+            }
+            total += chunk.length();
+        }
+        assertThat(total, equalTo((long) content.length));
+    }
+
+    public void testInsertingBytesOnlyChangesNearbyChunks() throws IOException {
+        final byte[] content = randomByteArrayOfLength(between(100_000, 200_000));
+        final byte[] prefix = randomByteArrayOfLength(between(1, 100));
+        final byte[] edited = new byte[prefix.length + content.length];
+        System.arraycopy(prefix, 0, edited, 0, prefix.length);
+        System.arraycopy(content, 0, edited, prefix.length, content.length);
+
+        final List<Chunk> chunks = chunk(content);
+        final Set<String> editedChunkNames = new HashSet<>();
+        chunk(edited).forEach(c -> editedChunkNames.add(c.name()));
+        // boundaries resynchronize shortly after the edit, so most chunks are shared
+        int shared = 0;
+        for (Chunk chunk : chunks) {
+            if (editedChunkNames.contains(chunk.name())) {
+                shared++;
+            }
+        }
+        assertThat(shared, greaterThanOrEqualTo(chunks.size() / 2));
+    }
+
+    public void testInvalidSizes() {
+        expectThrows(IllegalArgumentException.class, () -> new ContentDefinedChunker(1024, 3000, 16384));
+        expectThrows(IllegalArgumentException.class, () -> new ContentDefinedChunker(32, 4096, 16384));
+        expectThrows(IllegalArgumentException.class, () -> new ContentDefinedChunker(16384, 4096, 1024));
+    }
+
+    private static List<Chunk> chunk(byte[] content) throws IOException {
+        try (ByteArrayIndexInput input = new ByteArrayIndexInput("test", content)) {
+            return CHUNKER.chunk(input, content.length);
+        }
+    }
+}
@@ -226,7 +226,7 @@ public class RestBulkActionTests extends ESTestCase {
         FakeRestChannel channel = new FakeRestChannel(request, randomBoolean(), 1);
 
         IndexingPressure indexingPressure = new IndexingPressure(Settings.EMPTY);
-        RestBulkAction.ChunkHandler chunkHandler = new RestBulkAction.ChunkHandler(true, request, () -> {
+        RestBulkAction.ChunkHandler chunkHandler = new RestBulkAction.ChunkHandler(true, 0, request, () -> {
             return new IncrementalBulkService.Handler(null, indexingPressure, null, null, null) {
 
                 @Override
@@ -26,9 +26,14 @@ import org.elasticsearch.index.query.WrapperQueryBuilder;
 import org.elasticsearch.script.Script;
 import org.elasticsearch.search.SearchModule;
 import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
 import org.elasticsearch.search.aggregations.bucket.nested.NestedAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.terms.SignificantTermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.CardinalityAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.SumAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.TopHitsAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.AbstractPipelineAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.BucketScriptPipelineAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
@@ -351,6 +356,38 @@ public class AggregatorFactoriesTests extends ESTestCase {
         }
     }
 
+    public void testSupportsSegmentCaching() {
+        {
+            AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
+            assertTrue(builder.supportsSegmentCaching());
+            builder.addAggregator(
+                new TermsAggregationBuilder("terms").field("host")
+                    .subAggregation(
+                        new DateHistogramAggregationBuilder("days").field("@timestamp").calendarInterval(DateHistogramInterval.DAY)
+                    )
+                    .subAggregation(new SumAggregationBuilder("sum").field("value"))
+            );
+            assertTrue(builder.supportsSegmentCaching());
+        }
+        {
+            // top hits hold doc ids and scores
+            AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
+            builder.addAggregator(new TermsAggregationBuilder("terms").field("host").subAggregation(new TopHitsAggregationBuilder("top")));
+            assertFalse(builder.supportsSegmentCaching());
+        }
+        {
+            // script values may depend on scores
+            AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
+            builder.addAggregator(new SumAggregationBuilder("sum").script(new Script("_score")));
+            assertFalse(builder.supportsSegmentCaching());
+        }
+        {
+            AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
+            builder.addAggregator(new FilterAggregationBuilder("name", new MatchAllQueryBuilder()));
+            assertFalse(builder.supportsSegmentCaching());
+        }
+    }
+
     @Override
     protected NamedXContentRegistry xContentRegistry() {
         return xContentRegistry;
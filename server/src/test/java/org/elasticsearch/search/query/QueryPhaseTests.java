@@ -17,6 +17,7 @@ import org.apache.lucene.document.LatLonDocValuesField;
 import org.apache.lucene.document.LatLonPoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
@@ -52,6 +53,8 @@ import org.apache.lucene.search.QueryCachingPolicy;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSortField;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHits;
@@ -716,6 +719,60 @@ public class QueryPhaseTests extends IndexShardTestCase {
         }
     }
 
+    public void testPinnedIndexSortEarlyTermination() throws Exception {
+        final Sort indexSort = new Sort(
+            new SortedSetSortField("host", false),
+            new SortedNumericSortField("timestamp", SortField.Type.LONG, true)
+        );
+        IndexWriterConfig iwc = newIndexWriterConfig().setIndexSort(indexSort);
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        final int numDocs = scaledRandomIntBetween(200, 500);
+        for (int i = 0; i < numDocs; ++i) {
+            Document doc = new Document();
+            String host = "host-" + (i % 4);
+            doc.add(new StringField("host", host, Store.NO));
+            doc.add(new SortedSetDocValuesField("host", new BytesRef(host)));
+            doc.add(new SortedNumericDocValuesField("timestamp", randomLongBetween(0, 1000)));
+            w.addDocument(doc);
+        }
+        w.forceMerge(1);
+        w.close();
+        reader = DirectoryReader.open(dir);
+
+        // the search sort is not a prefix of the index sort, but it is once the host is fixed
+        final Sort searchSort = new Sort(indexSort.getSort()[1]);
+        final Query query = new BooleanQuery.Builder().add(new TermQuery(new Term("host", "host-1")), Occur.FILTER)
+            .add(new FieldExistsQuery("timestamp"), Occur.FILTER)
+            .build();
+        final TopDocs expected = new IndexSearcher(reader).search(query, 10, searchSort);
+        try (TestSearchContext context = createContext(newContextSearcher(reader), query)) {
+            context.setSize(10);
+            context.trackTotalHitsUpTo(10);
+            context.sort(new SortAndFormats(searchSort, new DocValueFormat[] { DocValueFormat.RAW }));
+            QueryPhase.addCollectorsAndSearch(context);
+            TopDocs topDocs = context.queryResult().topDocs().topDocs;
+            assertThat(topDocs.totalHits.relation(), equalTo(TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO));
+            assertThat(topDocs.totalHits.value(), greaterThanOrEqualTo(10L));
+            assertThat(topDocs.totalHits.value(), lessThan(expected.totalHits.value()));
+            assertThat(topDocs.scoreDocs.length, equalTo(10));
+            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                assertThat(((FieldDoc) topDocs.scoreDocs[i]).fields[0], equalTo(((FieldDoc) expected.scoreDocs[i]).fields[0]));
+            }
+        }
+        try (TestSearchContext context = createContext(newContextSearcher(reader), query)) {
+            // hits need to be counted accurately, so segments can't be early terminated
+            context.setSize(10);
+            context.trackTotalHitsUpTo(SearchContext.TRACK_TOTAL_HITS_ACCURATE);
+            context.sort(new SortAndFormats(searchSort, new DocValueFormat[] { DocValueFormat.RAW }));
+            QueryPhase.addCollectorsAndSearch(context);
+            TopDocs topDocs = context.queryResult().topDocs().topDocs;
+            assertThat(topDocs.totalHits, equalTo(expected.totalHits));
+            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                assertThat(((FieldDoc) topDocs.scoreDocs[i]).fields[0], equalTo(((FieldDoc) expected.scoreDocs[i]).fields[0]));
+            }
+        }
+    }
+
     public void testDisableTopScoreCollection() throws Exception {
         IndexWriterConfig iwc = newIndexWriterConfig(new StandardAnalyzer());
         RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
@@ -110,6 +110,26 @@ public class TestBlock implements BlockLoader.Block {
                 return new LongsBuilder();
             }
 
+            @Override
+            public BlockLoader.SingletonLongBuilder singletonLongs(int expectedCount) {
+                class SingletonLongsBuilder extends TestBlock.Builder implements BlockLoader.SingletonLongBuilder {
+                    @Override
+                    public SingletonLongsBuilder appendLong(long value) {
+                        add(value);
+                        return this;
+                    }
+
+                    @Override
+                    public SingletonLongsBuilder appendLongs(long[] values, int from, int length) {
+                        for (int i = 0; i < length; i++) {
+                            add(values[from + i]);
+                        }
+                        return this;
+                    }
+                }
+                return new SingletonLongsBuilder();
+            }
+
             @Override
             public BlockLoader.Builder nulls(int expectedCount) {
                 return longs(expectedCount);
@@ -139,12 +159,20 @@ public class TestBlock implements BlockLoader.Block {
                     @Override
                     public SingletonOrdsBuilder appendOrd(int value) {
                         try {
-                            add(ordinals.lookupOrd(value));
+                            add(BytesRef.deepCopyOf(ordinals.lookupOrd(value)));
                             return this;
                         } catch (IOException e) {
                             throw new UncheckedIOException(e);
                         }
                     }
+
+                    @Override
+                    public SingletonOrdsBuilder appendOrds(long[] values, int from, int length) {
+                        for (int i = 0; i < length; i++) {
+                            appendOrd(Math.toIntExact(values[from + i]));
+                        }
+                        return this;
+                    }
                 }
                 return new SingletonOrdsBuilder();
             }
@@ -33,25 +33,23 @@ import org.elasticsearch.common.blobstore.OperationPurpose;
 import org.elasticsearch.common.blobstore.support.BlobMetadata;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
-import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshots;
 import org.elasticsearch.repositories.IndexId;
 import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.repositories.RepositoryDataDelta;
 import org.elasticsearch.repositories.ShardGeneration;
 import org.elasticsearch.repositories.ShardGenerations;
 import org.elasticsearch.snapshots.SnapshotId;
 import org.elasticsearch.snapshots.SnapshotInfo;
 import org.elasticsearch.threadpool.ThreadPool;
-import org.elasticsearch.xcontent.XContentParser;
-import org.elasticsearch.xcontent.XContentParserConfiguration;
-import org.elasticsearch.xcontent.XContentType;
 
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -114,15 +112,13 @@ public final class BlobStoreTestUtil {
                 } catch (NoSuchFileException e) {
                     throw new AssertionError("Could not find index.latest blob for repo [" + repository + "]");
                 }
-                assertIndexGenerations(blobContainer, latestGen);
-                final RepositoryData repositoryData;
-                try (
-                    InputStream blob = blobContainer.readBlob(randomNonDataPurpose(), getRepositoryDataBlobName(latestGen));
-                    XContentParser parser = XContentType.JSON.xContent()
-                        .createParser(XContentParserConfiguration.EMPTY.withDeprecationHandler(LoggingDeprecationHandler.INSTANCE), blob)
-                ) {
-                    repositoryData = RepositoryData.snapshotsFromXContent(parser, latestGen, false);
-                }
+                final Tuple<RepositoryData, RepositoryDataDelta.Chain> loaded = RepositoryDataDelta.load(
+                    latestGen,
+                    false,
+                    generation -> blobContainer.readBlob(randomNonDataPurpose(), getRepositoryDataBlobName(generation))
+                );
+                assertIndexGenerations(blobContainer, loaded.v2());
+                final RepositoryData repositoryData = loaded.v1();
                 assertIndexUUIDs(repository, repositoryData);
                 assertSnapshotUUIDs(repository, repositoryData, new ActionListener<>() {
                     @Override
@@ -157,7 +153,7 @@ public final class BlobStoreTestUtil {
         return future;
     }
 
-    private static void assertIndexGenerations(BlobContainer repoRoot, long latestGen) throws IOException {
+    private static void assertIndexGenerations(BlobContainer repoRoot, RepositoryDataDelta.Chain chain) throws IOException {
         final long[] indexGenerations = repoRoot.listBlobsByPrefix(randomPurpose(), BlobStoreRepository.INDEX_FILE_PREFIX)
             .keySet()
             .stream()
@@ -165,8 +161,9 @@ public final class BlobStoreTestUtil {
             .mapToLong(Long::parseLong)
             .sorted()
             .toArray();
-        assertEquals(latestGen, indexGenerations[indexGenerations.length - 1]);
-        assertTrue(indexGenerations.length <= 2);
+        assertEquals(chain.generation(), indexGenerations[indexGenerations.length - 1]);
+        // besides the root blobs that the latest generation is read from, only the one of the previous generation may be left over
+        assertTrue(Arrays.stream(indexGenerations).filter(gen -> gen < chain.baseGeneration()).count() <= 1);
     }
 
     private static void assertShardIndexGenerations(BlobContainer repoRoot, ShardGenerations shardGenerations) throws IOException {
@@ -9,15 +9,20 @@ package org.elasticsearch.blobcache;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.telemetry.TelemetryProvider;
 import org.elasticsearch.telemetry.metric.DoubleHistogram;
+import org.elasticsearch.telemetry.metric.LongAsyncCounter;
 import org.elasticsearch.telemetry.metric.LongCounter;
 import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.LongWithAttributes;
 import org.elasticsearch.telemetry.metric.MeterRegistry;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 public class BlobCacheMetrics {
     private static final Logger logger = LogManager.getLogger(BlobCacheMetrics.class);
@@ -34,6 +39,10 @@ public class BlobCacheMetrics {
     private final DoubleHistogram cachePopulationThroughput;
     private final LongCounter cachePopulationBytes;
     private final LongCounter cachePopulationTime;
+    private final LongCounter readAheadBytes;
+    private final LongCounter readAheadHitBytes;
+    private final LongCounter readAheadWastedBytes;
+    private final MeterRegistry meterRegistry;
 
     public enum CachePopulationReason {
         /**
@@ -52,6 +61,7 @@ public class BlobCacheMetrics {
 
     public BlobCacheMetrics(MeterRegistry meterRegistry) {
         this(
+            meterRegistry,
             meterRegistry.registerLongCounter(
                 "es.blob_cache.miss_that_triggered_read.total",
                 "The number of times there was a cache miss that triggered a read from the blob store",
@@ -81,24 +91,47 @@ public class BlobCacheMetrics {
                 "es.blob_cache.population.time.total",
                 "The time spent copying data into the cache",
                 "milliseconds"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.read_ahead.bytes.total",
+                "The number of bytes that were fetched into the cache ahead of sequential or strided reads",
+                "bytes"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.read_ahead.hit_bytes.total",
+                "The number of bytes that were read from ranges fetched ahead of the reader",
+                "bytes"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.read_ahead.wasted_bytes.total",
+                "The number of bytes that were fetched ahead of the reader but skipped by it",
+                "bytes"
             )
         );
     }
 
     BlobCacheMetrics(
+        MeterRegistry meterRegistry,
         LongCounter cacheMissCounter,
         LongCounter evictedCountNonZeroFrequency,
         LongHistogram cacheMissLoadTimes,
         DoubleHistogram cachePopulationThroughput,
         LongCounter cachePopulationBytes,
-        LongCounter cachePopulationTime
+        LongCounter cachePopulationTime,
+        LongCounter readAheadBytes,
+        LongCounter readAheadHitBytes,
+        LongCounter readAheadWastedBytes
     ) {
+        this.meterRegistry = meterRegistry;
         this.cacheMissCounter = cacheMissCounter;
         this.evictedCountNonZeroFrequency = evictedCountNonZeroFrequency;
         this.cacheMissLoadTimes = cacheMissLoadTimes;
         this.cachePopulationThroughput = cachePopulationThroughput;
         this.cachePopulationBytes = cachePopulationBytes;
         this.cachePopulationTime = cachePopulationTime;
+        this.readAheadBytes = readAheadBytes;
+        this.readAheadHitBytes = readAheadHitBytes;
+        this.readAheadWastedBytes = readAheadWastedBytes;
     }
 
     public static final BlobCacheMetrics NOOP = new BlobCacheMetrics(TelemetryProvider.NOOP.getMeterRegistry());
@@ -115,6 +148,50 @@ public class BlobCacheMetrics {
         return cacheMissLoadTimes;
     }
 
+    public LongCounter getReadAheadBytes() {
+        return readAheadBytes;
+    }
+
+    public LongCounter getReadAheadHitBytes() {
+        return readAheadHitBytes;
+    }
+
+    public LongCounter getReadAheadWastedBytes() {
+        return readAheadWastedBytes;
+    }
+
+    /**
+     * Registers the counters of the hits and misses of regions of pinnable files. The counts are read from the given suppliers when the
+     * metrics are collected, so that cache accesses only increment the cache's own stats.
+     *
+     * @return releases the counters
+     */
+    public Releasable registerPinnedRegionCounters(LongSupplier hitCount, LongSupplier missCount) {
+        final List<LongAsyncCounter> counters = List.of(
+            meterRegistry.registerLongAsyncCounter(
+                "es.blob_cache.pinned.hit.total",
+                "The number of times a region of a pinnable file was found in the cache",
+                "count",
+                () -> new LongWithAttributes(hitCount.getAsLong())
+            ),
+            meterRegistry.registerLongAsyncCounter(
+                "es.blob_cache.pinned.miss.total",
+                "The number of times a region of a pinnable file was not found in the cache",
+                "count",
+                () -> new LongWithAttributes(missCount.getAsLong())
+            )
+        );
+        return () -> {
+            for (LongAsyncCounter counter : counters) {
+                try {
+                    counter.close();
+                } catch (Exception e) {
+                    logger.warn("metrics close() method should not throw Exception", e);
+                }
+            }
+        };
+    }
+
     /**
      * Record the various cache population metrics after a chunk is copied to the cache
      *
@@ -23,6 +23,9 @@ public class BlobCachePlugin extends Plugin implements ExtensiblePlugin {
             SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING,
             SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING,
             SharedBlobCacheService.SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_READ_AHEAD_MAX_SIZE_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_PREFETCH_MAX_CONCURRENCY_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_PINNED_SIZE_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MAX_FREQ_SETTING,
             SharedBlobCacheService.SHARED_CACHE_DECAY_INTERVAL_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MIN_TIME_DELTA_SETTING,
@@ -12,6 +12,7 @@ import org.elasticsearch.blobcache.common.ByteRange;
 import org.elasticsearch.blobcache.shared.SharedBytes;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.core.Streams;
+import org.elasticsearch.index.store.LuceneFilesExtensions;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -32,6 +33,15 @@ public class BlobCacheUtils {
         return ByteSizeUnit.BYTES.toIntBytes(l);
     }
 
+    /**
+     * Returns {@code true} if the given Lucene file is a metadata file or a terms index. These files are small, fully read when a segment
+     * is opened or searched, and therefore worth keeping in cache even when large scans go through it.
+     */
+    public static boolean isMetadataOrTermsIndexFile(String fileName) {
+        final LuceneFilesExtensions extension = LuceneFilesExtensions.fromFile(fileName);
+        return extension != null && (extension.isMetadata() || extension == LuceneFilesExtensions.TIP);
+    }
+
     /**
      * Round down the size to the nearest aligned size &lt;= size.
      */
@@ -0,0 +1,135 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import org.elasticsearch.blobcache.common.ByteRange;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Watches the reads of a single {@link SharedBlobCacheService.CacheFile} and decides which range of the file, if any, should be
+ * fetched ahead of the reader. Reads that continue where the previous one ended, or that are separated from the previous one
+ * by the same stride, grow a read-ahead window that starts at {@code minWindowSize} and doubles up to {@code maxWindowSize}.
+ * Any other read resets the window so that random access patterns don't fetch more than they read.
+ * <p>
+ * Bytes that are read from a range that was fetched ahead are reported as hits. Bytes that were fetched ahead but that the reader
+ * skipped over when the window was reset are reported as waste. Instances are not thread safe, like the index inputs using them.
+ */
+final class ReadAheadTracker {
+
+    /**
+     * Number of consecutive sequential or strided reads required before fetching ahead.
+     */
+    static final int MIN_SEQUENTIAL_READS = 3;
+
+    private final long fileLength;
+    private final long minWindowSize;
+    private final long maxWindowSize;
+    private final LongConsumer hitBytesConsumer;
+    private final LongConsumer wastedBytesConsumer;
+
+    private long lastReadStart = -1L;
+    private long lastReadEnd = -1L;
+    private long stride = 0L;
+    private int sequentialReads = 0;
+    private long windowSize = 0L;
+
+    // range fetched ahead of the reader, and how far the reader consumed it
+    private long readAheadStart = 0L;
+    private long readAheadEnd = 0L;
+    private long readAheadConsumed = 0L;
+
+    ReadAheadTracker(
+        long fileLength,
+        long minWindowSize,
+        long maxWindowSize,
+        LongConsumer hitBytesConsumer,
+        LongConsumer wastedBytesConsumer
+    ) {
+        assert minWindowSize > 0L && minWindowSize <= maxWindowSize : minWindowSize + " vs " + maxWindowSize;
+        this.fileLength = fileLength;
+        this.minWindowSize = minWindowSize;
+        this.maxWindowSize = maxWindowSize;
+        this.hitBytesConsumer = hitBytesConsumer;
+        this.wastedBytesConsumer = wastedBytesConsumer;
+    }
+
+    /**
+     * Records a read of {@code length} bytes at {@code position} and returns the range to fetch ahead of it, or
+     * {@link ByteRange#EMPTY} if nothing should be fetched.
+     *
+     * @param position   the position of the read
+     * @param length     the number of bytes read
+     * @param fetchedEnd the end of the range that the read itself made available in cache
+     */
+    ByteRange onRead(long position, int length, long fetchedEnd) {
+        final long end = position + length;
+        final boolean sequential = position == lastReadEnd;
+        final boolean strided = sequential == false
+            && lastReadStart >= 0L
+            && position - lastReadStart == stride
+            && stride > 0L
+            && stride <= maxWindowSize;
+        if (sequential == false && lastReadStart >= 0L) {
+            stride = position - lastReadStart;
+        }
+        lastReadStart = position;
+        lastReadEnd = end;
+
+        if (sequential || strided) {
+            sequentialReads++;
+        } else {
+            reset();
+            return ByteRange.EMPTY;
+        }
+
+        if (end > readAheadStart && position < readAheadEnd) {
+            final long hitStart = Math.max(position, Math.max(readAheadStart, readAheadConsumed));
+            final long hitEnd = Math.min(end, readAheadEnd);
+            if (hitEnd > hitStart) {
+                hitBytesConsumer.accept(hitEnd - hitStart);
+            }
+        }
+        readAheadConsumed = Math.max(readAheadConsumed, end);
+
+        if (sequentialReads < MIN_SEQUENTIAL_READS) {
+            return ByteRange.EMPTY;
+        }
+        // only fetch more once the reader went through half of the current window, so that read-ahead requests stay large
+        if (readAheadEnd > end && readAheadEnd - end > windowSize / 2) {
+            return ByteRange.EMPTY;
+        }
+        windowSize = windowSize == 0L ? minWindowSize : Math.min(windowSize * 2L, maxWindowSize);
+        final long start = Math.max(Math.max(end, fetchedEnd), readAheadEnd);
+        final long stop = Math.min(start + windowSize, fileLength);
+        if (start >= stop) {
+            return ByteRange.EMPTY;
+        }
+        if (start > readAheadEnd) {
+            readAheadStart = start;
+        }
+        readAheadEnd = stop;
+        return ByteRange.of(start, stop);
+    }
+
+    private void reset() {
+        if (readAheadEnd > readAheadConsumed) {
+            wastedBytesConsumer.accept(readAheadEnd - Math.max(readAheadStart, readAheadConsumed));
+        }
+        sequentialReads = 0;
+        windowSize = 0L;
+        readAheadStart = 0L;
+        readAheadEnd = 0L;
+        readAheadConsumed = 0L;
+    }
+
+    // used in tests
+    long windowSize() {
+        return windowSize;
+    }
+}
@@ -32,6 +32,7 @@ import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.Assertions;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.Strings;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.env.Environment;
@@ -57,10 +58,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.function.IntConsumer;
 import java.util.function.LongSupplier;
 import java.util.function.Predicate;
@@ -89,6 +92,29 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Maximum number of bytes fetched ahead of sequential or strided reads, see {@link CacheFile#maybeReadAhead}. Read-ahead starts
+     * with {@link #SHARED_CACHE_RANGE_SIZE_SETTING} bytes and doubles up to this size. Setting it below the range size disables it.
+     */
+    public static final Setting<ByteSizeValue> SHARED_CACHE_READ_AHEAD_MAX_SIZE_SETTING = new Setting<>(
+        SHARED_CACHE_SETTINGS_PREFIX + "read_ahead.max_size",
+        ByteSizeValue.ofMb(64).getStringRep(),
+        s -> ByteSizeValue.parseBytesSizeValue(s, SHARED_CACHE_SETTINGS_PREFIX + "read_ahead.max_size"),
+        getPageSizeAlignedByteSizeValueValidator(SHARED_CACHE_SETTINGS_PREFIX + "read_ahead.max_size"),
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Maximum number of prefetched ranges that are fetched from the blob store at the same time on this node, see
+     * {@link CacheFile#tryAcquirePrefetchSlot}. Ranges that are prefetched while all slots are in use are fetched when they are read.
+     */
+    public static final Setting<Integer> SHARED_CACHE_PREFETCH_MAX_CONCURRENCY_SETTING = Setting.intSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "prefetch.max_concurrency",
+        32,
+        0,
+        Setting.Property.NodeScope
+    );
+
     public static final Setting<ByteSizeValue> SHARED_CACHE_REGION_SIZE_SETTING = new Setting<>(
         SHARED_CACHE_SETTINGS_PREFIX + "region_size",
         SHARED_CACHE_RANGE_SIZE_SETTING,
@@ -225,6 +251,18 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Size of the slice of the cache that holds the regions of pinnable files, see {@link BlobCacheUtils#isMetadataOrTermsIndexFile}.
+     * Pinned regions are not subject to the frequency based eviction, so that large scans don't evict small and hot files. Either an
+     * absolute size or a percentage of the cache size.
+     */
+    public static final Setting<RelativeByteSizeValue> SHARED_CACHE_PINNED_SIZE_SETTING = new Setting<>(
+        SHARED_CACHE_SETTINGS_PREFIX + "pinned.size",
+        "5%",
+        s -> RelativeByteSizeValue.parseRelativeByteSizeValue(s, SHARED_CACHE_SETTINGS_PREFIX + "pinned.size"),
+        Setting.Property.NodeScope
+    );
+
     public static final TimeValue MIN_SHARED_CACHE_DECAY_INTERVAL = TimeValue.timeValueSeconds(1L);
     public static final Setting<TimeValue> SHARED_CACHE_DECAY_INTERVAL_SETTING = Setting.timeSetting(
         SHARED_CACHE_SETTINGS_PREFIX + "decay.interval",
@@ -282,6 +320,12 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private interface Cache<K, T> extends Releasable {
         CacheEntry<T> get(K cacheKey, long fileLength, int region);
 
+        /**
+         * Same as {@link #get(Object, long, int)} but a new entry, if any, enters the cache with the lowest priority. Used for scans,
+         * whose regions are unlikely to be read again and should be the first to be evicted.
+         */
+        CacheEntry<T> getForScan(K cacheKey, long fileLength, int region);
+
         int forceEvict(Predicate<K> cacheKeyPredicate);
     }
 
@@ -307,6 +351,8 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private final int regionSize;
     private final int rangeSize;
     private final int recoveryRangeSize;
+    private final long readAheadMaxSize;
+    private final Semaphore prefetchSlots;
 
     private final int numRegions;
     private final ConcurrentLinkedQueue<SharedBytes.IO> freeRegions = new ConcurrentLinkedQueue<>();
@@ -323,12 +369,20 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
     private final LongAdder evictCount = new LongAdder();
 
+    private final LongAdder pinnedHitCount = new LongAdder();
+    private final LongAdder pinnedMissCount = new LongAdder();
+    // exports the pinned hit and miss counts as metrics
+    private final Releasable pinnedRegionCounters;
+
     private final BlobCacheMetrics blobCacheMetrics;
 
     private final Runnable evictIncrementer;
 
     private final LongSupplier relativeTimeInNanosSupplier;
 
+    private final Predicate<KeyType> pinnableKeyPredicate;
+    private final int maxPinnedRegions;
+
     public SharedBlobCacheService(
         NodeEnvironment environment,
         Settings settings,
@@ -346,6 +400,22 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Executor ioExecutor,
         BlobCacheMetrics blobCacheMetrics,
         LongSupplier relativeTimeInNanosSupplier
+    ) {
+        this(environment, settings, threadPool, ioExecutor, blobCacheMetrics, relativeTimeInNanosSupplier, cacheKey -> false);
+    }
+
+    /**
+     * @param pinnableKeyPredicate tells whether the regions of a cache key should be kept in the pinned slice of the cache, see
+     *                             {@link #SHARED_CACHE_PINNED_SIZE_SETTING}
+     */
+    public SharedBlobCacheService(
+        NodeEnvironment environment,
+        Settings settings,
+        ThreadPool threadPool,
+        Executor ioExecutor,
+        BlobCacheMetrics blobCacheMetrics,
+        LongSupplier relativeTimeInNanosSupplier,
+        Predicate<KeyType> pinnableKeyPredicate
     ) {
         this.threadPool = threadPool;
         this.ioExecutor = ioExecutor;
@@ -365,6 +435,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         }
         this.regionSize = regionSize;
         assert regionSize > 0L;
+        this.pinnableKeyPredicate = pinnableKeyPredicate;
+        final long pinnedSize = SHARED_CACHE_PINNED_SIZE_SETTING.get(settings)
+            .calculateValue(ByteSizeValue.ofBytes(cacheSize), null)
+            .getBytes();
+        this.maxPinnedRegions = Math.toIntExact(Math.min(pinnedSize / regionSize, numRegions));
         this.cache = new LFUCache(settings);
         try {
             sharedBytes = new SharedBytes(
@@ -384,9 +459,12 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         this.rangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RANGE_SIZE_SETTING.get(settings).getBytes());
         this.recoveryRangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.get(settings).getBytes());
+        this.readAheadMaxSize = SHARED_CACHE_READ_AHEAD_MAX_SIZE_SETTING.get(settings).getBytes();
+        this.prefetchSlots = new Semaphore(SHARED_CACHE_PREFETCH_MAX_CONCURRENCY_SETTING.get(settings));
 
         this.blobCacheMetrics = blobCacheMetrics;
         this.evictIncrementer = blobCacheMetrics.getEvictedCountNonZeroFrequency()::increment;
+        this.pinnedRegionCounters = blobCacheMetrics.registerPinnedRegionCounters(pinnedHitCount::sum, pinnedMissCount::sum);
         this.relativeTimeInNanosSupplier = relativeTimeInNanosSupplier;
     }
 
@@ -475,6 +553,10 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         return cache.get(cacheKey, fileLength, region).chunk;
     }
 
+    CacheFileRegion<KeyType> getForScan(KeyType cacheKey, long fileLength, int region) {
+        return cache.getForScan(cacheKey, fileLength, region).chunk;
+    }
+
     /**
      * Fetch and cache the full blob for the given cache entry from the remote repository if there
      * are enough free pages in the cache to do so.
@@ -685,7 +767,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             writeCount.sum(),
             writeBytes.sum(),
             readCount.sum(),
-            readBytes.sum()
+            readBytes.sum(),
+            maxPinnedRegions,
+            cache instanceof LFUCache lfuCache ? lfuCache.pinnedRegions() : 0,
+            pinnedHitCount.sum(),
+            pinnedMissCount.sum()
         );
     }
 
@@ -714,6 +800,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
     @Override
     public void close() {
+        pinnedRegionCounters.close();
         sharedBytes.decRef();
     }
 
@@ -1133,6 +1220,9 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private CacheEntry<CacheFileRegion<KeyType>> lastAccessedRegion;
 
+        // created on first use, since most copies of a cache file are short-lived clones that never read ahead
+        private ReadAheadTracker readAheadTracker;
+
         private CacheFile(KeyType cacheKey, long length) {
             this.cacheKey = cacheKey;
             this.length = length;
@@ -1175,6 +1265,108 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return res;
         }
 
+        /**
+         * Tries to reserve one of the slots that bound the number of prefetched ranges that are fetched from the blob store at the same
+         * time across all the cache files of the node, see {@link #SHARED_CACHE_PREFETCH_MAX_CONCURRENCY_SETTING}.
+         *
+         * @return a releasable that frees the slot once the range is fetched, or {@code null} if all the slots are in use
+         */
+        @Nullable
+        public Releasable tryAcquirePrefetchSlot() {
+            if (prefetchSlots.tryAcquire()) {
+                return Releasables.releaseOnce(prefetchSlots::release);
+            }
+            return null;
+        }
+
+        /**
+         * Records a read of {@code length} bytes at {@code position} and, once the reads of this cache file look sequential or
+         * strided, fetches the bytes that follow in the background so that the next reads find them in cache. The read-ahead
+         * window grows with every request and is reset by the first read that doesn't follow the pattern.
+         *
+         * @param position       the position of the read
+         * @param length         the number of bytes read
+         * @param fetchedEnd     the end of the range that was populated for the read itself
+         * @param writerForRange provides the writer that fills the given range of the blob
+         */
+        public void maybeReadAhead(long position, int length, long fetchedEnd, Function<ByteRange, RangeMissingHandler> writerForRange) {
+            if (readAheadMaxSize < rangeSize) {
+                return;
+            }
+            if (readAheadTracker == null) {
+                readAheadTracker = new ReadAheadTracker(
+                    this.length,
+                    rangeSize,
+                    readAheadMaxSize,
+                    blobCacheMetrics.getReadAheadHitBytes()::incrementBy,
+                    blobCacheMetrics.getReadAheadWastedBytes()::incrementBy
+                );
+            }
+            final ByteRange range = readAheadTracker.onRead(position, length, fetchedEnd);
+            if (range.isEmpty()) {
+                return;
+            }
+            logger.trace("{}: reading ahead {}", cacheKey, range);
+            blobCacheMetrics.getReadAheadBytes().incrementBy(range.length());
+            final RangeMissingHandler writer = writerForRange.apply(range);
+            final int endRegion = getEndingRegion(range.end());
+            for (int region = getRegion(range.start()); region <= endRegion; region++) {
+                if (freeRegionCount() < 1 && maybeEvictLeastUsed() == false) {
+                    // reading ahead never evicts regions that are still in use
+                    return;
+                }
+                try {
+                    final CacheFileRegion<KeyType> fileRegion = getForScan(cacheKey, this.length, region);
+                    fileRegion.populate(
+                        mapSubRangeToRegion(range, region),
+                        writerWithOffset(writer, fileRegion, Math.toIntExact(range.start() - getRegionStart(region))),
+                        ioExecutor,
+                        ActionListener.noop()
+                    );
+                } catch (Exception e) {
+                    logger.debug(() -> Strings.format("%s: failed to read ahead %s", cacheKey, range), e);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Returns {@code true} if the given range is contained in a single region and has some bytes that are absent (or pending) in
+         * cache, i.e. if it is worth populating it with {@link #populate(ByteRange, RangeMissingHandler, ActionListener)}.
+         */
+        public boolean canPopulate(ByteRange range) {
+            final int region = getRegion(range.start());
+            if (range.isEmpty() || region != getEndingRegion(range.end())) {
+                return false;
+            }
+            final CacheFileRegion<KeyType> fileRegion = get(cacheKey, length, region);
+            return fileRegion.tracker.getAbsentRangeWithin(mapSubRangeToRegion(range, region)) != null;
+        }
+
+        /**
+         * Populates the given range, which must be contained in a single region, in the background with the given writer.
+         *
+         * @param range    the range of bytes to populate
+         * @param writer   a writer that handles writing of newly downloaded data to the shared cache
+         * @param listener a listener that is completed with {@code true} once the writer populated the missing bytes of the range, or
+         *                 immediately with {@code false} if the range is already available or pending in cache
+         */
+        public void populate(ByteRange range, RangeMissingHandler writer, ActionListener<Boolean> listener) {
+            final int region = getRegion(range.start());
+            assert region == getEndingRegion(range.end()) : range + " spans multiple regions";
+            try {
+                final CacheFileRegion<KeyType> fileRegion = get(cacheKey, length, region);
+                fileRegion.populate(
+                    mapSubRangeToRegion(range, region),
+                    writerWithOffset(writer, fileRegion, Math.toIntExact(range.start() - getRegionStart(region))),
+                    ioExecutor,
+                    listener
+                );
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        }
+
         public int populateAndRead(
             final ByteRange rangeToWrite,
             final ByteRange rangeToRead,
@@ -1489,9 +1681,13 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         long writeCount,
         long writeBytes,
         long readCount,
-        long readBytes
+        long readBytes,
+        int maxNumberOfPinnedRegions,
+        int numberOfPinnedRegions,
+        long pinnedHitCount,
+        long pinnedMissCount
     ) {
-        public static final Stats EMPTY = new Stats(0, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+        public static final Stats EMPTY = new Stats(0, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0, 0, 0L, 0L);
     }
 
     private class LFUCache implements Cache<KeyType, CacheFileRegion<KeyType>> {
@@ -1501,10 +1697,16 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             LFUCacheEntry next;
             int freq;
             volatile long lastAccessedEpoch;
+            // whether the entry belongs to a pinnable file
+            final boolean pinnable;
+            // whether the entry is held in the pinned slice, in which case it is not linked in the frequency lists, guarded by the
+            // cache service
+            boolean pinned;
 
-            LFUCacheEntry(CacheFileRegion<KeyType> chunk, long lastAccessed) {
+            LFUCacheEntry(CacheFileRegion<KeyType> chunk, long lastAccessed, boolean pinnable) {
                 super(chunk);
                 this.lastAccessedEpoch = lastAccessed;
+                this.pinnable = pinnable;
                 // todo: consider whether freq=1 is still right for new entries.
                 // it could risk decaying to level 0 right after and thus potentially be evicted
                 // if the freq 1 LRU chain was short.
@@ -1528,6 +1730,9 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private final AtomicLong epoch = new AtomicLong();
 
+        // number of entries in the pinned slice, guarded by the cache service
+        private int pinnedRegions;
+
         @SuppressWarnings("unchecked")
         LFUCache(Settings settings) {
             this.maxFreq = SHARED_CACHE_MAX_FREQ_SETTING.get(settings);
@@ -1544,8 +1749,23 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return keyMapping.get(cacheFileRegion.regionKey).freq;
         }
 
+        int pinnedRegions() {
+            synchronized (SharedBlobCacheService.this) {
+                return pinnedRegions;
+            }
+        }
+
         @Override
         public LFUCacheEntry get(KeyType cacheKey, long fileLength, int region) {
+            return get(cacheKey, fileLength, region, false);
+        }
+
+        @Override
+        public LFUCacheEntry getForScan(KeyType cacheKey, long fileLength, int region) {
+            return get(cacheKey, fileLength, region, true);
+        }
+
+        private LFUCacheEntry get(KeyType cacheKey, long fileLength, int region, boolean scan) {
             final RegionKey<KeyType> regionKey = new RegionKey<>(cacheKey, region);
             final long now = epoch.get();
             // try to just get from the map on the fast-path to save instantiating the capturing lambda needed on the slow path
@@ -1553,20 +1773,33 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             var entry = keyMapping.get(regionKey);
             if (entry == null) {
                 final int effectiveRegionSize = computeCacheFileRegionSize(fileLength, region);
-                entry = keyMapping.computeIfAbsent(
-                    regionKey,
-                    key -> new LFUCacheEntry(new CacheFileRegion<KeyType>(SharedBlobCacheService.this, key, effectiveRegionSize), now)
-                );
+                entry = keyMapping.computeIfAbsent(regionKey, key -> {
+                    var newEntry = new LFUCacheEntry(
+                        new CacheFileRegion<KeyType>(SharedBlobCacheService.this, key, effectiveRegionSize),
+                        now,
+                        maxPinnedRegions > 0 && pinnableKeyPredicate.test(key.file)
+                    );
+                    if (scan) {
+                        newEntry.freq = 0;
+                    }
+                    return newEntry;
+                });
             }
             // checks using volatile, double locking is fine, as long as we assign io last.
             if (entry.chunk.volatileIO() == null) {
                 synchronized (entry.chunk) {
                     if (entry.chunk.volatileIO() == null && entry.chunk.isEvicted() == false) {
+                        if (entry.pinnable) {
+                            pinnedMissCount.increment();
+                        }
                         return initChunk(entry);
                     }
                 }
             }
             assert assertChunkActiveOrEvicted(entry);
+            if (entry.pinnable) {
+                pinnedHitCount.increment();
+            }
 
             // existing item, check if we need to promote item
             if (now > entry.lastAccessedEpoch) {
@@ -1592,7 +1825,12 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                         int frequency = entry.freq;
                         boolean evicted = entry.chunk.forceEvict();
                         if (evicted && entry.chunk.volatileIO() != null) {
-                            unlink(entry);
+                            if (entry.pinned) {
+                                entry.pinned = false;
+                                pinnedRegions--;
+                            } else {
+                                unlink(entry);
+                            }
                             keyMapping.remove(entry.chunk.regionKey, entry);
                             evictedCount++;
                             if (frequency > 0) {
@@ -1613,7 +1851,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 throwAlreadyClosed("no free region found (contender)");
             }
             // new item
-            assert entry.freq == 1;
+            assert entry.freq == 1 || entry.freq == 0 : entry.freq;
             assert entry.prev == null;
             assert entry.next == null;
             final SharedBytes.IO freeSlot = freeRegions.poll();
@@ -1650,7 +1888,13 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                     keyMapping.remove(entry.chunk.regionKey, entry);
                     throwAlreadyClosed("evicted during free region allocation");
                 }
-                pushEntryToBack(entry);
+                if (entry.pinnable && pinnedRegions < maxPinnedRegions) {
+                    // pinned entries are kept out of the frequency lists so that they are never evicted to make room for others
+                    entry.pinned = true;
+                    pinnedRegions++;
+                } else {
+                    pushEntryToBack(entry);
+                }
                 // assign io only when chunk is ready for use. Under lock to avoid concurrent tryEvict.
                 entry.chunk.volatileIO(freeSlot);
             }
@@ -1713,8 +1957,8 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private boolean assertChunkActiveOrEvicted(LFUCacheEntry entry) {
             synchronized (SharedBlobCacheService.this) {
-                // assert linked (or evicted)
-                assert entry.prev != null || entry.chunk.isEvicted();
+                // assert linked (or pinned, or evicted)
+                assert entry.prev != null || entry.pinned || entry.chunk.isEvicted();
 
             }
             SharedBytes.IO io = entry.chunk.nonVolatileIO();
@@ -1725,7 +1969,10 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private void maybePromote(long epoch, LFUCacheEntry entry) {
             synchronized (SharedBlobCacheService.this) {
-                if (epoch > entry.lastAccessedEpoch && entry.freq < maxFreq - 1 && entry.chunk.isEvicted() == false) {
+                if (entry.pinned) {
+                    // pinned entries have no frequency, only remember the access to avoid coming back here within the same epoch
+                    entry.lastAccessedEpoch = Math.max(entry.lastAccessedEpoch, epoch);
+                } else if (epoch > entry.lastAccessedEpoch && entry.freq < maxFreq - 1 && entry.chunk.isEvicted() == false) {
                     unlink(entry);
                     // go 2 up per epoch, allowing us to decay 1 every epoch.
                     entry.freq = Math.min(entry.freq + 2, maxFreq - 1);
@@ -8,6 +8,7 @@
 package org.elasticsearch.blobcache;
 
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.telemetry.InstrumentType;
 import org.elasticsearch.telemetry.Measurement;
@@ -16,7 +17,9 @@ import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.Matchers.is;
 
@@ -68,6 +71,25 @@ public class BlobCacheMetricsTests extends ESTestCase {
         assertExpectedAttributesPresent(totalTimeMeasurement, cachePopulationReason, cachePopulationSource, fileExtension);
     }
 
+    public void testPinnedRegionCountersAreReadWhenCollected() {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        try (Releasable ignored = metrics.registerPinnedRegionCounters(hits::get, misses::get)) {
+            hits.set(randomLongBetween(0, 1000));
+            misses.set(randomLongBetween(0, 1000));
+            recordingMeterRegistry.getRecorder().collect();
+
+            final List<Measurement> hitMeasurements = recordingMeterRegistry.getRecorder()
+                .getMeasurements(InstrumentType.LONG_ASYNC_COUNTER, "es.blob_cache.pinned.hit.total");
+            assertThat(hitMeasurements.size(), is(1));
+            assertThat(hitMeasurements.get(0).getLong(), is(hits.get()));
+            final List<Measurement> missMeasurements = recordingMeterRegistry.getRecorder()
+                .getMeasurements(InstrumentType.LONG_ASYNC_COUNTER, "es.blob_cache.pinned.miss.total");
+            assertThat(missMeasurements.size(), is(1));
+            assertThat(missMeasurements.get(0).getLong(), is(misses.get()));
+        }
+    }
+
     private static void assertExpectedAttributesPresent(
         Measurement measurement,
         BlobCacheMetrics.CachePopulationReason cachePopulationReason,
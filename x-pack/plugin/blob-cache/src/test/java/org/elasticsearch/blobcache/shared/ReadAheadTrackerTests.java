@@ -0,0 +1,104 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import org.elasticsearch.blobcache.common.ByteRange;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class ReadAheadTrackerTests extends ESTestCase {
+
+    private final AtomicLong hitBytes = new AtomicLong();
+    private final AtomicLong wastedBytes = new AtomicLong();
+
+    public void testSequentialReadsGrowTheWindow() {
+        var tracker = newTracker(10_000L, 100L, 400L);
+        for (int i = 0; i < ReadAheadTracker.MIN_SEQUENTIAL_READS; i++) {
+            assertThat(tracker.onRead(i * 10L, 10, (i + 1) * 10L), equalTo(ByteRange.EMPTY));
+        }
+        assertThat(tracker.onRead(30L, 10, 40L), equalTo(ByteRange.of(40L, 140L)));
+        // nothing more is fetched until the reader went through half of the window
+        for (long position = 40L; position < 80L; position += 10L) {
+            assertThat(tracker.onRead(position, 10, position + 10L), equalTo(ByteRange.EMPTY));
+        }
+        assertThat(tracker.onRead(80L, 10, 90L), equalTo(ByteRange.of(140L, 340L)));
+        assertThat(tracker.windowSize(), equalTo(200L));
+        assertThat(hitBytes.get(), equalTo(50L));
+        assertThat(wastedBytes.get(), equalTo(0L));
+    }
+
+    public void testWindowIsCappedAndStopsAtEndOfFile() {
+        var tracker = newTracker(1_000L, 100L, 200L);
+        long lastFetched = 0L;
+        for (long position = 0L; position < 1_000L; position += 10L) {
+            ByteRange range = tracker.onRead(position, 10, position + 10L);
+            if (range.isEmpty() == false) {
+                assertThat(range.start(), equalTo(Math.max(position + 10L, lastFetched)));
+                assertTrue(range.length() <= 200L);
+                assertTrue(range.end() <= 1_000L);
+                lastFetched = range.end();
+            }
+        }
+        assertThat(lastFetched, equalTo(1_000L));
+        assertThat(tracker.windowSize(), equalTo(200L));
+        assertThat(hitBytes.get(), equalTo(1_000L - 40L));
+    }
+
+    public void testStridedReads() {
+        var tracker = newTracker(10_000L, 100L, 400L);
+        // the two first reads define the stride
+        assertThat(tracker.onRead(0L, 10, 10L), equalTo(ByteRange.EMPTY));
+        assertThat(tracker.onRead(100L, 10, 110L), equalTo(ByteRange.EMPTY));
+        for (int i = 0; i < ReadAheadTracker.MIN_SEQUENTIAL_READS - 1; i++) {
+            assertThat(tracker.onRead(200L + i * 100L, 10, 210L + i * 100L), equalTo(ByteRange.EMPTY));
+        }
+        assertThat(tracker.onRead(400L, 10, 410L), equalTo(ByteRange.of(410L, 510L)));
+    }
+
+    public void testStridesLargerThanTheMaxWindowAreRandom() {
+        var tracker = newTracker(100_000L, 100L, 400L);
+        for (long position = 0L; position < 100_000L; position += 1_000L) {
+            assertThat(tracker.onRead(position, 10, position + 10L), equalTo(ByteRange.EMPTY));
+        }
+    }
+
+    public void testRandomReadResetsTheWindowAndReportsWaste() {
+        var tracker = newTracker(10_000L, 100L, 400L);
+        for (long position = 0L; position < 40L; position += 10L) {
+            tracker.onRead(position, 10, position + 10L);
+        }
+        assertThat(tracker.windowSize(), equalTo(100L));
+        tracker.onRead(40L, 10, 50L);
+
+        assertThat(tracker.onRead(5_000L, 10, 5_010L), equalTo(ByteRange.EMPTY));
+        assertThat(tracker.windowSize(), equalTo(0L));
+        assertThat(hitBytes.get(), equalTo(10L));
+        assertThat(wastedBytes.get(), equalTo(90L));
+
+        // a new sequential run needs to be detected again before reading ahead
+        for (int i = 1; i < ReadAheadTracker.MIN_SEQUENTIAL_READS; i++) {
+            assertThat(tracker.onRead(5_000L + i * 10L, 10, 5_010L + i * 10L), equalTo(ByteRange.EMPTY));
+        }
+        assertThat(tracker.onRead(5_030L, 10, 5_040L), equalTo(ByteRange.of(5_040L, 5_140L)));
+    }
+
+    public void testReadAheadStartsAfterTheFetchedRange() {
+        var tracker = newTracker(10_000L, 100L, 400L);
+        for (long position = 0L; position < 30L; position += 10L) {
+            tracker.onRead(position, 10, 64L);
+        }
+        assertThat(tracker.onRead(30L, 10, 64L), equalTo(ByteRange.of(64L, 164L)));
+    }
+
+    private ReadAheadTracker newTracker(long fileLength, long minWindowSize, long maxWindowSize) {
+        return new ReadAheadTracker(fileLength, minWindowSize, maxWindowSize, hitBytes::addAndGet, wastedBytes::addAndGet);
+    }
+}
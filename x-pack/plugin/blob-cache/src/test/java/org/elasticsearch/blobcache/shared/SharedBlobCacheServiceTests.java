@@ -30,6 +30,8 @@ import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.StoppableExecutorServiceWrapper;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.core.CheckedRunnable;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.env.TestEnvironment;
@@ -40,6 +42,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -272,6 +275,89 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
         }
     }
 
+    public void testPinnedRegionsAreNotEvicted() throws IOException {
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(500)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_PINNED_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(200)).getStringRep())
+            .put("path.home", createTempDir())
+            .build();
+        final var pinnedKey = generateCacheKey();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+                BlobCacheMetrics.NOOP,
+                System::nanoTime,
+                pinnedKey::equals
+            )
+        ) {
+            final var pinned0 = cacheService.get(pinnedKey, size(500), 0);
+            final var pinned1 = cacheService.get(pinnedKey, size(500), 1);
+            // the pinned slice is full, next regions are subject to eviction like any other region
+            final var unpinned2 = cacheService.get(pinnedKey, size(500), 2);
+            assertEquals(2, cacheService.freeRegionCount());
+            assertEquals(2, cacheService.getStats().maxNumberOfPinnedRegions());
+            assertEquals(2, cacheService.getStats().numberOfPinnedRegions());
+            assertEquals(3L, cacheService.getStats().pinnedMissCount());
+
+            // scan through many other files
+            for (int i = 0; i < 10; i++) {
+                final var cacheKey = generateCacheKey();
+                cacheService.get(cacheKey, size(200), 0);
+                cacheService.get(cacheKey, size(200), 1);
+                taskQueue.runAllRunnableTasks();
+            }
+            assertFalse(pinned0.isEvicted());
+            assertFalse(pinned1.isEvicted());
+            assertTrue(unpinned2.isEvicted());
+
+            assertSame(pinned0, cacheService.get(pinnedKey, size(500), 0));
+            assertEquals(1L, cacheService.getStats().pinnedHitCount());
+
+            cacheService.removeFromCache(pinnedKey);
+            assertTrue(pinned0.isEvicted());
+            assertTrue(pinned1.isEvicted());
+            assertEquals(0, cacheService.getStats().numberOfPinnedRegions());
+            assertEquals(2, cacheService.freeRegionCount());
+        }
+    }
+
+    public void testScanRegionsEnterWithLowestFrequency() throws IOException {
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(500)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+                BlobCacheMetrics.NOOP
+            )
+        ) {
+            final var cacheKey = generateCacheKey();
+            final var region0 = cacheService.get(cacheKey, size(250), 0);
+            final var region1 = cacheService.getForScan(cacheKey, size(250), 1);
+            assertEquals(1, cacheService.getFreq(region0));
+            assertEquals(0, cacheService.getFreq(region1));
+            // scanned regions are the first to be evicted
+            assertTrue(cacheService.maybeEvictLeastUsed());
+            assertTrue(region1.isEvicted());
+            assertFalse(region0.isEvicted());
+        }
+    }
+
     public void testDecay() throws IOException {
         // we have 8 regions
         Settings settings = Settings.builder()
@@ -1421,6 +1507,54 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
         }
     }
 
+    public void testPrefetchSlotsAreSharedByCacheFiles() throws IOException {
+        final int maxConcurrency = between(1, 5);
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(10)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(1)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_PREFETCH_MAX_CONCURRENCY_SETTING.getKey(), maxConcurrency)
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+                BlobCacheMetrics.NOOP
+            )
+        ) {
+            final var cacheFiles = List.of(
+                cacheService.getCacheFile(generateCacheKey(), size(1)),
+                cacheService.getCacheFile(generateCacheKey(), size(1))
+            );
+            final List<Releasable> slots = new ArrayList<>();
+            for (int i = 0; i < maxConcurrency; i++) {
+                final Releasable slot = randomFrom(cacheFiles).tryAcquirePrefetchSlot();
+                assertThat(slot, notNullValue());
+                slots.add(slot);
+            }
+            for (var cacheFile : cacheFiles) {
+                assertThat(cacheFile.tryAcquirePrefetchSlot(), nullValue());
+            }
+
+            // releasing a slot twice frees it only once
+            final Releasable slot = randomFrom(slots);
+            slot.close();
+            slot.close();
+            final Releasable acquired = randomFrom(cacheFiles).tryAcquirePrefetchSlot();
+            assertThat(acquired, notNullValue());
+            for (var cacheFile : cacheFiles) {
+                assertThat(cacheFile.tryAcquirePrefetchSlot(), nullValue());
+            }
+            acquired.close();
+            Releasables.close(slots);
+        }
+    }
+
     public void testUsageSharedSourceInputStreamFactoryInCachePopulation() throws Exception {
         final long regionSizeInBytes = size(100);
         final Settings settings = Settings.builder()
@@ -8,28 +8,42 @@
 package org.elasticsearch.xpack.core.downsample;
 
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.persistent.PersistentTaskState;
+import org.elasticsearch.xcontent.ConstructingObjectParser;
 import org.elasticsearch.xcontent.ObjectParser;
 import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.ToXContentObject;
 import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentParser;
 
 import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+import static org.elasticsearch.xcontent.ConstructingObjectParser.constructorArg;
+import static org.elasticsearch.xcontent.ConstructingObjectParser.optionalConstructorArg;
 
 /**
  * @param downsampleShardIndexerStatus An instance of {@link DownsampleShardIndexerStatus} with the downsampleShardIndexerStatus of
  *                                     the downsample task
- * @param tsid The latest successfully processed tsid component of a tuple (tsid, timestamp)
+ * @param tsid The tsid from which a started task resumes, all lower tsids having been downsampled
+ * @param completedRanges The ranges of tsids above {@code tsid} that were downsampled, which a started task skips when it resumes
  */
-public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus downsampleShardIndexerStatus, BytesRef tsid)
-    implements
-        PersistentTaskState {
+public record DownsampleShardPersistentTaskState(
+    DownsampleShardIndexerStatus downsampleShardIndexerStatus,
+    BytesRef tsid,
+    List<CompletedTsidRange> completedRanges
+) implements PersistentTaskState {
 
     public static final String NAME = DownsampleShardTask.TASK_NAME;
     private static final ParseField ROLLUP_SHARD_INDEXER_STATUS = new ParseField("status");
     private static final ParseField TSID = new ParseField("tsid");
+    private static final ParseField COMPLETED_RANGES = new ParseField("completed_ranges");
 
     public static final ObjectParser<DownsampleShardPersistentTaskState.Builder, Void> PARSER = new ObjectParser<>(NAME);
 
@@ -42,14 +56,26 @@ public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus do
         );
         PARSER.declareField(
             DownsampleShardPersistentTaskState.Builder::tsid,
-            (p, c) -> new BytesRef(p.textOrNull()),
+            (p, c) -> new BytesRef(Base64.getDecoder().decode(p.text())),
             TSID,
             ObjectParser.ValueType.STRING
         );
+        PARSER.declareObjectArray(DownsampleShardPersistentTaskState.Builder::completedRanges, CompletedTsidRange.PARSER, COMPLETED_RANGES);
+    }
+
+    public DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus downsampleShardIndexerStatus, BytesRef tsid) {
+        this(downsampleShardIndexerStatus, tsid, List.of());
     }
 
     public DownsampleShardPersistentTaskState(final StreamInput in) throws IOException {
-        this(DownsampleShardIndexerStatus.readFromStream(in), in.readBytesRef());
+        this(DownsampleShardIndexerStatus.readFromStream(in), in.readBytesRef(), readCompletedRanges(in));
+    }
+
+    private static List<CompletedTsidRange> readCompletedRanges(StreamInput in) throws IOException {
+        if (in.getTransportVersion().onOrAfter(TransportVersions.DOWNSAMPLE_COMPLETED_TSID_RANGES)) {
+            return in.readCollectionAsImmutableList(CompletedTsidRange::new);
+        }
+        return List.of();
     }
 
     @Override
@@ -57,11 +83,24 @@ public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus do
         builder.startObject();
         builder.field(ROLLUP_SHARD_INDEXER_STATUS.getPreferredName(), downsampleShardIndexerStatus);
         if (tsid != null) {
-            builder.field(TSID.getPreferredName(), tsid.utf8ToString());
+            // tsids are binary
+            builder.field(TSID.getPreferredName(), encode(tsid));
+        }
+        if (completedRanges.isEmpty() == false) {
+            builder.xContentList(COMPLETED_RANGES.getPreferredName(), completedRanges);
         }
         return builder.endObject();
     }
 
+    // tsids are binary
+    private static String encode(BytesRef tsid) {
+        return Base64.getEncoder().encodeToString(BytesRef.deepCopyOf(tsid).bytes);
+    }
+
+    private static BytesRef decode(String tsid) {
+        return new BytesRef(Base64.getDecoder().decode(tsid));
+    }
+
     @Override
     public String getWriteableName() {
         return DownsampleShardTask.TASK_NAME;
@@ -71,6 +110,9 @@ public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus do
     public void writeTo(StreamOutput out) throws IOException {
         downsampleShardIndexerStatus.writeTo(out);
         out.writeBytesRef(tsid);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.DOWNSAMPLE_COMPLETED_TSID_RANGES)) {
+            out.writeCollection(completedRanges);
+        }
     }
 
     public DownsampleShardIndexerStatus downsampleShardIndexerStatus() {
@@ -96,7 +138,7 @@ public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus do
     }
 
     public static DownsampleShardPersistentTaskState readFromStream(final StreamInput in) throws IOException {
-        return new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.readFromStream(in), in.readBytesRef());
+        return new DownsampleShardPersistentTaskState(in);
     }
 
     public static DownsampleShardPersistentTaskState fromXContent(final XContentParser parser) throws IOException {
@@ -108,6 +150,7 @@ public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus do
     public static class Builder {
         private DownsampleShardIndexerStatus status;
         private BytesRef tsid;
+        private List<CompletedTsidRange> completedRanges = List.of();
 
         public Builder status(final DownsampleShardIndexerStatus status) {
             this.status = status;
@@ -119,8 +162,52 @@ public record DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus do
             return this;
         }
 
+        public Builder completedRanges(final List<CompletedTsidRange> completedRanges) {
+            this.completedRanges = completedRanges;
+            return this;
+        }
+
         public DownsampleShardPersistentTaskState build() {
-            return new DownsampleShardPersistentTaskState(status, tsid);
+            return new DownsampleShardPersistentTaskState(status, tsid, completedRanges);
+        }
+    }
+
+    /**
+     * A downsampled range of tsids, at least {@code from} and lower than {@code to}, a {@code null} {@code to} being unbounded.
+     */
+    public record CompletedTsidRange(BytesRef from, @Nullable BytesRef to) implements Writeable, ToXContentObject {
+
+        private static final ParseField FROM = new ParseField("from");
+        private static final ParseField TO = new ParseField("to");
+
+        static final ConstructingObjectParser<CompletedTsidRange, Void> PARSER = new ConstructingObjectParser<>(
+            "completed_tsid_range",
+            args -> new CompletedTsidRange(decode((String) args[0]), args[1] == null ? null : decode((String) args[1]))
+        );
+
+        static {
+            PARSER.declareString(constructorArg(), FROM);
+            PARSER.declareString(optionalConstructorArg(), TO);
+        }
+
+        public CompletedTsidRange(StreamInput in) throws IOException {
+            this(in.readBytesRef(), in.readOptional(StreamInput::readBytesRef));
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeBytesRef(from);
+            out.writeOptional(StreamOutput::writeBytesRef, to);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field(FROM.getPreferredName(), encode(from));
+            if (to != null) {
+                builder.field(TO.getPreferredName(), encode(to));
+            }
+            return builder.endObject();
         }
     }
 }
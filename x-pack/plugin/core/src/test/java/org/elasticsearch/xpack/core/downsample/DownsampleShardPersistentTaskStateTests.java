@@ -49,7 +49,15 @@ public class DownsampleShardPersistentTaskStateTests extends AbstractXContentSer
     private static DownsampleShardPersistentTaskState createRollupShardPersistentTaskState() throws IOException {
         return new DownsampleShardPersistentTaskState(
             randomFrom(DownsampleShardIndexerStatus.values()),
-            new BytesRef(randomAlphaOfLengthBetween(10, 100))
+            new BytesRef(randomByteArrayOfLength(between(10, 100))),
+            randomList(
+                0,
+                5,
+                () -> new DownsampleShardPersistentTaskState.CompletedTsidRange(
+                    new BytesRef(randomByteArrayOfLength(between(10, 100))),
+                    randomBoolean() ? null : new BytesRef(randomByteArrayOfLength(between(10, 100)))
+                )
+            )
         );
     }
 
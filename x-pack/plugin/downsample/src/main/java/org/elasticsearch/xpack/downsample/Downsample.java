@@ -15,6 +15,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsFilter;
 import org.elasticsearch.common.settings.SettingsModule;
@@ -47,12 +48,27 @@ public class Downsample extends Plugin implements ActionPlugin, PersistentTaskPl
     private static final int DOWNSAMPLE_TASK_THREAD_POOL_QUEUE_SIZE = 256;
     public static final String DOWNSAMPLE_MIN_NUMBER_OF_REPLICAS_NAME = "downsample.min_number_of_replicas";
 
+    /**
+     * The maximum number of threads that concurrently downsample distinct _tsid ranges of a shard. The downsample thread pool has at
+     * least this many threads so that the workers of a shard can actually run concurrently.
+     */
+    public static final Setting<Integer> DOWNSAMPLE_SHARD_INDEXER_WORKERS = Setting.intSetting(
+        "downsample.shard_indexer.workers",
+        4,
+        1,
+        32,
+        Setting.Property.NodeScope
+    );
+
     @Override
     public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
         final FixedExecutorBuilder downsample = new FixedExecutorBuilder(
             settings,
             DOWNSAMPLE_TASK_THREAD_POOL_NAME,
-            ThreadPool.oneEighthAllocatedProcessors(EsExecutors.allocatedProcessors(settings)),
+            Math.max(
+                ThreadPool.oneEighthAllocatedProcessors(EsExecutors.allocatedProcessors(settings)),
+                DOWNSAMPLE_SHARD_INDEXER_WORKERS.get(settings)
+            ),
             DOWNSAMPLE_TASK_THREAD_POOL_QUEUE_SIZE,
             "xpack.downsample.thread_pool",
             EsExecutors.TaskTrackingConfig.DO_NOT_TRACK
@@ -60,6 +76,11 @@ public class Downsample extends Plugin implements ActionPlugin, PersistentTaskPl
         return List.of(downsample);
     }
 
+    @Override
+    public List<Setting<?>> getSettings() {
+        return List.of(DOWNSAMPLE_SHARD_INDEXER_WORKERS);
+    }
+
     @Override
     public List<ActionHandler> getActions() {
         return List.of(
@@ -9,10 +9,12 @@ package org.elasticsearch.xpack.downsample;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.internal.hppc.IntArrayList;
 import org.apache.lucene.search.MatchAllDocsQuery;
-import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.BytesRef;
@@ -29,7 +31,9 @@ import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.engine.Engine;
@@ -57,6 +61,7 @@ import org.elasticsearch.xpack.core.downsample.DownsampleBeforeBulkInfo;
 import org.elasticsearch.xpack.core.downsample.DownsampleIndexerAction;
 import org.elasticsearch.xpack.core.downsample.DownsampleShardIndexerStatus;
 import org.elasticsearch.xpack.core.downsample.DownsampleShardPersistentTaskState;
+import org.elasticsearch.xpack.core.downsample.DownsampleShardPersistentTaskState.CompletedTsidRange;
 import org.elasticsearch.xpack.core.downsample.DownsampleShardTask;
 
 import java.io.Closeable;
@@ -67,6 +72,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.groupingBy;
@@ -78,6 +87,12 @@ import static org.elasticsearch.core.Strings.format;
  * <p>
  * The documents collected by the {@link TimeSeriesIndexSearcher} are expected to be sorted
  * by _tsid in ascending order and @timestamp in descending order.
+ * <p>
+ * The shard is split into contiguous _tsid ranges that up to {@link Downsample#DOWNSAMPLE_SHARD_INDEXER_WORKERS} workers downsample
+ * concurrently, in _tsid order. A downsample bucket never spans two ranges since all documents of a _tsid belong to the same range. Once
+ * all ranges up to some _tsid are indexed, that _tsid is persisted in the task state so that the task resumes from it when it restarts,
+ * along with the ranges above it that are indexed too, which the task skips when it resumes so that it doesn't downsample a range
+ * again.
  */
 class DownsampleShardIndexer {
 
@@ -86,6 +101,8 @@ class DownsampleShardIndexer {
     public static final int DOWNSAMPLE_BULK_ACTIONS = 10000;
     public static final ByteSizeValue DOWNSAMPLE_BULK_SIZE = ByteSizeValue.of(1, ByteSizeUnit.MB);
     public static final ByteSizeValue DOWNSAMPLE_MAX_BYTES_IN_FLIGHT = ByteSizeValue.of(50, ByteSizeUnit.MB);
+    static final int TSID_RANGES_PER_WORKER = 4;
+    static final int MIN_DOCS_PER_TSID_RANGE = 100_000;
     private final IndexShard indexShard;
     private final Client client;
     private final DownsampleMetrics downsampleMetrics;
@@ -95,13 +112,17 @@ class DownsampleShardIndexer {
     private final DateFieldMapper.DateFieldType timestampField;
     private final DocValueFormat timestampFormat;
     private final Rounding.Prepared rounding;
-    private final List<FieldValueFetcher> fieldValueFetchers;
+    private final String[] metrics;
+    private final String[] labels;
     private final DownsampleShardTask task;
     private final DownsampleShardPersistentTaskState state;
     private final String[] dimensions;
+    private final AtomicLong docsProcessed = new AtomicLong();
     private volatile boolean abort = false;
     ByteSizeValue downsampleBulkSize = DOWNSAMPLE_BULK_SIZE;
     ByteSizeValue downsampleMaxBytesInFlight = DOWNSAMPLE_MAX_BYTES_IN_FLIGHT;
+    int workers;
+    int minDocsPerTsidRange = MIN_DOCS_PER_TSID_RANGE;
 
     DownsampleShardIndexer(
         final DownsampleShardTask task,
@@ -123,6 +144,9 @@ class DownsampleShardIndexer {
         this.downsampleIndex = downsampleIndex;
         this.searcher = indexShard.acquireSearcher("downsampling");
         this.state = state;
+        this.metrics = metrics;
+        this.labels = labels;
+        this.workers = Downsample.DOWNSAMPLE_SHARD_INDEXER_WORKERS.get(indexService.getIndexSettings().getNodeSettings());
         Closeable toClose = searcher;
         try {
             this.searchExecutionContext = indexService.newSearchExecutionContext(
@@ -137,37 +161,39 @@ class DownsampleShardIndexer {
             this.timestampField = (DateFieldMapper.DateFieldType) searchExecutionContext.getFieldType(config.getTimestampField());
             this.timestampFormat = timestampField.docValueFormat(null, null);
             this.rounding = config.createRounding();
-
-            List<FieldValueFetcher> fetchers = new ArrayList<>(metrics.length + labels.length + dimensions.length);
-            fetchers.addAll(FieldValueFetcher.create(searchExecutionContext, metrics));
-            fetchers.addAll(FieldValueFetcher.create(searchExecutionContext, labels));
-            fetchers.addAll(DimensionFieldValueFetcher.create(searchExecutionContext, dimensions));
-            this.fieldValueFetchers = Collections.unmodifiableList(fetchers);
+            // fail early on unsupported fields, each worker creates its own fetchers since field producers are stateful
+            createFieldValueFetchers();
             toClose = null;
         } finally {
             IOUtils.closeWhileHandlingException(toClose);
         }
     }
 
+    private List<FieldValueFetcher> createFieldValueFetchers() {
+        List<FieldValueFetcher> fetchers = new ArrayList<>(metrics.length + labels.length + dimensions.length);
+        fetchers.addAll(FieldValueFetcher.create(searchExecutionContext, metrics));
+        fetchers.addAll(FieldValueFetcher.create(searchExecutionContext, labels));
+        fetchers.addAll(DimensionFieldValueFetcher.create(searchExecutionContext, dimensions));
+        return Collections.unmodifiableList(fetchers);
+    }
+
     public DownsampleIndexerAction.ShardDownsampleResponse execute() throws IOException {
-        final Query initialStateQuery = createQuery();
-        if (initialStateQuery instanceof MatchNoDocsQuery) {
-            return new DownsampleIndexerAction.ShardDownsampleResponse(indexShard.shardId(), task.getNumIndexed());
-        }
+        final BytesRef resumeTsid = this.state.started() ? this.state.tsid() : null;
+        final List<CompletedTsidRange> completedRanges = this.state.started() ? this.state.completedRanges() : List.of();
         long startTime = client.threadPool().relativeTimeInMillis();
         task.setTotalShardDocCount(searcher.getDirectoryReader().numDocs());
         task.setDownsampleShardIndexerStatus(DownsampleShardIndexerStatus.STARTED);
         task.updatePersistentTaskState(
-            new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.STARTED, null),
+            new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.STARTED, resumeTsid, completedRanges),
             ActionListener.noop()
         );
         logger.info("Downsampling task [" + task.getPersistentTaskId() + " on shard " + indexShard.shardId() + " started");
-        BulkProcessor2 bulkProcessor = createBulkProcessor();
-        try (searcher; bulkProcessor) {
-            final TimeSeriesIndexSearcher timeSeriesSearcher = new TimeSeriesIndexSearcher(searcher, List.of(this::checkCancelled));
-            TimeSeriesBucketCollector bucketCollector = new TimeSeriesBucketCollector(bulkProcessor, this.dimensions);
-            bucketCollector.preCollection();
-            timeSeriesSearcher.search(initialStateQuery, bucketCollector);
+        try (searcher) {
+            // small shards are not worth splitting
+            final int numRanges = (int) Math.min(workers * TSID_RANGES_PER_WORKER, task.getTotalShardDocCount() / minDocsPerTsidRange);
+            final List<BytesRef> splitPoints = tsidSplitPoints(searcher.getIndexReader(), resumeTsid, numRanges);
+            final List<TsidRange> ranges = createRanges(splitPoints, resumeTsid, completedRanges);
+            new TsidRangeWorkers(ranges, resumeTsid, completedRanges, createBulkListener()).run();
         }
 
         TimeValue duration = TimeValue.timeValueMillis(client.threadPool().relativeTimeInMillis() - startTime);
@@ -221,11 +247,241 @@ class DownsampleShardIndexer {
         return new DownsampleIndexerAction.ShardDownsampleResponse(indexShard.shardId(), task.getNumIndexed());
     }
 
-    private Query createQuery() {
-        if (this.state.started() && this.state.tsid() != null) {
-            return SortedSetDocValuesField.newSlowRangeQuery(TimeSeriesIdFieldMapper.NAME, this.state.tsid(), null, true, false);
+    /**
+     * Returns up to {@code numRanges - 1} increasing _tsid values, all greater than {@code from}, that split the _tsid values of the
+     * largest segment, which is representative of the shard, into ranges of similar cardinality.
+     */
+    static List<BytesRef> tsidSplitPoints(IndexReader reader, @Nullable BytesRef from, int numRanges) throws IOException {
+        final List<BytesRef> splitPoints = new ArrayList<>();
+        LeafReaderContext largestLeaf = null;
+        for (LeafReaderContext leaf : reader.leaves()) {
+            if (largestLeaf == null || leaf.reader().maxDoc() > largestLeaf.reader().maxDoc()) {
+                largestLeaf = leaf;
+            }
+        }
+        if (largestLeaf == null || numRanges <= 1) {
+            return splitPoints;
+        }
+        final SortedSetDocValues tsids = DocValues.getSortedSet(largestLeaf.reader(), TimeSeriesIdFieldMapper.NAME);
+        long firstOrd = 0;
+        if (from != null) {
+            final long ord = tsids.lookupTerm(from);
+            firstOrd = ord >= 0 ? ord + 1 : -1 - ord;
+        }
+        final long valueCount = tsids.getValueCount() - firstOrd;
+        for (int i = 1; i < numRanges && valueCount > 1; i++) {
+            final BytesRef splitPoint = BytesRef.deepCopyOf(tsids.lookupOrd(firstOrd + valueCount * i / numRanges));
+            if (splitPoints.isEmpty() || splitPoints.get(splitPoints.size() - 1).compareTo(splitPoint) < 0) {
+                splitPoints.add(splitPoint);
+            }
+        }
+        return splitPoints;
+    }
+
+    /**
+     * Splits the _tsid values from {@code from} that are not in {@code completedRanges} into ranges at the given split points.
+     */
+    static List<TsidRange> createRanges(List<BytesRef> splitPoints, @Nullable BytesRef from, List<CompletedTsidRange> completedRanges) {
+        final List<TsidRange> ranges = new ArrayList<>(splitPoints.size() + completedRanges.size() + 1);
+        BytesRef lower = from;
+        for (CompletedTsidRange completed : completedRanges) {
+            if (Objects.equals(lower, completed.from()) == false) {
+                addRanges(ranges, splitPoints, lower, completed.from());
+            }
+            if (completed.to() == null) {
+                return ranges;
+            }
+            lower = completed.to();
+        }
+        addRanges(ranges, splitPoints, lower, null);
+        return ranges;
+    }
+
+    private static void addRanges(List<TsidRange> ranges, List<BytesRef> splitPoints, @Nullable BytesRef from, @Nullable BytesRef to) {
+        BytesRef lower = from;
+        for (BytesRef splitPoint : splitPoints) {
+            if ((lower == null || splitPoint.compareTo(lower) > 0) && (to == null || splitPoint.compareTo(to) < 0)) {
+                ranges.add(new TsidRange(ranges.size(), lower, splitPoint));
+                lower = splitPoint;
+            }
+        }
+        ranges.add(new TsidRange(ranges.size(), lower, to));
+    }
+
+    /**
+     * The documents whose _tsid is at least {@code from} and lower than {@code to}, a {@code null} bound being unbounded.
+     */
+    record TsidRange(int index, @Nullable BytesRef from, @Nullable BytesRef to) {
+        Query query() {
+            if (from == null && to == null) {
+                return new MatchAllDocsQuery();
+            }
+            return SortedSetDocValuesField.newSlowRangeQuery(TimeSeriesIdFieldMapper.NAME, from, to, true, false);
+        }
+    }
+
+    /**
+     * Downsamples the ranges in _tsid order on the calling thread and on up to {@link #workers} - 1 threads of the downsample thread pool.
+     * Helpers that only start once the calling thread ran out of ranges do nothing, so that a busy thread pool never blocks the task. The
+     * bytes in flight are split between the ranges that can run concurrently, which is bounded by the size of the thread pool.
+     */
+    private final class TsidRangeWorkers {
+        private final List<TsidRange> ranges;
+        private final BulkProcessor2.Listener bulkListener;
+        private final ByteSizeValue maxBytesInFlightPerRange;
+        private final AtomicInteger nextRange = new AtomicInteger();
+        private final int concurrency;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        // all _tsid values lower than the checkpoint are indexed, as well as the completed ranges above it, which are sorted
+        private BytesRef checkpoint;
+        private boolean allCompleted;
+        private final List<CompletedTsidRange> completedRanges;
+        private int runningHelpers;
+        private boolean closed;
+
+        TsidRangeWorkers(
+            List<TsidRange> ranges,
+            @Nullable BytesRef checkpoint,
+            List<CompletedTsidRange> completedRanges,
+            BulkProcessor2.Listener bulkListener
+        ) {
+            this.ranges = ranges;
+            this.checkpoint = checkpoint;
+            this.completedRanges = new ArrayList<>(completedRanges);
+            this.bulkListener = bulkListener;
+            final int maxThreads = client.threadPool().info(Downsample.DOWNSAMPLE_TASK_THREAD_POOL_NAME).getMax();
+            this.concurrency = Math.max(1, Math.min(Math.min(workers, ranges.size()), maxThreads));
+            this.maxBytesInFlightPerRange = ByteSizeValue.ofBytes(Math.max(1, downsampleMaxBytesInFlight.getBytes() / concurrency));
+        }
+
+        void run() throws IOException {
+            final Executor executor = client.threadPool().executor(Downsample.DOWNSAMPLE_TASK_THREAD_POOL_NAME);
+            for (int i = 1; i < concurrency; i++) {
+                executor.execute(new AbstractRunnable() {
+                    @Override
+                    protected void doRun() {
+                        if (startHelper()) {
+                            try {
+                                downsampleRanges();
+                            } finally {
+                                stopHelper();
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onRejection(Exception e) {
+                        // the other workers pick up the ranges of this one
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+            }
+            try {
+                downsampleRanges();
+            } finally {
+                awaitHelpers();
+            }
+            final Exception e = failure.get();
+            if (e instanceof IOException ioe) {
+                throw ioe;
+            } else if (e != null) {
+                throw (RuntimeException) e;
+            }
+            assert abort || allCompleted || ranges.isEmpty() : "not all _tsid ranges completed, still missing " + completedRanges;
+        }
+
+        private void downsampleRanges() {
+            try {
+                for (int i = nextRange.getAndIncrement(); i < ranges.size() && failure.get() == null; i = nextRange.getAndIncrement()) {
+                    downsampleRange(ranges.get(i));
+                    rangeCompleted(i);
+                }
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private void downsampleRange(TsidRange range) throws IOException {
+            final BulkProcessor2 bulkProcessor = createBulkProcessor(bulkListener, maxBytesInFlightPerRange);
+            // closing the bulk processor waits for the range to be indexed
+            try (bulkProcessor) {
+                final TimeSeriesIndexSearcher timeSeriesSearcher = new TimeSeriesIndexSearcher(
+                    searcher,
+                    List.of(DownsampleShardIndexer.this::checkCancelled, this::checkFailed)
+                );
+                final TimeSeriesBucketCollector bucketCollector = new TimeSeriesBucketCollector(bulkProcessor, dimensions, range);
+                bucketCollector.preCollection();
+                timeSeriesSearcher.search(range.query(), bucketCollector);
+            }
+        }
+
+        private void checkFailed() {
+            if (failure.get() != null) {
+                throw new DownsampleShardIndexerException("Downsampling of another _tsid range failed", false);
+            }
+        }
+
+        private synchronized void rangeCompleted(int index) {
+            // a failed bulk request may belong to any range, so none is known to be indexed once one failed
+            if (abort || failure.get() != null) {
+                return;
+            }
+            final TsidRange range = ranges.get(index);
+            if (Objects.equals(checkpoint, range.from())) {
+                checkpoint = range.to();
+                allCompleted = range.to() == null;
+            } else {
+                int insertionPoint = 0;
+                while (insertionPoint < completedRanges.size() && completedRanges.get(insertionPoint).from().compareTo(range.from()) < 0) {
+                    insertionPoint++;
+                }
+                completedRanges.add(insertionPoint, new CompletedTsidRange(range.from(), range.to()));
+            }
+            // ranges are contiguous, so the completed ranges that now start at the checkpoint move it forward
+            while (allCompleted == false && completedRanges.isEmpty() == false && completedRanges.get(0).from().equals(checkpoint)) {
+                checkpoint = completedRanges.remove(0).to();
+                allCompleted = checkpoint == null;
+            }
+            if (allCompleted == false) {
+                task.updatePersistentTaskState(
+                    new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.STARTED, checkpoint, List.copyOf(completedRanges)),
+                    ActionListener.noop()
+                );
+            }
+        }
+
+        private synchronized boolean startHelper() {
+            if (closed) {
+                return false;
+            }
+            runningHelpers++;
+            return true;
+        }
+
+        private synchronized void stopHelper() {
+            runningHelpers--;
+            notifyAll();
+        }
+
+        private synchronized void awaitHelpers() {
+            closed = true;
+            boolean interrupted = false;
+            // helpers read from the searcher, which must stay open until they are done
+            while (runningHelpers > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
-        return new MatchAllDocsQuery();
     }
 
     private void checkCancelled() {
@@ -267,8 +523,8 @@ class DownsampleShardIndexer {
         }
     }
 
-    private BulkProcessor2 createBulkProcessor() {
-        final BulkProcessor2.Listener listener = new BulkProcessor2.Listener() {
+    private BulkProcessor2.Listener createBulkListener() {
+        return new BulkProcessor2.Listener() {
 
             @Override
             public void beforeBulk(long executionId, BulkRequest request) {
@@ -329,26 +585,32 @@ class DownsampleShardIndexer {
                 }
             }
         };
+    }
 
+    private BulkProcessor2 createBulkProcessor(BulkProcessor2.Listener listener, ByteSizeValue maxBytesInFlight) {
         return BulkProcessor2.builder(client::bulk, listener, client.threadPool())
             .setBulkActions(DOWNSAMPLE_BULK_ACTIONS)
             .setBulkSize(DOWNSAMPLE_BULK_SIZE)
-            .setMaxBytesInFlight(downsampleMaxBytesInFlight)
+            .setMaxBytesInFlight(maxBytesInFlight)
             .setMaxNumberOfRetries(3)
             .build();
     }
 
     private class TimeSeriesBucketCollector extends BucketCollector {
         private final BulkProcessor2 bulkProcessor;
+        private final TsidRange range;
+        private final List<FieldValueFetcher> fieldValueFetchers;
         private final DownsampleBucketBuilder downsampleBucketBuilder;
         private final List<LeafDownsampleCollector> leafBucketCollectors = new ArrayList<>();
-        private long docsProcessed;
+        private long rangeDocsProcessed;
         private long bucketsCreated;
         long lastTimestamp = Long.MAX_VALUE;
         long lastHistoTimestamp = Long.MAX_VALUE;
 
-        TimeSeriesBucketCollector(BulkProcessor2 bulkProcessor, String[] dimensions) {
+        TimeSeriesBucketCollector(BulkProcessor2 bulkProcessor, String[] dimensions, TsidRange range) {
             this.bulkProcessor = bulkProcessor;
+            this.range = range;
+            this.fieldValueFetchers = createFieldValueFetchers();
             AbstractDownsampleFieldProducer[] fieldProducers = fieldValueFetchers.stream()
                 .map(FieldValueFetcher::fieldProducer)
                 .toArray(AbstractDownsampleFieldProducer[]::new);
@@ -509,8 +771,8 @@ class DownsampleShardIndexer {
                     metricFieldProducer.collect(numericDoubleValues, docIdBuffer);
                 }
 
-                docsProcessed += docIdBuffer.size();
-                task.setDocsProcessed(docsProcessed);
+                rangeDocsProcessed += docIdBuffer.size();
+                task.setDocsProcessed(docsProcessed.addAndGet(docIdBuffer.size()));
 
                 // buffer.clean() also overwrites all slots with zeros
                 docIdBuffer.elementsCount = 0;
@@ -568,10 +830,11 @@ class DownsampleShardIndexer {
             // check cancel after the flush all data
             checkCancelled();
 
-            logger.info(
-                "Shard {} processed [{}] docs, created [{}] downsample buckets",
+            logger.debug(
+                "Shard {} processed [{}] docs of _tsid range [{}], created [{}] downsample buckets",
                 indexShard.shardId(),
-                docsProcessed,
+                rangeDocsProcessed,
+                range.index(),
                 bucketsCreated
             );
         }
@@ -69,13 +69,25 @@ public class DownsampleShardPersistentTaskExecutor extends PersistentTasksExecut
         final DownsampleShardTaskParams params,
         final PersistentTaskState state
     ) {
+        if (state instanceof DownsampleShardPersistentTaskState shardState
+            && shardState.started()
+            && (shardState.tsid() != null || shardState.completedRanges().isEmpty() == false)) {
+            // NOTE: all the _tsid values lower than the checkpoint of a started task have been downsampled, as well as its completed
+            // ranges, resume from there.
+            delegate(task, params, shardState);
+            return;
+        }
         // NOTE: query the downsampling target index so that we can start the downsampling task from the latest indexed tsid.
         final SearchRequest searchRequest = new SearchRequest(params.downsampleIndex());
         searchRequest.source().sort(TimeSeriesIdFieldMapper.NAME, SortOrder.DESC).size(1);
         searchRequest.preference("_shards:" + params.shardId().id());
         client.search(searchRequest, ActionListener.wrap(searchResponse -> {
-            delegate(task, params, extractTsId(searchResponse.getHits().getHits()));
-        }, e -> delegate(task, params, null)));
+            delegate(task, params, initialState(extractTsId(searchResponse.getHits().getHits())));
+        }, e -> delegate(task, params, initialState(null))));
+    }
+
+    private static DownsampleShardPersistentTaskState initialState(BytesRef lastDownsampleTsid) {
+        return new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.INITIALIZED, lastDownsampleTsid);
     }
 
     private static BytesRef extractTsId(SearchHit[] lastDownsampleTsidHits) {
@@ -165,11 +177,15 @@ public class DownsampleShardPersistentTaskExecutor extends PersistentTasksExecut
         return EsExecutors.DIRECT_EXECUTOR_SERVICE;
     }
 
-    private void delegate(final AllocatedPersistentTask task, final DownsampleShardTaskParams params, final BytesRef lastDownsampleTsid) {
+    private void delegate(
+        final AllocatedPersistentTask task,
+        final DownsampleShardTaskParams params,
+        final DownsampleShardPersistentTaskState initialState
+    ) {
         DownsampleShardTask downsampleShardTask = (DownsampleShardTask) task;
         client.execute(
             DelegatingAction.INSTANCE,
-            new DelegatingAction.Request(downsampleShardTask, lastDownsampleTsid, params),
+            new DelegatingAction.Request(downsampleShardTask, initialState, params),
             ActionListener.wrap(empty -> {}, e -> {
                 LOGGER.error("error while delegating", e);
                 markAsFailed(downsampleShardTask, e);
@@ -188,7 +204,7 @@ public class DownsampleShardPersistentTaskExecutor extends PersistentTasksExecut
         DownsampleMetrics downsampleMetrics,
         DownsampleShardTask task,
         DownsampleShardTaskParams params,
-        BytesRef lastDownsampledTsid
+        DownsampleShardPersistentTaskState initialState
     ) {
         client.threadPool().executor(Downsample.DOWNSAMPLE_TASK_THREAD_POOL_NAME).execute(new AbstractRunnable() {
             @Override
@@ -198,10 +214,6 @@ public class DownsampleShardPersistentTaskExecutor extends PersistentTasksExecut
 
             @Override
             protected void doRun() throws Exception {
-                final var initialState = new DownsampleShardPersistentTaskState(
-                    DownsampleShardIndexerStatus.INITIALIZED,
-                    lastDownsampledTsid
-                );
                 try {
                     final var downsampleShardIndexer = new DownsampleShardIndexer(
                         task,
@@ -263,12 +275,12 @@ public class DownsampleShardPersistentTaskExecutor extends PersistentTasksExecut
         public static class Request extends ActionRequest implements IndicesRequest.RemoteClusterShardRequest {
 
             private final DownsampleShardTask task;
-            private final BytesRef lastDownsampleTsid;
+            private final DownsampleShardPersistentTaskState initialState;
             private final DownsampleShardTaskParams params;
 
-            public Request(DownsampleShardTask task, BytesRef lastDownsampleTsid, DownsampleShardTaskParams params) {
+            public Request(DownsampleShardTask task, DownsampleShardPersistentTaskState initialState, DownsampleShardTaskParams params) {
                 this.task = task;
-                this.lastDownsampleTsid = lastDownsampleTsid;
+                this.initialState = initialState;
                 this.params = params;
             }
 
@@ -321,7 +333,7 @@ public class DownsampleShardPersistentTaskExecutor extends PersistentTasksExecut
 
             @Override
             protected void doExecute(Task t, Request request, ActionListener<ActionResponse.Empty> listener) {
-                realNodeOperation(client, indicesService, downsampleMetrics, request.task, request.params, request.lastDownsampleTsid);
+                realNodeOperation(client, indicesService, downsampleMetrics, request.task, request.params, request.initialState);
                 listener.onResponse(ActionResponse.Empty.INSTANCE);
             }
 
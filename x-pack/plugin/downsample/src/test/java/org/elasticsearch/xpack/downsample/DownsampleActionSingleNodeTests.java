@@ -57,6 +57,8 @@ import org.elasticsearch.index.mapper.TimeSeriesParams;
 import org.elasticsearch.index.query.TermQueryBuilder;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.persistent.PersistentTaskState;
+import org.elasticsearch.persistent.PersistentTasksCustomMetadata;
 import org.elasticsearch.persistent.PersistentTasksService;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.PluginsService;
@@ -115,6 +117,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -126,7 +129,9 @@ import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitC
 import static org.elasticsearch.xcontent.XContentFactory.jsonBuilder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.mockito.Mockito.mock;
 
 public class DownsampleActionSingleNodeTests extends ESSingleNodeTestCase {
@@ -895,6 +900,290 @@ public class DownsampleActionSingleNodeTests extends ESSingleNodeTestCase {
         }
     }
 
+    public void testDownsampleConcurrentTsidRanges() throws IOException {
+        final DownsampleConfig config = new DownsampleConfig(randomInterval());
+        final SourceSupplier sourceSupplier = () -> XContentFactory.jsonBuilder()
+            .startObject()
+            .field(FIELD_TIMESTAMP, randomDateForInterval(config.getInterval()))
+            .field(FIELD_DIMENSION_1, randomAlphaOfLength(2))
+            .field(FIELD_NUMERIC_1, randomDouble())
+            .endObject();
+        bulkIndex(sourceSupplier);
+        prepareSourceIndex(sourceIndex, true);
+
+        final IndicesService indexServices = getInstanceFromNode(IndicesService.class);
+        final IndexService indexService = indexServices.indexServiceSafe(resolveIndex(sourceIndex));
+        final int shardNum = randomIntBetween(0, numOfShards - 1);
+        final IndexShard shard = indexService.getShard(shardNum);
+
+        final long[] numIndexed = new long[2];
+        for (int run = 0; run < numIndexed.length; run++) {
+            final DownsampleShardTask task = new DownsampleShardTask(
+                randomLong(),
+                "rollup",
+                "action",
+                TaskId.EMPTY_TASK_ID,
+                downsampleIndex,
+                indexService.getIndexSettings().getTimestampBounds().startTime(),
+                indexService.getIndexSettings().getTimestampBounds().endTime(),
+                config,
+                emptyMap(),
+                shard.shardId()
+            );
+            task.testInit(mock(PersistentTasksService.class), mock(TaskManager.class), randomAlphaOfLength(5), randomIntBetween(1, 5));
+            final DownsampleShardIndexer indexer = new DownsampleShardIndexer(
+                task,
+                client(),
+                indexService,
+                getInstanceFromNode(DownsampleMetrics.class),
+                shard.shardId(),
+                downsampleIndex,
+                config,
+                new String[] { FIELD_NUMERIC_1, FIELD_NUMERIC_2 },
+                new String[] {},
+                new String[] { FIELD_DIMENSION_1 },
+                new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.INITIALIZED, null)
+            );
+            // the first run downsamples the whole shard at once, the second one concurrently downsamples many _tsid ranges
+            if (run == 1) {
+                indexer.workers = randomIntBetween(2, 8);
+                indexer.minDocsPerTsidRange = 1;
+            }
+            final DownsampleIndexerAction.ShardDownsampleResponse response = indexer.execute();
+
+            assertEquals(DownsampleShardIndexerStatus.COMPLETED, task.getDownsampleShardIndexerStatus());
+            assertEquals(task.getTotalShardDocCount(), task.getNumReceived());
+            assertEquals(task.getNumSent(), task.getNumIndexed());
+            assertEquals(0L, task.getNumFailed());
+            numIndexed[run] = response.getNumIndexed();
+        }
+        assertEquals(numIndexed[0], numIndexed[1]);
+    }
+
+    public void testResumeDownsampleAfterBulkFailure() throws IOException {
+        final DownsampleConfig config = new DownsampleConfig(randomInterval());
+        final SourceSupplier sourceSupplier = () -> XContentFactory.jsonBuilder()
+            .startObject()
+            .field(FIELD_TIMESTAMP, randomDateForInterval(config.getInterval()))
+            .field(FIELD_DIMENSION_1, randomAlphaOfLength(2))
+            .field(FIELD_NUMERIC_1, randomDouble())
+            .endObject();
+        bulkIndex(sourceSupplier);
+        prepareSourceIndex(sourceIndex, true);
+
+        final IndicesService indexServices = getInstanceFromNode(IndicesService.class);
+        final IndexService indexService = indexServices.indexServiceSafe(resolveIndex(sourceIndex));
+        final int shardNum = randomIntBetween(0, numOfShards - 1);
+        final IndexShard shard = indexService.getShard(shardNum);
+
+        // block downsample index so that every bulk request fails
+        assertAcked(
+            indicesAdmin().preparePutTemplate(downsampleIndex)
+                .setPatterns(List.of(downsampleIndex))
+                .setSettings(Settings.builder().put("index.blocks.write", "true").build())
+        );
+
+        final List<DownsampleShardPersistentTaskState> persistedStates = new CopyOnWriteArrayList<>();
+        final DownsampleShardTask failedTask = createDownsampleShardTask(indexService, shard, config, persistedStates);
+        final DownsampleShardIndexer failedIndexer = createConcurrentDownsampleShardIndexer(
+            failedTask,
+            indexService,
+            shard,
+            config,
+            new DownsampleShardPersistentTaskState(DownsampleShardIndexerStatus.INITIALIZED, null)
+        );
+        expectThrows(ElasticsearchException.class, failedIndexer::execute);
+        assertThat(failedTask.getNumFailed(), greaterThan(0L));
+
+        // no _tsid checkpoint may be persisted since none of the ranges was indexed
+        DownsampleShardPersistentTaskState resumeState = null;
+        for (DownsampleShardPersistentTaskState state : persistedStates) {
+            if (state.started()) {
+                assertNull(state.tsid());
+                resumeState = state;
+            }
+        }
+        assertNotNull(resumeState);
+
+        assertAcked(indicesAdmin().prepareDeleteTemplate(downsampleIndex));
+        assertAcked(
+            indicesAdmin().prepareUpdateSettings(downsampleIndex).setSettings(Settings.builder().put("index.blocks.write", false))
+        );
+
+        // resuming from the last persisted state downsamples the whole shard
+        final DownsampleShardTask task = createDownsampleShardTask(indexService, shard, config, new CopyOnWriteArrayList<>());
+        final DownsampleShardIndexer indexer = createConcurrentDownsampleShardIndexer(task, indexService, shard, config, resumeState);
+        final DownsampleIndexerAction.ShardDownsampleResponse response = indexer.execute();
+
+        assertEquals(DownsampleShardIndexerStatus.COMPLETED, task.getDownsampleShardIndexerStatus());
+        assertEquals(task.getTotalShardDocCount(), task.getNumReceived());
+        assertEquals(task.getNumSent(), task.getNumIndexed());
+        assertEquals(0L, task.getNumFailed());
+        assertEquals(response.getNumIndexed(), task.getNumIndexed());
+    }
+
+    public void testResumeDownsampleSkipsIndexedRanges() throws IOException {
+        final DownsampleConfig config = new DownsampleConfig(randomInterval());
+        final SourceSupplier sourceSupplier = () -> XContentFactory.jsonBuilder()
+            .startObject()
+            .field(FIELD_TIMESTAMP, randomDateForInterval(config.getInterval()))
+            .field(FIELD_DIMENSION_1, randomAlphaOfLength(2))
+            .field(FIELD_NUMERIC_1, randomDouble())
+            .endObject();
+        bulkIndex(sourceSupplier);
+        prepareSourceIndex(sourceIndex, true);
+
+        final IndicesService indexServices = getInstanceFromNode(IndicesService.class);
+        final IndexService indexService = indexServices.indexServiceSafe(resolveIndex(sourceIndex));
+        final int shardNum = randomIntBetween(0, numOfShards - 1);
+        final IndexShard shard = indexService.getShard(shardNum);
+        final DownsampleShardPersistentTaskState initialState = new DownsampleShardPersistentTaskState(
+            DownsampleShardIndexerStatus.INITIALIZED,
+            null
+        );
+
+        // the number of downsampled documents of the shard, downsampled in one go into another index
+        final DownsampleShardTask referenceTask = createDownsampleShardTask(indexService, shard, config, new CopyOnWriteArrayList<>());
+        final long expectedNumIndexed = new DownsampleShardIndexer(
+            referenceTask,
+            client(),
+            indexService,
+            getInstanceFromNode(DownsampleMetrics.class),
+            shard.shardId(),
+            downsampleIndex + "-reference",
+            config,
+            new String[] { FIELD_NUMERIC_1, FIELD_NUMERIC_2 },
+            new String[] {},
+            new String[] { FIELD_DIMENSION_1 },
+            initialState
+        ).execute().getNumIndexed();
+
+        // block the downsample index as soon as a first _tsid range is indexed, so that the following ranges fail
+        final List<DownsampleShardPersistentTaskState> persistedStates = new CopyOnWriteArrayList<>();
+        final AtomicBoolean blocked = new AtomicBoolean();
+        final DownsampleShardTask failedTask = new DownsampleShardTask(
+            randomLong(),
+            "rollup",
+            "action",
+            TaskId.EMPTY_TASK_ID,
+            downsampleIndex,
+            indexService.getIndexSettings().getTimestampBounds().startTime(),
+            indexService.getIndexSettings().getTimestampBounds().endTime(),
+            config,
+            emptyMap(),
+            shard.shardId()
+        ) {
+            @Override
+            public void updatePersistentTaskState(
+                PersistentTaskState state,
+                ActionListener<PersistentTasksCustomMetadata.PersistentTask<?>> listener
+            ) {
+                final DownsampleShardPersistentTaskState shardState = (DownsampleShardPersistentTaskState) state;
+                persistedStates.add(shardState);
+                final boolean progressed = shardState.tsid() != null || shardState.completedRanges().isEmpty() == false;
+                if (shardState.started() && progressed && blocked.compareAndSet(false, true)) {
+                    assertAcked(
+                        indicesAdmin().prepareUpdateSettings(downsampleIndex)
+                            .setSettings(Settings.builder().put("index.blocks.write", true))
+                    );
+                }
+            }
+        };
+        failedTask.testInit(mock(PersistentTasksService.class), mock(TaskManager.class), randomAlphaOfLength(5), randomIntBetween(1, 5));
+        final DownsampleShardIndexer failedIndexer = createConcurrentDownsampleShardIndexer(
+            failedTask,
+            indexService,
+            shard,
+            config,
+            initialState
+        );
+        // ranges are downsampled one after the other, so that no range is partially indexed when the block is added
+        failedIndexer.workers = 1;
+        expectThrows(ElasticsearchException.class, failedIndexer::execute);
+        assertTrue(blocked.get());
+        assertThat(failedTask.getNumFailed(), greaterThan(0L));
+
+        indicesAdmin().prepareRefresh(downsampleIndex).get();
+        final long numIndexedBeforeFailure = SearchResponseUtils.getTotalHitsValue(
+            client().prepareSearch(downsampleIndex).setSize(0).setTrackTotalHits(true)
+        );
+        assertThat(numIndexedBeforeFailure, greaterThan(0L));
+        final DownsampleShardPersistentTaskState resumeState = persistedStates.get(persistedStates.size() - 1);
+        assertTrue(resumeState.started());
+        assertNotNull(resumeState.tsid());
+
+        assertAcked(
+            indicesAdmin().prepareUpdateSettings(downsampleIndex).setSettings(Settings.builder().put("index.blocks.write", false))
+        );
+
+        // resuming downsamples the ranges that were not indexed, and only those
+        final DownsampleShardTask task = createDownsampleShardTask(indexService, shard, config, new CopyOnWriteArrayList<>());
+        final DownsampleShardIndexer indexer = createConcurrentDownsampleShardIndexer(task, indexService, shard, config, resumeState);
+        final DownsampleIndexerAction.ShardDownsampleResponse response = indexer.execute();
+
+        assertEquals(DownsampleShardIndexerStatus.COMPLETED, task.getDownsampleShardIndexerStatus());
+        assertEquals(0L, task.getNumFailed());
+        assertThat(task.getNumReceived(), lessThan(task.getTotalShardDocCount()));
+        assertEquals(expectedNumIndexed, numIndexedBeforeFailure + response.getNumIndexed());
+        indicesAdmin().prepareRefresh(downsampleIndex).get();
+        assertHitCount(client().prepareSearch(downsampleIndex).setSize(0).setTrackTotalHits(true), expectedNumIndexed);
+    }
+
+    private DownsampleShardTask createDownsampleShardTask(
+        IndexService indexService,
+        IndexShard shard,
+        DownsampleConfig config,
+        List<DownsampleShardPersistentTaskState> persistedStates
+    ) {
+        final DownsampleShardTask task = new DownsampleShardTask(
+            randomLong(),
+            "rollup",
+            "action",
+            TaskId.EMPTY_TASK_ID,
+            downsampleIndex,
+            indexService.getIndexSettings().getTimestampBounds().startTime(),
+            indexService.getIndexSettings().getTimestampBounds().endTime(),
+            config,
+            emptyMap(),
+            shard.shardId()
+        ) {
+            @Override
+            public void updatePersistentTaskState(
+                PersistentTaskState state,
+                ActionListener<PersistentTasksCustomMetadata.PersistentTask<?>> listener
+            ) {
+                persistedStates.add((DownsampleShardPersistentTaskState) state);
+            }
+        };
+        task.testInit(mock(PersistentTasksService.class), mock(TaskManager.class), randomAlphaOfLength(5), randomIntBetween(1, 5));
+        return task;
+    }
+
+    private DownsampleShardIndexer createConcurrentDownsampleShardIndexer(
+        DownsampleShardTask task,
+        IndexService indexService,
+        IndexShard shard,
+        DownsampleConfig config,
+        DownsampleShardPersistentTaskState state
+    ) {
+        final DownsampleShardIndexer indexer = new DownsampleShardIndexer(
+            task,
+            client(),
+            indexService,
+            getInstanceFromNode(DownsampleMetrics.class),
+            shard.shardId(),
+            downsampleIndex,
+            config,
+            new String[] { FIELD_NUMERIC_1, FIELD_NUMERIC_2 },
+            new String[] {},
+            new String[] { FIELD_DIMENSION_1 },
+            state
+        );
+        indexer.workers = randomIntBetween(2, 8);
+        indexer.minDocsPerTsidRange = 1;
+        return indexer;
+    }
+
     public void testResumeDownsample() throws IOException {
         // create downsample config and index documents into source index
         DownsampleConfig config = new DownsampleConfig(randomInterval());
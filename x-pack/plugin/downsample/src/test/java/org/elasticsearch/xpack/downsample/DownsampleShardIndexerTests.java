@@ -0,0 +1,69 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.downsample;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.core.downsample.DownsampleShardPersistentTaskState.CompletedTsidRange;
+import org.elasticsearch.xpack.downsample.DownsampleShardIndexer.TsidRange;
+
+import java.util.List;
+
+public class DownsampleShardIndexerTests extends ESTestCase {
+
+    public void testCreateRanges() {
+        final List<BytesRef> splitPoints = List.of(tsid("c"), tsid("f"), tsid("i"));
+        assertEquals(
+            List.of(
+                new TsidRange(0, null, tsid("c")),
+                new TsidRange(1, tsid("c"), tsid("f")),
+                new TsidRange(2, tsid("f"), tsid("i")),
+                new TsidRange(3, tsid("i"), null)
+            ),
+            DownsampleShardIndexer.createRanges(splitPoints, null, List.of())
+        );
+        assertEquals(
+            List.of(new TsidRange(0, tsid("d"), tsid("f")), new TsidRange(1, tsid("f"), tsid("i")), new TsidRange(2, tsid("i"), null)),
+            DownsampleShardIndexer.createRanges(splitPoints, tsid("d"), List.of())
+        );
+    }
+
+    public void testCreateRangesSkipsCompletedRanges() {
+        final List<BytesRef> splitPoints = List.of(tsid("c"), tsid("f"), tsid("i"));
+        // the split points of the resumed task don't need to match the ones of the ranges that were completed
+        final List<CompletedTsidRange> completed = List.of(
+            new CompletedTsidRange(tsid("d"), tsid("e")),
+            new CompletedTsidRange(tsid("g"), tsid("j"))
+        );
+        assertEquals(
+            List.of(
+                new TsidRange(0, tsid("b"), tsid("c")),
+                new TsidRange(1, tsid("c"), tsid("d")),
+                new TsidRange(2, tsid("e"), tsid("f")),
+                new TsidRange(3, tsid("f"), tsid("g")),
+                new TsidRange(4, tsid("j"), null)
+            ),
+            DownsampleShardIndexer.createRanges(splitPoints, tsid("b"), completed)
+        );
+
+        // nothing is left above a completed unbounded range
+        assertEquals(
+            List.of(new TsidRange(0, tsid("b"), tsid("c")), new TsidRange(1, tsid("c"), tsid("d"))),
+            DownsampleShardIndexer.createRanges(splitPoints, tsid("b"), List.of(new CompletedTsidRange(tsid("d"), null)))
+        );
+        // completed ranges may start at the checkpoint
+        assertEquals(
+            List.of(new TsidRange(0, tsid("e"), tsid("f")), new TsidRange(1, tsid("f"), tsid("i")), new TsidRange(2, tsid("i"), null)),
+            DownsampleShardIndexer.createRanges(splitPoints, tsid("b"), List.of(new CompletedTsidRange(tsid("b"), tsid("e"))))
+        );
+    }
+
+    private static BytesRef tsid(String value) {
+        return new BytesRef(value);
+    }
+}
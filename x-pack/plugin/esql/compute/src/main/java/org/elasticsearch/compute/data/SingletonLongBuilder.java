@@ -0,0 +1,84 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.index.mapper.BlockLoader;
+
+/**
+ * Builds a {@link LongVector} backed block from a field that has exactly one value for
+ * each document, copying runs of values straight into the vector's array. Unlike the
+ * other builders this isn't a {@link Block.Builder}: it's only handed to the column
+ * readers that know every document has a value, never to generic block building code.
+ */
+public final class SingletonLongBuilder implements BlockLoader.SingletonLongBuilder, Releasable {
+    private final BlockFactory blockFactory;
+    private final long[] values;
+    private int count;
+    private boolean built;
+
+    public SingletonLongBuilder(int expectedCount, BlockFactory blockFactory) {
+        this.blockFactory = blockFactory;
+        blockFactory.adjustBreaker(valuesSize(expectedCount));
+        this.values = new long[expectedCount];
+    }
+
+    @Override
+    public SingletonLongBuilder appendLong(long value) {
+        values[count++] = value;
+        return this;
+    }
+
+    @Override
+    public SingletonLongBuilder appendLongs(long[] values, int from, int length) {
+        System.arraycopy(values, from, this.values, count, length);
+        count += length;
+        return this;
+    }
+
+    @Override
+    public SingletonLongBuilder appendNull() {
+        throw new UnsupportedOperationException("should have exactly one value per doc");
+    }
+
+    @Override
+    public SingletonLongBuilder beginPositionEntry() {
+        throw new UnsupportedOperationException("should have exactly one value per doc");
+    }
+
+    @Override
+    public SingletonLongBuilder endPositionEntry() {
+        throw new UnsupportedOperationException("should have exactly one value per doc");
+    }
+
+    @Override
+    public LongBlock build() {
+        if (built) {
+            throw new IllegalStateException("already built");
+        }
+        if (count != values.length) {
+            throw new IllegalStateException("expected [" + values.length + "] values but got [" + count + "]");
+        }
+        built = true;
+        // the breaker already accounts for the array, which is handed over to the vector
+        return blockFactory.newLongArrayVector(values, count, valuesSize(values.length)).asBlock();
+    }
+
+    @Override
+    public void close() {
+        if (built == false) {
+            built = true;
+            blockFactory.adjustBreaker(-valuesSize(values.length));
+        }
+    }
+
+    private static long valuesSize(int count) {
+        return RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) count * Long.BYTES;
+    }
+}
@@ -44,6 +44,16 @@ public class SingletonOrdinalsBuilder implements BlockLoader.SingletonOrdinalsBu
         return this;
     }
 
+    @Override
+    public SingletonOrdinalsBuilder appendOrds(long[] values, int from, int length) {
+        // the ordinals of sorted doc values are ints, so the narrowing is lossless and leaves a loop the JIT can vectorize
+        for (int i = 0; i < length; i++) {
+            ords[count + i] = (int) values[from + i];
+        }
+        count += length;
+        return this;
+    }
+
     @Override
     public SingletonOrdinalsBuilder beginPositionEntry() {
         throw new UnsupportedOperationException("should only have one value per doc");
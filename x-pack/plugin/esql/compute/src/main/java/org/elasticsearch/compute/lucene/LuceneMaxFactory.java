@@ -17,6 +17,7 @@ import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.operator.DriverContext;
 import org.elasticsearch.compute.operator.SourceOperator;
+import org.elasticsearch.index.codec.tsdb.NumericDocValuesSummarizer;
 import org.elasticsearch.search.MultiValueMode;
 
 import java.io.IOException;
@@ -102,6 +103,10 @@ public final class LuceneMaxFactory extends LuceneOperator.Factory {
             return bytesToLong(pointValues.getMaxPackedValue());
         }
 
+        public final long fromSummary(NumericDocValuesSummarizer.Summary summary) {
+            return summary.max();
+        }
+
         public final long evaluate(long value1, long value2) {
             return Math.max(value1, value2);
         }
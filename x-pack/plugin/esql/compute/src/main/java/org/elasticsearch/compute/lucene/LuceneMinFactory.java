@@ -17,6 +17,7 @@ import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.operator.DriverContext;
 import org.elasticsearch.compute.operator.SourceOperator;
+import org.elasticsearch.index.codec.tsdb.NumericDocValuesSummarizer;
 import org.elasticsearch.search.MultiValueMode;
 
 import java.io.IOException;
@@ -102,6 +103,10 @@ public final class LuceneMinFactory extends LuceneOperator.Factory {
             return bytesToLong(pointValues.getMinPackedValue());
         }
 
+        public final long fromSummary(NumericDocValuesSummarizer.Summary summary) {
+            return summary.min();
+        }
+
         public final long evaluate(long value1, long value2) {
             return Math.min(value1, value2);
         }
@@ -7,6 +7,7 @@
 
 package org.elasticsearch.compute.lucene;
 
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.PointValues;
@@ -21,6 +22,7 @@ import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.BooleanBlock;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.codec.tsdb.NumericDocValuesSummarizer;
 import org.elasticsearch.search.MultiValueMode;
 
 import java.io.IOException;
@@ -32,7 +34,8 @@ import java.io.IOException;
  * 2. a bool flag (seen) that is true if at least one document has been matched, otherwise false
  * <p>
  * It works for fields that index data using lucene {@link PointValues} and/or {@link SortedNumericDocValues}.
- * It assumes that {@link SortedNumericDocValues} are always present.
+ * It assumes that {@link SortedNumericDocValues} are always present. Doc values that pre-aggregate summaries of their values, see
+ * {@link NumericDocValuesSummarizer}, answer without reading all values when there are no points.
  */
 final class LuceneMinMaxOperator extends LuceneOperator {
 
@@ -41,6 +44,9 @@ final class LuceneMinMaxOperator extends LuceneOperator {
         /** Extract the competitive value from the {@link PointValues}  */
         long fromPointValues(PointValues pointValues) throws IOException;
 
+        /** Extract the competitive value from a {@link NumericDocValuesSummarizer.Summary} */
+        long fromSummary(NumericDocValuesSummarizer.Summary summary);
+
         /** Wraps the provided {@link SortedNumericDocValues} with a {@link MultiValueMode} */
         NumericDocValues multiValueMode(SortedNumericDocValues sortedNumericDocValues);
 
@@ -127,6 +133,9 @@ final class LuceneMinMaxOperator extends LuceneOperator {
                         }
                     }
                 }
+                if (scorer.isDone() == false && (query == null || query instanceof MatchAllDocsQuery) && reader.getLiveDocs() == null) {
+                    summarize(scorer, reader);
+                }
                 if (scorer.isDone() == false) {
                     // could not apply shortcut, trigger the search
                     final NumericDocValues values = numberType.multiValueMode(reader.getSortedNumericDocValues(fieldName));
@@ -171,6 +180,28 @@ final class LuceneMinMaxOperator extends LuceneOperator {
         }
     }
 
+    /**
+     * Reads the min/max of the documents that the scorer would visit from the summaries of the doc values, if they have some.
+     */
+    private void summarize(LuceneScorer scorer, LeafReader reader) throws IOException {
+        final NumericDocValues values = DocValues.unwrapSingleton(reader.getSortedNumericDocValues(fieldName));
+        if (values instanceof NumericDocValuesSummarizer summarizer) {
+            final int fromDoc = scorer.position();
+            final int toDoc = (int) Math.min(scorer.maxPosition(), (long) fromDoc + remainingDocs);
+            final NumericDocValuesSummarizer.Summary summary = summarizer.summarize(fromDoc, toDoc);
+            if (summary != null) {
+                if (summary.count() > 0) {
+                    seen = true;
+                    result = numberType.evaluate(result, numberType.fromSummary(summary));
+                }
+                if (remainingDocs != NO_LIMIT) {
+                    remainingDocs -= toDoc - fromDoc;
+                }
+                scorer.markAsDone();
+            }
+        }
+    }
+
     @Override
     protected void describe(StringBuilder sb) {
         sb.append(", remainingDocs=").append(remainingDocs);
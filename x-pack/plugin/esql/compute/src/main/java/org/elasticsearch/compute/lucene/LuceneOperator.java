@@ -229,6 +229,10 @@ public abstract class LuceneOperator extends SourceOperator {
         int position() {
             return position;
         }
+
+        int maxPosition() {
+            return maxPosition;
+        }
     }
 
     @Override
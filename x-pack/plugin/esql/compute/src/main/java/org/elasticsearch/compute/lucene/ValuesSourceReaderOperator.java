@@ -23,6 +23,7 @@ import org.elasticsearch.compute.data.DocVector;
 import org.elasticsearch.compute.data.ElementType;
 import org.elasticsearch.compute.data.IntVector;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.data.SingletonLongBuilder;
 import org.elasticsearch.compute.data.SingletonOrdinalsBuilder;
 import org.elasticsearch.compute.operator.AbstractPageMappingOperator;
 import org.elasticsearch.compute.operator.DriverContext;
@@ -699,6 +700,11 @@ public class ValuesSourceReaderOperator extends AbstractPageMappingOperator {
             return factory.newLongBlockBuilder(expectedCount);
         }
 
+        @Override
+        public BlockLoader.SingletonLongBuilder singletonLongs(int expectedCount) {
+            return new SingletonLongBuilder(expectedCount, factory);
+        }
+
         @Override
         public BlockLoader.Builder nulls(int expectedCount) {
             return ElementType.NULL.newBlockBuilder(expectedCount, factory);
@@ -0,0 +1,139 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.MockBigArrays;
+import org.elasticsearch.common.util.PageCacheRecycler;
+import org.elasticsearch.compute.test.MockBlockFactory;
+import org.elasticsearch.indices.CrankyCircuitBreakerService;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.After;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class SingletonLongBuilderTests extends ESTestCase {
+
+    public void testBuild() {
+        BlockFactory factory = breakingBlockFactory(ByteSizeValue.ofGb(1));
+        long[] expected = randomLongs(between(1, 1000));
+        try (SingletonLongBuilder builder = new SingletonLongBuilder(expected.length, factory)) {
+            assertThat(factory.breaker().getUsed(), greaterThan((long) expected.length * Long.BYTES));
+            append(builder, expected);
+            try (LongBlock block = builder.build()) {
+                assertThat(block.getPositionCount(), equalTo(expected.length));
+                LongVector vector = block.asVector();
+                for (int i = 0; i < expected.length; i++) {
+                    assertThat(vector.getLong(i), equalTo(expected[i]));
+                }
+                // building hands the accounted array over to the block
+                assertThat(factory.breaker().getUsed(), equalTo(block.ramBytesUsed()));
+            }
+        }
+        assertThat(factory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testCloseWithoutBuild() {
+        BlockFactory factory = breakingBlockFactory(ByteSizeValue.ofGb(1));
+        try (SingletonLongBuilder builder = new SingletonLongBuilder(between(1, 1000), factory)) {
+            builder.appendLong(randomLong());
+            assertThat(factory.breaker().getUsed(), greaterThan(0L));
+        }
+        assertThat(factory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testBuildWithMissingValues() {
+        BlockFactory factory = breakingBlockFactory(ByteSizeValue.ofGb(1));
+        int count = between(2, 1000);
+        try (SingletonLongBuilder builder = new SingletonLongBuilder(count, factory)) {
+            append(builder, randomLongs(count - 1));
+            IllegalStateException e = expectThrows(IllegalStateException.class, builder::build);
+            assertThat(e.getMessage(), equalTo("expected [" + count + "] values but got [" + (count - 1) + "]"));
+        }
+        assertThat(factory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testBreaks() {
+        BlockFactory factory = breakingBlockFactory(ByteSizeValue.ofBytes(100));
+        expectThrows(CircuitBreakingException.class, () -> new SingletonLongBuilder(1000, factory));
+        assertThat(factory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testCranky() {
+        BigArrays bigArrays = new MockBigArrays(PageCacheRecycler.NON_RECYCLING_INSTANCE, new CrankyCircuitBreakerService());
+        BlockFactory factory = new BlockFactory(bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST), bigArrays);
+        long[] expected = randomLongs(between(1, 1000));
+        try {
+            try (SingletonLongBuilder builder = new SingletonLongBuilder(expected.length, factory)) {
+                append(builder, expected);
+                builder.build().close();
+            }
+            // If we made it this far cranky didn't fail us!
+        } catch (CircuitBreakingException e) {
+            logger.info("cranky", e);
+            assertThat(e.getMessage(), equalTo(CrankyCircuitBreakerService.ERROR_MESSAGE));
+        }
+        assertThat(factory.breaker().getUsed(), equalTo(0L));
+    }
+
+    /**
+     * Appends {@code values} like the doc values readers do, as runs of values and single values.
+     */
+    private static void append(SingletonLongBuilder builder, long[] values) {
+        int i = 0;
+        while (i < values.length) {
+            if (randomBoolean()) {
+                builder.appendLong(values[i++]);
+            } else {
+                int run = between(1, values.length - i);
+                builder.appendLongs(values, i, run);
+                i += run;
+            }
+        }
+    }
+
+    private static long[] randomLongs(int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = randomLong();
+        }
+        return values;
+    }
+
+    private final List<CircuitBreaker> breakers = new ArrayList<>();
+    private final List<BlockFactory> blockFactories = new ArrayList<>();
+
+    private BlockFactory breakingBlockFactory(ByteSizeValue limit) {
+        BigArrays bigArrays = new MockBigArrays(PageCacheRecycler.NON_RECYCLING_INSTANCE, limit).withCircuitBreaking();
+        CircuitBreaker breaker = bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST);
+        breakers.add(breaker);
+        BlockFactory factory = new MockBlockFactory(breaker, bigArrays);
+        blockFactories.add(factory);
+        return factory;
+    }
+
+    @After
+    public void allBreakersEmpty() throws Exception {
+        MockBigArrays.ensureAllArraysAreReleased();
+        for (var factory : blockFactories) {
+            if (factory instanceof MockBlockFactory mockBlockFactory) {
+                mockBlockFactory.ensureAllBlocksAreReleased();
+            }
+        }
+        for (CircuitBreaker breaker : breakers) {
+            assertThat("Unexpected used in breaker: " + breaker, breaker.getUsed(), equalTo(0L));
+        }
+    }
+}
@@ -7,15 +7,18 @@
 
 package org.elasticsearch.compute.lucene;
 
+import org.apache.lucene.codecs.DocValuesFormat;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.apache.lucene.tests.util.TestUtil;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.compute.aggregation.AggregatorFunction;
 import org.elasticsearch.compute.data.Block;
@@ -79,15 +82,26 @@ public abstract class LuceneMaxOperatorTestCase extends AnyOperatorTestCase {
 
     private LuceneMaxFactory simple(NumberTypeTest numberTypeTest, DataPartitioning dataPartitioning, int numDocs, int limit) {
         final boolean enableShortcut = randomBoolean();
-        final boolean enableMultiValue = randomBoolean();
+        final boolean summarizedDocValues = enableShortcut == false && randomBoolean();
+        return simple(numberTypeTest, dataPartitioning, numDocs, limit, enableShortcut, randomBoolean(), summarizedDocValues);
+    }
+
+    private LuceneMaxFactory simple(
+        NumberTypeTest numberTypeTest,
+        DataPartitioning dataPartitioning,
+        int numDocs,
+        int limit,
+        boolean enableShortcut,
+        boolean enableMultiValue,
+        boolean summarizedDocValues
+    ) {
         final int commitEvery = Math.max(1, numDocs / 10);
-        try (
-            RandomIndexWriter writer = new RandomIndexWriter(
-                random(),
-                directory,
-                newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE)
-            )
-        ) {
+        final IndexWriterConfig config = newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        if (summarizedDocValues) {
+            // the TSDB doc values format stores the min and max of runs of values, which answer for dense single-valued fields
+            config.setCodec(TestUtil.alwaysDocValuesFormat(DocValuesFormat.forName("ES819TSDB")));
+        }
+        try (RandomIndexWriter writer = new RandomIndexWriter(random(), directory, config)) {
 
             for (int d = 0; d < numDocs; d++) {
                 final var numValues = enableMultiValue ? randomIntBetween(1, 5) : 1;
@@ -111,7 +125,7 @@ public abstract class LuceneMaxOperatorTestCase extends AnyOperatorTestCase {
 
         final ShardContext ctx = new LuceneSourceOperatorTests.MockShardContext(reader, 0);
         final Query query;
-        if (enableShortcut && randomBoolean()) {
+        if (summarizedDocValues || (enableShortcut && randomBoolean())) {
             query = new MatchAllDocsQuery();
         } else {
             query = SortedNumericDocValuesField.newSlowRangeQuery(FIELD_NAME, Long.MIN_VALUE, Long.MAX_VALUE);
@@ -139,6 +153,11 @@ public abstract class LuceneMaxOperatorTestCase extends AnyOperatorTestCase {
         testMax(contexts, size, limit);
     }
 
+    public void testSummarizedDocValues() {
+        int size = between(1_000, 20_000);
+        testMax(this::driverContext, size, Integer.MAX_VALUE, false, false, true);
+    }
+
     public void testEmpty() {
         testEmpty(this::driverContext);
     }
@@ -159,9 +178,29 @@ public abstract class LuceneMaxOperatorTestCase extends AnyOperatorTestCase {
     }
 
     private void testMax(Supplier<DriverContext> contexts, int size, int limit) {
+        final boolean enableShortcut = randomBoolean();
+        testMax(contexts, size, limit, enableShortcut, randomBoolean(), enableShortcut == false && randomBoolean());
+    }
+
+    private void testMax(
+        Supplier<DriverContext> contexts,
+        int size,
+        int limit,
+        boolean enableShortcut,
+        boolean enableMultiValue,
+        boolean summarizedDocValues
+    ) {
         DataPartitioning dataPartitioning = randomFrom(DataPartitioning.values());
         NumberTypeTest numberTypeTest = getNumberTypeTest();
-        LuceneMaxFactory factory = simple(numberTypeTest, dataPartitioning, size, limit);
+        LuceneMaxFactory factory = simple(
+            numberTypeTest,
+            dataPartitioning,
+            size,
+            limit,
+            enableShortcut,
+            enableMultiValue,
+            summarizedDocValues
+        );
         List<Page> results = new CopyOnWriteArrayList<>();
         List<Driver> drivers = new ArrayList<>();
         int taskConcurrency = between(1, 8);
@@ -77,6 +77,8 @@ import org.elasticsearch.xpack.inference.action.TransportPutInferenceModelAction
 import org.elasticsearch.xpack.inference.action.TransportUnifiedCompletionInferenceAction;
 import org.elasticsearch.xpack.inference.action.TransportUpdateInferenceModelAction;
 import org.elasticsearch.xpack.inference.action.filter.ShardBulkInferenceActionFilter;
+import org.elasticsearch.xpack.inference.chunking.EmbeddingCache;
+import org.elasticsearch.xpack.inference.chunking.EmbeddingRequestBatcher;
 import org.elasticsearch.xpack.inference.common.InferenceServiceNodeLocalRateLimitCalculator;
 import org.elasticsearch.xpack.inference.common.InferenceServiceRateLimitCalculator;
 import org.elasticsearch.xpack.inference.common.NoopNodeLocalRateLimitCalculator;
@@ -133,6 +135,7 @@ import org.elasticsearch.xpack.inference.services.jinaai.JinaAIService;
 import org.elasticsearch.xpack.inference.services.mistral.MistralService;
 import org.elasticsearch.xpack.inference.services.openai.OpenAiService;
 import org.elasticsearch.xpack.inference.services.voyageai.VoyageAIService;
+import org.elasticsearch.xpack.inference.telemetry.InferenceBatchingStats;
 import org.elasticsearch.xpack.inference.telemetry.InferenceStats;
 
 import java.util.ArrayList;
@@ -191,6 +194,7 @@ public class InferencePlugin extends Plugin
     private final SetOnce<AmazonBedrockRequestSender.Factory> amazonBedrockFactory = new SetOnce<>();
     private final SetOnce<HttpRequestSender.Factory> elasicInferenceServiceFactory = new SetOnce<>();
     private final SetOnce<ServiceComponents> serviceComponents = new SetOnce<>();
+    private final SetOnce<EmbeddingCache> embeddingCacheSetOnce = new SetOnce<>();
     // This is mainly so that the rest handlers can access the ThreadPool in a way that avoids potential null pointers from it
     // not being initialized yet
     private final SetOnce<ThreadPool> threadPoolSetOnce = new SetOnce<>();
@@ -250,7 +254,23 @@ public class InferencePlugin extends Plugin
         throttlerManager.init(services.clusterService());
 
         var truncator = new Truncator(settings, services.clusterService());
-        serviceComponents.set(new ServiceComponents(services.threadPool(), throttlerManager, settings, truncator));
+        var meterRegistry = services.telemetryProvider().getMeterRegistry();
+        var nodeEnvironment = services.nodeEnvironment();
+        var embeddingCache = new EmbeddingCache(
+            settings,
+            nodeEnvironment != null && nodeEnvironment.hasNodeFile() ? nodeEnvironment.nodeDataPaths()[0].resolve("inference") : null,
+            services.namedWriteableRegistry(),
+            meterRegistry,
+            services.threadPool()
+        );
+        embeddingCacheSetOnce.set(embeddingCache);
+        var embeddingRequestBatcher = new EmbeddingRequestBatcher(
+            services.threadPool(),
+            settings,
+            InferenceBatchingStats.create(meterRegistry),
+            embeddingCache
+        );
+        serviceComponents.set(new ServiceComponents(services.threadPool(), throttlerManager, settings, truncator, embeddingRequestBatcher));
         threadPoolSetOnce.set(services.threadPool());
 
         var httpClientManager = HttpClientManager.create(settings, services.threadPool(), services.clusterService(), throttlerManager);
@@ -330,7 +350,6 @@ public class InferencePlugin extends Plugin
         );
         shardBulkInferenceActionFilter.set(actionFilter);
 
-        var meterRegistry = services.telemetryProvider().getMeterRegistry();
         var inferenceStats = new PluginComponentBinding<>(InferenceStats.class, InferenceStats.create(meterRegistry));
 
         components.add(serviceRegistry);
@@ -467,6 +486,8 @@ public class InferencePlugin extends Plugin
         settings.addAll(ThrottlerManager.getSettingsDefinitions());
         settings.addAll(RetrySettings.getSettingsDefinitions());
         settings.addAll(Truncator.getSettingsDefinitions());
+        settings.addAll(EmbeddingRequestBatcher.getSettingsDefinitions());
+        settings.addAll(EmbeddingCache.getSettingsDefinitions());
         settings.addAll(RequestExecutorServiceSettings.getSettingsDefinitions());
         settings.add(SKIP_VALIDATE_AND_START);
         settings.add(INDICES_INFERENCE_BATCH_SIZE);
@@ -490,7 +511,7 @@ public class InferencePlugin extends Plugin
         var serviceComponentsRef = serviceComponents.get();
         var throttlerToClose = serviceComponentsRef != null ? serviceComponentsRef.throttlerManager() : null;
 
-        IOUtils.closeWhileHandlingException(inferenceServiceRegistry.get(), throttlerToClose);
+        IOUtils.closeWhileHandlingException(inferenceServiceRegistry.get(), throttlerToClose, embeddingCacheSetOnce.get());
     }
 
     @Override
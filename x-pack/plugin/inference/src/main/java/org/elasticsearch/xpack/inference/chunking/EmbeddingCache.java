@@ -0,0 +1,398 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.inference.chunking;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.inference.InferenceServiceResults;
+import org.elasticsearch.telemetry.metric.LongWithAttributes;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.json.JsonXContent;
+import org.elasticsearch.xpack.core.inference.results.EmbeddingResults;
+import org.elasticsearch.xpack.core.inference.results.SparseEmbeddingResults;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingBitResults;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingByteResults;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingFloatResults;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A node local cache of the embeddings of individual chunks, keyed by the inference endpoint, a fingerprint of the
+ * endpoint's configuration and a hash of the chunk text. Re-indexing documents, or updating documents without changing
+ * their semantic_text fields, produces chunks that have already been embedded; those are served from this cache
+ * instead of being sent to the inference service again.
+ *
+ * The cache is bounded by {@link #EMBEDDING_CACHE_SIZE} and, unless {@link #EMBEDDING_CACHE_PERSISTENT} is disabled,
+ * its contents are written to the node's data path every {@link #EMBEDDING_CACHE_PERSIST_INTERVAL} if they changed, as
+ * well as when the node shuts down, and loaded again on startup.
+ */
+public class EmbeddingCache implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(EmbeddingCache.class);
+
+    public static final Setting<Boolean> EMBEDDING_CACHE_ENABLED = Setting.boolSetting(
+        "xpack.inference.embedding_cache.enabled",
+        false,
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<ByteSizeValue> EMBEDDING_CACHE_SIZE = Setting.byteSizeSetting(
+        "xpack.inference.embedding_cache.size",
+        ByteSizeValue.ofMb(64),
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<Boolean> EMBEDDING_CACHE_PERSISTENT = Setting.boolSetting(
+        "xpack.inference.embedding_cache.persistent",
+        true,
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<TimeValue> EMBEDDING_CACHE_PERSIST_INTERVAL = Setting.timeSetting(
+        "xpack.inference.embedding_cache.persist_interval",
+        TimeValue.timeValueMinutes(5),
+        TimeValue.timeValueSeconds(1),
+        Setting.Property.NodeScope
+    );
+
+    public static List<Setting<?>> getSettingsDefinitions() {
+        return List.of(EMBEDDING_CACHE_ENABLED, EMBEDDING_CACHE_SIZE, EMBEDDING_CACHE_PERSISTENT, EMBEDDING_CACHE_PERSIST_INTERVAL);
+    }
+
+    static final String CACHE_FILE_NAME = "embedding_cache.bin";
+    private static final int FORMAT_VERSION = 1;
+    // rough per entry overhead of the key and the cache's bookkeeping
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    record Key(String inferenceEntityId, String modelFingerprint, String chunkHash) {}
+
+    public static EmbeddingCache disabled() {
+        return new EmbeddingCache(null, null, null);
+    }
+
+    @Nullable
+    private final Cache<Key, InferenceServiceResults> cache;
+    @Nullable
+    private final Path cacheFile;
+    private final NamedWriteableRegistry namedWriteableRegistry;
+    // whether entries were added since the cache was last persisted
+    private final AtomicBoolean changed = new AtomicBoolean();
+    @Nullable
+    private Scheduler.Cancellable scheduledPersist;
+
+    public EmbeddingCache(
+        Settings settings,
+        @Nullable Path dataPath,
+        NamedWriteableRegistry namedWriteableRegistry,
+        MeterRegistry meterRegistry,
+        ThreadPool threadPool
+    ) {
+        this(
+            EMBEDDING_CACHE_ENABLED.get(settings) ? EMBEDDING_CACHE_SIZE.get(settings) : null,
+            dataPath != null && EMBEDDING_CACHE_PERSISTENT.get(settings) ? dataPath.resolve(CACHE_FILE_NAME) : null,
+            namedWriteableRegistry
+        );
+        if (cache != null) {
+            registerMetrics(meterRegistry);
+            load();
+            if (cacheFile != null) {
+                scheduledPersist = threadPool.scheduleWithFixedDelay(
+                    this::persistIfChanged,
+                    EMBEDDING_CACHE_PERSIST_INTERVAL.get(settings),
+                    threadPool.generic()
+                );
+            }
+        }
+    }
+
+    EmbeddingCache(@Nullable ByteSizeValue size, @Nullable Path cacheFile, NamedWriteableRegistry namedWriteableRegistry) {
+        this.cache = size == null
+            ? null
+            : CacheBuilder.<Key, InferenceServiceResults>builder()
+                .setMaximumWeight(size.getBytes())
+                .weigher((key, results) -> ENTRY_OVERHEAD_BYTES + estimateSizeInBytes(results))
+                .build();
+        this.cacheFile = cacheFile;
+        this.namedWriteableRegistry = namedWriteableRegistry;
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        meterRegistry.registerLongAsyncCounter(
+            "es.inference.embedding_cache.hits.total",
+            "Number of chunk embeddings served from the embedding cache",
+            "lookups",
+            () -> new LongWithAttributes(cache.stats().getHits())
+        );
+        meterRegistry.registerLongAsyncCounter(
+            "es.inference.embedding_cache.misses.total",
+            "Number of chunk embeddings that were not in the embedding cache",
+            "lookups",
+            () -> new LongWithAttributes(cache.stats().getMisses())
+        );
+        meterRegistry.registerLongAsyncCounter(
+            "es.inference.embedding_cache.evictions.total",
+            "Number of chunk embeddings evicted from the embedding cache",
+            "entries",
+            () -> new LongWithAttributes(cache.stats().getEvictions())
+        );
+        meterRegistry.registerLongGauge(
+            "es.inference.embedding_cache.entries.current",
+            "Number of chunk embeddings in the embedding cache",
+            "entries",
+            () -> new LongWithAttributes(cache.count())
+        );
+    }
+
+    public boolean enabled() {
+        return cache != null;
+    }
+
+    // Visible for testing
+    Cache.CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Visible for testing
+    int count() {
+        return cache.count();
+    }
+
+    /**
+     * Serves the embeddings of {@code inputs} from the cache, sending only the inputs that are not cached to the
+     * {@code executor}. The results of the executor are added to the cache.
+     */
+    public void execute(
+        EmbeddingRequestBatcher.BatchKey key,
+        List<String> inputs,
+        @Nullable TimeValue timeout,
+        EmbeddingRequestBatcher.BatchExecutor executor,
+        ActionListener<InferenceServiceResults> listener
+    ) {
+        if (cache == null) {
+            executor.execute(inputs, timeout, listener);
+            return;
+        }
+
+        Key[] keys = new Key[inputs.size()];
+        InferenceServiceResults[] results = new InferenceServiceResults[inputs.size()];
+        List<Integer> missingPositions = new ArrayList<>();
+        List<String> missingInputs = new ArrayList<>();
+        String requestHash = requestHash(key);
+        for (int i = 0; i < inputs.size(); i++) {
+            keys[i] = new Key(key.inferenceEntityId(), key.modelFingerprint(), chunkHash(requestHash, inputs.get(i)));
+            results[i] = cache.get(keys[i]);
+            if (results[i] == null) {
+                missingPositions.add(i);
+                missingInputs.add(inputs.get(i));
+            }
+        }
+
+        if (missingInputs.isEmpty()) {
+            ActionListener.completeWith(listener, () -> EmbeddingResultsUtils.concat(Arrays.asList(results)));
+            return;
+        }
+
+        executor.execute(missingInputs, timeout, listener.delegateFailureAndWrap((l, missingResults) -> {
+            if (missingResults instanceof EmbeddingResults<?> embeddingResults == false
+                || embeddingResults.embeddings().size() != missingInputs.size()) {
+                // let the caller report the unexpected response
+                l.onResponse(missingResults);
+                return;
+            }
+            for (int i = 0; i < missingPositions.size(); i++) {
+                int position = missingPositions.get(i);
+                results[position] = EmbeddingResultsUtils.slice(embeddingResults, i, i + 1);
+                cache.put(keys[position], results[position]);
+            }
+            changed.set(true);
+            l.onResponse(EmbeddingResultsUtils.concat(Arrays.asList(results)));
+        }));
+    }
+
+    /**
+     * Embeddings depend on the input type and task settings of the request as well as on the chunk text. The task settings
+     * are serialized with the keys of all their (nested) maps sorted, so that equal settings always hash the same way.
+     */
+    static String requestHash(EmbeddingRequestBatcher.BatchKey key) {
+        try (XContentBuilder builder = JsonXContent.contentBuilder()) {
+            builder.startObject();
+            builder.field("input_type", String.valueOf(key.inputType()));
+            builder.field("task_settings", sorted(key.taskSettings() == null ? Map.of() : key.taskSettings()));
+            builder.endObject();
+            return Strings.toString(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object sorted(Object value) {
+        return switch (value) {
+            case Map<?, ?> map -> {
+                var sorted = new TreeMap<String, Object>();
+                map.forEach((k, v) -> sorted.put(String.valueOf(k), sorted(v)));
+                yield sorted;
+            }
+            case List<?> list -> list.stream().map(EmbeddingCache::sorted).toList();
+            case null, default -> value;
+        };
+    }
+
+    private static String chunkHash(String requestHash, String chunk) {
+        var digest = MessageDigests.sha256();
+        digest.update(requestHash.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(chunk.getBytes(StandardCharsets.UTF_8));
+        return MessageDigests.toHexString(digest.digest());
+    }
+
+    static long estimateSizeInBytes(InferenceServiceResults results) {
+        return switch (results) {
+            case TextEmbeddingFloatResults r -> r.embeddings().stream().mapToLong(e -> (long) e.values().length * Float.BYTES).sum();
+            case TextEmbeddingByteResults r -> r.embeddings().stream().mapToLong(e -> e.values().length).sum();
+            case TextEmbeddingBitResults r -> r.embeddings().stream().mapToLong(e -> e.values().length).sum();
+            case SparseEmbeddingResults r -> r.embeddings()
+                .stream()
+                .flatMap(e -> e.tokens().stream())
+                .mapToLong(t -> 2L * t.token().length() + Float.BYTES + 32)
+                .sum();
+            default -> serializedSizeInBytes(results);
+        };
+    }
+
+    private static long serializedSizeInBytes(InferenceServiceResults results) {
+        try (var out = new BytesStreamOutput()) {
+            out.writeNamedWriteable(results);
+            return out.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Visible for testing
+    void load() {
+        if (cacheFile == null || Files.exists(cacheFile) == false) {
+            return;
+        }
+        try (
+            var in = new NamedWriteableAwareStreamInput(
+                new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(cacheFile))),
+                namedWriteableRegistry
+            )
+        ) {
+            if (in.readVInt() != FORMAT_VERSION) {
+                logger.info("ignoring embedding cache file [{}] with unknown format", cacheFile);
+                return;
+            }
+            var transportVersion = TransportVersion.fromId(in.readVInt());
+            int count = in.readVInt();
+            int skipped = 0;
+            for (int i = 0; i < count; i++) {
+                var key = new Key(in.readString(), in.readString(), in.readString());
+                var bytes = in.readBytesReference();
+                try (StreamInput entryIn = new NamedWriteableAwareStreamInput(bytes.streamInput(), namedWriteableRegistry)) {
+                    entryIn.setTransportVersion(transportVersion);
+                    cache.put(key, entryIn.readNamedWriteable(InferenceServiceResults.class));
+                } catch (Exception e) {
+                    skipped++;
+                }
+            }
+            logger.debug("loaded [{}] embeddings from [{}], skipped [{}]", count - skipped, cacheFile, skipped);
+        } catch (Exception e) {
+            logger.warn(() -> "failed to load the embedding cache from [" + cacheFile + "]", e);
+        }
+    }
+
+    // Visible for testing
+    void persistIfChanged() {
+        if (changed.getAndSet(false)) {
+            try {
+                persist();
+            } catch (IOException e) {
+                changed.set(true);
+                logger.warn(() -> "failed to persist the embedding cache to [" + cacheFile + "]", e);
+            }
+        }
+    }
+
+    private synchronized void persist() throws IOException {
+        if (cacheFile == null) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>();
+        List<BytesReference> values = new ArrayList<>();
+        cache.forEach((key, results) -> {
+            try (var entryOut = new BytesStreamOutput()) {
+                entryOut.writeNamedWriteable(results);
+                keys.add(key);
+                values.add(entryOut.bytes());
+            } catch (IOException e) {
+                assert false : e;
+            }
+        });
+
+        Files.createDirectories(cacheFile.getParent());
+        Path tmpFile = cacheFile.resolveSibling(CACHE_FILE_NAME + ".tmp");
+        try (var out = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeVInt(FORMAT_VERSION);
+            out.writeVInt(TransportVersion.current().id());
+            out.writeVInt(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                out.writeString(keys.get(i).inferenceEntityId());
+                out.writeString(keys.get(i).modelFingerprint());
+                out.writeString(keys.get(i).chunkHash());
+                out.writeBytesReference(values.get(i));
+            }
+        }
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (scheduledPersist != null) {
+            scheduledPersist.cancel();
+        }
+        if (cache != null) {
+            persist();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.inference.chunking;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.ContextPreservingActionListener;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.inference.InferenceServiceResults;
+import org.elasticsearch.inference.InputType;
+import org.elasticsearch.inference.Model;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xpack.core.inference.results.EmbeddingResults;
+import org.elasticsearch.xpack.inference.telemetry.InferenceBatchingStats;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.elasticsearch.xpack.inference.InferencePlugin.UTILITY_THREAD_POOL_NAME;
+import static org.elasticsearch.xpack.inference.telemetry.InferenceBatchingStats.batchAttributes;
+
+/**
+ * Coalesces the embedding batches produced by concurrent {@link EmbeddingRequestChunker}s that target the same
+ * inference endpoint into larger requests. A pending batch is sent as soon as it reaches the service's maximum
+ * batch size or once its oldest input has waited for {@link #MAX_BATCHING_DELAY}, whichever comes first. The
+ * results of a merged request are split up again and routed back to the listener of each caller.
+ *
+ * Batching is disabled when the delay is zero, in which case every batch is sent as soon as it is submitted.
+ */
+public class EmbeddingRequestBatcher {
+
+    /**
+     * The maximum time an embedding batch waits for batches from other requests before it is sent.
+     */
+    public static final Setting<TimeValue> MAX_BATCHING_DELAY = Setting.timeSetting(
+        "xpack.inference.embedding_batching.max_delay",
+        TimeValue.ZERO,
+        TimeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
+    public static List<Setting<?>> getSettingsDefinitions() {
+        return List.of(MAX_BATCHING_DELAY);
+    }
+
+    /**
+     * Sends a batch of inputs to the inference service. The executors of batches that share a {@link BatchKey} are
+     * interchangeable, so a merged batch is sent with the executor of any of its callers.
+     */
+    @FunctionalInterface
+    public interface BatchExecutor {
+        void execute(List<String> inputs, @Nullable TimeValue timeout, ActionListener<InferenceServiceResults> listener);
+    }
+
+    /**
+     * Batches can only be merged if they are sent to the same endpoint with the same input type and task settings.
+     * The model fingerprint identifies the configuration of the endpoint, see {@link #of}.
+     */
+    public record BatchKey(
+        String inferenceEntityId,
+        @Nullable InputType inputType,
+        Map<String, Object> taskSettings,
+        String modelFingerprint
+    ) {
+        public static BatchKey of(Model model, @Nullable InputType inputType, Map<String, Object> taskSettings) {
+            return new BatchKey(model.getInferenceEntityId(), inputType, taskSettings, modelFingerprint(model));
+        }
+
+        private static String modelFingerprint(Model model) {
+            var digest = MessageDigests.sha256();
+            digest.update(Strings.toString(model.getServiceSettings()).getBytes(StandardCharsets.UTF_8));
+            if (model.getTaskSettings() != null) {
+                digest.update(Strings.toString(model.getTaskSettings()).getBytes(StandardCharsets.UTF_8));
+            }
+            return MessageDigests.toHexString(digest.digest());
+        }
+    }
+
+    public static EmbeddingRequestBatcher disabled() {
+        return new EmbeddingRequestBatcher(null, TimeValue.ZERO, InferenceBatchingStats.NOOP, EmbeddingCache.disabled());
+    }
+
+    private final ThreadPool threadPool;
+    private final TimeValue maxDelay;
+    private final InferenceBatchingStats stats;
+    private final EmbeddingCache embeddingCache;
+    private final Map<BatchKey, PendingBatch> pendingBatches = new HashMap<>();
+
+    public EmbeddingRequestBatcher(ThreadPool threadPool, Settings settings, InferenceBatchingStats stats, EmbeddingCache embeddingCache) {
+        this(threadPool, MAX_BATCHING_DELAY.get(settings), stats, embeddingCache);
+    }
+
+    EmbeddingRequestBatcher(ThreadPool threadPool, TimeValue maxDelay, InferenceBatchingStats stats, EmbeddingCache embeddingCache) {
+        this.threadPool = threadPool;
+        this.maxDelay = maxDelay;
+        this.stats = stats;
+        this.embeddingCache = embeddingCache;
+    }
+
+    /**
+     * Submits a batch of inputs. Inputs whose embeddings are in the {@link EmbeddingCache} are not sent to the service.
+     * The remaining inputs may be sent to the service together with inputs submitted by other callers using the same
+     * {@code key}, the {@code listener} is only notified with the results for its own inputs. A merged batch is sent
+     * with the shortest timeout of its callers, and each listener is notified in the thread context of its caller.
+     *
+     * @param key          Identifies the batches that can be merged with each other
+     * @param maxBatchSize The maximum number of inputs the service accepts in a single request
+     * @param inputs       The inputs to embed
+     * @param timeout      The timeout of the request to the service, or {@code null} for the default one
+     * @param executor     Sends a (possibly merged) batch to the service
+     * @param listener     Notified with the results for {@code inputs}, in the same order
+     */
+    public void submit(
+        BatchKey key,
+        int maxBatchSize,
+        List<String> inputs,
+        @Nullable TimeValue timeout,
+        BatchExecutor executor,
+        ActionListener<InferenceServiceResults> listener
+    ) {
+        if (embeddingCache.enabled()) {
+            embeddingCache.execute(
+                key,
+                inputs,
+                timeout,
+                (missingInputs, missingTimeout, missingListener) -> doSubmit(
+                    key,
+                    maxBatchSize,
+                    missingInputs,
+                    missingTimeout,
+                    executor,
+                    missingListener
+                ),
+                listener
+            );
+        } else {
+            doSubmit(key, maxBatchSize, inputs, timeout, executor, listener);
+        }
+    }
+
+    private void doSubmit(
+        BatchKey key,
+        int maxBatchSize,
+        List<String> inputs,
+        @Nullable TimeValue timeout,
+        BatchExecutor executor,
+        ActionListener<InferenceServiceResults> listener
+    ) {
+        if (maxDelay.duration() == 0 || inputs.size() >= maxBatchSize) {
+            executor.execute(inputs, timeout, listener);
+            return;
+        }
+
+        List<PendingBatch> readyBatches = new ArrayList<>(2);
+        synchronized (pendingBatches) {
+            var batch = pendingBatches.get(key);
+            if (batch != null && batch.inputs.size() + inputs.size() > maxBatchSize) {
+                pendingBatches.remove(key);
+                readyBatches.add(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new PendingBatch(key, maxBatchSize, executor, threadPool.relativeTimeInMillis());
+                pendingBatches.put(key, batch);
+                var newBatch = batch;
+                batch.scheduledFlush = threadPool.schedule(() -> flush(newBatch), maxDelay, threadPool.executor(UTILITY_THREAD_POOL_NAME));
+            }
+            // the batch may be sent from the thread of another caller, or from the scheduler
+            batch.add(inputs, timeout, ContextPreservingActionListener.wrapPreservingContext(listener, threadPool.getThreadContext()));
+            stats.queuedInputs().add(inputs.size(), batchAttributes(key.inferenceEntityId()));
+            if (batch.inputs.size() == maxBatchSize) {
+                pendingBatches.remove(key);
+                readyBatches.add(batch);
+            }
+        }
+
+        for (var batch : readyBatches) {
+            send(batch);
+        }
+    }
+
+    private void flush(PendingBatch batch) {
+        synchronized (pendingBatches) {
+            if (pendingBatches.remove(batch.key, batch) == false) {
+                // already sent because it filled up
+                return;
+            }
+        }
+        send(batch);
+    }
+
+    private void send(PendingBatch batch) {
+        var attributes = batchAttributes(batch.key.inferenceEntityId());
+        // scheduledFlush is assigned while holding the lock that also guards removal from the pending batches
+        synchronized (pendingBatches) {
+            if (batch.scheduledFlush != null) {
+                batch.scheduledFlush.cancel();
+            }
+            stats.queuedInputs().add(-batch.inputs.size(), attributes);
+        }
+
+        stats.batchFillRatio().record((double) batch.inputs.size() / batch.maxBatchSize, attributes);
+        stats.batchWaitTime().record(threadPool.relativeTimeInMillis() - batch.createdMillis, attributes);
+
+        batch.executor.execute(batch.inputs, batch.timeout, new ActionListener<>() {
+            @Override
+            public void onResponse(InferenceServiceResults results) {
+                if (results instanceof EmbeddingResults<?> embeddingResults == false) {
+                    onFailure(
+                        new ElasticsearchStatusException(
+                            "Unexpected inference result type [{}], expected [EmbeddingResults]",
+                            RestStatus.INTERNAL_SERVER_ERROR,
+                            results.getWriteableName()
+                        )
+                    );
+                    return;
+                }
+                if (embeddingResults.embeddings().size() != batch.inputs.size()) {
+                    onFailure(
+                        new ElasticsearchStatusException(
+                            "Error the number of embedding responses [{}] does not equal the number of requests [{}]",
+                            RestStatus.INTERNAL_SERVER_ERROR,
+                            embeddingResults.embeddings().size(),
+                            batch.inputs.size()
+                        )
+                    );
+                    return;
+                }
+                for (int i = 0; i < batch.listeners.size(); i++) {
+                    var listener = batch.listeners.get(i);
+                    int from = batch.offsets.get(i);
+                    int to = i + 1 < batch.offsets.size() ? batch.offsets.get(i + 1) : batch.inputs.size();
+                    ActionListener.completeWith(listener, () -> EmbeddingResultsUtils.slice(embeddingResults, from, to));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                for (var listener : batch.listeners) {
+                    listener.onFailure(e);
+                }
+            }
+        });
+    }
+
+    private static class PendingBatch {
+        private final BatchKey key;
+        private final int maxBatchSize;
+        private final BatchExecutor executor;
+        private final long createdMillis;
+        private final List<String> inputs = new ArrayList<>();
+        private final List<Integer> offsets = new ArrayList<>();
+        private final List<ActionListener<InferenceServiceResults>> listeners = new ArrayList<>();
+        private TimeValue timeout;
+        private Scheduler.ScheduledCancellable scheduledFlush;
+
+        PendingBatch(BatchKey key, int maxBatchSize, BatchExecutor executor, long createdMillis) {
+            this.key = key;
+            this.maxBatchSize = maxBatchSize;
+            this.executor = executor;
+            this.createdMillis = createdMillis;
+        }
+
+        void add(List<String> newInputs, @Nullable TimeValue newTimeout, ActionListener<InferenceServiceResults> listener) {
+            // the request must not outlive the caller that is willing to wait the least
+            if (listeners.isEmpty() || (newTimeout != null && (timeout == null || newTimeout.compareTo(timeout) < 0))) {
+                timeout = newTimeout;
+            }
+            offsets.add(inputs.size());
+            inputs.addAll(newInputs);
+            listeners.add(listener);
+        }
+    }
+}
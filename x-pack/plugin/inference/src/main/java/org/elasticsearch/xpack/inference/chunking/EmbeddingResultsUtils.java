@@ -0,0 +1,81 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.inference.chunking;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.inference.InferenceServiceResults;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.xpack.core.inference.results.EmbeddingResults;
+import org.elasticsearch.xpack.core.inference.results.SparseEmbeddingResults;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingBitResults;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingByteResults;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingFloatResults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers to split embedding results into parts and to join parts back together, preserving the concrete results type.
+ */
+final class EmbeddingResultsUtils {
+
+    private EmbeddingResultsUtils() {}
+
+    /**
+     * Returns the results for the inputs in the range {@code [from, to)}.
+     */
+    static InferenceServiceResults slice(EmbeddingResults<?> results, int from, int to) {
+        return switch (results) {
+            case TextEmbeddingFloatResults r -> new TextEmbeddingFloatResults(List.copyOf(r.embeddings().subList(from, to)));
+            case TextEmbeddingByteResults r -> new TextEmbeddingByteResults(List.copyOf(r.embeddings().subList(from, to)));
+            case TextEmbeddingBitResults r -> new TextEmbeddingBitResults(List.copyOf(r.embeddings().subList(from, to)));
+            case SparseEmbeddingResults r -> new SparseEmbeddingResults(List.copyOf(r.embeddings().subList(from, to)));
+            default -> throw unsupportedResultsException(results);
+        };
+    }
+
+    /**
+     * Joins parts of the same results type into a single results object, in order.
+     */
+    static InferenceServiceResults concat(List<? extends InferenceServiceResults> parts) {
+        return switch (parts.getFirst()) {
+            case TextEmbeddingFloatResults ignored -> new TextEmbeddingFloatResults(embeddings(parts, TextEmbeddingFloatResults.class));
+            case TextEmbeddingByteResults ignored -> new TextEmbeddingByteResults(embeddings(parts, TextEmbeddingByteResults.class));
+            case TextEmbeddingBitResults ignored -> new TextEmbeddingBitResults(embeddings(parts, TextEmbeddingBitResults.class));
+            case SparseEmbeddingResults ignored -> new SparseEmbeddingResults(embeddings(parts, SparseEmbeddingResults.class));
+            default -> throw unsupportedResultsException(parts.getFirst());
+        };
+    }
+
+    private static <E extends EmbeddingResults.Embedding<E>, R extends EmbeddingResults<E>> List<E> embeddings(
+        List<? extends InferenceServiceResults> parts,
+        Class<R> resultsType
+    ) {
+        List<E> embeddings = new ArrayList<>();
+        for (var part : parts) {
+            if (resultsType.isInstance(part) == false) {
+                throw new ElasticsearchStatusException(
+                    "Unable to join inference results of type [{}] and [{}]",
+                    RestStatus.INTERNAL_SERVER_ERROR,
+                    parts.getFirst().getWriteableName(),
+                    part.getWriteableName()
+                );
+            }
+            embeddings.addAll(resultsType.cast(part).embeddings());
+        }
+        return embeddings;
+    }
+
+    private static ElasticsearchStatusException unsupportedResultsException(InferenceServiceResults results) {
+        return new ElasticsearchStatusException(
+            "Unable to split inference results of type [{}]",
+            RestStatus.INTERNAL_SERVER_ERROR,
+            results.getWriteableName()
+        );
+    }
+}
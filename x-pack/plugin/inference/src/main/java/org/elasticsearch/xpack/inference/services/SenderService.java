@@ -23,6 +23,9 @@ import org.elasticsearch.inference.Model;
 import org.elasticsearch.inference.TaskType;
 import org.elasticsearch.inference.UnifiedCompletionRequest;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.xpack.inference.chunking.EmbeddingRequestBatcher;
+import org.elasticsearch.xpack.inference.chunking.EmbeddingRequestChunker;
+import org.elasticsearch.xpack.inference.external.action.ExecutableAction;
 import org.elasticsearch.xpack.inference.external.http.sender.ChatCompletionInput;
 import org.elasticsearch.xpack.inference.external.http.sender.EmbeddingsInput;
 import org.elasticsearch.xpack.inference.external.http.sender.HttpRequestSender;
@@ -173,6 +176,37 @@ public abstract class SenderService implements InferenceService {
         ActionListener<List<ChunkedInference>> listener
     );
 
+    /**
+     * Sends the batches of a chunked inference request with {@code action} through the {@link EmbeddingRequestBatcher}, which
+     * serves the chunks that are in the embedding cache and may merge the others with batches of concurrent requests.
+     */
+    protected void submitEmbeddingBatches(
+        Model model,
+        List<EmbeddingRequestChunker.BatchRequestAndListener> batchedRequests,
+        int maxBatchSize,
+        Map<String, Object> taskSettings,
+        InputType inputType,
+        TimeValue timeout,
+        ExecutableAction action
+    ) {
+        var batchKey = EmbeddingRequestBatcher.BatchKey.of(model, inputType, taskSettings);
+        for (var request : batchedRequests) {
+            serviceComponents.embeddingRequestBatcher()
+                .submit(
+                    batchKey,
+                    maxBatchSize,
+                    request.batch().inputs().get(),
+                    timeout,
+                    (batchInputs, batchTimeout, batchListener) -> action.execute(
+                        EmbeddingsInput.fromStrings(batchInputs, inputType),
+                        batchTimeout,
+                        batchListener
+                    ),
+                    request.listener()
+                );
+        }
+    }
+
     public void start(Model model, ActionListener<Boolean> listener) {
         init();
         doStart(model, listener);
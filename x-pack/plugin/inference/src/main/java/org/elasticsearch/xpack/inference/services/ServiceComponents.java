@@ -9,10 +9,21 @@ package org.elasticsearch.xpack.inference.services;
 
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xpack.inference.chunking.EmbeddingRequestBatcher;
 import org.elasticsearch.xpack.inference.common.Truncator;
 import org.elasticsearch.xpack.inference.logging.ThrottlerManager;
 
 /**
  * A container for common components need at various levels of the inference services to instantiate their internals
  */
-public record ServiceComponents(ThreadPool threadPool, ThrottlerManager throttlerManager, Settings settings, Truncator truncator) {}
+public record ServiceComponents(
+    ThreadPool threadPool,
+    ThrottlerManager throttlerManager,
+    Settings settings,
+    Truncator truncator,
+    EmbeddingRequestBatcher embeddingRequestBatcher
+) {
+    public ServiceComponents(ThreadPool threadPool, ThrottlerManager throttlerManager, Settings settings, Truncator truncator) {
+        this(threadPool, throttlerManager, settings, truncator, EmbeddingRequestBatcher.disabled());
+    }
+}
@@ -341,10 +341,15 @@ public class AlibabaCloudSearchService extends SenderService {
             alibabaCloudSearchModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            var action = alibabaCloudSearchModel.accept(actionCreator, taskSettings);
-            action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-        }
+        submitEmbeddingBatches(
+            alibabaCloudSearchModel,
+            batchedRequests,
+            EMBEDDING_MAX_BATCH_SIZE,
+            taskSettings,
+            inputType,
+            timeout,
+            alibabaCloudSearchModel.accept(actionCreator, taskSettings)
+        );
     }
 
     @Override
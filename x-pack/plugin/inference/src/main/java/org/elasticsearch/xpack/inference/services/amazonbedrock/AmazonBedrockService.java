@@ -152,10 +152,15 @@ public class AmazonBedrockService extends SenderService {
                 baseAmazonBedrockModel.getConfigurations().getChunkingSettings()
             ).batchRequestsWithListeners(listener);
 
-            for (var request : batchedRequests) {
-                var action = baseAmazonBedrockModel.accept(actionCreator, taskSettings);
-                action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-            }
+            submitEmbeddingBatches(
+                baseAmazonBedrockModel,
+                batchedRequests,
+                maxBatchSize,
+                taskSettings,
+                inputType,
+                timeout,
+                baseAmazonBedrockModel.accept(actionCreator, taskSettings)
+            );
         } else {
             listener.onFailure(createInvalidModelException(model));
         }
@@ -138,10 +138,15 @@ public class AzureAiStudioService extends SenderService {
                 baseAzureAiStudioModel.getConfigurations().getChunkingSettings()
             ).batchRequestsWithListeners(listener);
 
-            for (var request : batchedRequests) {
-                var action = baseAzureAiStudioModel.accept(actionCreator, taskSettings);
-                action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-            }
+            submitEmbeddingBatches(
+                baseAzureAiStudioModel,
+                batchedRequests,
+                EMBEDDING_MAX_BATCH_SIZE,
+                taskSettings,
+                inputType,
+                timeout,
+                baseAzureAiStudioModel.accept(actionCreator, taskSettings)
+            );
         } else {
             listener.onFailure(createInvalidModelException(model));
         }
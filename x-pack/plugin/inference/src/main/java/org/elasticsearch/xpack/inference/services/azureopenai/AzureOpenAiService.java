@@ -291,10 +291,15 @@ public class AzureOpenAiService extends SenderService {
             azureOpenAiModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            var action = azureOpenAiModel.accept(actionCreator, taskSettings);
-            action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-        }
+        submitEmbeddingBatches(
+            azureOpenAiModel,
+            batchedRequests,
+            EMBEDDING_MAX_BATCH_SIZE,
+            taskSettings,
+            inputType,
+            timeout,
+            azureOpenAiModel.accept(actionCreator, taskSettings)
+        );
     }
 
     @Override
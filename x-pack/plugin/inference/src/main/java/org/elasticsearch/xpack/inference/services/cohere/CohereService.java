@@ -304,10 +304,15 @@ public class CohereService extends SenderService {
             cohereModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            var action = cohereModel.accept(actionCreator, taskSettings);
-            action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-        }
+        submitEmbeddingBatches(
+            cohereModel,
+            batchedRequests,
+            EMBEDDING_MAX_BATCH_SIZE,
+            taskSettings,
+            inputType,
+            timeout,
+            cohereModel.accept(actionCreator, taskSettings)
+        );
     }
 
     @Override
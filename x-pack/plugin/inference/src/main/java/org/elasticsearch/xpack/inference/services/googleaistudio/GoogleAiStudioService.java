@@ -31,6 +31,7 @@ import org.elasticsearch.inference.configuration.SettingsConfigurationFieldType;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.xpack.inference.chunking.ChunkingSettingsBuilder;
 import org.elasticsearch.xpack.inference.chunking.EmbeddingRequestChunker;
+import org.elasticsearch.xpack.inference.external.action.ExecutableAction;
 import org.elasticsearch.xpack.inference.external.action.SenderExecutableAction;
 import org.elasticsearch.xpack.inference.external.action.SingleInputSenderExecutableAction;
 import org.elasticsearch.xpack.inference.external.http.sender.EmbeddingsInput;
@@ -354,15 +355,15 @@ public class GoogleAiStudioService extends SenderService {
             googleAiStudioModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            doInfer(
-                model,
-                EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType),
-                taskSettings,
-                timeout,
-                request.listener()
-            );
-        }
+        // the batches reach the action as the EmbeddingsInput built by submitEmbeddingBatches, which doInfer sends as it is
+        ExecutableAction action = (embeddingsInput, batchTimeout, batchListener) -> doInfer(
+            model,
+            embeddingsInput,
+            taskSettings,
+            batchTimeout,
+            batchListener
+        );
+        submitEmbeddingBatches(model, batchedRequests, EMBEDDING_MAX_BATCH_SIZE, taskSettings, inputType, timeout, action);
     }
 
     public static class Configuration {
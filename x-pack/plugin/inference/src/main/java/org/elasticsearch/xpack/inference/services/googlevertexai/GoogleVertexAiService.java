@@ -241,10 +241,15 @@ public class GoogleVertexAiService extends SenderService {
             googleVertexAiModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            var action = googleVertexAiModel.accept(actionCreator, taskSettings);
-            action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-        }
+        submitEmbeddingBatches(
+            googleVertexAiModel,
+            batchedRequests,
+            EMBEDDING_MAX_BATCH_SIZE,
+            taskSettings,
+            inputType,
+            timeout,
+            googleVertexAiModel.accept(actionCreator, taskSettings)
+        );
     }
 
     @Override
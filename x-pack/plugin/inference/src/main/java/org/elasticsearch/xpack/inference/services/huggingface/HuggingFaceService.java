@@ -126,10 +126,15 @@ public class HuggingFaceService extends HuggingFaceBaseService {
             huggingFaceModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            var action = huggingFaceModel.accept(actionCreator);
-            action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-        }
+        submitEmbeddingBatches(
+            huggingFaceModel,
+            batchedRequests,
+            EMBEDDING_MAX_BATCH_SIZE,
+            taskSettings,
+            inputType,
+            timeout,
+            huggingFaceModel.accept(actionCreator)
+        );
     }
 
     @Override
@@ -120,10 +120,15 @@ public class MistralService extends SenderService {
                 mistralEmbeddingsModel.getConfigurations().getChunkingSettings()
             ).batchRequestsWithListeners(listener);
 
-            for (var request : batchedRequests) {
-                var action = mistralEmbeddingsModel.accept(actionCreator, taskSettings);
-                action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-            }
+            submitEmbeddingBatches(
+                mistralEmbeddingsModel,
+                batchedRequests,
+                MistralConstants.MAX_BATCH_SIZE,
+                taskSettings,
+                inputType,
+                timeout,
+                mistralEmbeddingsModel.accept(actionCreator, taskSettings)
+            );
         } else {
             listener.onFailure(createInvalidModelException(model));
         }
@@ -305,10 +305,15 @@ public class VoyageAIService extends SenderService {
             voyageaiModel.getConfigurations().getChunkingSettings()
         ).batchRequestsWithListeners(listener);
 
-        for (var request : batchedRequests) {
-            var action = voyageaiModel.accept(actionCreator, taskSettings);
-            action.execute(EmbeddingsInput.fromStrings(request.batch().inputs().get(), inputType), timeout, request.listener());
-        }
+        submitEmbeddingBatches(
+            voyageaiModel,
+            batchedRequests,
+            getBatchSize(voyageaiModel),
+            taskSettings,
+            inputType,
+            timeout,
+            voyageaiModel.accept(actionCreator, taskSettings)
+        );
     }
 
     private static int getBatchSize(VoyageAIModel model) {
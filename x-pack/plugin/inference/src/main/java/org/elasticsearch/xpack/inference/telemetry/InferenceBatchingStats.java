@@ -0,0 +1,55 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.inference.telemetry;
+
+import org.elasticsearch.telemetry.metric.DoubleHistogram;
+import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.LongUpDownCounter;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Metrics for the node level coalescing of embedding requests, see
+ * {@link org.elasticsearch.xpack.inference.chunking.EmbeddingRequestBatcher}.
+ */
+public record InferenceBatchingStats(LongUpDownCounter queuedInputs, DoubleHistogram batchFillRatio, LongHistogram batchWaitTime) {
+
+    public static final InferenceBatchingStats NOOP = create(MeterRegistry.NOOP);
+
+    public InferenceBatchingStats {
+        Objects.requireNonNull(queuedInputs);
+        Objects.requireNonNull(batchFillRatio);
+        Objects.requireNonNull(batchWaitTime);
+    }
+
+    public static InferenceBatchingStats create(MeterRegistry meterRegistry) {
+        return new InferenceBatchingStats(
+            meterRegistry.registerLongUpDownCounter(
+                "es.inference.batching.queue.size.current",
+                "Number of embedding inputs waiting to be merged into a batch for a particular inference endpoint",
+                "inputs"
+            ),
+            meterRegistry.registerDoubleHistogram(
+                "es.inference.batching.fill.ratio",
+                "Ratio of the number of inputs sent in a merged batch to the maximum batch size of the service",
+                "ratio"
+            ),
+            meterRegistry.registerLongHistogram(
+                "es.inference.batching.wait.time",
+                "Time the first input of a merged batch waited before the batch was sent",
+                "ms"
+            )
+        );
+    }
+
+    public static Map<String, Object> batchAttributes(String inferenceEntityId) {
+        return Map.of("inference_id", inferenceEntityId);
+    }
+}
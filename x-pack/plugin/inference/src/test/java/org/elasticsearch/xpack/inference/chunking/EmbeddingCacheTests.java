@@ -0,0 +1,176 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.inference.chunking;
+
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.inference.InferenceServiceResults;
+import org.elasticsearch.inference.InputType;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.core.inference.results.ChatCompletionResults;
+import org.elasticsearch.xpack.inference.InferenceNamedWriteablesProvider;
+import org.elasticsearch.xpack.inference.chunking.EmbeddingRequestBatcherTests.MockEmbeddingService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.elasticsearch.xpack.inference.chunking.EmbeddingRequestBatcherTests.assertEmbeddings;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+
+public class EmbeddingCacheTests extends ESTestCase {
+
+    private static final EmbeddingRequestBatcher.BatchKey KEY = new EmbeddingRequestBatcher.BatchKey(
+        "endpoint",
+        InputType.INGEST,
+        Map.of(),
+        "fingerprint"
+    );
+
+    public void testDisabledCacheSendsAllInputs() {
+        var cache = EmbeddingCache.disabled();
+        var service = new MockEmbeddingService();
+
+        execute(cache, KEY, service, "a", "b");
+        execute(cache, KEY, service, "a", "b");
+
+        assertFalse(cache.enabled());
+        assertThat(service.requests, contains(List.of("a", "b"), List.of("a", "b")));
+    }
+
+    public void testOnlyMissingInputsAreSent() {
+        var cache = createCache(ByteSizeValue.ofMb(1), null);
+        var service = new MockEmbeddingService();
+
+        execute(cache, KEY, service, "a", "b");
+        execute(cache, KEY, service, "c", "a", "d", "b");
+        execute(cache, KEY, service, "d", "c");
+
+        assertThat(service.requests, contains(List.of("a", "b"), List.of("c", "d")));
+        assertThat(cache.stats().getHits(), equalTo(4L));
+        assertThat(cache.stats().getMisses(), equalTo(4L));
+    }
+
+    public void testCacheIsKeyedByEndpointAndRequestSettings() {
+        var cache = createCache(ByteSizeValue.ofMb(1), null);
+        var service = new MockEmbeddingService();
+
+        execute(cache, KEY, service, "a");
+        execute(cache, new EmbeddingRequestBatcher.BatchKey("other", InputType.INGEST, Map.of(), "fingerprint"), service, "a");
+        execute(cache, new EmbeddingRequestBatcher.BatchKey("endpoint", InputType.SEARCH, Map.of(), "fingerprint"), service, "a");
+        execute(cache, new EmbeddingRequestBatcher.BatchKey("endpoint", InputType.INGEST, Map.of(), "updated"), service, "a");
+        execute(cache, new EmbeddingRequestBatcher.BatchKey("endpoint", InputType.INGEST, Map.of("k", "v"), "fingerprint"), service, "a");
+
+        assertThat(service.requests, hasSize(5));
+        assertThat(cache.stats().getHits(), equalTo(0L));
+    }
+
+    public void testRequestHashSortsNestedTaskSettings() {
+        var settings = new LinkedHashMap<String, Object>();
+        settings.put("b", 1);
+        settings.put("a", new LinkedHashMap<>(Map.of("y", List.of(Map.of("q", 1, "p", 2)), "x", "v")));
+        var reordered = new LinkedHashMap<String, Object>();
+        var nested = new LinkedHashMap<String, Object>();
+        nested.put("x", "v");
+        nested.put("y", List.of(new TreeMap<>(Map.of("p", 2, "q", 1))));
+        reordered.put("a", nested);
+        reordered.put("b", 1);
+
+        var key = new EmbeddingRequestBatcher.BatchKey("endpoint", InputType.INGEST, settings, "fingerprint");
+        var reorderedKey = new EmbeddingRequestBatcher.BatchKey("endpoint", InputType.INGEST, reordered, "fingerprint");
+        assertThat(EmbeddingCache.requestHash(key), equalTo(EmbeddingCache.requestHash(reorderedKey)));
+
+        var cache = createCache(ByteSizeValue.ofMb(1), null);
+        var service = new MockEmbeddingService();
+        execute(cache, key, service, "a");
+        execute(cache, reorderedKey, service, "a");
+        assertThat(service.requests, hasSize(1));
+    }
+
+    public void testUnknownResultsAreWeighedBySerializedSize() {
+        var results = new ChatCompletionResults(List.of(new ChatCompletionResults.Result(randomAlphaOfLength(1000))));
+        assertThat(EmbeddingCache.estimateSizeInBytes(results), greaterThan(1000L));
+    }
+
+    public void testCacheIsSizeBounded() {
+        var cache = createCache(ByteSizeValue.ofKb(2), null);
+        var service = new MockEmbeddingService();
+
+        for (int i = 0; i < 100; i++) {
+            execute(cache, KEY, service, Integer.toString(i));
+        }
+
+        assertThat(cache.count(), lessThan(100));
+        assertThat(cache.stats().getEvictions(), greaterThan(0L));
+    }
+
+    public void testCacheIsPersistedAcrossRestarts() throws IOException {
+        var cacheFile = createTempDir().resolve("inference").resolve(EmbeddingCache.CACHE_FILE_NAME);
+        var service = new MockEmbeddingService();
+
+        var cache = createCache(ByteSizeValue.ofMb(1), cacheFile);
+        execute(cache, KEY, service, "a", "b");
+        cache.close();
+
+        var restartedCache = createCache(ByteSizeValue.ofMb(1), cacheFile);
+        assertThat(restartedCache.count(), equalTo(2));
+        service.requests.clear();
+        execute(restartedCache, KEY, service, "b", "a");
+        assertThat(service.requests, empty());
+    }
+
+    public void testCacheIsPersistedWhenChanged() throws IOException {
+        var cacheFile = createTempDir().resolve("inference").resolve(EmbeddingCache.CACHE_FILE_NAME);
+        var service = new MockEmbeddingService();
+
+        var cache = createCache(ByteSizeValue.ofMb(1), cacheFile);
+        cache.persistIfChanged();
+        assertFalse(Files.exists(cacheFile));
+
+        execute(cache, KEY, service, "a", "b");
+        cache.persistIfChanged();
+        assertTrue(Files.exists(cacheFile));
+
+        // the node may not shut down cleanly, the entries persisted so far are still loaded
+        var restartedCache = createCache(ByteSizeValue.ofMb(1), cacheFile);
+        assertThat(restartedCache.count(), equalTo(2));
+    }
+
+    private static EmbeddingCache createCache(ByteSizeValue size, Path cacheFile) {
+        var cache = new EmbeddingCache(
+            size,
+            cacheFile,
+            new NamedWriteableRegistry(InferenceNamedWriteablesProvider.getNamedWriteables())
+        );
+        if (cacheFile != null) {
+            cache.load();
+        }
+        return cache;
+    }
+
+    private static void execute(
+        EmbeddingCache cache,
+        EmbeddingRequestBatcher.BatchKey key,
+        MockEmbeddingService service,
+        String... inputs
+    ) {
+        var listener = new PlainActionFuture<InferenceServiceResults>();
+        cache.execute(key, List.of(inputs), null, service, listener);
+        assertEmbeddings(listener, inputs);
+    }
+}
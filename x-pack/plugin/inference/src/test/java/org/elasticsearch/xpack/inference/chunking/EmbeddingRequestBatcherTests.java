@@ -0,0 +1,228 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.inference.chunking;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.inference.InferenceServiceResults;
+import org.elasticsearch.inference.InputType;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.core.inference.results.TextEmbeddingFloatResults;
+import org.elasticsearch.xpack.inference.telemetry.InferenceBatchingStats;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class EmbeddingRequestBatcherTests extends ESTestCase {
+
+    private static final EmbeddingRequestBatcher.BatchKey KEY = new EmbeddingRequestBatcher.BatchKey(
+        "endpoint",
+        InputType.INGEST,
+        Map.of(),
+        "fingerprint"
+    );
+
+    private DeterministicTaskQueue taskQueue;
+    private MockEmbeddingService service;
+
+    @Before
+    public void init() {
+        taskQueue = new DeterministicTaskQueue();
+        service = new MockEmbeddingService();
+    }
+
+    public void testDisabledBatcherSendsImmediately() {
+        var batcher = EmbeddingRequestBatcher.disabled();
+        var listener = new PlainActionFuture<InferenceServiceResults>();
+
+        batcher.submit(KEY, 10, List.of("a", "b"), null, service, listener);
+
+        assertThat(service.requests, contains(List.of("a", "b")));
+        assertEmbeddings(listener, "a", "b");
+    }
+
+    public void testBatchesFromConcurrentRequestsAreMerged() {
+        var batcher = createBatcher(TimeValue.timeValueSeconds(1));
+        var first = new PlainActionFuture<InferenceServiceResults>();
+        var second = new PlainActionFuture<InferenceServiceResults>();
+
+        batcher.submit(KEY, 4, List.of("a", "b"), null, service, first);
+        assertThat(service.requests, empty());
+
+        batcher.submit(KEY, 4, List.of("c", "d"), null, service, second);
+        assertThat(service.requests, contains(List.of("a", "b", "c", "d")));
+        assertEmbeddings(first, "a", "b");
+        assertEmbeddings(second, "c", "d");
+    }
+
+    public void testPartialBatchIsSentAfterDelay() {
+        var batcher = createBatcher(TimeValue.timeValueMillis(100));
+        var listener = new PlainActionFuture<InferenceServiceResults>();
+
+        batcher.submit(KEY, 4, List.of("a"), null, service, listener);
+        taskQueue.runAllRunnableTasks();
+        assertThat(service.requests, empty());
+        assertFalse(listener.isDone());
+
+        taskQueue.advanceTime();
+        taskQueue.runAllRunnableTasks();
+        assertThat(service.requests, contains(List.of("a")));
+        assertEmbeddings(listener, "a");
+    }
+
+    public void testBatchIsSentWhenNextRequestDoesNotFit() {
+        var batcher = createBatcher(TimeValue.timeValueSeconds(1));
+        var first = new PlainActionFuture<InferenceServiceResults>();
+        var second = new PlainActionFuture<InferenceServiceResults>();
+
+        batcher.submit(KEY, 4, List.of("a", "b", "c"), null, service, first);
+        batcher.submit(KEY, 4, List.of("d", "e"), null, service, second);
+        assertThat(service.requests, contains(List.of("a", "b", "c")));
+        assertEmbeddings(first, "a", "b", "c");
+        assertFalse(second.isDone());
+
+        taskQueue.advanceTime();
+        taskQueue.runAllRunnableTasks();
+        assertThat(service.requests, hasSize(2));
+        assertThat(service.requests.get(1), contains("d", "e"));
+        assertEmbeddings(second, "d", "e");
+    }
+
+    public void testBatchesWithDifferentKeysAreNotMerged() {
+        var batcher = createBatcher(TimeValue.timeValueMillis(100));
+        var first = new PlainActionFuture<InferenceServiceResults>();
+        var second = new PlainActionFuture<InferenceServiceResults>();
+
+        batcher.submit(KEY, 4, List.of("a", "b"), null, service, first);
+        var searchKey = new EmbeddingRequestBatcher.BatchKey("endpoint", InputType.SEARCH, Map.of(), "fingerprint");
+        batcher.submit(searchKey, 4, List.of("c", "d"), null, service, second);
+        taskQueue.advanceTime();
+        taskQueue.runAllRunnableTasks();
+
+        assertThat(service.requests, hasSize(2));
+        assertEmbeddings(first, "a", "b");
+        assertEmbeddings(second, "c", "d");
+    }
+
+    public void testFailureIsRoutedToAllCallers() {
+        var batcher = createBatcher(TimeValue.timeValueSeconds(1));
+        var first = new PlainActionFuture<InferenceServiceResults>();
+        var second = new PlainActionFuture<InferenceServiceResults>();
+
+        EmbeddingRequestBatcher.BatchExecutor failingService = (inputs, timeout, listener) -> listener.onFailure(
+            new IllegalStateException("boom")
+        );
+        batcher.submit(KEY, 2, List.of("a"), null, failingService, first);
+        batcher.submit(KEY, 2, List.of("b"), null, failingService, second);
+
+        assertThat(expectThrows(IllegalStateException.class, first::actionGet).getMessage(), containsString("boom"));
+        assertThat(expectThrows(IllegalStateException.class, second::actionGet).getMessage(), containsString("boom"));
+    }
+
+    public void testResultCountMismatchFailsAllCallers() {
+        var batcher = createBatcher(TimeValue.timeValueSeconds(1));
+        var first = new PlainActionFuture<InferenceServiceResults>();
+        var second = new PlainActionFuture<InferenceServiceResults>();
+
+        EmbeddingRequestBatcher.BatchExecutor shortService = (inputs, timeout, listener) -> service.execute(
+            inputs.subList(1, 2),
+            timeout,
+            listener
+        );
+        batcher.submit(KEY, 2, List.of("a"), null, shortService, first);
+        batcher.submit(KEY, 2, List.of("b"), null, shortService, second);
+
+        var e = expectThrows(ElasticsearchStatusException.class, first::actionGet);
+        assertThat(e.getMessage(), containsString("does not equal the number of requests"));
+        expectThrows(ElasticsearchStatusException.class, second::actionGet);
+    }
+
+    public void testMergedBatchUsesShortestTimeout() {
+        var batcher = createBatcher(TimeValue.timeValueSeconds(1));
+        var first = new PlainActionFuture<InferenceServiceResults>();
+        var second = new PlainActionFuture<InferenceServiceResults>();
+        var third = new PlainActionFuture<InferenceServiceResults>();
+
+        batcher.submit(KEY, 3, List.of("a"), null, service, first);
+        batcher.submit(KEY, 3, List.of("b"), TimeValue.timeValueSeconds(30), service, second);
+        batcher.submit(KEY, 3, List.of("c"), TimeValue.timeValueSeconds(60), service, third);
+
+        assertThat(service.requests, contains(List.of("a", "b", "c")));
+        assertThat(service.timeouts, contains(TimeValue.timeValueSeconds(30)));
+        assertEmbeddings(first, "a");
+        assertEmbeddings(second, "b");
+        assertEmbeddings(third, "c");
+    }
+
+    public void testListenersAreNotifiedInTheirOwnThreadContext() {
+        var batcher = createBatcher(TimeValue.timeValueSeconds(1));
+        var threadContext = taskQueue.getThreadPool().getThreadContext();
+        var headers = new ArrayList<String>();
+
+        for (String caller : List.of("first", "second")) {
+            try (var ignored = threadContext.stashContext()) {
+                threadContext.putHeader("caller", caller);
+                batcher.submit(
+                    KEY,
+                    2,
+                    List.of(caller),
+                    null,
+                    service,
+                    ActionListener.wrap(results -> headers.add(threadContext.getHeader("caller")), e -> fail(e.getMessage()))
+                );
+            }
+        }
+
+        assertThat(service.requests, contains(List.of("first", "second")));
+        assertThat(headers, contains("first", "second"));
+    }
+
+    private EmbeddingRequestBatcher createBatcher(TimeValue maxDelay) {
+        return new EmbeddingRequestBatcher(taskQueue.getThreadPool(), maxDelay, InferenceBatchingStats.NOOP, EmbeddingCache.disabled());
+    }
+
+    static void assertEmbeddings(PlainActionFuture<InferenceServiceResults> listener, String... inputs) {
+        var results = listener.actionGet();
+        assertThat(results, instanceOf(TextEmbeddingFloatResults.class));
+        var embeddings = ((TextEmbeddingFloatResults) results).embeddings();
+        assertThat(embeddings, hasSize(inputs.length));
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(MockEmbeddingService.embed(inputs[i]), embeddings.get(i));
+        }
+    }
+
+    /**
+     * Records the requests it receives and embeds every input as its hash code.
+     */
+    static class MockEmbeddingService implements EmbeddingRequestBatcher.BatchExecutor {
+        final List<List<String>> requests = new ArrayList<>();
+        final List<TimeValue> timeouts = new ArrayList<>();
+
+        @Override
+        public void execute(List<String> inputs, TimeValue timeout, ActionListener<InferenceServiceResults> listener) {
+            requests.add(List.copyOf(inputs));
+            timeouts.add(timeout);
+            listener.onResponse(new TextEmbeddingFloatResults(inputs.stream().map(MockEmbeddingService::embed).toList()));
+        }
+
+        static TextEmbeddingFloatResults.Embedding embed(String input) {
+            return new TextEmbeddingFloatResults.Embedding(new float[] { input.hashCode() });
+        }
+    }
+}
@@ -14,6 +14,7 @@ module org.elasticsearch.rank.vectors {
 
     exports org.elasticsearch.xpack.rank.vectors;
     exports org.elasticsearch.xpack.rank.vectors.mapper;
+    exports org.elasticsearch.xpack.rank.vectors.query;
     exports org.elasticsearch.xpack.rank.vectors.script;
 
     // whitelist resource access
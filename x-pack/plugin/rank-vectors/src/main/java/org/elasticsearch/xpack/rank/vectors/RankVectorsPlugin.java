@@ -15,15 +15,18 @@ import org.elasticsearch.license.LicensedFeature;
 import org.elasticsearch.license.XPackLicenseState;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.plugins.SearchPlugin;
 import org.elasticsearch.xpack.core.XPackPlugin;
 import org.elasticsearch.xpack.rank.vectors.mapper.RankVectorsFieldMapper;
+import org.elasticsearch.xpack.rank.vectors.query.MaxSimQueryBuilder;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.elasticsearch.index.mapper.FieldMapper.notInMultiFields;
 import static org.elasticsearch.xpack.rank.vectors.mapper.RankVectorsFieldMapper.CONTENT_TYPE;
 
-public class RankVectorsPlugin extends Plugin implements MapperPlugin {
+public class RankVectorsPlugin extends Plugin implements MapperPlugin, SearchPlugin {
     public static final LicensedFeature.Momentary RANK_VECTORS_FEATURE = LicensedFeature.momentary(
         null,
         "rank-vectors",
@@ -40,6 +43,11 @@ public class RankVectorsPlugin extends Plugin implements MapperPlugin {
         }, notInMultiFields(CONTENT_TYPE)));
     }
 
+    @Override
+    public List<QuerySpec<?>> getQueries() {
+        return List.of(new QuerySpec<>(MaxSimQueryBuilder.NAME, MaxSimQueryBuilder::new, MaxSimQueryBuilder::fromXContent));
+    }
+
     protected XPackLicenseState getLicenseState() {
         return XPackPlugin.getSharedLicenseState();
     }
@@ -11,9 +11,11 @@ import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.fielddata.FieldDataContext;
 import org.elasticsearch.index.fielddata.IndexFieldData;
@@ -37,6 +39,7 @@ import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.vectors.VectorData;
 import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xpack.rank.vectors.query.MaxSimQuery;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -226,6 +229,30 @@ public class RankVectorsFieldMapper extends FieldMapper {
             throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support term queries");
         }
 
+        /**
+         * Creates a query scoring the documents that have a value for this field by their MaxSim similarity with
+         * {@code queryVectors}, see {@link MaxSimQuery}.
+         */
+        public Query createMaxSimQuery(float[][] queryVectors, @Nullable Query filter) {
+            if (RANK_VECTORS_FEATURE.check(licenseState) == false) {
+                throw LicenseUtils.newComplianceException("Rank Vectors");
+            }
+            if (queryVectors.length == 0) {
+                throw new IllegalArgumentException("The query vector is empty.");
+            }
+            for (float[] queryVector : queryVectors) {
+                elementType.checkDimensions(dims, queryVector.length);
+                if (elementType != DenseVectorFieldMapper.ElementType.FLOAT) {
+                    DenseVectorFieldMapper.ElementType.BYTE.checkVectorBounds(queryVector);
+                }
+            }
+            if (dims == null) {
+                // no document has a value for this field yet
+                return new MatchNoDocsQuery("No vectors indexed for field [" + name() + "]");
+            }
+            return new MaxSimQuery(name(), name() + VECTOR_MAGNITUDES_SUFFIX, elementType, dims, queryVectors, filter);
+        }
+
         int getVectorDimensions() {
             return dims;
         }
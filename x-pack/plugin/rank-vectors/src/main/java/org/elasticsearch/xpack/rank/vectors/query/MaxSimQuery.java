@@ -0,0 +1,362 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.rank.vectors.query;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.ConjunctionUtils;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.ElementType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Scores documents by the late-interaction MaxSim similarity between the query vectors and the vectors of a
+ * {@code rank_vectors} field: the sum, over all query vectors, of the best similarity with any of the document's vectors.
+ * Float and byte vectors are compared by dot product, bit vectors by inverse hamming distance.
+ *
+ * The document vectors are decoded straight from doc values into a reusable buffer and compared with the
+ * vectorized {@link VectorUtil} kernels. When only the top hits are needed, documents whose upper bound, derived
+ * from the stored vector magnitudes, can't reach the minimum competitive score are skipped without being scored.
+ *
+ * Dot product based scores are made non-negative with {@link VectorUtil#scaleMaxInnerProductScore(float)}.
+ */
+public class MaxSimQuery extends Query {
+
+    private final String field;
+    private final String magnitudeField;
+    private final ElementType elementType;
+    private final int dims;
+    private final float[][] floatQueryVectors;
+    private final byte[][] byteQueryVectors;
+    private final float queryMagnitudeSum;
+    @Nullable
+    private final Query filter;
+
+    /**
+     * @param field          the {@code rank_vectors} field
+     * @param magnitudeField the field holding the magnitudes of the document vectors
+     * @param elementType    the element type of the field
+     * @param dims           the number of dimensions of the field
+     * @param queryVectors   the query vectors, for byte and bit fields every value must fit in a byte
+     * @param filter         an optional filter restricting the documents to score
+     */
+    public MaxSimQuery(
+        String field,
+        String magnitudeField,
+        ElementType elementType,
+        int dims,
+        float[][] queryVectors,
+        @Nullable Query filter
+    ) {
+        this.field = Objects.requireNonNull(field);
+        this.magnitudeField = Objects.requireNonNull(magnitudeField);
+        this.elementType = Objects.requireNonNull(elementType);
+        this.dims = dims;
+        this.filter = filter;
+        float magnitudeSum = 0;
+        if (elementType == ElementType.FLOAT) {
+            this.floatQueryVectors = queryVectors;
+            this.byteQueryVectors = null;
+            for (float[] queryVector : queryVectors) {
+                magnitudeSum += (float) Math.sqrt(VectorUtil.dotProduct(queryVector, queryVector));
+            }
+        } else {
+            this.floatQueryVectors = null;
+            this.byteQueryVectors = new byte[queryVectors.length][];
+            for (int i = 0; i < queryVectors.length; i++) {
+                byteQueryVectors[i] = new byte[queryVectors[i].length];
+                for (int j = 0; j < queryVectors[i].length; j++) {
+                    byteQueryVectors[i][j] = (byte) queryVectors[i][j];
+                }
+                magnitudeSum += (float) Math.sqrt(VectorUtil.dotProduct(byteQueryVectors[i], byteQueryVectors[i]));
+            }
+        }
+        this.queryMagnitudeSum = magnitudeSum;
+    }
+
+    private MaxSimQuery(MaxSimQuery other, Query filter) {
+        this.field = other.field;
+        this.magnitudeField = other.magnitudeField;
+        this.elementType = other.elementType;
+        this.dims = other.dims;
+        this.floatQueryVectors = other.floatQueryVectors;
+        this.byteQueryVectors = other.byteQueryVectors;
+        this.queryMagnitudeSum = other.queryMagnitudeSum;
+        this.filter = filter;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    @Nullable
+    public Query getFilter() {
+        return filter;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        if (filter != null) {
+            Query rewrittenFilter = filter.rewrite(indexSearcher);
+            if (rewrittenFilter != filter) {
+                return new MaxSimQuery(this, rewrittenFilter);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        Weight filterWeight = filter == null ? null : searcher.createWeight(filter, ScoreMode.COMPLETE_NO_SCORES, 1f);
+        return new Weight(this) {
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+                ScorerSupplier scorerSupplier = scorerSupplier(context);
+                if (scorerSupplier != null) {
+                    MaxSimScorer scorer = (MaxSimScorer) scorerSupplier.get(Long.MAX_VALUE);
+                    if (scorer.iterator().advance(doc) == doc) {
+                        return Explanation.match(scorer.score(), "max_sim score computed from [" + scorer.vectorCount() + "] vectors");
+                    }
+                }
+                return Explanation.noMatch("no vectors found for field [" + field + "]");
+            }
+
+            @Override
+            public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+                BinaryDocValues vectors = context.reader().getBinaryDocValues(field);
+                if (vectors == null) {
+                    return null;
+                }
+                DocIdSetIterator approximation = vectors;
+                if (filterWeight != null) {
+                    Scorer filterScorer = filterWeight.scorer(context);
+                    if (filterScorer == null) {
+                        return null;
+                    }
+                    approximation = ConjunctionUtils.intersectIterators(List.of(vectors, filterScorer.iterator()));
+                }
+                BinaryDocValues magnitudes = context.reader().getBinaryDocValues(magnitudeField);
+                return new DefaultScorerSupplier(new MaxSimScorer(approximation, vectors, magnitudes, boost));
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return filterWeight == null || filterWeight.isCacheable(ctx);
+            }
+        };
+    }
+
+    private class MaxSimScorer extends Scorer {
+        private final DocIdSetIterator approximation;
+        private final BinaryDocValues vectors;
+        private final BinaryDocValues magnitudes;
+        private final float boost;
+        private final TwoPhaseIterator twoPhase;
+        private final float[] maxes;
+        private final float[] floatBuffer;
+        private final byte[] byteBuffer;
+        private float minCompetitiveScore;
+        private int scoredDoc = -1;
+        private float score;
+
+        MaxSimScorer(DocIdSetIterator approximation, BinaryDocValues vectors, @Nullable BinaryDocValues magnitudes, float boost) {
+            this.approximation = approximation;
+            this.vectors = vectors;
+            this.magnitudes = magnitudes;
+            this.boost = boost;
+            this.maxes = new float[floatQueryVectors != null ? floatQueryVectors.length : byteQueryVectors.length];
+            this.floatBuffer = elementType == ElementType.FLOAT ? new float[dims] : null;
+            this.byteBuffer = elementType == ElementType.FLOAT ? null : new byte[elementType.getNumBytes(dims)];
+            this.twoPhase = new TwoPhaseIterator(approximation) {
+                @Override
+                public boolean matches() throws IOException {
+                    if (minCompetitiveScore > 0 && boost * upperBound() < minCompetitiveScore) {
+                        return false;
+                    }
+                    computeScore();
+                    return true;
+                }
+
+                @Override
+                public float matchCost() {
+                    return (float) maxes.length * dims;
+                }
+            };
+        }
+
+        @Override
+        public int docID() {
+            return approximation.docID();
+        }
+
+        @Override
+        public DocIdSetIterator iterator() {
+            return TwoPhaseIterator.asDocIdSetIterator(twoPhase);
+        }
+
+        @Override
+        public TwoPhaseIterator twoPhaseIterator() {
+            return twoPhase;
+        }
+
+        @Override
+        public float getMaxScore(int upTo) {
+            return Float.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public void setMinCompetitiveScore(float minScore) {
+            this.minCompetitiveScore = minScore;
+        }
+
+        @Override
+        public float score() throws IOException {
+            if (scoredDoc != docID()) {
+                computeScore();
+            }
+            return boost * score;
+        }
+
+        int vectorCount() throws IOException {
+            return vectors.binaryValue().length / elementType.getNumBytes(dims);
+        }
+
+        /**
+         * An upper bound of the score of the current document. The dot product of two vectors is bounded by the
+         * product of their magnitudes, so the sum of the best dot products is bounded by the sum of the query vector
+         * magnitudes multiplied by the largest document vector magnitude.
+         */
+        private float upperBound() throws IOException {
+            if (elementType == ElementType.BIT || magnitudes == null || magnitudes.advanceExact(docID()) == false) {
+                return Float.POSITIVE_INFINITY;
+            }
+            BytesRef magnitudeBytes = magnitudes.binaryValue();
+            FloatBuffer docMagnitudes = ByteBuffer.wrap(magnitudeBytes.bytes, magnitudeBytes.offset, magnitudeBytes.length)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer();
+            float maxMagnitude = 0;
+            while (docMagnitudes.hasRemaining()) {
+                maxMagnitude = Math.max(maxMagnitude, docMagnitudes.get());
+            }
+            return VectorUtil.scaleMaxInnerProductScore(queryMagnitudeSum * maxMagnitude);
+        }
+
+        private void computeScore() throws IOException {
+            BytesRef bytes = vectors.binaryValue();
+            Arrays.fill(maxes, Float.NEGATIVE_INFINITY);
+            switch (elementType) {
+                case FLOAT -> {
+                    FloatBuffer docVectors = ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asFloatBuffer();
+                    while (docVectors.hasRemaining()) {
+                        docVectors.get(floatBuffer);
+                        for (int i = 0; i < maxes.length; i++) {
+                            maxes[i] = Math.max(maxes[i], VectorUtil.dotProduct(floatQueryVectors[i], floatBuffer));
+                        }
+                    }
+                }
+                case BYTE -> {
+                    for (int offset = 0; offset < bytes.length; offset += byteBuffer.length) {
+                        System.arraycopy(bytes.bytes, bytes.offset + offset, byteBuffer, 0, byteBuffer.length);
+                        for (int i = 0; i < maxes.length; i++) {
+                            maxes[i] = Math.max(maxes[i], VectorUtil.dotProduct(byteQueryVectors[i], byteBuffer));
+                        }
+                    }
+                }
+                case BIT -> {
+                    for (int offset = 0; offset < bytes.length; offset += byteBuffer.length) {
+                        System.arraycopy(bytes.bytes, bytes.offset + offset, byteBuffer, 0, byteBuffer.length);
+                        for (int i = 0; i < maxes.length; i++) {
+                            float similarity = (dims - VectorUtil.xorBitCount(byteBuffer, byteQueryVectors[i])) / (float) dims;
+                            maxes[i] = Math.max(maxes[i], similarity);
+                        }
+                    }
+                }
+            }
+            float sum = 0;
+            for (float max : maxes) {
+                sum += max;
+            }
+            score = elementType == ElementType.BIT ? sum : VectorUtil.scaleMaxInnerProductScore(sum);
+            scoredDoc = docID();
+        }
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(field)) {
+            visitor.visitLeaf(this);
+        }
+        if (filter != null) {
+            filter.visit(visitor.getSubVisitor(BooleanClause.Occur.FILTER, this));
+        }
+    }
+
+    @Override
+    public String toString(String field) {
+        StringBuilder sb = new StringBuilder("MaxSimQuery{field=").append(this.field)
+            .append(", elementType=")
+            .append(elementType)
+            .append(", queryVectors=")
+            .append(floatQueryVectors != null ? floatQueryVectors.length : byteQueryVectors.length);
+        if (filter != null) {
+            sb.append(", filter=").append(filter.toString(field));
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (sameClassAs(o) == false) {
+            return false;
+        }
+        MaxSimQuery other = (MaxSimQuery) o;
+        return field.equals(other.field)
+            && magnitudeField.equals(other.magnitudeField)
+            && elementType == other.elementType
+            && dims == other.dims
+            && Arrays.deepEquals(floatQueryVectors, other.floatQueryVectors)
+            && Arrays.deepEquals(byteQueryVectors, other.byteQueryVectors)
+            && Objects.equals(filter, other.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            classHash(),
+            field,
+            magnitudeField,
+            elementType,
+            dims,
+            Arrays.deepHashCode(floatQueryVectors),
+            Arrays.deepHashCode(byteQueryVectors),
+            filter
+        );
+    }
+}
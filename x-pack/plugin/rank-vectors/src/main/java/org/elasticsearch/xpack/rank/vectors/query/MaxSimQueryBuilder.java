@@ -0,0 +1,175 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.rank.vectors.query;
+
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.query.AbstractQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryRewriteContext;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.xcontent.ConstructingObjectParser;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xpack.rank.vectors.mapper.RankVectorsFieldMapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.elasticsearch.xcontent.ConstructingObjectParser.constructorArg;
+import static org.elasticsearch.xcontent.ConstructingObjectParser.optionalConstructorArg;
+
+/**
+ * Scores the documents that have a value for a {@code rank_vectors} field by their MaxSim similarity with the given
+ * query vectors, without going through a script. Can be used as a query or as the query of a rescorer.
+ */
+public class MaxSimQueryBuilder extends AbstractQueryBuilder<MaxSimQueryBuilder> {
+    public static final String NAME = "max_sim";
+
+    public static final ParseField FIELD_FIELD = new ParseField("field");
+    public static final ParseField QUERY_VECTOR_FIELD = new ParseField("query_vector");
+    public static final ParseField FILTER_FIELD = new ParseField("filter");
+
+    @SuppressWarnings("unchecked")
+    public static final ConstructingObjectParser<MaxSimQueryBuilder, Void> PARSER = new ConstructingObjectParser<>(
+        NAME,
+        args -> new MaxSimQueryBuilder((String) args[0], ((List<float[]>) args[1]).toArray(float[][]::new), (QueryBuilder) args[2])
+    );
+
+    static {
+        PARSER.declareString(constructorArg(), FIELD_FIELD);
+        PARSER.declareFieldArray(
+            constructorArg(),
+            (p, c) -> VectorData.parseXContent(p).asFloatVector(),
+            QUERY_VECTOR_FIELD,
+            ObjectParser.ValueType.VALUE_ARRAY
+        );
+        PARSER.declareObject(optionalConstructorArg(), (p, c) -> AbstractQueryBuilder.parseTopLevelQuery(p), FILTER_FIELD);
+        declareStandardFields(PARSER);
+    }
+
+    public static MaxSimQueryBuilder fromXContent(XContentParser parser) {
+        return PARSER.apply(parser, null);
+    }
+
+    private final String field;
+    private final float[][] queryVectors;
+    @Nullable
+    private final QueryBuilder filter;
+
+    public MaxSimQueryBuilder(String field, float[][] queryVectors, @Nullable QueryBuilder filter) {
+        if (field == null) {
+            throw new IllegalArgumentException("[" + FIELD_FIELD.getPreferredName() + "] must not be null");
+        }
+        if (queryVectors == null || queryVectors.length == 0) {
+            throw new IllegalArgumentException("[" + QUERY_VECTOR_FIELD.getPreferredName() + "] must not be empty");
+        }
+        this.field = field;
+        this.queryVectors = queryVectors;
+        this.filter = filter;
+    }
+
+    public MaxSimQueryBuilder(StreamInput in) throws IOException {
+        super(in);
+        this.field = in.readString();
+        this.queryVectors = in.readArray(StreamInput::readFloatArray, float[][]::new);
+        this.filter = in.readOptionalNamedWriteable(QueryBuilder.class);
+    }
+
+    String getField() {
+        return field;
+    }
+
+    float[][] getQueryVectors() {
+        return queryVectors;
+    }
+
+    QueryBuilder getFilter() {
+        return filter;
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeString(field);
+        out.writeArray(StreamOutput::writeFloatArray, queryVectors);
+        out.writeOptionalNamedWriteable(filter);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(NAME);
+        builder.field(FIELD_FIELD.getPreferredName(), field);
+        builder.startArray(QUERY_VECTOR_FIELD.getPreferredName());
+        for (float[] queryVector : queryVectors) {
+            builder.value(queryVector);
+        }
+        builder.endArray();
+        if (filter != null) {
+            builder.field(FILTER_FIELD.getPreferredName(), filter);
+        }
+        boostAndQueryNameToXContent(builder);
+        builder.endObject();
+    }
+
+    @Override
+    protected QueryBuilder doRewrite(QueryRewriteContext queryRewriteContext) throws IOException {
+        if (filter != null) {
+            QueryBuilder rewrittenFilter = filter.rewrite(queryRewriteContext);
+            if (rewrittenFilter != filter) {
+                return new MaxSimQueryBuilder(field, queryVectors, rewrittenFilter).boost(boost).queryName(queryName);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected Query doToQuery(SearchExecutionContext context) throws IOException {
+        MappedFieldType fieldType = context.getFieldType(field);
+        if (fieldType == null) {
+            return new MatchNoDocsQuery("field [" + field + "] does not exist in the mapping");
+        }
+        if (fieldType instanceof RankVectorsFieldMapper.RankVectorsFieldType == false) {
+            throw new IllegalArgumentException(
+                "[" + NAME + "] queries are only supported on [" + RankVectorsFieldMapper.CONTENT_TYPE + "] fields"
+            );
+        }
+        Query filterQuery = filter == null ? null : filter.toQuery(context);
+        return ((RankVectorsFieldMapper.RankVectorsFieldType) fieldType).createMaxSimQuery(queryVectors, filterQuery);
+    }
+
+    @Override
+    protected boolean doEquals(MaxSimQueryBuilder other) {
+        return field.equals(other.field) && Arrays.deepEquals(queryVectors, other.queryVectors) && Objects.equals(filter, other.filter);
+    }
+
+    @Override
+    protected int doHashCode() {
+        return Objects.hash(field, Arrays.deepHashCode(queryVectors), filter);
+    }
+
+    @Override
+    public TransportVersion getMinimalSupportedVersion() {
+        return TransportVersions.RANK_VECTORS_MAX_SIM_QUERY;
+    }
+}
@@ -14,6 +14,7 @@ import org.elasticsearch.license.XPackLicenseState;
 import org.elasticsearch.license.internal.XPackLicenseStatus;
 import org.elasticsearch.xpack.core.LocalStateCompositeXPackPlugin;
 
+import java.util.List;
 import java.util.Map;
 
 public class LocalStateRankVectors extends LocalStateCompositeXPackPlugin {
@@ -39,4 +40,9 @@ public class LocalStateRankVectors extends LocalStateCompositeXPackPlugin {
     public Map<String, Mapper.TypeParser> getMappers() {
         return rankVectorsPlugin.getMappers();
     }
+
+    @Override
+    public List<QuerySpec<?>> getQueries() {
+        return rankVectorsPlugin.getQueries();
+    }
 }
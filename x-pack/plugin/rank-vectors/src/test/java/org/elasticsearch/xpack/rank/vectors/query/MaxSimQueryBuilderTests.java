@@ -0,0 +1,90 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.rank.vectors.query;
+
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequest;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.test.AbstractQueryTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xpack.rank.vectors.LocalStateRankVectors;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class MaxSimQueryBuilderTests extends AbstractQueryTestCase<MaxSimQueryBuilder> {
+
+    private static final String RANK_VECTORS_FIELD_NAME = "mapped_rank_vectors";
+    private static final int DIMS = 4;
+
+    @Override
+    protected Collection<Class<? extends Plugin>> getPlugins() {
+        return List.of(LocalStateRankVectors.class);
+    }
+
+    @Override
+    protected void initializeAdditionalMappings(MapperService mapperService) throws IOException {
+        XContentBuilder builder = PutMappingRequest.simpleMapping(RANK_VECTORS_FIELD_NAME, "type=rank_vectors,dims=" + DIMS);
+        mapperService.merge("_doc", new CompressedXContent(Strings.toString(builder)), MapperService.MergeReason.MAPPING_UPDATE);
+    }
+
+    @Override
+    protected MaxSimQueryBuilder doCreateTestQueryBuilder() {
+        TermQueryBuilder filter = randomBoolean() ? null : new TermQueryBuilder(KEYWORD_FIELD_NAME, randomAlphaOfLength(5));
+        return new MaxSimQueryBuilder(RANK_VECTORS_FIELD_NAME, randomQueryVectors(), filter);
+    }
+
+    @Override
+    protected void doAssertLuceneQuery(MaxSimQueryBuilder queryBuilder, Query query, SearchExecutionContext context) {
+        assertThat(query, instanceOf(MaxSimQuery.class));
+    }
+
+    public void testUnmappedField() throws IOException {
+        MaxSimQueryBuilder queryBuilder = new MaxSimQueryBuilder("unmapped", randomQueryVectors(), null);
+        Query query = queryBuilder.toQuery(createSearchExecutionContext());
+        assertThat(query, instanceOf(MatchNoDocsQuery.class));
+    }
+
+    public void testWrongFieldType() {
+        MaxSimQueryBuilder queryBuilder = new MaxSimQueryBuilder(KEYWORD_FIELD_NAME, randomQueryVectors(), null);
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> queryBuilder.toQuery(createSearchExecutionContext())
+        );
+        assertThat(e.getMessage(), containsString("queries are only supported on [rank_vectors] fields"));
+    }
+
+    public void testEmptyQueryVectors() {
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> new MaxSimQueryBuilder(RANK_VECTORS_FIELD_NAME, new float[0][], null)
+        );
+        assertThat(e.getMessage(), equalTo("[query_vector] must not be empty"));
+    }
+
+    private static float[][] randomQueryVectors() {
+        float[][] queryVectors = new float[randomIntBetween(1, 3)][DIMS];
+        for (float[] queryVector : queryVectors) {
+            for (int d = 0; d < DIMS; d++) {
+                queryVector[d] = randomFloat();
+            }
+        }
+        return queryVectors;
+    }
+}
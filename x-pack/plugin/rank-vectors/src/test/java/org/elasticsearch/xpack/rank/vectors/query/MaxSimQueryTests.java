@@ -0,0 +1,207 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.rank.vectors.query;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.ElementType;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.elasticsearch.xpack.rank.vectors.mapper.RankVectorsFieldMapper.VECTOR_MAGNITUDES_SUFFIX;
+import static org.hamcrest.Matchers.equalTo;
+
+public class MaxSimQueryTests extends ESTestCase {
+
+    private static final String FIELD = "vectors";
+
+    public void testFloatScoresMatchBruteForce() throws IOException {
+        int dims = randomIntBetween(2, 16);
+        float[][][] docs = randomFloatDocs(randomIntBetween(10, 100), dims);
+        float[][] queryVectors = randomFloatVectors(randomIntBetween(1, 4), dims);
+        try (Directory dir = newDirectory()) {
+            indexFloatDocs(dir, docs);
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = newSearcher(reader);
+                MaxSimQuery query = new MaxSimQuery(FIELD, FIELD + VECTOR_MAGNITUDES_SUFFIX, ElementType.FLOAT, dims, queryVectors, null);
+                TopDocs topDocs = searcher.search(query, docs.length);
+                assertThat(topDocs.scoreDocs.length, equalTo(docs.length));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    int id = Integer.parseInt(searcher.storedFields().document(scoreDoc.doc).get("id"));
+                    assertEquals(bruteForceMaxSim(queryVectors, docs[id]), scoreDoc.score, 1e-3f);
+                }
+            }
+        }
+    }
+
+    public void testTopHitsWithPruningMatchBruteForce() throws IOException {
+        int dims = randomIntBetween(2, 16);
+        float[][][] docs = randomFloatDocs(randomIntBetween(50, 200), dims);
+        float[][] queryVectors = randomFloatVectors(randomIntBetween(1, 4), dims);
+        int k = randomIntBetween(1, 10);
+        try (Directory dir = newDirectory()) {
+            indexFloatDocs(dir, docs);
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = newSearcher(reader);
+                MaxSimQuery query = new MaxSimQuery(FIELD, FIELD + VECTOR_MAGNITUDES_SUFFIX, ElementType.FLOAT, dims, queryVectors, null);
+                TopDocs topDocs = searcher.search(query, k);
+                TopDocs exhaustive = searcher.search(query, docs.length);
+                assertThat(topDocs.scoreDocs.length, equalTo(k));
+                for (int i = 0; i < k; i++) {
+                    assertEquals(exhaustive.scoreDocs[i].score, topDocs.scoreDocs[i].score, 0f);
+                }
+            }
+        }
+    }
+
+    public void testFilterRestrictsMatches() throws IOException {
+        int dims = 4;
+        float[][][] docs = randomFloatDocs(20, dims);
+        try (Directory dir = newDirectory()) {
+            indexFloatDocs(dir, docs);
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = newSearcher(reader);
+                MaxSimQuery query = new MaxSimQuery(
+                    FIELD,
+                    FIELD + VECTOR_MAGNITUDES_SUFFIX,
+                    ElementType.FLOAT,
+                    dims,
+                    randomFloatVectors(2, dims),
+                    new TermQuery(new Term("id", "7"))
+                );
+                TopDocs topDocs = searcher.search(query, 10);
+                assertThat(topDocs.scoreDocs.length, equalTo(1));
+                assertThat(searcher.storedFields().document(topDocs.scoreDocs[0].doc).get("id"), equalTo("7"));
+            }
+        }
+    }
+
+    public void testByteScoresMatchBruteForce() throws IOException {
+        int dims = randomIntBetween(2, 16);
+        int numDocs = randomIntBetween(10, 50);
+        byte[][][] docs = new byte[numDocs][][];
+        for (int i = 0; i < numDocs; i++) {
+            docs[i] = new byte[randomIntBetween(1, 5)][];
+            for (int j = 0; j < docs[i].length; j++) {
+                docs[i][j] = randomByteArrayOfLength(dims);
+            }
+        }
+        float[][] queryVectors = new float[randomIntBetween(1, 3)][dims];
+        for (float[] queryVector : queryVectors) {
+            for (int d = 0; d < dims; d++) {
+                queryVector[d] = randomByte();
+            }
+        }
+        try (Directory dir = newDirectory()) {
+            try (RandomIndexWriter writer = new RandomIndexWriter(random(), dir)) {
+                for (int i = 0; i < numDocs; i++) {
+                    ByteBuffer buffer = ByteBuffer.allocate(docs[i].length * dims);
+                    ByteBuffer magnitudes = ByteBuffer.allocate(docs[i].length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    for (byte[] vector : docs[i]) {
+                        buffer.put(vector);
+                        magnitudes.putFloat((float) Math.sqrt(VectorUtil.dotProduct(vector, vector)));
+                    }
+                    writer.addDocument(createDoc(i, buffer, magnitudes));
+                }
+            }
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = newSearcher(reader);
+                MaxSimQuery query = new MaxSimQuery(FIELD, FIELD + VECTOR_MAGNITUDES_SUFFIX, ElementType.BYTE, dims, queryVectors, null);
+                TopDocs topDocs = searcher.search(query, numDocs);
+                assertThat(topDocs.scoreDocs.length, equalTo(numDocs));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    byte[][] doc = docs[Integer.parseInt(searcher.storedFields().document(scoreDoc.doc).get("id"))];
+                    float sum = 0;
+                    for (float[] queryVector : queryVectors) {
+                        float max = Float.NEGATIVE_INFINITY;
+                        for (byte[] vector : doc) {
+                            float dot = 0;
+                            for (int d = 0; d < dims; d++) {
+                                dot += queryVector[d] * vector[d];
+                            }
+                            max = Math.max(max, dot);
+                        }
+                        sum += max;
+                    }
+                    assertEquals(VectorUtil.scaleMaxInnerProductScore(sum), scoreDoc.score, 1e-3f);
+                }
+            }
+        }
+    }
+
+    private static float bruteForceMaxSim(float[][] queryVectors, float[][] docVectors) {
+        float sum = 0;
+        for (float[] queryVector : queryVectors) {
+            float max = Float.NEGATIVE_INFINITY;
+            for (float[] docVector : docVectors) {
+                max = Math.max(max, VectorUtil.dotProduct(queryVector, docVector));
+            }
+            sum += max;
+        }
+        return VectorUtil.scaleMaxInnerProductScore(sum);
+    }
+
+    private static void indexFloatDocs(Directory dir, float[][][] docs) throws IOException {
+        try (RandomIndexWriter writer = new RandomIndexWriter(random(), dir)) {
+            for (int i = 0; i < docs.length; i++) {
+                int dims = docs[i][0].length;
+                ByteBuffer buffer = ByteBuffer.allocate(docs[i].length * dims * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer magnitudes = ByteBuffer.allocate(docs[i].length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (float[] vector : docs[i]) {
+                    for (float v : vector) {
+                        buffer.putFloat(v);
+                    }
+                    magnitudes.putFloat((float) Math.sqrt(VectorUtil.dotProduct(vector, vector)));
+                }
+                writer.addDocument(createDoc(i, buffer, magnitudes));
+            }
+        }
+    }
+
+    private static Document createDoc(int id, ByteBuffer vectors, ByteBuffer magnitudes) {
+        Document doc = new Document();
+        doc.add(new StringField("id", Integer.toString(id), Field.Store.YES));
+        doc.add(new BinaryDocValuesField(FIELD, new BytesRef(vectors.array())));
+        doc.add(new BinaryDocValuesField(FIELD + VECTOR_MAGNITUDES_SUFFIX, new BytesRef(magnitudes.array())));
+        return doc;
+    }
+
+    private static float[][][] randomFloatDocs(int numDocs, int dims) {
+        float[][][] docs = new float[numDocs][][];
+        for (int i = 0; i < numDocs; i++) {
+            docs[i] = randomFloatVectors(randomIntBetween(1, 5), dims);
+        }
+        return docs;
+    }
+
+    private static float[][] randomFloatVectors(int count, int dims) {
+        float[][] vectors = new float[count][dims];
+        for (float[] vector : vectors) {
+            for (int d = 0; d < dims; d++) {
+                vector[d] = randomFloatBetween(-1f, 1f, true);
+            }
+        }
+        return vectors;
+    }
+}
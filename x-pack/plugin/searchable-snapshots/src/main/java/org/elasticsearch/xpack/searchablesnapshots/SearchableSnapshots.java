@@ -11,6 +11,7 @@ import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.blobcache.BlobCacheMetrics;
+import org.elasticsearch.blobcache.BlobCacheUtils;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
 import org.elasticsearch.client.internal.Client;
 import org.elasticsearch.cluster.ClusterChangedEvent;
@@ -328,7 +329,9 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
                 settings,
                 threadPool,
                 threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
-                new BlobCacheMetrics(services.telemetryProvider().getMeterRegistry())
+                new BlobCacheMetrics(services.telemetryProvider().getMeterRegistry()),
+                System::nanoTime,
+                cacheKey -> BlobCacheUtils.isMetadataOrTermsIndexFile(cacheKey.fileName())
             );
             this.frozenCacheService.set(sharedBlobCacheService);
             components.add(cacheService);
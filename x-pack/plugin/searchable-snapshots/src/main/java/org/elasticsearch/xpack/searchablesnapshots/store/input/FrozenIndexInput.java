@@ -15,8 +15,14 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.blobcache.BlobCacheUtils;
 import org.elasticsearch.blobcache.common.ByteBufferReference;
 import org.elasticsearch.blobcache.common.ByteRange;
+import org.elasticsearch.blobcache.common.SparseFileTracker;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
 import org.elasticsearch.blobcache.shared.SharedBytes;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.blobstore.BlobRange;
+import org.elasticsearch.common.blobstore.OperationPurpose;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots;
@@ -24,14 +30,27 @@ import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
 import org.elasticsearch.xpack.searchablesnapshots.store.IndexInputStats;
 import org.elasticsearch.xpack.searchablesnapshots.store.SearchableSnapshotDirectory;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 public final class FrozenIndexInput extends MetadataCachingIndexInput {
 
     private static final Logger logger = LogManager.getLogger(FrozenIndexInput.class);
 
+    // number of prefetched ranges that are fetched together, and how many of them are read from the blob store at the same time
+    private static final int MAX_PENDING_PREFETCHES = 16;
+    private static final int MAX_CONCURRENT_PREFETCHES = 8;
+
     private final SharedBlobCacheService<CacheKey>.CacheFile cacheFile;
+    private final Function<ByteRange, SharedBlobCacheService.RangeMissingHandler> readAheadWriter = range -> writer(range.start());
+
+    // ranges that Lucene announced it is going to read and that are missing in cache, fetched together on the next read
+    private List<ByteRange> pendingPrefetches;
 
     public FrozenIndexInput(
         String name,
@@ -104,18 +123,113 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
         this.cacheFile = input.cacheFile.copy();
     }
 
+    @Override
+    public void prefetch(long offset, long length) throws IOException {
+        if (fileInfo.numberOfParts() != 1L || directory.isRecoveryFinalized() == false || length <= 0L || offset >= length()) {
+            // files split in multiple blobs and recovering shards fetch ranges as they are read
+            return;
+        }
+        final long position = getAbsolutePosition() - getFilePointer() + offset;
+        final ByteRange range = BlobCacheUtils.computeRange(
+            defaultRangeSize,
+            position,
+            Math.min(length, length() - offset),
+            fileInfo.length()
+        );
+        if (cacheFile.canPopulate(range) == false) {
+            return;
+        }
+        if (pendingPrefetches == null) {
+            pendingPrefetches = new ArrayList<>();
+        } else if (pendingPrefetches.contains(range)) {
+            return;
+        }
+        pendingPrefetches.add(range);
+        if (pendingPrefetches.size() >= MAX_PENDING_PREFETCHES) {
+            fetchPendingPrefetches();
+        }
+    }
+
+    /**
+     * Fetches the pending prefetched ranges from the blob store with concurrent range reads, so that reading several disjoint ranges
+     * that miss the cache costs roughly the latency of a single read. Each range is written in cache as soon as its stream is opened,
+     * and its stream is only closed once the range is populated, which frees its slot for the next range read. Each range also holds one
+     * of the prefetch slots of the node until it is populated, and ranges that get no slot are left to be fetched when they are read.
+     */
+    private void fetchPendingPrefetches() {
+        final List<ByteRange> ranges = pendingPrefetches;
+        pendingPrefetches = null;
+        final List<BlobRange> blobRanges = new ArrayList<>(ranges.size());
+        final List<ActionListener<InputStream>> listeners = new ArrayList<>(ranges.size());
+        for (ByteRange range : ranges) {
+            final Releasable prefetchSlot = cacheFile.tryAcquirePrefetchSlot();
+            if (prefetchSlot == null) {
+                logger.trace("{}: skipping prefetch of {}, too many concurrent prefetches", fileInfo.physicalName(), range);
+                continue;
+            }
+            blobRanges.add(new BlobRange(range.start(), range.length()));
+            stats.addBlobStoreBytesRequested(range.length());
+            final ActionListener<Boolean> populateListener = ActionListener.releaseAfter(
+                ActionListener.wrap(
+                    populated -> logger.trace("{}: prefetched {} [populated={}]", fileInfo.physicalName(), range, populated),
+                    e -> logger.debug(() -> Strings.format("%s: failed to prefetch %s", fileInfo.physicalName(), range), e)
+                ),
+                prefetchSlot
+            );
+            listeners.add(populateListener.delegateFailure((l, input) -> {
+                boolean success = false;
+                try {
+                    cacheFile.populate(
+                        range,
+                        new PrefetchWriter(input),
+                        ActionListener.releaseAfter(l, () -> IOUtils.closeWhileHandlingException(input))
+                    );
+                    success = true;
+                } finally {
+                    if (success == false) {
+                        // the listener that closes the stream may not have been passed on
+                        IOUtils.closeWhileHandlingException(input);
+                    }
+                }
+            }));
+        }
+        if (blobRanges.isEmpty()) {
+            return;
+        }
+        logger.trace("{}: prefetching {}", fileInfo.physicalName(), ranges);
+        directory.blobContainer()
+            .readBlobRanges(
+                OperationPurpose.SNAPSHOT_DATA,
+                fileInfo.name(),
+                blobRanges,
+                directory.cacheFetchAsyncExecutor(),
+                MAX_CONCURRENT_PREFETCHES,
+                listeners
+            );
+    }
+
     @Override
     protected void readWithoutBlobCache(ByteBuffer b) throws Exception {
+        if (pendingPrefetches != null) {
+            fetchPendingPrefetches();
+        }
         final long position = getAbsolutePosition();
         final int length = b.remaining();
         if (cacheFile.tryRead(b, position)) {
             // fast-path succeeded, increment stats and return
             stats.addCachedBytesRead(length);
+            maybeReadAhead(position, length, position + length);
             return;
         }
         readWithoutBlobCacheSlow(b, position, length);
     }
 
+    private void maybeReadAhead(long position, int length, long fetchedEnd) {
+        if (directory.isRecoveryFinalized()) {
+            cacheFile.maybeReadAhead(position, length, fetchedEnd, readAheadWriter);
+        }
+    }
+
     // slow path for readWithoutBlobCache, extracted to a separate method to make the fast-path inline better
     private void readWithoutBlobCacheSlow(ByteBuffer b, long position, int length) throws Exception {
         // Semaphore that, when all permits are acquired, ensures that async callbacks (such as those used by readCacheFile) are not
@@ -148,44 +262,122 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
                 stats.addCachedBytesRead(read);
                 return read;
             },
-                (channel, channelPos, streamFactory, relativePos, len, progressUpdater, completionListener) -> ActionListener.completeWith(
-                    completionListener,
-                    () -> {
-                        assert streamFactory == null : streamFactory;
-                        final long startTimeNanos = stats.currentTimeNanos();
-                        try (InputStream input = openInputStreamFromBlobStore(rangeToWrite.start() + relativePos, len)) {
-                            assert ThreadPool.assertCurrentThreadPool(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME);
-                            logger.trace(
-                                "{}: writing channel {} pos {} length {} (details: {})",
-                                fileInfo.physicalName(),
-                                channelPos,
-                                relativePos,
-                                len,
-                                cacheFile
-                            );
-                            SharedBytes.copyToCacheFileAligned(
-                                channel,
-                                input,
-                                channelPos,
-                                relativePos,
-                                len,
-                                progressUpdater,
-                                writeBuffer.get().clear()
-                            );
-                            final long endTimeNanos = stats.currentTimeNanos();
-                            stats.addCachedBytesWritten(len, endTimeNanos - startTimeNanos);
-                            return null;
-                        }
-                    }
-                )
+                writer(rangeToWrite.start())
             );
             assert bytesRead == length : bytesRead + " vs " + length;
             byteBufferReference.finish(bytesRead);
+            maybeReadAhead(position, length, rangeToWrite.end());
         } finally {
             byteBufferReference.finish(0);
         }
     }
 
+    /**
+     * Returns a writer that fills the cache file with the bytes of the blob, for a range to write that starts at {@code rangeStart}.
+     */
+    private SharedBlobCacheService.RangeMissingHandler writer(long rangeStart) {
+        return (channel, channelPos, streamFactory, relativePos, len, progressUpdater, completionListener) -> ActionListener.completeWith(
+            completionListener,
+            () -> {
+                assert streamFactory == null : streamFactory;
+                final long startTimeNanos = stats.currentTimeNanos();
+                try (InputStream input = openInputStreamFromBlobStore(rangeStart + relativePos, len)) {
+                    assert ThreadPool.assertCurrentThreadPool(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME);
+                    logger.trace(
+                        "{}: writing channel {} pos {} length {} (details: {})",
+                        fileInfo.physicalName(),
+                        channelPos,
+                        relativePos,
+                        len,
+                        cacheFile
+                    );
+                    SharedBytes.copyToCacheFileAligned(
+                        channel,
+                        input,
+                        channelPos,
+                        relativePos,
+                        len,
+                        progressUpdater,
+                        writeBuffer.get().clear()
+                    );
+                    final long endTimeNanos = stats.currentTimeNanos();
+                    stats.addCachedBytesWritten(len, endTimeNanos - startTimeNanos);
+                    return null;
+                }
+            }
+        );
+    }
+
+    /**
+     * Writes a prefetched range in cache from a stream opened at the start of the range. The missing parts of the range are written in
+     * order from the same stream, skipping over the bytes that are already in cache. The stream is closed by the caller.
+     */
+    private class PrefetchWriter implements SharedBlobCacheService.RangeMissingHandler, SharedBlobCacheService.SourceInputStreamFactory {
+
+        private final InputStream input;
+        // position of the stream relative to the start of the range, or -1 if the stream cannot be used anymore
+        private long streamPosition = 0L;
+
+        private PrefetchWriter(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public SharedBlobCacheService.SourceInputStreamFactory sharedInputStreamFactory(List<SparseFileTracker.Gap> gaps) {
+            return this;
+        }
+
+        @Override
+        public void create(int relativePos, ActionListener<InputStream> listener) {
+            ActionListener.completeWith(listener, () -> {
+                if (streamPosition < 0L || relativePos < streamPosition) {
+                    throw new IllegalStateException("cannot read [" + relativePos + "] from stream at [" + streamPosition + "]");
+                }
+                input.skipNBytes(relativePos - streamPosition);
+                streamPosition = relativePos;
+                return input;
+            });
+        }
+
+        @Override
+        public void fillCacheRange(
+            SharedBytes.IO channel,
+            int channelPos,
+            SharedBlobCacheService.SourceInputStreamFactory streamFactory,
+            int relativePos,
+            int len,
+            IntConsumer progressUpdater,
+            ActionListener<Void> completionListener
+        ) throws IOException {
+            assert streamFactory == this : streamFactory;
+            streamFactory.create(relativePos, completionListener.delegateFailureAndWrap((l, in) -> {
+                final long startTimeNanos = stats.currentTimeNanos();
+                try {
+                    SharedBytes.copyToCacheFileAligned(
+                        channel,
+                        in,
+                        channelPos,
+                        relativePos,
+                        len,
+                        progressUpdater,
+                        writeBuffer.get().clear()
+                    );
+                    streamPosition = relativePos + len;
+                } catch (Exception e) {
+                    streamPosition = -1L;
+                    throw e;
+                }
+                stats.addCachedBytesWritten(len, stats.currentTimeNanos() - startTimeNanos);
+                l.onResponse(null);
+            }));
+        }
+
+        @Override
+        public void close() {
+            // the stream is closed once the range is populated
+        }
+    }
+
     @Override
     protected MetadataCachingIndexInput doSlice(
         String sliceName,
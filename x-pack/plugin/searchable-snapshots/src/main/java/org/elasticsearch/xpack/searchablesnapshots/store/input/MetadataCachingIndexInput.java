@@ -563,7 +563,7 @@ public abstract class MetadataCachingIndexInput extends BlobCacheBufferedIndexIn
      */
     private int getPartNumberForPosition(long position) {
         ensureValidPosition(position);
-        final int part = fileInfo.numberOfParts() == 1 ? 0 : Math.toIntExact(position / fileInfo.partSize().getBytes());
+        final int part = fileInfo.partForPosition(position);
         assert part <= fileInfo.numberOfParts() : "part number [" + part + "] exceeds number of parts: " + fileInfo.numberOfParts();
         assert part >= 0 : "part number [" + part + "] is negative";
         return part;
@@ -575,8 +575,9 @@ public abstract class MetadataCachingIndexInput extends BlobCacheBufferedIndexIn
      */
     private long getRelativePositionInPart(long position) {
         ensureValidPosition(position);
-        final long pos = position % fileInfo.partSize().getBytes();
-        assert pos < fileInfo.partBytes(getPartNumberForPosition(pos)) : "position in part [" + pos + "] exceeds part's length";
+        final int part = getPartNumberForPosition(position);
+        final long pos = position - fileInfo.partStart(part);
+        assert pos < fileInfo.partBytes(part) : "position in part [" + pos + "] exceeds part's length";
         assert pos >= 0L : "position in part [" + pos + "] is negative";
         return pos;
     }
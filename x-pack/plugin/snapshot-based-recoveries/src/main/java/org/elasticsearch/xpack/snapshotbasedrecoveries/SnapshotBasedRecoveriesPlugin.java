@@ -8,6 +8,7 @@
 package org.elasticsearch.xpack.snapshotbasedrecoveries;
 
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.indices.recovery.plan.RecoveryPlannerService;
 import org.elasticsearch.indices.recovery.plan.ShardSnapshotsService;
@@ -18,6 +19,7 @@ import org.elasticsearch.plugins.RecoveryPlannerPlugin;
 import org.elasticsearch.xpack.core.XPackPlugin;
 import org.elasticsearch.xpack.snapshotbasedrecoveries.recovery.plan.SnapshotsRecoveryPlannerService;
 
+import java.util.List;
 import java.util.Optional;
 
 public class SnapshotBasedRecoveriesPlugin extends Plugin implements RecoveryPlannerPlugin {
@@ -39,7 +41,18 @@ public class SnapshotBasedRecoveriesPlugin extends Plugin implements RecoveryPla
         if (DiscoveryNode.isStateless(settings)) {
             return Optional.empty();
         }
-        return Optional.of(new SnapshotsRecoveryPlannerService(shardSnapshotsService, this::isLicenseEnabled));
+        return Optional.of(
+            new SnapshotsRecoveryPlannerService(
+                shardSnapshotsService,
+                this::isLicenseEnabled,
+                SnapshotsRecoveryPlannerService.SNAPSHOT_RECOVERY_MIN_FILE_SIZE_SETTING.get(settings)
+            )
+        );
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return List.of(SnapshotsRecoveryPlannerService.SNAPSHOT_RECOVERY_MIN_FILE_SIZE_SETTING);
     }
 
     // Overridable for tests
@@ -11,6 +11,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.ShardId;
@@ -25,6 +27,7 @@ import org.elasticsearch.indices.recovery.plan.ShardSnapshotsService;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
@@ -39,12 +42,32 @@ import static org.elasticsearch.indices.recovery.RecoverySettings.SEQ_NO_SNAPSHO
 public class SnapshotsRecoveryPlannerService implements RecoveryPlannerService {
     private static final Logger logger = LogManager.getLogger(SnapshotsRecoveryPlannerService.class);
 
+    /**
+     * Files smaller than this are recovered from the source node even if they are in the snapshot, because fetching them from the
+     * repository costs a request each while the source node streams them alongside the snapshot downloads.
+     */
+    public static final Setting<ByteSizeValue> SNAPSHOT_RECOVERY_MIN_FILE_SIZE_SETTING = Setting.byteSizeSetting(
+        "indices.recovery.snapshot_min_file_size",
+        ByteSizeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
     private final ShardSnapshotsService shardSnapshotsService;
     private final BooleanSupplier isLicenseActive;
+    private final long minSnapshotFileSizeInBytes;
 
     public SnapshotsRecoveryPlannerService(ShardSnapshotsService shardSnapshotsService, BooleanSupplier isLicenseActive) {
+        this(shardSnapshotsService, isLicenseActive, ByteSizeValue.ZERO);
+    }
+
+    public SnapshotsRecoveryPlannerService(
+        ShardSnapshotsService shardSnapshotsService,
+        BooleanSupplier isLicenseActive,
+        ByteSizeValue minSnapshotFileSize
+    ) {
         this.shardSnapshotsService = shardSnapshotsService;
         this.isLicenseActive = isLicenseActive;
+        this.minSnapshotFileSizeInBytes = minSnapshotFileSize.getBytes();
     }
 
     public void computeRecoveryPlan(
@@ -147,14 +170,21 @@ public class SnapshotsRecoveryPlannerService implements RecoveryPlannerService {
 
         Store.MetadataSnapshot filesToRecoverFromSourceSnapshot = toMetadataSnapshot(filesMissingInTarget);
         Store.RecoveryDiff snapshotDiff = filesToRecoverFromSourceSnapshot.recoveryDiff(latestSnapshot.getMetadataSnapshot());
+        // the source node sends the small files concurrently with the snapshot downloads, except for the ones whose contents are stored
+        // in the snapshot metadata and that are therefore recovered without reading from the repository
+        final Map<Boolean, List<StoreFileMetadata>> identicalFilesBySource = snapshotDiff.identical.stream()
+            .collect(
+                Collectors.partitioningBy(md -> md.length() >= minSnapshotFileSizeInBytes || md.hashEqualsContents(), Collectors.toList())
+            );
+        final List<StoreFileMetadata> filesToRecoverFromSnapshot = identicalFilesBySource.get(true);
         final ShardRecoveryPlan.SnapshotFilesToRecover snapshotFilesToRecover;
-        if (snapshotDiff.identical.isEmpty()) {
+        if (filesToRecoverFromSnapshot.isEmpty()) {
             snapshotFilesToRecover = ShardRecoveryPlan.SnapshotFilesToRecover.EMPTY;
         } else {
             snapshotFilesToRecover = new ShardRecoveryPlan.SnapshotFilesToRecover(
                 latestSnapshot.getIndexId(),
                 latestSnapshot.getRepository(),
-                latestSnapshot.getSnapshotFilesMatching(snapshotDiff.identical)
+                latestSnapshot.getSnapshotFilesMatching(filesToRecoverFromSnapshot)
             );
         }
 
@@ -172,7 +202,7 @@ public class SnapshotsRecoveryPlannerService implements RecoveryPlannerService {
 
         return new ShardRecoveryPlan(
             snapshotFilesToRecover,
-            concatLists(snapshotDiff.missing, snapshotDiff.different),
+            concatLists(concatLists(snapshotDiff.missing, snapshotDiff.different), identicalFilesBySource.get(false)),
             sourceTargetDiff.identical,
             startingSeqNo,
             translogOps,
@@ -52,6 +52,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -63,6 +64,7 @@ import static org.elasticsearch.index.engine.Engine.HISTORY_UUID_KEY;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
@@ -327,6 +329,52 @@ public class SnapshotsRecoveryPlannerServiceTests extends ESTestCase {
         });
     }
 
+    public void testSmallFilesAreRecoveredFromSource() throws Exception {
+        createStore(store -> {
+            Store.MetadataSnapshot targetMetadataSnapshot = generateRandomTargetState(store);
+
+            writeRandomDocs(store, randomIntBetween(10, 100));
+            ShardSnapshot shardSnapshot = createShardSnapshotThatSharesSegmentFiles(store, "repo");
+
+            Store.MetadataSnapshot latestSourceMetadata = store.getMetadata(null);
+            ByteSizeValue minSnapshotFileSize = ByteSizeValue.ofBytes(randomLongBetween(1, 10_000));
+            ShardRecoveryPlan shardRecoveryPlan = computeShardRecoveryPlan(
+                randomAlphaOfLength(10),
+                latestSourceMetadata,
+                targetMetadataSnapshot,
+                randomNonNegativeLong(),
+                randomIntBetween(0, 100),
+                new ShardSnapshotsService(null, null, null, null) {
+                    @Override
+                    public void fetchLatestSnapshotsForShard(ShardId shardId, ActionListener<Optional<ShardSnapshot>> listener) {
+                        listener.onResponse(Optional.of(shardSnapshot));
+                    }
+                },
+                true,
+                IndexVersion.current(),
+                randomBoolean(),
+                minSnapshotFileSize
+            );
+
+            assertPlanIsValid(shardRecoveryPlan, latestSourceMetadata);
+            assertAllSourceFilesAreAvailableInSource(shardRecoveryPlan, latestSourceMetadata);
+            assertAllIdenticalFilesAreAvailableInTarget(shardRecoveryPlan, targetMetadataSnapshot);
+            for (BlobStoreIndexShardSnapshot.FileInfo fileInfo : shardRecoveryPlan.getSnapshotFilesToRecover()) {
+                assertTrue(
+                    fileInfo.metadata().hashEqualsContents() || fileInfo.metadata().length() >= minSnapshotFileSize.getBytes()
+                );
+            }
+            final Set<String> filesPresentInTarget = Set.copyOf(shardRecoveryPlan.getFilesPresentInTargetNames());
+            for (StoreFileMetadata storeFileMetadata : shardSnapshot.getMetadataSnapshot()) {
+                if (storeFileMetadata.length() < minSnapshotFileSize.getBytes()
+                    && storeFileMetadata.hashEqualsContents() == false
+                    && filesPresentInTarget.contains(storeFileMetadata.name()) == false) {
+                    assertThat(shardRecoveryPlan.getFilesToRecoverNames(), hasItem(storeFileMetadata.name()));
+                }
+            }
+        });
+    }
+
     public void testSnapshotsWithADifferentHistoryUUIDAreUsedIfFilesAreShared() throws Exception {
         createStore(store -> {
             Store.MetadataSnapshot targetMetadataSnapshot = generateRandomTargetState(store);
@@ -408,7 +456,37 @@ public class SnapshotsRecoveryPlannerServiceTests extends ESTestCase {
         IndexVersion version,
         boolean primaryRelocation
     ) throws Exception {
-        SnapshotsRecoveryPlannerService recoveryPlannerService = new SnapshotsRecoveryPlannerService(shardSnapshotsService, () -> true);
+        return computeShardRecoveryPlan(
+            shardIdentifier,
+            sourceMetadataSnapshot,
+            targetMetadataSnapshot,
+            startingSeqNo,
+            translogOps,
+            shardSnapshotsService,
+            snapshotRecoveriesEnabled,
+            version,
+            primaryRelocation,
+            ByteSizeValue.ZERO
+        );
+    }
+
+    private ShardRecoveryPlan computeShardRecoveryPlan(
+        String shardIdentifier,
+        Store.MetadataSnapshot sourceMetadataSnapshot,
+        Store.MetadataSnapshot targetMetadataSnapshot,
+        long startingSeqNo,
+        int translogOps,
+        ShardSnapshotsService shardSnapshotsService,
+        boolean snapshotRecoveriesEnabled,
+        IndexVersion version,
+        boolean primaryRelocation,
+        ByteSizeValue minSnapshotFileSize
+    ) throws Exception {
+        SnapshotsRecoveryPlannerService recoveryPlannerService = new SnapshotsRecoveryPlannerService(
+            shardSnapshotsService,
+            () -> true,
+            minSnapshotFileSize
+        );
 
         PlainActionFuture<ShardRecoveryPlan> planFuture = new PlainActionFuture<>();
         recoveryPlannerService.computeRecoveryPlan(